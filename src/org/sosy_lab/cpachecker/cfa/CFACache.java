@@ -0,0 +1,427 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+import org.sosy_lab.cpachecker.util.LiveVariables;
+import org.sosy_lab.cpachecker.util.LoopStructure;
+import org.sosy_lab.cpachecker.util.VariableClassification;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.base.StandardSystemProperty;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * On-disk cache for fully post-processed CFAs,
+ * such that several runs of CPAchecker on the same program
+ * do not need to parse and analyze the program again.
+ *
+ * An entry is identified by a cryptographic hash of the build of CPAchecker
+ * (the files on the class path), the content of the source files,
+ * and all options that influence the CFA creation.
+ * Headers that the parser resolves for #include directives are not part of the key,
+ * so programs with such directives are not cached.
+ * Each entry is stored in its own file inside the cache directory.
+ *
+ * The file format is a small header (magic number, version, and the hash)
+ * followed by the gzip-compressed Java serialization of the CFA.
+ * Nodes are written first, and the edges of each node separately afterwards,
+ * because nodes do not serialize their edges (this would be deeply recursive).
+ */
+final class CFACache {
+
+  private static final int MAGIC = 0x43464143; // "CFAC"
+  private static final int VERSION = 1;
+  private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+  private static final int HASH_BYTES = HASH_FUNCTION.bits() / Byte.SIZE;
+
+  /** Matches lines with an #include directive (also written with the digraph %:). */
+  private static final Pattern INCLUDE_DIRECTIVE = Pattern.compile("^[ \\t]*(#|%:)[ \\t]*include", Pattern.MULTILINE);
+
+  /** Options with these prefixes may influence the created CFA. */
+  private static final ImmutableList<String> RELEVANT_OPTION_PREFIXES = ImmutableList.of(
+      "analysis.entryFunction",
+      "analysis.functionPointer",
+      "analysis.interprocedural",
+      "analysis.machineModel",
+      "analysis.summaryEdges",
+      "analysis.useGlobalVars",
+      "cfa.",
+      "language",
+      "liveVar.",
+      "parser.");
+
+  private final Path file;
+  private final HashCode key;
+  private final LogManager logger;
+
+  private CFACache(Path pFile, HashCode pKey, LogManager pLogger) {
+    file = pFile;
+    key = pKey;
+    logger = pLogger;
+  }
+
+  /**
+   * Create the cache entry for the given program and configuration.
+   * @return The cache entry, or null if the program cannot be cached
+   * because a source file contains an #include directive.
+   * @throws IOException If the source files cannot be read.
+   */
+  static @Nullable CFACache forProgram(Path pDirectory, List<String> pSourceFiles,
+      Configuration pConfig, LogManager pLogger) throws IOException {
+    Hasher hasher = HASH_FUNCTION.newHasher();
+    hasher.putInt(VERSION);
+    putBuildIdentity(hasher);
+
+    for (String line : Splitter.on('\n').omitEmptyStrings().split(pConfig.asPropertiesString())) {
+      for (String prefix : RELEVANT_OPTION_PREFIXES) {
+        if (line.startsWith(prefix)) {
+          hasher.putString(line, StandardCharsets.UTF_8);
+          break;
+        }
+      }
+    }
+
+    for (String sourceFile : pSourceFiles) {
+      byte[] content = Paths.get(sourceFile).asByteSource().read();
+      if (INCLUDE_DIRECTIVE.matcher(new String(content, StandardCharsets.ISO_8859_1)).find()) {
+        pLogger.log(Level.FINE, "CFA cache is not used because", sourceFile, "contains #include directives.");
+        return null;
+      }
+      hasher.putString(sourceFile, StandardCharsets.UTF_8);
+      hasher.putInt(content.length);
+      hasher.putBytes(content);
+    }
+
+    HashCode key = hasher.hash();
+    return new CFACache(pDirectory.resolve(key + ".cfa"), key, pLogger);
+  }
+
+  /**
+   * Add an identification of the running build of CPAchecker to the hash.
+   * The version number is not enough, because it is the same for all development builds,
+   * and the serialized classes have fixed serialVersionUIDs,
+   * so a CFA written by a different build could be read without error but with wrong content.
+   * Thus the name, size, and modification time of all files on the class path
+   * (including the class files in directories) are used,
+   * such that rebuilding CPAchecker or changing a library invalidates all entries.
+   */
+  private static void putBuildIdentity(Hasher pHasher) {
+    pHasher.putString(CPAchecker.getCPAcheckerVersion(), StandardCharsets.UTF_8);
+    pHasher.putString(Strings.nullToEmpty(StandardSystemProperty.JAVA_VERSION.value()), StandardCharsets.UTF_8);
+
+    Set<File> classPath = new LinkedHashSet<>();
+    for (String entry : Splitter.on(File.pathSeparatorChar).omitEmptyStrings()
+        .split(Strings.nullToEmpty(StandardSystemProperty.JAVA_CLASS_PATH.value()))) {
+      classPath.add(new File(entry).getAbsoluteFile());
+    }
+    // in case CPAchecker was loaded by some other class loader
+    CodeSource codeSource = CFACache.class.getProtectionDomain().getCodeSource();
+    if (codeSource != null && "file".equals(codeSource.getLocation().getProtocol())) {
+      try {
+        classPath.add(new File(codeSource.getLocation().toURI()).getAbsoluteFile());
+      } catch (URISyntaxException e) {
+        pHasher.putString(codeSource.getLocation().toString(), StandardCharsets.UTF_8);
+      }
+    }
+
+    for (File entry : classPath) {
+      putFileIdentity(pHasher, entry);
+    }
+  }
+
+  private static void putFileIdentity(Hasher pHasher, File pFile) {
+    pHasher.putString(pFile.getPath(), StandardCharsets.UTF_8);
+    if (pFile.isDirectory()) {
+      File[] children = pFile.listFiles();
+      if (children != null) {
+        Arrays.sort(children);
+        for (File child : children) {
+          putFileIdentity(pHasher, child);
+        }
+      }
+    } else {
+      pHasher.putLong(pFile.length());
+      pHasher.putLong(pFile.lastModified());
+    }
+  }
+
+  /**
+   * Load the CFA from the cache.
+   * If there is no entry or it cannot be read, null is returned
+   * (and a warning is logged in the latter case).
+   */
+  @Nullable ImmutableCFA load() {
+    if (!file.exists()) {
+      return null;
+    }
+    try (InputStream in = file.asByteSource().openBufferedStream()) {
+      ImmutableCFA cfa = read(in);
+      logger.log(Level.FINE, "Loaded CFA from cache file", file);
+      return cfa;
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      logger.logUserException(Level.WARNING, e,
+          "Could not read CFA from cache file " + file + ", creating it from scratch");
+      return null;
+    }
+  }
+
+  private ImmutableCFA read(InputStream pIn) throws IOException, ClassNotFoundException {
+    DataInputStream data = new DataInputStream(pIn);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("File " + file + " is not a CFA cache file");
+    }
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("CFA cache file " + file + " has unsupported version " + version);
+    }
+    byte[] hash = new byte[HASH_BYTES];
+    data.readFully(hash);
+    if (!Arrays.equals(hash, key.asBytes())) {
+      throw new IOException("CFA cache file " + file + " belongs to a different program");
+    }
+
+    try (ObjectInputStream objects =
+        new LoggerAttachingInputStream(new GZIPInputStream(new BufferedInputStream(pIn)), logger)) {
+
+      @SuppressWarnings("unchecked")
+      List<CFANode> nodes = (List<CFANode>) objects.readObject();
+      for (CFANode node : nodes) {
+        @SuppressWarnings("unchecked")
+        List<CFAEdge> leavingEdges = (List<CFAEdge>) objects.readObject();
+        for (CFAEdge edge : leavingEdges) {
+          node.addLeavingEdge(edge);
+        }
+        @SuppressWarnings("unchecked")
+        List<CFAEdge> enteringEdges = (List<CFAEdge>) objects.readObject();
+        for (CFAEdge edge : enteringEdges) {
+          node.addEnteringEdge(edge);
+        }
+        FunctionSummaryEdge leavingSummaryEdge = (FunctionSummaryEdge) objects.readObject();
+        if (leavingSummaryEdge != null) {
+          node.addLeavingSummaryEdge(leavingSummaryEdge);
+        }
+        FunctionSummaryEdge enteringSummaryEdge = (FunctionSummaryEdge) objects.readObject();
+        if (enteringSummaryEdge != null) {
+          node.addEnteringSummaryEdge(enteringSummaryEdge);
+        }
+      }
+
+      MachineModel machineModel = (MachineModel) objects.readObject();
+      Language language = (Language) objects.readObject();
+      @SuppressWarnings("unchecked")
+      Map<String, FunctionEntryNode> functions = (Map<String, FunctionEntryNode>) objects.readObject();
+      @SuppressWarnings("unchecked")
+      ImmutableSetMultimap<String, CFANode> allNodes = (ImmutableSetMultimap<String, CFANode>) objects.readObject();
+      FunctionEntryNode mainFunction = (FunctionEntryNode) objects.readObject();
+      @SuppressWarnings("unchecked")
+      Optional<LoopStructure> loopStructure = (Optional<LoopStructure>) objects.readObject();
+      @SuppressWarnings("unchecked")
+      Optional<VariableClassification> varClassification = (Optional<VariableClassification>) objects.readObject();
+      @SuppressWarnings("unchecked")
+      Optional<LiveVariables> liveVariables = (Optional<LiveVariables>) objects.readObject();
+
+      return new ImmutableCFA(machineModel, functions, allNodes, mainFunction,
+          loopStructure, varClassification, liveVariables, language);
+    }
+  }
+
+  /**
+   * Store the CFA in the cache.
+   * The file is written under a temporary name and moved afterwards,
+   * such that concurrent runs never see a partially written file.
+   */
+  void store(ImmutableCFA pCfa) throws IOException {
+    Files.createParentDirs(file);
+    File tmpFile = File.createTempFile("cfa", ".tmp", file.toFile().getAbsoluteFile().getParentFile());
+    try {
+      try (OutputStream out = Paths.get(tmpFile.getPath()).asByteSink().openBufferedStream()) {
+        write(pCfa, out);
+      }
+      java.nio.file.Files.move(tmpFile.toPath(), file.toFile().toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      tmpFile.delete();
+    }
+    logger.log(Level.FINE, "Wrote CFA to cache file", file);
+  }
+
+  private void write(ImmutableCFA pCfa, OutputStream pOut) throws IOException {
+    DataOutputStream data = new DataOutputStream(pOut);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.write(key.asBytes());
+    data.flush();
+
+    try (ObjectOutputStream objects = new ObjectOutputStream(new GZIPOutputStream(pOut))) {
+      List<CFANode> nodes = collectNodes(pCfa);
+      objects.writeObject(nodes);
+      for (CFANode node : nodes) {
+        ImmutableList.Builder<CFAEdge> leavingEdges = ImmutableList.builder();
+        for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+          leavingEdges.add(node.getLeavingEdge(i));
+        }
+        objects.writeObject(leavingEdges.build());
+        ImmutableList.Builder<CFAEdge> enteringEdges = ImmutableList.builder();
+        for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+          enteringEdges.add(node.getEnteringEdge(i));
+        }
+        objects.writeObject(enteringEdges.build());
+        objects.writeObject(node.getLeavingSummaryEdge());
+        objects.writeObject(node.getEnteringSummaryEdge());
+      }
+
+      ImmutableSetMultimap.Builder<String, CFANode> allNodes = ImmutableSetMultimap.builder();
+      for (CFANode node : pCfa.getAllNodes()) {
+        allNodes.put(node.getFunctionName(), node);
+      }
+
+      objects.writeObject(pCfa.getMachineModel());
+      objects.writeObject(pCfa.getLanguage());
+      objects.writeObject(ImmutableSortedMap.copyOf(pCfa.getAllFunctions()));
+      objects.writeObject(allNodes.build());
+      objects.writeObject(pCfa.getMainFunction());
+      objects.writeObject(pCfa.getLoopStructure());
+      objects.writeObject(pCfa.getVarClassification());
+      objects.writeObject(pCfa.getLiveVariables());
+    }
+  }
+
+  /**
+   * Collect all nodes that are connected to the CFA, including those
+   * that exist only inside of {@link MultiEdge}s or are not part of
+   * the set of nodes of the CFA (e.g., unreachable function exits).
+   */
+  private static List<CFANode> collectNodes(ImmutableCFA pCfa) {
+    Set<CFANode> nodes = Sets.newLinkedHashSet();
+    Deque<CFANode> waitlist = new ArrayDeque<>();
+    waitlist.addAll(pCfa.getAllNodes());
+    waitlist.addAll(pCfa.getAllFunctionHeads());
+
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.pop();
+      if (!nodes.add(node)) {
+        continue;
+      }
+      if (node instanceof FunctionEntryNode) {
+        waitlist.push(((FunctionEntryNode) node).getExitNode());
+      }
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        addNodesOfEdge(node.getLeavingEdge(i), waitlist);
+      }
+      for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+        addNodesOfEdge(node.getEnteringEdge(i), waitlist);
+      }
+      if (node.getLeavingSummaryEdge() != null) {
+        addNodesOfEdge(node.getLeavingSummaryEdge(), waitlist);
+      }
+      if (node.getEnteringSummaryEdge() != null) {
+        addNodesOfEdge(node.getEnteringSummaryEdge(), waitlist);
+      }
+    }
+    return ImmutableList.copyOf(nodes);
+  }
+
+  private static void addNodesOfEdge(CFAEdge pEdge, Deque<CFANode> pWaitlist) {
+    pWaitlist.push(pEdge.getPredecessor());
+    pWaitlist.push(pEdge.getSuccessor());
+    if (pEdge instanceof MultiEdge) {
+      for (CFAEdge innerEdge : (MultiEdge) pEdge) {
+        addNodesOfEdge(innerEdge, pWaitlist);
+      }
+    }
+  }
+
+  /**
+   * Deserialized variable classifications do not have a logger,
+   * this stream gives them ours. Replacing the instance here
+   * (instead of after reading) ensures that all references to it,
+   * e.g., from {@link LiveVariables}, point to the same object.
+   */
+  private static class LoggerAttachingInputStream extends ObjectInputStream {
+
+    private final LogManager logger;
+
+    private LoggerAttachingInputStream(InputStream pIn, LogManager pLogger) throws IOException {
+      super(pIn);
+      logger = pLogger;
+      enableResolveObject(true);
+    }
+
+    @Override
+    protected Object resolveObject(Object pObj) {
+      if (pObj instanceof VariableClassification) {
+        return ((VariableClassification) pObj).withLogger(logger);
+      }
+      return pObj;
+    }
+  }
+}
@@ -37,6 +37,8 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.concurrency.Threads;
@@ -167,6 +169,17 @@ public class CFACreator {
       description="export individual CFAs for function as .dot files")
   private boolean exportCfaPerFunction = true;
 
+  @Option(secure=true, name="cfa.cacheDirectory",
+      description="directory for caching created CFAs across several runs "
+          + "(empty for disabling the cache). "
+          + "CFAs are identified by a hash of the source files, the options "
+          + "that influence CFA creation, and the files of the CPAchecker build, "
+          + "so rebuilding CPAchecker invalidates the cache. "
+          + "Only C programs without #include directives are cached, "
+          + "and only if neither the preprocessor nor specification-dependent CFA reduction is used.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path cacheDirectory = null;
+
   @Option(secure=true, name="cfa.callgraph.export",
       description="dump a simple call graph")
   private boolean exportFunctionCalls = true;
@@ -247,8 +260,14 @@ private boolean classifyNodes = false;
     private final Timer checkTime = new Timer();
     private final Timer processingTime = new Timer();
     private final Timer pruningTime = new Timer();
+    private final Timer loopStructureTime = new Timer();
+    private final Timer callEdgesTime = new Timer();
+    private final Timer singleLoopTransformationTime = new Timer();
     private final Timer variableClassificationTime = new Timer();
+    private final Timer liveVariablesTime = new Timer();
     private final Timer exportTime = new Timer();
+    private final Timer cacheLoadTime = new Timer();
+    private final Timer cacheStoreTime = new Timer();
 
     @Override
     public String getName() {
@@ -259,19 +278,35 @@ private boolean classifyNodes = false;
     public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
       out.println("  Time for loading parser:    " + parserInstantiationTime);
       out.println("  Time for CFA construction:  " + totalTime);
+      if (cacheLoadTime.getNumberOfIntervals() > 0) {
+        out.println("    Time for loading cache:   " + cacheLoadTime);
+      }
       out.println("    Time for parsing file(s): " + parsingTime);
       out.println("    Time for AST to CFA:      " + conversionTime);
       out.println("    Time for CFA sanity check:" + checkTime);
       out.println("    Time for post-processing: " + processingTime);
+      out.println("      Time for loop structure:" + loopStructureTime);
+      if (callEdgesTime.getNumberOfIntervals() > 0) {
+        out.println("      Time for call edges:    " + callEdgesTime);
+      }
       if (pruningTime.getNumberOfIntervals() > 0) {
         out.println("      Time for CFA pruning:   " + pruningTime);
       }
+      if (singleLoopTransformationTime.getNumberOfIntervals() > 0) {
+        out.println("      Time for single loop:   " + singleLoopTransformationTime);
+      }
       if (variableClassificationTime.getNumberOfIntervals() > 0) {
-        out.println("      Time for var class.:    " + pruningTime);
+        out.println("      Time for var class.:    " + variableClassificationTime);
+      }
+      if (liveVariablesTime.getNumberOfIntervals() > 0) {
+        out.println("      Time for live vars:     " + liveVariablesTime);
       }
       if (exportTime.getNumberOfIntervals() > 0) {
         out.println("    Time for CFA export:      " + exportTime);
       }
+      if (cacheStoreTime.getNumberOfIntervals() > 0) {
+        out.println("    Time for storing cache:   " + cacheStoreTime);
+      }
     }
   }
 
@@ -366,6 +401,18 @@ private boolean classifyNodes = false;
 
     stats.totalTime.start();
     try {
+      CFACache cache = getCache(sourceFiles);
+      if (cache != null) {
+        stats.cacheLoadTime.start();
+        ImmutableCFA cachedCFA = cache.load();
+        stats.cacheLoadTime.stop();
+        if (cachedCFA != null) {
+          logger.log(Level.FINE, "CFA for", cachedCFA.getNumberOfFunctions(), "functions loaded from cache.");
+          exportCFAIfRequested(cachedCFA);
+          return cachedCFA;
+        }
+      }
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -386,14 +433,47 @@ private boolean classifyNodes = false;
         throw new AssertionError();
       }
 
-      return createCFA(c, mainFunction);
+      ImmutableCFA cfa = createCFA(c, mainFunction);
+
+      if (cache != null && !cfa.isEmpty()) {
+        stats.cacheStoreTime.start();
+        try {
+          cache.store(cfa);
+        } catch (IOException e) {
+          logger.logUserException(Level.WARNING, e, "Could not write CFA to cache");
+        } finally {
+          stats.cacheStoreTime.stop();
+        }
+      }
+      return cfa;
 
     } finally {
       stats.totalTime.stop();
     }
   }
 
-  private CFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
+  /**
+   * Get the cache entry for the given program,
+   * or null if caching is disabled or not possible for this program.
+   */
+  private @Nullable CFACache getCache(List<String> sourceFiles) {
+    if (cacheDirectory == null) {
+      return null;
+    }
+    if (language != Language.C || usePreprocessor || cfaReduction != null) {
+      logger.log(Level.FINE, "CFA cache is not supported with the current configuration.");
+      return null;
+    }
+    try {
+      return CFACache.forProgram(cacheDirectory, sourceFiles, config, logger);
+    } catch (IOException e) {
+      // the parser will report missing or unreadable files properly
+      logger.logDebugException(e, "Could not compute key for CFA cache");
+      return null;
+    }
+  }
+
+  private ImmutableCFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
 
     FunctionEntryNode mainFunction = pMainFunction;
 
@@ -424,6 +504,7 @@ private boolean classifyNodes = false;
     // THIRD, do read-only post-processings on each single function CFA
 
     // Annotate CFA nodes with reverse postorder information for later use.
+    stats.loopStructureTime.start();
     for (FunctionEntryNode function : cfa.getAllFunctionHeads()) {
       CFAReversePostorder sorter = new CFAReversePostorder();
       sorter.assignSorting(function);
@@ -433,12 +514,15 @@ private boolean classifyNodes = false;
     // (needs post-order information)
     Optional<LoopStructure> loopStructure = getLoopStructure(cfa);
     cfa.setLoopStructure(loopStructure);
+    stats.loopStructureTime.stop();
 
     // FOURTH, insert call and return edges and build the supergraph
     if (interprocedural) {
       logger.log(Level.FINE, "Analysis is interprocedural, adding super edges.");
+      stats.callEdgesTime.start();
       CFASecondPassBuilder spbuilder = new CFASecondPassBuilder(cfa, language, logger, config);
       spbuilder.insertCallEdgesRecursively();
+      stats.callEdgesTime.stop();
     }
 
     // FIFTH, do post-processings on the supergraph
@@ -462,8 +546,10 @@ private boolean classifyNodes = false;
 
     // optionally transform CFA so that there is only one single loop
     if (transformIntoSingleLoop) {
+      stats.singleLoopTransformationTime.start();
       cfa = CFASingleLoopTransformation.getSingleLoopTransformation(logger, config, shutdownNotifier).apply(cfa);
       mainFunction = cfa.getMainFunction();
+      stats.singleLoopTransformationTime.stop();
     }
 
     // SIXTH, get information about the CFA,
@@ -487,10 +573,12 @@ private boolean classifyNodes = false;
     // create the live variables if the variable classification is present
     if (findLiveVariables &&
         (varClassification.isPresent() || cfa.getLanguage() != Language.C)) {
+      stats.liveVariablesTime.start();
       cfa.setLiveVariables(LiveVariables.create(varClassification,
                                                 pParseResult.getGlobalDeclarations(),
                                                 cfa, logger, shutdownNotifier,
                                                 config));
+      stats.liveVariablesTime.stop();
     }
 
     stats.processingTime.stop();
@@ -502,16 +590,20 @@ private boolean classifyNodes = false;
     assert CFACheck.check(mainFunction, null, cfaReduction != null);
     stats.checkTime.stop();
 
-    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
-        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
-      exportCFAAsync(immutableCFA);
-    }
+    exportCFAIfRequested(immutableCFA);
 
     logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(), "functions created.");
 
     return immutableCFA;
   }
 
+  private void exportCFAIfRequested(final CFA cfa) {
+    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
+        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
+      exportCFAAsync(cfa);
+    }
+  }
+
   /** This method parses the program from the String and builds a CFA for each function.
    * The ParseResult is only a Wrapper for the CFAs of the functions and global declarations. */
   private ParseResult parseToCFAs(final String program)
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -151,6 +152,12 @@ public interface CParser extends Parser {
     @Option(secure=true, description="C dialect for parser")
     private Dialect dialect = Dialect.GNUC;
 
+    @Option(secure=true, description="Number of threads for parsing the files of a program"
+        + " that consists of several files. The CFA is built from the parsed files"
+        + " in the order of the files, independently of the number of threads.")
+    @IntegerOption(min=1)
+    private int parsingThreads = 1;
+
     private ParserOptions() { }
   }
 
@@ -172,7 +179,7 @@ public interface CParser extends Parser {
     }
 
     public static CParser getParser(Configuration config, LogManager logger, ParserOptions options, MachineModel machine) {
-      return EclipseParsers.getCParser(config, logger, options.dialect, machine);
+      return EclipseParsers.getCParser(config, logger, options.dialect, options.parsingThreads, machine);
     }
   }
 }
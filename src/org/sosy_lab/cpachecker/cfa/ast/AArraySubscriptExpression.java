@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AArraySubscriptExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = 6551487025949324044L;
+
 
   private final AExpression arrayExpression;
   private final AExpression subscriptExpression;
@@ -35,6 +35,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class ABinaryExpression extends AbstractExpression {
 
+  private static final long serialVersionUID = -1703530188991618085L;
+
 
   private final AExpression operand1;
   private final AExpression operand2;
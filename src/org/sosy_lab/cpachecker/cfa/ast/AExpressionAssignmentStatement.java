@@ -30,6 +30,8 @@ import java.util.Objects;
 
 public abstract class AExpressionAssignmentStatement extends AbstractStatement implements AAssignment {
 
+  private static final long serialVersionUID = 2594860242357632477L;
+
   private final ALeftHandSide leftHandSide;
   private final AExpression rightHandSide;
 
@@ -29,6 +29,8 @@ import java.util.Objects;
 
 public abstract class AExpressionStatement extends AbstractStatement {
 
+  private static final long serialVersionUID = -3497747915561524322L;
+
   private final AExpression expression;
 
   public AExpressionStatement(FileLocation pFileLocation, final AExpression pExpression) {
@@ -30,6 +30,8 @@ import java.util.Objects;
 
 public abstract class AFunctionCallAssignmentStatement extends AbstractStatement implements AAssignment, AFunctionCall {
 
+  private static final long serialVersionUID = 5677364164865155239L;
+
 
   private final ALeftHandSide leftHandSide;
   private final AFunctionCallExpression rightHandSide;
@@ -36,6 +36,8 @@ import com.google.common.collect.ImmutableList;
 
 public abstract class AFunctionCallExpression extends AbstractRightHandSide {
 
+  private static final long serialVersionUID = -5145222578330274872L;
+
   private final AExpression functionName;
   private final List<? extends AExpression> parameters;
   private final AFunctionDeclaration declaration;
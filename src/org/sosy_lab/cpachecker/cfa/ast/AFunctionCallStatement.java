@@ -29,6 +29,8 @@ import java.util.Objects;
 
 public abstract class AFunctionCallStatement extends AbstractStatement implements AFunctionCall {
 
+  private static final long serialVersionUID = 4284127687078241039L;
+
   private final AFunctionCallExpression functionCall;
 
   public AFunctionCallStatement(FileLocation pFileLocation, AFunctionCallExpression pFunctionCall) {
@@ -33,6 +33,8 @@ import com.google.common.collect.ImmutableList;
 
 public abstract class AFunctionDeclaration extends AbstractDeclaration {
 
+  private static final long serialVersionUID = 1474023122647749921L;
+
   private final List<AParameterDeclaration> parameters;
 
   public AFunctionDeclaration(FileLocation pFileLocation, IAFunctionType pType, String pName,
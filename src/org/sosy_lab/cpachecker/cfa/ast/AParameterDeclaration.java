@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AParameterDeclaration extends AbstractSimpleDeclaration {
 
+  private static final long serialVersionUID = 8300311184528021764L;
+
   public AParameterDeclaration(FileLocation pFileLocation, Type pType, String pName) {
     super(pFileLocation, pType, checkNotNull(pName));
 
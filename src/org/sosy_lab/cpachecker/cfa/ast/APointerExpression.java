@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class APointerExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = -5100302112433285299L;
+
   private final AExpression operand;
 
   public APointerExpression(FileLocation pFileLocation, Type pType, final AExpression pOperand) {
@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AStringLiteralExpression extends ALiteralExpression {
 
+  private static final long serialVersionUID = -8184034224537097535L;
+
   private final String value;
 
   public AStringLiteralExpression(FileLocation pFileLocation, Type pType, String pValue) {
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AUnaryExpression extends AbstractExpression {
 
+  private static final long serialVersionUID = 1812829796455941514L;
+
   private final AExpression operand;
   private final AUnaryOperator  operator;
 
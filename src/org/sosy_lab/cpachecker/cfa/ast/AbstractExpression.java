@@ -38,6 +38,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 */
 public abstract class AbstractExpression extends AbstractRightHandSide implements AExpression {
 
+  private static final long serialVersionUID = 2122169704074802223L;
+
   public AbstractExpression(FileLocation pFileLocation, Type pType) {
     super(pFileLocation, pType);
   }
@@ -27,6 +27,8 @@ package org.sosy_lab.cpachecker.cfa.ast;
 
 public abstract class AbstractInitializer extends AbstractAstNode implements AInitializer {
 
+  private static final long serialVersionUID = 2704015136999865786L;
+
   public AbstractInitializer(final FileLocation pFileLocation) {
     super(pFileLocation);
   }
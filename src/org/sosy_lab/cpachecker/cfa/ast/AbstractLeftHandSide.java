@@ -34,6 +34,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 */
 public abstract class AbstractLeftHandSide extends AbstractExpression implements ALeftHandSide {
 
+  private static final long serialVersionUID = -8292819361991332550L;
+
   public AbstractLeftHandSide(FileLocation pFileLocation, Type pType) {
     super(pFileLocation, pType);
   }
@@ -37,6 +37,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public  abstract class AbstractRightHandSide extends AbstractAstNode implements ARightHandSide {
 
+  private static final long serialVersionUID = 4508269732691479654L;
+
   private final Type type;
 
   public AbstractRightHandSide(FileLocation pFileLocation, Type pType) {
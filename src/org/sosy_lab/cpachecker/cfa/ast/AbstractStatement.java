@@ -27,6 +27,8 @@ package org.sosy_lab.cpachecker.cfa.ast;
 
 public abstract class AbstractStatement extends AbstractAstNode implements AStatement {
 
+  private static final long serialVersionUID = -8263858584677805530L;
+
   public AbstractStatement(FileLocation pFileLocation) {
     super(pFileLocation);
   }
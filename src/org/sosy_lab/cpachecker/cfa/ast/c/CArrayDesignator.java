@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.ast.AExpression;
 
 public class CArrayDesignator extends CDesignator {
 
+  private static final long serialVersionUID = 5537710544099823715L;
+
   private final AExpression subscriptExpression;
 
   public CArrayDesignator(final FileLocation pFileLocation,
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CArraySubscriptExpression extends AArraySubscriptExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = -4842551223618114421L;
+
 
 
   public CArraySubscriptExpression(final FileLocation pFileLocation,
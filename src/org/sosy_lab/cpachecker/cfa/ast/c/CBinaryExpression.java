@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CBinaryExpression extends ABinaryExpression implements CExpression {
 
+  private static final long serialVersionUID = 7684627721644724290L;
+
   private final CType calculationType;
 
   public CBinaryExpression(final FileLocation pFileLocation,
@@ -40,6 +40,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CComplexType;
  */
 public final class CComplexTypeDeclaration extends CTypeDeclaration {
 
+  private static final long serialVersionUID = 3614238399290163455L;
+
   public CComplexTypeDeclaration(FileLocation pFileLocation,
       boolean pIsGlobal, CComplexType pType) {
     super(pFileLocation, pIsGlobal, pType, null, null);
@@ -37,6 +37,8 @@ import com.google.common.collect.ImmutableList;
 
 public class CDesignatedInitializer extends AbstractInitializer implements CInitializer {
 
+  private static final long serialVersionUID = 6015044621488832146L;
+
 
   private final List<CDesignator> designators;
   private final CInitializer right;
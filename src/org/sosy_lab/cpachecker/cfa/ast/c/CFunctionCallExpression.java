@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CFunctionCallExpression extends AFunctionCallExpression implements CRightHandSide {
 
+  private static final long serialVersionUID = -790176045070620248L;
+
 
 
 
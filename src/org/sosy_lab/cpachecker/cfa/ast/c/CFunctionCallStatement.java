@@ -28,6 +28,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public final class CFunctionCallStatement extends AFunctionCallStatement implements CStatement, CFunctionCall {
 
+  private static final long serialVersionUID = -4018444200938580201L;
+
 
 
   public CFunctionCallStatement(FileLocation pFileLocation,
@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CIdExpression extends AIdExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = 5564354004302071999L;
+
 
   public CIdExpression(final FileLocation pFileLocation,
                           final CType pType, final String pName,
@@ -38,6 +38,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
  */
 public final class CParameterDeclaration extends AParameterDeclaration implements CSimpleDeclaration {
 
+  private static final long serialVersionUID = -2876217621662037035L;
+
   private String qualifiedName;
 
   public CParameterDeclaration(FileLocation pFileLocation,
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CPointerExpression extends APointerExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = 2949314667106135606L;
+
 
   public CPointerExpression(final FileLocation pFileLocation,
                             final CType pType, final CExpression pOperand) {
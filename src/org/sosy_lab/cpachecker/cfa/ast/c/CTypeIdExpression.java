@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CTypeIdExpression extends AbstractExpression implements CExpression {
 
+  private static final long serialVersionUID = -361395135719624232L;
+
   private final TypeIdOperator operator;
   private final CType type;
 
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CUnaryExpression extends AUnaryExpression implements CExpression {
 
+  private static final long serialVersionUID = -5439061815325900334L;
+
 
 
   public CUnaryExpression(final FileLocation pFileLocation,
@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JSimpleType;
  */
 public abstract class JArrayLengthExpression extends AbstractExpression implements JExpression, JAstNode, JRightHandSide {
 
+  private static final long serialVersionUID = 8537257593425473855L;
+
   private JArrayLengthExpression(FileLocation pFileLocation, JExpression pQualifier) {
     super(pFileLocation, JSimpleType.getInt());
   }
@@ -73,6 +75,8 @@ public abstract class JArrayLengthExpression extends AbstractExpression implemen
   }
 
   private static class JSubArrayLengthExpression extends JArrayLengthExpression {
+
+    private static final long serialVersionUID = -1980472607948865556L;
     private final JArraySubscriptExpression qualifier;
 
     public JSubArrayLengthExpression(FileLocation pFileLocation, JArraySubscriptExpression pQualifier) {
@@ -94,6 +98,8 @@ public abstract class JArrayLengthExpression extends AbstractExpression implemen
 
   private static class JTopArrayLengthExpression extends JArrayLengthExpression {
 
+    private static final long serialVersionUID = -8720128031580116394L;
+
     private final JIdExpression qualifier;
 
     private JTopArrayLengthExpression(FileLocation pFileLocation, JIdExpression pQualifier) {
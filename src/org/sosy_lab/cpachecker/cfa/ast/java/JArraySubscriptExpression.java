@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JArraySubscriptExpression extends AArraySubscriptExpression implements JLeftHandSide {
 
+  private static final long serialVersionUID = 7406231802659124631L;
+
   public JArraySubscriptExpression(FileLocation pFileLocation, JType pType, JExpression pArrayExpression,
       JExpression pSubscriptExpression) {
     super(pFileLocation, pType, pArrayExpression, pSubscriptExpression);
@@ -41,6 +41,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JBooleanLiteralExpression extends ALiteralExpression implements JLiteralExpression {
 
+  private static final long serialVersionUID = 2714855736569159933L;
+
 
   final Boolean value;
 
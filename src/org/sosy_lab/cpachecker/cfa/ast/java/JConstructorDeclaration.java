@@ -53,6 +53,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JConstructorDeclaration extends JMethodDeclaration {
 
+  private static final long serialVersionUID = 2952191813833450668L;
+
   private static final JConstructorDeclaration UNRESOLVED_CONSTRUCTOR =
       new JConstructorDeclaration(FileLocation.DUMMY,
           JConstructorType.createUnresolvableConstructorType(), "__UNRESOLVABLE__",
@@ -45,6 +45,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JFieldDeclaration extends JVariableDeclaration {
 
+  private static final long serialVersionUID = -4286569393948659600L;
+
   //TODO Annotation,
 
   private static final boolean IS_FIELD = true;
@@ -35,6 +35,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JIntegerLiteralExpression extends AIntegerLiteralExpression implements JLiteralExpression {
 
+  private static final long serialVersionUID = 3558654371540564254L;
+
   public JIntegerLiteralExpression(FileLocation pFileLocation,  BigInteger pValue) {
     super(pFileLocation, JSimpleType.getInt(), pValue);
   }
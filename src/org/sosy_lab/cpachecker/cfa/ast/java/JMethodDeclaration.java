@@ -55,6 +55,8 @@ import com.google.common.base.Strings;
  */
 public class JMethodDeclaration extends AFunctionDeclaration implements JDeclaration {
 
+  private static final long serialVersionUID = -8760308041315866376L;
+
  // TODO Type Variables, Exceptions, Annotations
 
   private final boolean isFinal;
@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JRunTimeTypeEqualsType extends AbstractExpression implements JExpression {
 
+  private static final long serialVersionUID = -3246555909146272563L;
+
   private final JRunTimeTypeExpression runTimeTypeExpression;
   private final JClassOrInterfaceType typeDef;
 
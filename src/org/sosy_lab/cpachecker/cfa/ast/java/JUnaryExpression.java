@@ -40,6 +40,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JUnaryExpression extends AUnaryExpression implements JExpression {
 
+  private static final long serialVersionUID = 124944252810851145L;
+
   public JUnaryExpression(FileLocation pFileLocation, JType pType, JExpression pOperand, UnaryOperator pOperator) {
     super(pFileLocation, pType, pOperand, pOperator);
 
@@ -35,6 +35,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JVariableDeclaration extends AVariableDeclaration implements JDeclaration {
 
+  private static final long serialVersionUID = 1191451606940155862L;
+
 
   private static final boolean IS_LOCAL = false;
   private final boolean isFinal;
@@ -34,6 +34,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
 
 public class JVariableRunTimeType extends AbstractExpression implements JRunTimeTypeExpression {
 
+  private static final long serialVersionUID = 1416722907097865311L;
+
   private final JIdExpression referencedVariable;
 
   public JVariableRunTimeType(FileLocation pFileLocation, JIdExpression pReferencedVariable) {
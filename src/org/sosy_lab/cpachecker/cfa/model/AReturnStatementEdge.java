@@ -33,6 +33,8 @@ import com.google.common.base.Optional;
 
 public class AReturnStatementEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = 709710904914710182L;
+
   protected final AReturnStatement rawAST;
 
   protected AReturnStatementEdge(String pRawStatement, AReturnStatement pRawAST,
@@ -31,6 +31,8 @@ import com.google.common.base.Optional;
 
 public class AStatementEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = 7668657657701073037L;
+
   protected final AStatement statement;
 
   protected AStatementEdge(String pRawStatement, AStatement pStatement,
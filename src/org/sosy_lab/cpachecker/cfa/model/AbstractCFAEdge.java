@@ -34,6 +34,8 @@ import com.google.common.base.Preconditions;
 
 public abstract class AbstractCFAEdge implements CFAEdge {
 
+  private static final long serialVersionUID = 2921466550896214037L;
+
   private final CFANode predecessor;
   private final CFANode successor;
   private final String rawStatement;
@@ -28,6 +28,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class BlankEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -1194283196561894970L;
+
   private final String description;
 
   public static final String REPLACEMENT_LABEL = "REPLACEMENT-NOOP";
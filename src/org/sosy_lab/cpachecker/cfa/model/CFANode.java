@@ -26,20 +26,35 @@ package org.sosy_lab.cpachecker.cfa.model;
 import static com.google.common.base.Preconditions.*;
 import static com.google.common.collect.Iterables.getLast;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
-public class CFANode implements Comparable<CFANode> {
+/**
+ * A location in the CFA.
+ *
+ * Nodes can be serialized, but their edges (including summary edges)
+ * are not written together with the node, because following them
+ * would serialize the whole CFA recursively.
+ * Code that deserializes nodes needs to add the edges again
+ * with the respective add methods.
+ */
+public class CFANode implements Comparable<CFANode>, Serializable {
+
+  private static final long serialVersionUID = 6258249442866713716L;
 
-  private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
+  // the number for the next node, must be larger than all numbers used so far (including deserialized nodes)
+  private static final AtomicInteger nextNodeNumber = new AtomicInteger();
 
   private final int nodeNumber;
 
-  private final List<CFAEdge> leavingEdges = new ArrayList<>(1);
-  private final List<CFAEdge> enteringEdges = new ArrayList<>(1);
+  private transient List<CFAEdge> leavingEdges = new ArrayList<>(1);
+  private transient List<CFAEdge> enteringEdges = new ArrayList<>(1);
 
   // is start node of a loop?
   private boolean isLoopStart = false;
@@ -48,8 +63,8 @@ public class CFANode implements Comparable<CFANode> {
   private final String functionName;
 
   // list of summary edges
-  private FunctionSummaryEdge leavingSummaryEdge = null;
-  private FunctionSummaryEdge enteringSummaryEdge = null;
+  private transient FunctionSummaryEdge leavingSummaryEdge = null;
+  private transient FunctionSummaryEdge enteringSummaryEdge = null;
 
   // reverse postorder sort id, smaller if it appears later in sorting
   private int reversePostorderId = 0;
@@ -58,7 +73,19 @@ public class CFANode implements Comparable<CFANode> {
     assert !pFunctionName.isEmpty();
 
     functionName = pFunctionName;
-    nodeNumber = idGenerator.getFreshId();
+    nodeNumber = nextNodeNumber.getAndIncrement();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    leavingEdges = new ArrayList<>(1);
+    enteringEdges = new ArrayList<>(1);
+
+    // Make sure that nodes created later on do not get the number of this node.
+    int next;
+    do {
+      next = nextNodeNumber.get();
+    } while (next <= nodeNumber && !nextNodeNumber.compareAndSet(next, nodeNumber + 1));
   }
 
   public int getNodeNumber() {
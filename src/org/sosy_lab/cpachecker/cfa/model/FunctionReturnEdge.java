@@ -28,6 +28,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class FunctionReturnEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -5152108450653647746L;
+
   private final FunctionSummaryEdge summaryEdge;
 
   protected FunctionReturnEdge(FileLocation pFileLocation,
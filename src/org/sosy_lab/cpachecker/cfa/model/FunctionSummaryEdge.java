@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public  class FunctionSummaryEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -6203405870808540430L;
+
   private final AFunctionCall expression;
   private final FunctionEntryNode functionEntry;
 
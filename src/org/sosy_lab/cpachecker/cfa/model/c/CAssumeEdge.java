@@ -33,6 +33,8 @@ import com.google.common.base.Optional;
 
 public class CAssumeEdge extends AssumeEdge {
 
+  private static final long serialVersionUID = 2551335203862542817L;
+
 
 
   public CAssumeEdge(String pRawStatement, FileLocation pFileLocation, CFANode pPredecessor,
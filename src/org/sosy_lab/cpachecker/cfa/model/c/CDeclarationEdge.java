@@ -32,6 +32,8 @@ import com.google.common.base.Optional;
 
 public class CDeclarationEdge extends ADeclarationEdge {
 
+  private static final long serialVersionUID = 8716152929949070555L;
+
 
 
   public CDeclarationEdge(final String pRawSignature, final FileLocation pFileLocation,
@@ -36,6 +36,8 @@ import com.google.common.base.Optional;
 
 public class CFunctionCallEdge extends FunctionCallEdge {
 
+  private static final long serialVersionUID = 3463684799791140704L;
+
 
 
   public CFunctionCallEdge(String pRawStatement,
@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
 
 public class CFunctionReturnEdge extends FunctionReturnEdge {
 
+  private static final long serialVersionUID = 4832647284745796553L;
+
 
   public CFunctionReturnEdge(FileLocation pFileLocation,
       FunctionExitNode pPredecessor, CFANode pSuccessor,
@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
 
 public class CFunctionSummaryEdge extends FunctionSummaryEdge {
 
+  private static final long serialVersionUID = -2866342261253013046L;
+
 
   public CFunctionSummaryEdge(String pRawStatement, FileLocation pFileLocation,
       CFANode pPredecessor, CFANode pSuccessor, CFunctionCall pExpression,
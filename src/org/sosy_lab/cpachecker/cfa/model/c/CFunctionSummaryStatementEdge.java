@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.ast.c.CStatement;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class CFunctionSummaryStatementEdge extends CStatementEdge {
+
+  private static final long serialVersionUID = 3891321845936689667L;
   private final String functionName;
   private final CFunctionCall fcall;
 
@@ -32,6 +32,8 @@ import com.google.common.base.Optional;
 
 public class CStatementEdge extends AStatementEdge {
 
+  private static final long serialVersionUID = 1265979272940901005L;
+
 
   public CStatementEdge(String pRawStatement, CStatement pStatement,
       FileLocation pFileLocation, CFANode pPredecessor, CFANode pSuccessor) {
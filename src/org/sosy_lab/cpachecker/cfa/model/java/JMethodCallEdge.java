@@ -36,6 +36,8 @@ import com.google.common.base.Optional;
 
 public class JMethodCallEdge extends FunctionCallEdge {
 
+  private static final long serialVersionUID = 6126462671694861667L;
+
 
 
   public JMethodCallEdge(String pRawStatement,
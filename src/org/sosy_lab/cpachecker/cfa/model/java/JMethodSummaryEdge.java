@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
 
 public class JMethodSummaryEdge extends FunctionSummaryEdge {
 
+  private static final long serialVersionUID = 3795933057796524245L;
+
 
   public JMethodSummaryEdge(String pRawStatement, FileLocation pFileLocation,
       CFANode pPredecessor, CFANode pSuccessor,
@@ -36,6 +36,8 @@ import com.google.common.base.Optional;
 
 public class JReturnStatementEdge extends AReturnStatementEdge {
 
+  private static final long serialVersionUID = 4615679894810753745L;
+
 
   public JReturnStatementEdge(String pRawStatement, JReturnStatement pRawAST,
       FileLocation pFileLocation, CFANode pPredecessor, FunctionExitNode pSuccessor) {
@@ -32,6 +32,8 @@ import com.google.common.base.Optional;
 
 public class JStatementEdge extends AStatementEdge {
 
+  private static final long serialVersionUID = -7136834752641231388L;
+
 
   public JStatementEdge(String pRawStatement, JStatement pStatement,
       FileLocation pFileLocation, CFANode pPredecessor, CFANode pSuccessor) {
@@ -32,6 +32,11 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
@@ -54,6 +59,8 @@ import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.core.runtime.CoreException;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.io.Path;
@@ -72,6 +79,7 @@ import org.sosy_lab.cpachecker.exceptions.CParserException;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
@@ -82,22 +90,28 @@ class EclipseCParser implements CParser {
 
   protected final ILanguage language;
 
+  // Used for sequential parsing only, concurrent parsing creates its own instances
+  // per translation unit (cf. parseFilesConcurrently).
   protected final IParserLogService parserLog = ParserFactory.createDefaultLogService();
+  private final InternalFileContentProvider fileContentProvider = new FileContentProvider();
 
   private final MachineModel machine;
 
   private final LogManager logger;
   private final Configuration config;
 
+  private final int parsingThreads;
+
   private final Timer parseTimer = new Timer();
   private final Timer cfaTimer = new Timer();
 
   public EclipseCParser(Configuration pConfig, LogManager pLogger,
-      Dialect dialect, MachineModel pMachine) {
+      Dialect dialect, int pParsingThreads, MachineModel pMachine) {
 
     this.logger = pLogger;
     this.machine = pMachine;
     this.config = pConfig;
+    this.parsingThreads = pParsingThreads;
 
     switch (dialect) {
     case C99:
@@ -140,13 +154,63 @@ class EclipseCParser implements CParser {
   @Override
   public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping sourceOriginMapping) throws CParserException, IOException, InvalidConfigurationException {
 
-    List<IASTTranslationUnit> astUnits = new ArrayList<>();
-    for (FileToParse f: pFilenames) {
-      astUnits.add(parse(wrapFile(f.getFileName())));
+    List<IASTTranslationUnit> astUnits;
+    if (parsingThreads > 1 && pFilenames.size() > 1) {
+      astUnits = parseFilesConcurrently(pFilenames);
+    } else {
+      astUnits = new ArrayList<>();
+      for (FileToParse f: pFilenames) {
+        astUnits.add(parse(wrapFile(f.getFileName())));
+      }
     }
     return buildCFA(astUnits, sourceOriginMapping);
   }
 
+  /**
+   * Parse several independent translation units with a pool of threads.
+   * The result is in the same order as the given files,
+   * such that the CFA is built exactly as for sequential parsing.
+   *
+   * Each translation unit gets its own {@link FileContentProvider} and parser log,
+   * because CDT does not document these as thread-safe
+   * ({@link InternalFileContentProvider} keeps unsynchronized state
+   * such as the files with "#pragma once").
+   */
+  private List<IASTTranslationUnit> parseFilesConcurrently(List<FileToParse> pFilenames)
+      throws CParserException, IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(parsingThreads, pFilenames.size()), Threads.threadFactory());
+    parseTimer.start();
+    try {
+      List<Future<IASTTranslationUnit>> results = new ArrayList<>(pFilenames.size());
+      for (final FileToParse f : pFilenames) {
+        results.add(executor.submit(new Callable<IASTTranslationUnit>() {
+          @Override
+          public IASTTranslationUnit call() throws CParserException, IOException {
+            return parse0(wrapFile(f.getFileName()),
+                new FileContentProvider(), ParserFactory.createDefaultLogService());
+          }
+        }));
+      }
+
+      List<IASTTranslationUnit> astUnits = new ArrayList<>(pFilenames.size());
+      for (Future<IASTTranslationUnit> result : results) {
+        astUnits.add(result.get());
+      }
+      return astUnits;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CParserException("Parsing was interrupted", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), CParserException.class, IOException.class);
+      throw new UnexpectedCheckedException("parsing of a file", e.getCause());
+    } finally {
+      executor.shutdownNow();
+      parseTimer.stop();
+    }
+  }
+
   @Override
   public ParseResult parseString(List<FileContentToParse> codeFragments, CSourceOriginMapping sourceOriginMapping) throws CParserException, InvalidConfigurationException {
 
@@ -264,7 +328,22 @@ class EclipseCParser implements CParser {
   private IASTTranslationUnit parse(FileContent codeReader) throws CParserException {
     parseTimer.start();
     try {
-      IASTTranslationUnit result = getASTTranslationUnit(codeReader);
+      return parse0(codeReader, fileContentProvider, parserLog);
+    } finally {
+      parseTimer.stop();
+    }
+  }
+
+  /**
+   * Parse a translation unit without measuring the time,
+   * this is safe to call from several threads at once
+   * as long as each thread uses its own content provider and parser log.
+   */
+  private IASTTranslationUnit parse0(FileContent codeReader,
+      InternalFileContentProvider pFileContentProvider, IParserLogService pParserLog)
+      throws CParserException {
+    try {
+      IASTTranslationUnit result = getASTTranslationUnit(codeReader, pFileContentProvider, pParserLog);
 
       // Separate handling of include problems
       // so that we can give a better error message.
@@ -291,18 +370,18 @@ class EclipseCParser implements CParser {
       throw new CParserException(e);
     } catch (CoreException e) {
       throw new CParserException(e);
-    } finally {
-      parseTimer.stop();
     }
   }
 
-  private IASTTranslationUnit getASTTranslationUnit(FileContent pCode) throws CFAGenerationRuntimeException, CoreException {
+  private IASTTranslationUnit getASTTranslationUnit(FileContent pCode,
+      InternalFileContentProvider pFileContentProvider, IParserLogService pParserLog)
+      throws CFAGenerationRuntimeException, CoreException {
     return language.getASTTranslationUnit(pCode,
                                           StubScannerInfo.instance,
-                                          FileContentProvider.instance,
+                                          pFileContentProvider,
                                           null,
                                           PARSER_OPTIONS,
-                                          parserLog);
+                                          pParserLog);
   }
 
   /**
@@ -491,8 +570,6 @@ class EclipseCParser implements CParser {
 
   private static class FileContentProvider extends InternalFileContentProvider {
 
-    static final InternalFileContentProvider instance = new FileContentProvider();
-
     @Override
     public InternalFileContent getContentForInclusion(String pFilePath,
         IMacroDictionary pMacroDictionary) {
@@ -47,6 +47,8 @@ import com.google.common.base.Preconditions;
  */
 public class SingleLoopHead extends CFANode {
 
+  private static final long serialVersionUID = -6390766911149051324L;
+
   /**
    * The program counter value assignment edges leading to the loop head.
    */
@@ -31,6 +31,8 @@ import java.util.Objects;
 
 public abstract class AArrayType implements Type {
 
+  private static final long serialVersionUID = 8747296309518503675L;
+
 
   private final Type elementType;
 
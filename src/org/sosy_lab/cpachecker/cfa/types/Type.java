@@ -23,8 +23,9 @@
  */
 package org.sosy_lab.cpachecker.cfa.types;
 
+import java.io.Serializable;
 
-public interface Type  {
+public interface Type extends Serializable {
 
 
   /**
@@ -32,6 +32,8 @@ import org.sosy_lab.cpachecker.cfa.types.AArrayType;
  */
 public class JArrayType extends AArrayType implements JReferenceType {
 
+  private static final long serialVersionUID = 1488975386175324852L;
+
   private final int dimension;
 
   /**
@@ -27,6 +27,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -53,6 +54,8 @@ import org.sosy_lab.cpachecker.cfa.Language;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.cpa.automaton.Automaton;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonGraphmlParser;
@@ -69,7 +72,7 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 
 @Options
-public class CPABuilder {
+public class CPABuilder implements StatisticsProvider {
 
   private static final String CPA_OPTION_NAME = "cpa";
   private static final String CPA_CLASS_PREFIX = "org.sosy_lab.cpachecker";
@@ -98,6 +101,8 @@ public class CPABuilder {
   private final ShutdownNotifier shutdownNotifier;
   private final ReachedSetFactory reachedSetFactory;
 
+  private final List<AutomatonGraphmlParser> graphmlParsers = new ArrayList<>();
+
   public CPABuilder(Configuration pConfig, LogManager pLogger, ShutdownNotifier pShutdownNotifier,
       ReachedSetFactory pReachedSetFactory) throws InvalidConfigurationException {
     this.config = pConfig;
@@ -107,6 +112,13 @@ public class CPABuilder {
     config.inject(this);
   }
 
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    for (AutomatonGraphmlParser graphmlParser : graphmlParsers) {
+      graphmlParser.collectStatistics(pStatsCollection);
+    }
+  }
+
   public ConfigurableProgramAnalysis buildCPAWithSpecAutomatas(final CFA cfa)
       throws InvalidConfigurationException, CPAException {
 
@@ -185,6 +197,7 @@ public class CPABuilder {
 
         if (AutomatonGraphmlParser.isGraphmlAutomaton(specFile, logger)) {
           AutomatonGraphmlParser graphmlParser = new AutomatonGraphmlParser(config, logger, cfa.getMachineModel(), scope);
+          graphmlParsers.add(graphmlParser);
           automata = graphmlParser.parseAutomatonFile(specFile);
 
         } else {
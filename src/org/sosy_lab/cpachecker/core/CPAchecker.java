@@ -67,6 +67,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Targetable;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProvider;
@@ -225,6 +226,7 @@ public class CPAchecker {
     final ShutdownRequestListener interruptThreadOnShutdown = interruptCurrentThreadOnShutdown();
     shutdownNotifier.register(interruptThreadOnShutdown);
 
+    ConfigurableProgramAnalysis cpa = null;
     try {
       stats = new MainCPAStatistics(config, logger);
 
@@ -249,7 +251,7 @@ public class CPAchecker {
             ? SpecAutomatonCompositionType.BACKWARD_TO_ENTRY_SPEC
             : SpecAutomatonCompositionType.TARGET_SPEC;
 
-        ConfigurableProgramAnalysis cpa = factory.createCPA(
+        cpa = factory.createCPA(
             cfa, stats,
             speComposition);
         GlobalInfo.getInstance().setUpInfoFromCPA(cpa);
@@ -325,6 +327,10 @@ public class CPAchecker {
 
     } finally {
       shutdownNotifier.unregister(interruptThreadOnShutdown);
+      if (cpa != null) {
+        // also after timeouts and errors, the data collected so far is still valid
+        CPAs.savePersistentDataIfPossible(cpa);
+      }
     }
     return new CPAcheckerResult(result,
         violatedPropertyDescription, reached, stats);
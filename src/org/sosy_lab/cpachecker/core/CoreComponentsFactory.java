@@ -41,6 +41,7 @@ import org.sosy_lab.cpachecker.core.algorithm.BDDCPARestrictionAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CEGARAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CustomInstructionRequirementsExtractingAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithmWithARGReplay;
 import org.sosy_lab.cpachecker.core.algorithm.RestartWithConditionsAlgorithm;
@@ -104,6 +105,11 @@ public class CoreComponentsFactory {
       description="restart the analysis using a different configuration after unknown result")
   private boolean useRestartingAlgorithm = false;
 
+  @Option(secure=true, name="algorithm.parallel",
+      description="run a portfolio of analyses in parallel and use the first conclusive result"
+        + "\nThe analyses are given with the option parallelAlgorithm.configFiles.")
+  private boolean useParallelAlgorithm = false;
+
   @Option(secure=true,
       description="memorize previously used (incomplete) reached sets after a restart of the analysis")
   private boolean memorizeReachedAfterRestart = false;
@@ -176,6 +182,10 @@ public class CoreComponentsFactory {
       if (useARGCombiningAlgorithm) {
         algorithm = new PartialARGsCombiner(algorithm, config, logger, shutdownNotifier, cfa);
       }
+    } else if (useParallelAlgorithm) {
+      logger.log(Level.INFO, "Using Parallel Algorithm");
+      algorithm = new ParallelAlgorithm(config, logger, shutdownNotifier, programDenotation, cfa);
+
     } else if (useImpactAlgorithm) {
       algorithm = new ImpactAlgorithm(config, logger, shutdownNotifier, cpa, cfa);
 
@@ -248,7 +258,7 @@ public class CoreComponentsFactory {
   public ReachedSet createReachedSet() {
     ReachedSet reached = reachedSetFactory.create();
 
-    if (useRestartingAlgorithm || useRestartAlgorithmWithARGReplay) {
+    if (useRestartingAlgorithm || useRestartAlgorithmWithARGReplay || useParallelAlgorithm) {
       // this algorithm needs an indirection so that it can change
       // the actual reached set instance on the fly
       if (memorizeReachedAfterRestart) {
@@ -270,7 +280,7 @@ public class CoreComponentsFactory {
     }
     try {
 
-      if (useRestartingAlgorithm) {
+      if (useRestartingAlgorithm || useParallelAlgorithm) {
         // hard-coded dummy CPA
         return LocationCPA.factory().set(cfa, CFA.class).setConfiguration(config).createInstance();
       }
@@ -288,6 +298,9 @@ public class CoreComponentsFactory {
       if (stats != null && cpa instanceof StatisticsProvider) {
         ((StatisticsProvider)cpa).collectStatistics(stats.getSubStatistics());
       }
+      if (stats != null) {
+        cpaFactory.collectStatistics(stats.getSubStatistics());
+      }
       return cpa;
 
     } finally {
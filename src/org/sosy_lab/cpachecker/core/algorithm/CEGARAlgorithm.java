@@ -35,6 +35,8 @@ import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.AbstractMBean;
 import org.sosy_lab.common.Classes;
 import org.sosy_lab.common.Classes.UnexpectedCheckedException;
@@ -51,10 +53,12 @@ import org.sosy_lab.cpachecker.core.interfaces.Refiner;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
 import org.sosy_lab.cpachecker.cpa.value.refiner.UnsoundRefiner;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.InvalidComponentException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
+import org.sosy_lab.cpachecker.util.CPAs;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
@@ -68,6 +72,7 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider {
 
     private final Timer totalTimer = new Timer();
     private final Timer refinementTimer = new Timer();
+    private @Nullable Timer subtreeRemovalTimer = null;
 
     @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
         justification = "only one thread writes, others read")
@@ -103,6 +108,9 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider {
         out.println("Time for refinements:             " + refinementTimer);
         out.println("Average time for refinement:      " + refinementTimer.getAvgTime().formatAs(TimeUnit.SECONDS));
         out.println("Max time for refinement:          " + refinementTimer.getMaxTime().formatAs(TimeUnit.SECONDS));
+        if (subtreeRemovalTimer != null && subtreeRemovalTimer.getNumberOfIntervals() > 0) {
+          out.println("Time for removing ARG subtrees:   " + subtreeRemovalTimer);
+        }
       }
     }
   }
@@ -202,6 +210,10 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider {
     this.logger = logger;
 
     mRefiner = createInstance(pCpa);
+    ARGCPA argCpa = CPAs.retrieveCPA(pCpa, ARGCPA.class);
+    if (argCpa != null) {
+      stats.subtreeRemovalTimer = argCpa.getSubtreeRemovalTime();
+    }
     new CEGARMBean(); // don't store it because we wouldn't know when to unregister anyway
   }
 
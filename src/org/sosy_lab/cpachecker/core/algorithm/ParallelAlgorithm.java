@@ -0,0 +1,402 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.collect.FluentIterable.from;
+import static org.sosy_lab.cpachecker.util.AbstractStates.IS_TARGET_STATE;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CoreComponentsFactory;
+import org.sosy_lab.cpachecker.core.CoreComponentsFactory.SpecAutomatonCompositionType;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Iterables;
+
+/**
+ * Algorithm that runs a portfolio of analyses in parallel.
+ *
+ * Each configuration is executed in its own thread, with its own CPA
+ * (and thus its own solver instances), reached set, resource limits
+ * and child {@link ShutdownNotifier}.
+ * The first analysis that produces a conclusive result wins,
+ * all other analyses are cancelled afterwards.
+ * If no analysis is conclusive, the result of the first analysis
+ * that terminated (in the order of the configuration files) is used.
+ */
+@Options(prefix="parallelAlgorithm")
+public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
+
+  @Option(secure=true, required=true, description = "List of files with configurations to use. "
+      + "All analyses are started at the same time and the first conclusive result is taken.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private List<Path> configFiles;
+
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final String filename;
+  private final CFA cfa;
+  private final Configuration globalConfig;
+
+  private final ParallelAlgorithmStatistics stats;
+
+  /** How long to wait for cancelled analyses to terminate. */
+  private static final long CANCELLATION_TIMEOUT_SECONDS = 10;
+
+  public ParallelAlgorithm(Configuration config, LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier, String pFilename, CFA pCfa) throws InvalidConfigurationException {
+    config.inject(this);
+
+    if (configFiles.isEmpty()) {
+      throw new InvalidConfigurationException("Need at least one configuration for parallel algorithm!");
+    }
+
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+    filename = pFilename;
+    cfa = pCfa;
+    globalConfig = config;
+    stats = new ParallelAlgorithmStatistics(configFiles.size());
+  }
+
+  @Override
+  public AlgorithmStatus run(ReachedSet pReached) throws CPAException, InterruptedException {
+    checkArgument(pReached instanceof ForwardingReachedSet, "ParallelAlgorithm needs ForwardingReachedSet");
+    checkArgument(pReached.size() <= 1, "ParallelAlgorithm does not support being called several times with the same reached set");
+    checkArgument(!pReached.isEmpty(), "ParallelAlgorithm needs non-empty reached set");
+
+    ForwardingReachedSet reached = (ForwardingReachedSet)pReached;
+
+    Iterable<CFANode> initialNodes = AbstractStates.extractLocations(pReached.getFirstState());
+    assert initialNodes != null : "Location information needed";
+    CFANode mainFunction = Iterables.getOnlyElement(initialNodes);
+
+    ExecutorService executor = Executors.newFixedThreadPool(configFiles.size(), Threads.threadFactory());
+    CompletionService<ParallelAnalysisResult> completionService = new ExecutorCompletionService<>(executor);
+
+    List<ParallelAnalysis> analyses = new ArrayList<>(configFiles.size());
+    List<Future<ParallelAnalysisResult>> futures = new ArrayList<>(configFiles.size());
+    for (Path configFile : configFiles) {
+      ParallelAnalysis analysis = new ParallelAnalysis(analyses.size() + 1, configFile, mainFunction);
+      analyses.add(analysis);
+      futures.add(completionService.submit(analysis));
+    }
+    executor.shutdown(); // will shutdown after all tasks are finished
+    stats.noOfAlgorithmsUsed = analyses.size();
+
+    ParallelAnalysisResult chosenResult = null;
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        ParallelAnalysisResult result;
+        try {
+          result = completionService.take().get();
+        } catch (ExecutionException e) {
+          handleFutureException(e.getCause());
+          continue;
+        }
+
+        if (result == null) {
+          // analysis was skipped or interrupted
+          continue;
+        }
+
+        if (result.isConclusive()) {
+          chosenResult = result;
+          break;
+        }
+        if (chosenResult == null || result.analysis.index < chosenResult.analysis.index) {
+          chosenResult = result;
+        }
+      }
+
+    } finally {
+      // cancel all remaining analyses and wait until they have released their resources
+      for (ParallelAnalysis analysis : analyses) {
+        if (chosenResult == null || analysis != chosenResult.analysis) {
+          analysis.shutdownNotifier.requestShutdown("Other analysis of parallel portfolio finished");
+        }
+      }
+      executor.shutdownNow();
+      boolean terminated = executor.awaitTermination(CANCELLATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      if (!terminated) {
+        // the components of analyses that are still running must not be closed
+        logger.log(Level.WARNING, "Cancelled analyses of parallel portfolio did not terminate within "
+            + CANCELLATION_TIMEOUT_SECONDS + "s, their resources are not released.");
+      }
+
+      for (ParallelAnalysis analysis : analyses) {
+        if (terminated && (chosenResult == null || analysis != chosenResult.analysis)) {
+          if (analysis.cpa != null) {
+            CPAs.closeCpaIfPossible(analysis.cpa, logger);
+          }
+          if (analysis.algorithm != null) {
+            CPAs.closeIfPossible(analysis.algorithm, logger);
+          }
+        }
+      }
+    }
+
+    shutdownNotifier.shutdownIfNecessary();
+
+    if (chosenResult == null) {
+      logger.log(Level.INFO, "No analysis of the parallel portfolio produced a result.");
+      return AlgorithmStatus.UNSOUND_AND_PRECISE;
+    }
+
+    logger.logf(Level.INFO, "Using result of analysis %d (%s).",
+        chosenResult.analysis.index, chosenResult.analysis.configFile);
+    stats.chosenAnalysis = chosenResult.analysis;
+    reached.setDelegate(chosenResult.reached);
+    return chosenResult.status;
+  }
+
+  private void handleFutureException(Throwable pCause) throws CPAException, InterruptedException {
+    if (pCause instanceof CPAException) {
+      logger.logUserException(Level.WARNING, pCause, "Analysis of parallel portfolio not completed");
+    } else if (pCause instanceof InterruptedException) {
+      shutdownNotifier.shutdownIfNecessary(); // check if we should also stop
+      logger.logUserException(Level.WARNING, pCause, "Analysis of parallel portfolio stopped");
+    } else if (pCause instanceof RuntimeException) {
+      throw (RuntimeException)pCause;
+    } else if (pCause instanceof Error) {
+      throw (Error)pCause;
+    } else {
+      throw new CPAException("Unexpected exception in analysis of parallel portfolio", pCause);
+    }
+  }
+
+  /**
+   * One analysis of the portfolio. An instance of this class is executed
+   * by exactly one thread, and all components created here are only used
+   * by this thread until the analysis has terminated.
+   */
+  private class ParallelAnalysis implements Callable<ParallelAnalysisResult> {
+
+    private final int index;
+    private final Path configFile;
+    private final CFANode mainFunction;
+    private final ShutdownNotifier shutdownNotifier;
+    private final Collection<Statistics> subStats = new ArrayList<>();
+    private final Timer totalTime = new Timer();
+
+    private volatile @Nullable ConfigurableProgramAnalysis cpa = null;
+    private volatile @Nullable Algorithm algorithm = null;
+    private volatile @Nullable ReachedSet reached = null;
+    private @Nullable ResourceLimitChecker limits = null;
+
+    private ParallelAnalysis(int pIndex, Path pConfigFile, CFANode pMainFunction) {
+      index = pIndex;
+      configFile = pConfigFile;
+      mainFunction = pMainFunction;
+      shutdownNotifier = ShutdownNotifier.createWithParent(ParallelAlgorithm.this.shutdownNotifier);
+    }
+
+    @Override
+    public @Nullable ParallelAnalysisResult call() throws CPAException, InterruptedException {
+      totalTime.start();
+      try {
+        LogManager singleLogger = logger.withComponentName("Parallel analysis " + index);
+        try {
+          createComponents(singleLogger);
+        } catch (InvalidConfigurationException e) {
+          logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + configFile.toString() + " is invalid");
+          return null;
+        } catch (IOException e) {
+          logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + configFile.toString() + " could not be read");
+          return null;
+        }
+        shutdownNotifier.shutdownIfNecessary();
+
+        try {
+          AlgorithmStatus status = algorithm.run(reached);
+          return new ParallelAnalysisResult(this, status, reached);
+        } catch (InterruptedException e) {
+          singleLogger.log(Level.FINE, "Analysis was cancelled");
+          return null;
+        }
+
+      } finally {
+        if (limits != null) {
+          limits.cancel();
+        }
+        if (cpa != null) {
+          CPAs.savePersistentDataIfPossible(cpa);
+        }
+        totalTime.stop();
+      }
+    }
+
+    private void createComponents(LogManager singleLogger)
+        throws InvalidConfigurationException, IOException, CPAException {
+      ConfigurationBuilder singleConfigBuilder = Configuration.builder();
+      singleConfigBuilder.copyFrom(globalConfig);
+      singleConfigBuilder.clearOption("parallelAlgorithm.configFiles");
+      singleConfigBuilder.clearOption("analysis.algorithm.parallel");
+      singleConfigBuilder.loadFromFile(configFile);
+      if (globalConfig.hasProperty("specification")) {
+        singleConfigBuilder.copyOptionFrom(globalConfig, "specification");
+      }
+      Configuration singleConfig = singleConfigBuilder.build();
+
+      limits = ResourceLimitChecker.fromConfiguration(singleConfig, singleLogger, shutdownNotifier);
+      limits.start();
+
+      CoreComponentsFactory factory = new CoreComponentsFactory(singleConfig, singleLogger, shutdownNotifier);
+      cpa = factory.createCPA(cfa, null, SpecAutomatonCompositionType.TARGET_SPEC);
+      algorithm = factory.createAlgorithm(cpa, filename, cfa, null);
+
+      if (cpa instanceof StatisticsProvider) {
+        ((StatisticsProvider)cpa).collectStatistics(subStats);
+      }
+      if (algorithm instanceof StatisticsProvider) {
+        ((StatisticsProvider)algorithm).collectStatistics(subStats);
+      }
+
+      AbstractState initialState = cpa.getInitialState(mainFunction, StateSpacePartition.getDefaultPartition());
+      Precision initialPrecision = cpa.getInitialPrecision(mainFunction, StateSpacePartition.getDefaultPartition());
+      ReachedSet singleReached = factory.createReachedSet();
+      singleReached.add(initialState, initialPrecision);
+      reached = singleReached;
+    }
+  }
+
+  private static class ParallelAnalysisResult {
+
+    private final ParallelAnalysis analysis;
+    private final AlgorithmStatus status;
+    private final ReachedSet reached;
+
+    private ParallelAnalysisResult(ParallelAnalysis pAnalysis, AlgorithmStatus pStatus, ReachedSet pReached) {
+      analysis = pAnalysis;
+      status = pStatus;
+      reached = pReached;
+    }
+
+    /**
+     * A result is conclusive if a precise analysis found a property violation
+     * or a sound analysis explored the whole state space
+     * (this is the same criterion as used by {@link RestartAlgorithm}).
+     */
+    private boolean isConclusive() {
+      if (status.isPrecise() && from(reached).anyMatch(IS_TARGET_STATE)) {
+        return true;
+      }
+      return status.isSound() && !reached.hasWaitingState();
+    }
+  }
+
+  private class ParallelAlgorithmStatistics implements Statistics {
+
+    private final int noOfAlgorithms;
+    private int noOfAlgorithmsUsed = 0;
+    private @Nullable ParallelAnalysis chosenAnalysis = null;
+
+    private ParallelAlgorithmStatistics(int pNoOfAlgorithms) {
+      noOfAlgorithms = pNoOfAlgorithms;
+    }
+
+    @Override
+    public String getName() {
+      return "Parallel Algorithm";
+    }
+
+    @Override
+    public void printStatistics(PrintStream out, Result result, ReachedSet reached) {
+      out.println("Number of algorithms provided:    " + noOfAlgorithms);
+      out.println("Number of algorithms used:        " + noOfAlgorithmsUsed);
+      if (chosenAnalysis != null) {
+        out.println("Result taken from algorithm:      " + chosenAnalysis.index);
+      }
+
+      // only print statistics of the chosen analysis,
+      // the other analyses were cancelled and their reached sets are incomplete
+      if (chosenAnalysis != null) {
+        out.println();
+        String text = "Statistics for algorithm " + chosenAnalysis.index + " of " + noOfAlgorithms;
+        out.println(text);
+        out.println(Strings.repeat("=", text.length()));
+        out.println("Total time for algorithm " + chosenAnalysis.index + ": " + chosenAnalysis.totalTime);
+
+        for (Statistics s : chosenAnalysis.subStats) {
+          String name = s.getName();
+          if (!isNullOrEmpty(name)) {
+            name = name + " statistics";
+            out.println("");
+            out.println(name);
+            out.println(Strings.repeat("-", name.length()));
+          }
+          s.printStatistics(out, result, reached);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
+  }
+}
@@ -282,6 +282,9 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
         }
       } finally {
         singleShutdownNotifier.requestShutdown("Analysis terminated"); // shutdown any remaining components
+        if (currentCpa != null) {
+          CPAs.savePersistentDataIfPossible(currentCpa);
+        }
         stats.totalTime.stop();
       }
 
@@ -118,17 +118,45 @@ public class CounterexampleCPAChecker implements CounterexampleChecker {
   public boolean checkCounterexample(ARGState pRootState,
       ARGState pErrorState, Set<ARGState> pErrorPathStates)
       throws CPAException, InterruptedException {
+    return checkCounterexample(pRootState, pErrorState, pErrorPathStates, shutdownNotifier);
+  }
+
+  /**
+   * Whether {@link #checkCounterexample(ARGState, ARGState, Set, ShutdownNotifier)}
+   * may be called by several threads at the same time.
+   * This is the case if every check writes its path specification
+   * to its own temporary file.
+   * All other components of a check (CPAs, solver instances, reached set)
+   * are created separately for each check anyway.
+   */
+  public boolean supportsConcurrentChecks() {
+    return specFile == null;
+  }
+
+  /**
+   * Check feasibility of counterexample like
+   * {@link #checkCounterexample(ARGState, ARGState, Set)},
+   * but stop the check if the given notifier requests a shutdown.
+   * The ARG must not be modified while this method is running.
+   * @param pShutdownNotifier The notifier for cancelling this check.
+   * @throws InterruptedException If the check was cancelled.
+   */
+  public boolean checkCounterexample(ARGState pRootState,
+      ARGState pErrorState, Set<ARGState> pErrorPathStates,
+      ShutdownNotifier pShutdownNotifier)
+      throws CPAException, InterruptedException {
 
     try {
       if (specFile != null) {
-        return checkCounterexample(pRootState, pErrorState, pErrorPathStates, specFile);
+        return checkCounterexample(pRootState, pErrorState, pErrorPathStates, specFile,
+            pShutdownNotifier);
       }
 
       // This temp file will be automatically deleted when the try block terminates.
       try (DeleteOnCloseFile automatonFile = Files.createTempFile("counterexample-automaton", ".txt")) {
 
         return checkCounterexample(pRootState, pErrorState, pErrorPathStates,
-            automatonFile.toPath());
+            automatonFile.toPath(), pShutdownNotifier);
       }
 
     } catch (IOException e) {
@@ -137,7 +165,8 @@ public class CounterexampleCPAChecker implements CounterexampleChecker {
   }
 
   private boolean checkCounterexample(ARGState pRootState, ARGState pErrorState, Set<ARGState> pErrorPathStates,
-      Path automatonFile) throws IOException, CPAException, InterruptedException {
+      Path automatonFile, ShutdownNotifier pShutdownNotifier)
+      throws IOException, CPAException, InterruptedException {
 
     try (Writer w = Files.openOutputFile(automatonFile)) {
       ARGUtils.producePathAutomaton(w, pRootState, pErrorPathStates,
@@ -161,7 +190,7 @@ public class CounterexampleCPAChecker implements CounterexampleChecker {
       }
 
       Configuration lConfig = lConfigBuilder.build();
-      ShutdownNotifier lShutdownNotifier = ShutdownNotifier.createWithParent(shutdownNotifier);
+      ShutdownNotifier lShutdownNotifier = ShutdownNotifier.createWithParent(pShutdownNotifier);
       ResourceLimitChecker.fromConfiguration(lConfig, lLogger, lShutdownNotifier).start();
 
       CoreComponentsFactory factory = new CoreComponentsFactory(lConfig, lLogger, lShutdownNotifier);
@@ -186,7 +215,7 @@ public class CounterexampleCPAChecker implements CounterexampleChecker {
     } catch (IOException e) {
       throw new CounterexampleAnalysisFailed(e.getMessage(), e);
     } catch (InterruptedException e) {
-      shutdownNotifier.shutdownIfNecessary();
+      pShutdownNotifier.shutdownIfNecessary();
       throw new CounterexampleAnalysisFailed("Counterexample check aborted", e);
     }
   }
@@ -37,10 +37,22 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -63,6 +75,8 @@ import org.sosy_lab.cpachecker.exceptions.RefinementFailedException.Reason;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
+import com.google.common.base.Verify;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
@@ -76,11 +90,16 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
   private final Algorithm algorithm;
   private final CounterexampleChecker checker;
   private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
   private final ARGCPA cpa;
 
   private final Timer checkTime = new Timer();
+  private int numberOfChecks = 0;
   private int numberOfInfeasiblePaths = 0;
 
+  /** How long to wait for cancelled counterexample checks to terminate. */
+  private static final long CANCELLATION_TIMEOUT_SECONDS = 10;
+
   private final Set<ARGState> checkedTargetStates = Collections.newSetFromMap(new WeakHashMap<ARGState, Boolean>());
 
   @Option(secure=true, name="checker",
@@ -96,11 +115,20 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
               + "Setting this to false may prevent a lot of similar infeasible counterexamples to get discovered, but is unsound")
   private boolean removeInfeasibleErrors = false;
 
+  @Option(secure=true, description="Number of counterexample checks that are run in parallel "
+      + "if several error paths are found at once (e.g., with analysis.stopAfterError=false). "
+      + "Each check uses its own analysis with its own solver instances. "
+      + "All error paths are checked, as in the sequential mode. "
+      + "This is only supported for counterexample.checker=CPACHECKER.")
+  @IntegerOption(min=1)
+  private int parallelChecks = 1;
+
   public CounterexampleCheckAlgorithm(Algorithm algorithm,
       ConfigurableProgramAnalysis pCpa, Configuration config, LogManager logger,
       ShutdownNotifier pShutdownNotifier, CFA cfa, String filename) throws InvalidConfigurationException, CPAException {
     this.algorithm = algorithm;
     this.logger = logger;
+    this.shutdownNotifier = pShutdownNotifier;
     config.inject(this);
 
     if (!(pCpa instanceof ARGCPA)) {
@@ -121,6 +149,13 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
     default:
       throw new AssertionError("Unhandled case statement: " + checkerType);
     }
+
+    if (parallelChecks > 1
+        && !(checker instanceof CounterexampleCPAChecker
+            && ((CounterexampleCPAChecker)checker).supportsConcurrentChecks())) {
+      throw new InvalidConfigurationException("Parallel counterexample checks are only supported "
+          + "with counterexample.checker=CPACHECKER and without counterexample.checker.path.file.");
+    }
   }
 
   @Override
@@ -153,6 +188,24 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
       checkTime.start();
       try {
         boolean foundCounterexample = false;
+        if (parallelChecks > 1 && errorStates.size() > 1) {
+          for (CounterexampleCheck check : checkCounterexamplesInParallel(errorStates, reached)) {
+            if (!reached.contains(check.errorState)) {
+              // errorState was already removed due to earlier results
+              continue;
+            }
+
+            status = AlgorithmStatus.SOUND_AND_PRECISE.withSound(
+                handleCheckResult(check.errorState, ARGUtils.getAllStatesOnPathsTo(check.errorState),
+                    check.feasibility, reached, status.isSound()));
+            if (reached.contains(check.errorState)) {
+              checkedTargetStates.add(check.errorState);
+              foundCounterexample = true;
+            }
+          }
+          errorStates.clear();
+        }
+
         while (!errorStates.isEmpty()) {
           ARGState errorState = errorStates.pollFirst();
           if (!reached.contains(errorState)) {
@@ -185,6 +238,7 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
     Set<ARGState> statesOnErrorPath = ARGUtils.getAllStatesOnPathsTo(errorState);
 
     logger.log(Level.INFO, "Error path found, starting counterexample check with " + checkerType + ".");
+    numberOfChecks++;
     boolean feasibility;
     try {
       feasibility = checker.checkCounterexample(rootState, errorState, statesOnErrorPath);
@@ -194,6 +248,121 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
       throw e;
     }
 
+    return handleCheckResult(errorState, statesOnErrorPath, feasibility, reached, sound);
+  }
+
+  /**
+   * Check the given error states concurrently, each in its own thread.
+   * All error states are checked, even if one of them is found to be feasible,
+   * because all target states that stay in the reached set are reported as violations,
+   * so each of them needs to be confirmed (like in the sequential mode).
+   * This method returns only after all checks have terminated,
+   * because the checks read the ARG, which is modified only afterwards
+   * (in the order of the given error states) when handling the results.
+   * If one check fails, the remaining checks are cancelled and the exception is thrown.
+   * @return The checks in the same order as the error states, each with its result.
+   */
+  private List<CounterexampleCheck> checkCounterexamplesInParallel(
+      Collection<ARGState> errorStates, ReachedSet reached) throws CPAException, InterruptedException {
+    ARGState rootState = (ARGState)reached.getFirstState();
+
+    List<CounterexampleCheck> checks = new ArrayList<>(errorStates.size());
+    for (ARGState errorState : errorStates) {
+      checks.add(new CounterexampleCheck(rootState, errorState));
+    }
+
+    logger.log(Level.INFO, "Error paths found, starting", checks.size(),
+        "counterexample checks with", checkerType, "in parallel.");
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(parallelChecks, checks.size()), Threads.threadFactory());
+    CompletionService<CounterexampleCheck> completionService = new ExecutorCompletionService<>(executor);
+    for (CounterexampleCheck check : checks) {
+      completionService.submit(check);
+    }
+    executor.shutdown(); // will shutdown after all tasks are finished
+
+    try {
+      for (int i = 0; i < checks.size(); i++) {
+        try {
+          completionService.take().get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof InterruptedException) {
+            continue;
+          } else if (cause instanceof CPAException) {
+            logger.logUserException(Level.WARNING, cause, "Counterexample found, but feasibility could not be verified");
+          }
+          Throwables.propagateIfPossible(cause, CPAException.class);
+          throw new UnexpectedCheckedException("counterexample check", cause);
+        }
+      }
+
+    } finally {
+      // cancel the remaining checks (if there was an exception)
+      // and wait until they do not access the ARG anymore
+      for (CounterexampleCheck check : checks) {
+        check.shutdownNotifier.requestShutdown("Counterexample checks finished");
+      }
+      executor.shutdownNow();
+      awaitTermination(executor);
+    }
+    shutdownNotifier.shutdownIfNecessary();
+
+    for (CounterexampleCheck check : checks) {
+      // checks are only interrupted if a shutdown was requested, which was handled above
+      Verify.verifyNotNull(check.feasibility, "Counterexample check has no result");
+    }
+    numberOfChecks += checks.size();
+    return checks;
+  }
+
+  /**
+   * Wait until all cancelled checks have terminated, because they may still read the ARG.
+   * The wait ends early if a shutdown is requested,
+   * and fails if the checks do not react to their cancellation in time.
+   */
+  private void awaitTermination(ExecutorService executor) throws InterruptedException, CPAException {
+    for (long waited = 0; waited < CANCELLATION_TIMEOUT_SECONDS; waited++) {
+      if (executor.awaitTermination(1, TimeUnit.SECONDS) || shutdownNotifier.shouldShutdown()) {
+        return;
+      }
+    }
+    throw new CPAException("Cancelled counterexample checks did not terminate within "
+        + CANCELLATION_TIMEOUT_SECONDS + "s");
+  }
+
+  /**
+   * One counterexample check that is executed concurrently
+   * with the checks for other error states.
+   */
+  private class CounterexampleCheck implements Callable<CounterexampleCheck> {
+
+    private final ARGState rootState;
+    private final ARGState errorState;
+    private final Set<ARGState> statesOnErrorPath;
+    private final ShutdownNotifier shutdownNotifier;
+
+    private volatile @Nullable Boolean feasibility = null;
+
+    private CounterexampleCheck(ARGState pRootState, ARGState pErrorState) {
+      rootState = pRootState;
+      errorState = pErrorState;
+      statesOnErrorPath = ARGUtils.getAllStatesOnPathsTo(pErrorState);
+      shutdownNotifier = ShutdownNotifier.createWithParent(CounterexampleCheckAlgorithm.this.shutdownNotifier);
+    }
+
+    @Override
+    public CounterexampleCheck call() throws CPAException, InterruptedException {
+      feasibility = ((CounterexampleCPAChecker)checker).checkCounterexample(
+          rootState, errorState, statesOnErrorPath, shutdownNotifier);
+      return this;
+    }
+  }
+
+  private boolean handleCheckResult(ARGState errorState, Set<ARGState> statesOnErrorPath,
+      boolean feasibility, ReachedSet reached, boolean sound) throws RefinementFailedException {
+
     if (feasibility) {
       logger.log(Level.INFO, "Error path found and confirmed by counterexample check with " + checkerType + ".");
       return sound;
@@ -371,9 +540,9 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
   public void printStatistics(PrintStream out, Result pResult,
       ReachedSet pReached) {
 
-    out.println("Number of counterexample checks:    " + checkTime.getNumberOfIntervals());
+    out.println("Number of counterexample checks:    " + numberOfChecks);
     if (checkTime.getNumberOfIntervals() > 0) {
-      out.println("Number of infeasible paths:         " + numberOfInfeasiblePaths + " (" + toPercent(numberOfInfeasiblePaths, checkTime.getNumberOfIntervals()) +")" );
+      out.println("Number of infeasible paths:         " + numberOfInfeasiblePaths + " (" + toPercent(numberOfInfeasiblePaths, numberOfChecks) +")" );
       out.println("Time for counterexample checks:     " + checkTime);
       if (checker instanceof Statistics) {
         ((Statistics)checker).printStatistics(out, pResult, pReached);
@@ -71,6 +71,7 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
@@ -119,6 +120,13 @@ public class ImpactAlgorithm implements Algorithm, StatisticsProvider {
       out.println("Number of SMT sat checks:           " + solver.satChecks);
       out.println("  trivial:                          " + solver.trivialSatChecks);
       out.println("  cached:                           " + solver.cachedSatChecks);
+      CacheStats unsatCacheStats = solver.getUnsatCacheStatistics();
+      out.println("  cache misses:                     " + unsatCacheStats.missCount());
+      out.println("  cache evictions:                  " + unsatCacheStats.evictionCount());
+      out.println("  formulas in cache:                " + solver.getUnsatCacheSize());
+      if (solver.hasPersistentCache()) {
+        out.println("  cached on disk:                   " + solver.persistentCachedSatChecks + " (of " + solver.getPersistentCacheLoadedEntries() + " loaded results)");
+      }
       out.println("Number of refinements:              " + refinementTime.getNumberOfIntervals());
       if (useForcedCovering) {
         out.println("Number of forced coverings:         " + forceCoverTime.getNumberOfIntervals());
@@ -141,7 +149,7 @@ public class ImpactAlgorithm implements Algorithm, StatisticsProvider {
     solver = Solver.create(config, pLogger, pShutdownNotifier);
     fmgr = solver.getFormulaManager();
     bfmgr = fmgr.getBooleanFormulaManager();
-    pfmgr = new CachingPathFormulaManager(new PathFormulaManagerImpl(fmgr, config, logger, pShutdownNotifier, cfa, AnalysisDirection.FORWARD));
+    pfmgr = new CachingPathFormulaManager(new PathFormulaManagerImpl(fmgr, config, logger, pShutdownNotifier, cfa, AnalysisDirection.FORWARD), config);
     imgr = new InterpolationManager(pfmgr, solver, cfa.getLoopStructure(), cfa.getVarClassification(), config, pShutdownNotifier, logger);
   }
 
@@ -27,14 +27,17 @@ import java.util.Collection;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
+import org.sosy_lab.cpachecker.core.interfaces.CoverageSignatureStopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
-import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 /**
- * Standard stop-sep operator
+ * Standard stop-sep operator.
+ * If the states implement {@link AbstractStateWithCoverageSignature},
+ * their signatures are used to skip reached states that cannot cover the new state.
  */
-public class StopSepOperator implements StopOperator {
+public class StopSepOperator implements CoverageSignatureStopOperator {
 
   private final AbstractDomain domain;
 
@@ -50,11 +53,24 @@ public class StopSepOperator implements StopOperator {
   public boolean stop(AbstractState el, Collection<AbstractState> reached, Precision precision)
     throws CPAException, InterruptedException {
 
+    final long signature = getCoverageSignature(el);
     for (AbstractState reachedState : reached) {
+      if ((getCoverageSignature(reachedState) & ~signature) != 0) {
+        // reachedState has some fact that el is missing
+        continue;
+      }
       if (domain.isLessOrEqual(el, reachedState)) {
         return true;
       }
     }
     return false;
   }
+
+  @Override
+  public long getCoverageSignature(AbstractState pState) {
+    if (pState instanceof AbstractStateWithCoverageSignature) {
+      return ((AbstractStateWithCoverageSignature) pState).getCoverageSignature();
+    }
+    return 0;
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.defaults;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.cpa.interval.Interval;
+import org.sosy_lab.cpachecker.cpa.interval.IntervalAnalysisState;
+
+import com.google.common.collect.ImmutableList;
+
+public class StopSepOperatorTest {
+
+  private final StopSepOperator stop =
+      new StopSepOperator(DelegateAbstractDomain.<IntervalAnalysisState>getInstance());
+
+  private static IntervalAnalysisState createState(String... pVariables) {
+    IntervalAnalysisState state = new IntervalAnalysisState();
+    for (String variable : pVariables) {
+      state.addInterval(variable, new Interval(0L, 10L), -1);
+    }
+    return state;
+  }
+
+  @Test
+  public void testSignatureOfCoveringState() throws Exception {
+    IntervalAnalysisState state = createState("x", "y");
+    IntervalAnalysisState covering = createState("x");
+
+    long stateSignature = stop.getCoverageSignature(state);
+    long coveringSignature = stop.getCoverageSignature(covering);
+    assertThat(coveringSignature & ~stateSignature).isEqualTo(0L);
+    assertThat(stop.stop(state, Collections.<AbstractState>singleton(covering), null)).isTrue();
+  }
+
+  @Test
+  public void testSignatureIsUpdated() throws Exception {
+    IntervalAnalysisState state = createState("x");
+    IntervalAnalysisState other = createState("x");
+    assertThat(stop.getCoverageSignature(other)).isEqualTo(stop.getCoverageSignature(state));
+
+    other.addInterval("y", new Interval(0L, 1L), -1);
+    assertThat(stop.stop(state, Collections.<AbstractState>singleton(other), null)).isFalse();
+
+    state.addInterval("y", new Interval(0L, 1L), -1);
+    assertThat(stop.getCoverageSignature(other)).isEqualTo(stop.getCoverageSignature(state));
+    assertThat(stop.stop(state, Collections.<AbstractState>singleton(other), null)).isTrue();
+  }
+
+  @Test
+  public void testStopWithSeveralCandidates() throws Exception {
+    IntervalAnalysisState state = createState("x", "y");
+    ImmutableList<AbstractState> reached = ImmutableList.<AbstractState>of(
+        createState("z"), createState("x", "z"), createState("y"));
+    assertThat(stop.stop(state, reached, null)).isTrue();
+    assertThat(stop.stop(state, reached.subList(0, 2), null)).isFalse();
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * This interface represents abstract states that provide a cheap signature
+ * for ruling out coverage (i.e., {@link AbstractDomain#isLessOrEqual}) without
+ * comparing the full states.
+ *
+ * A signature is a set of up to 64 elements encoded as bits of a long
+ * (similar to a Bloom filter), and it has to fulfill the following condition:
+ * If a state e is less or equal than a state r, then all bits of the signature of r
+ * are also set in the signature of e.
+ * Thus, if <code>(signature(r) & ~signature(e)) != 0</code>,
+ * then e is not covered by r.
+ * Typically, the signature contains the hashes of all facts that have to be
+ * present in every state that is covered by the state,
+ * e.g., the tracked variables or variable assignments.
+ *
+ * Signatures are used by the stop operators that implement {@link CoverageSignatureStopOperator},
+ * so computing them should be cheap (e.g., cached).
+ */
+public interface AbstractStateWithCoverageSignature extends AbstractState {
+
+  /**
+   * Get the signature of this state, cf. the class documentation for the requirements.
+   */
+  long getCoverageSignature();
+}
@@ -0,0 +1,45 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * Interface for CPAs that keep data that should outlive a single run of CPAchecker,
+ * e.g., caches that are stored in a file and reused by later runs.
+ *
+ * {@link #savePersistentData()} is called once after the analysis has stopped,
+ * also if it was interrupted or failed with an exception,
+ * and before the CPA is closed.
+ * Data written at this point needs to be correct even if the analysis did not finish.
+ * Implementations should not throw exceptions but log problems instead,
+ * because failing to save such data does not affect the result of the analysis.
+ * For a {@link WrapperCPA} this covers only the wrapper itself,
+ * the wrapped CPAs are asked separately.
+ */
+public interface ConfigurableProgramAnalysisWithPersistentData extends ConfigurableProgramAnalysis {
+
+  /**
+   * Write all data of this CPA that should be kept for later runs.
+   */
+  void savePersistentData();
+}
@@ -0,0 +1,43 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * Interface for stop operators that can rule out coverage
+ * of a state by another state with a cheap signature check.
+ * This is used by wrapping stop operators (e.g., for composite states)
+ * to filter the candidates from the reached set before calling the
+ * (possibly expensive) stop operator.
+ */
+public interface CoverageSignatureStopOperator extends StopOperator {
+
+  /**
+   * Get a signature of a state, such that
+   * <code>stop(e, Collections.singleton(r), precision)</code> can only return true
+   * if all bits of the signature of r are also set in the signature of e
+   * (cf. {@link AbstractStateWithCoverageSignature}).
+   * The signature 0 is always valid, it does not rule out any coverage.
+   */
+  long getCoverageSignature(AbstractState state);
+}
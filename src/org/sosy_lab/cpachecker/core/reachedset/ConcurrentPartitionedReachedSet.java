@@ -0,0 +1,340 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.SynchronizedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+import org.sosy_lab.cpachecker.util.Pair;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Thread-safe implementation of the reached set that partitions the set
+ * by the partition key of the abstract states, like {@link PartitionedReachedSet}.
+ *
+ * There is no global lock. Every operation that modifies a state
+ * (including its entry in the waitlist) holds the lock of the partition of this state,
+ * so for each single state, it is either in the reached set, in its partition
+ * and (if not yet handled) in the waitlist, or in none of them.
+ * Operations on states of different partitions do not block each other.
+ * Compound operations like {@link #addAll(Iterable)} are not atomic as a whole,
+ * and {@link #clear()} must not be called concurrently with other modifications.
+ *
+ * Reading needs no lock. {@link #getReached(AbstractState)} returns an unmodifiable,
+ * weakly consistent view of the partition: it never throws a
+ * {@link java.util.ConcurrentModificationException}, and iterating over it
+ * returns all states that were in the partition when the iteration started
+ * and were not removed before being reached by the iteration,
+ * and may or may not return states that were added concurrently.
+ * The same holds for iterating over the whole set.
+ * In contrast to the other implementations, iteration is not in insertion order.
+ * {@link #popFromWaitlist()} returns null if the waitlist is empty.
+ */
+public class ConcurrentPartitionedReachedSet implements ReachedSet {
+
+  private final ConcurrentMap<AbstractState, Precision> reached = new ConcurrentHashMap<>();
+  private final Set<AbstractState> unmodifiableReached = Collections.unmodifiableSet(reached.keySet());
+
+  // Partitions are never removed (except by clear()), such that each partition
+  // can serve as the lock for modifications of the states in it.
+  private final ConcurrentMap<Object, Set<AbstractState>> partitionedReached = new ConcurrentHashMap<>();
+
+  private final SynchronizedWaitlist waitlist;
+
+  // These are shared by all partitions, so they are updated atomically
+  // without holding a partition lock.
+  private final AtomicReference<AbstractState> firstState = new AtomicReference<>();
+  private final AtomicReference<AbstractState> lastState = new AtomicReference<>();
+
+  public ConcurrentPartitionedReachedSet(WaitlistFactory waitlistFactory) {
+    waitlist = new SynchronizedWaitlist(waitlistFactory.createWaitlistInstance());
+  }
+
+  @Override
+  public void add(AbstractState state, Precision precision) throws IllegalArgumentException {
+    Preconditions.checkNotNull(state);
+    Preconditions.checkNotNull(precision);
+
+    Set<AbstractState> partition = getPartition(getPartitionKey(state));
+    synchronized (partition) {
+      boolean wasEmpty = reached.isEmpty();
+
+      Precision previousPrecision = reached.putIfAbsent(state, precision);
+
+      if (previousPrecision == null) {
+        // State wasn't already in the reached set.
+        partition.add(state);
+        waitlist.add(state);
+        if (wasEmpty) {
+          // if several states are added concurrently to the empty set, only one of them is kept
+          firstState.compareAndSet(null, state);
+        }
+        lastState.set(state);
+
+      } else if (!precision.equals(previousPrecision)) {
+        // State was already in the reached set (cf. DefaultReachedSet#add).
+        throw new IllegalArgumentException("State added to reached set which is already contained, but with a different precision");
+      }
+    }
+  }
+
+  private Set<AbstractState> getPartition(Object key) {
+    Set<AbstractState> partition = partitionedReached.get(key);
+    if (partition == null) {
+      Set<AbstractState> newPartition =
+          Collections.newSetFromMap(new ConcurrentHashMap<AbstractState, Boolean>());
+      partition = partitionedReached.putIfAbsent(key, newPartition);
+      if (partition == null) {
+        partition = newPartition;
+      }
+    }
+    return partition;
+  }
+
+  @Override
+  public void addAll(Iterable<Pair<AbstractState, Precision>> toAdd) {
+    for (Pair<AbstractState, Precision> pair : toAdd) {
+      add(pair.getFirst(), pair.getSecond());
+    }
+  }
+
+  @Override
+  public void reAddToWaitlist(AbstractState s) {
+    Preconditions.checkNotNull(s);
+
+    synchronized (getPartition(getPartitionKey(s))) {
+      Preconditions.checkArgument(reached.containsKey(s), "State has to be in the reached set");
+      waitlist.addIfAbsent(s);
+    }
+  }
+
+  @Override
+  public void updatePrecision(AbstractState s, Precision newPrecision) {
+    Preconditions.checkNotNull(s);
+    Preconditions.checkNotNull(newPrecision);
+
+    synchronized (getPartition(getPartitionKey(s))) {
+      Precision oldPrecision = reached.replace(s, newPrecision);
+      if (oldPrecision == null) {
+        throw new IllegalArgumentException("State needs to be in the reached set in order to change the precision.");
+      }
+    }
+  }
+
+  @Override
+  public void remove(AbstractState state) {
+    Preconditions.checkNotNull(state);
+
+    Set<AbstractState> partition = getPartition(getPartitionKey(state));
+    synchronized (partition) {
+      clearIfEqual(firstState, state);
+      clearIfEqual(lastState, state);
+      waitlist.remove(state);
+      if (reached.remove(state) != null) {
+        partition.remove(state);
+      }
+    }
+  }
+
+  private static void clearIfEqual(AtomicReference<AbstractState> ref, AbstractState state) {
+    AbstractState current = ref.get();
+    if (state.equals(current)) {
+      // fails if another thread has set a new state meanwhile, which should be kept
+      ref.compareAndSet(current, null);
+    }
+  }
+
+  @Override
+  public void removeAll(Iterable<? extends AbstractState> toRemove) {
+    for (AbstractState state : toRemove) {
+      remove(state);
+    }
+  }
+
+  @Override
+  public void removeOnlyFromWaitlist(AbstractState state) {
+    checkNotNull(state);
+    synchronized (getPartition(getPartitionKey(state))) {
+      waitlist.remove(state);
+    }
+  }
+
+  @Override
+  public void clear() {
+    firstState.set(null);
+    lastState.set(null);
+    waitlist.clear();
+    reached.clear();
+    partitionedReached.clear();
+  }
+
+  @Override
+  public Set<AbstractState> asCollection() {
+    return unmodifiableReached;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return unmodifiableReached.iterator();
+  }
+
+  @Override
+  public Collection<Precision> getPrecisions() {
+    return Collections.unmodifiableCollection(reached.values());
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(AbstractState state) {
+    Set<AbstractState> partition = partitionedReached.get(getPartitionKey(state));
+    if (partition == null) {
+      return Collections.emptySet();
+    }
+    return Collections.unmodifiableSet(partition);
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(CFANode location) {
+    return asCollection();
+  }
+
+  /**
+   * Return the number of non-empty partitions.
+   * With concurrent modifications, this is only an estimate.
+   */
+  public int getNumberOfPartitions() {
+    int result = 0;
+    for (Set<AbstractState> partition : partitionedReached.values()) {
+      if (!partition.isEmpty()) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  protected Object getPartitionKey(AbstractState pState) {
+    assert pState instanceof Partitionable : "Partitionable states necessary for ConcurrentPartitionedReachedSet";
+    return ((Partitionable)pState).getPartitionKey();
+  }
+
+  @Override
+  public AbstractState getFirstState() {
+    AbstractState state = firstState.get();
+    Preconditions.checkState(state != null);
+    return state;
+  }
+
+  @Override
+  public AbstractState getLastState() {
+    return lastState.get();
+  }
+
+  @Override
+  public boolean hasWaitingState() {
+    return !waitlist.isEmpty();
+  }
+
+  @Override
+  public Collection<AbstractState> getWaitlist() {
+    return new AbstractCollection<AbstractState>() {
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        return waitlist.iterator();
+      }
+
+      @Override
+      public boolean contains(Object obj) {
+        if (!(obj instanceof AbstractState)) {
+          return false;
+        }
+        return waitlist.contains((AbstractState)obj);
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return waitlist.isEmpty();
+      }
+
+      @Override
+      public int size() {
+        return waitlist.size();
+      }
+
+      @Override
+      public String toString() {
+        return waitlist.toString();
+      }
+    };
+  }
+
+  @Override
+  public AbstractState popFromWaitlist() {
+    // Popping only modifies the waitlist, which has its own lock.
+    return waitlist.pop();
+  }
+
+  @Override
+  public Precision getPrecision(AbstractState state) {
+    Preconditions.checkNotNull(state);
+    Precision prec = reached.get(state);
+    Preconditions.checkArgument(prec != null, "State not in reached set:\n%s", state);
+    return prec;
+  }
+
+  @Override
+  public boolean contains(AbstractState state) {
+    Preconditions.checkNotNull(state);
+    return reached.containsKey(state);
+  }
+
+  @Override
+  public int size() {
+    return reached.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return reached.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return reached.keySet().toString();
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+public class ConcurrentPartitionedReachedSetTest {
+
+  private static final int THREADS = 4;
+  private static final int STATES_PER_THREAD = 2000;
+  private static final int PARTITIONS = 10;
+
+  private static class TestState implements AbstractState, Partitionable {
+
+    private final int partition;
+
+    private TestState(int pPartition) {
+      partition = pPartition;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return partition;
+    }
+  }
+
+  @Test
+  public void testConcurrentAddAndRemove() throws Exception {
+    final ConcurrentPartitionedReachedSet reached =
+        new ConcurrentPartitionedReachedSet(TraversalMethod.BFS);
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+    List<Future<List<TestState>>> writers = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      writers.add(executor.submit(new Callable<List<TestState>>() {
+        @Override
+        public List<TestState> call() {
+          List<TestState> kept = new ArrayList<>();
+          for (int i = 0; i < STATES_PER_THREAD; i++) {
+            TestState state = new TestState(i % PARTITIONS);
+            reached.add(state, SingletonPrecision.getInstance());
+            if (i % 2 == 0) {
+              reached.remove(state);
+            } else {
+              kept.add(state);
+            }
+          }
+          return kept;
+        }
+      }));
+    }
+
+    // a concurrent reader must only see states of the requested partition
+    Future<Boolean> reader = executor.submit(new Callable<Boolean>() {
+      @Override
+      public Boolean call() {
+        for (int i = 0; i < 1000; i++) {
+          for (int p = 0; p < PARTITIONS; p++) {
+            for (AbstractState state : reached.getReached(new TestState(p))) {
+              assertThat(((TestState)state).partition).isEqualTo(p);
+            }
+          }
+        }
+        return true;
+      }
+    });
+
+    Set<TestState> expected = new HashSet<>();
+    for (Future<List<TestState>> writer : writers) {
+      expected.addAll(writer.get());
+    }
+    assertThat(reader.get()).isTrue();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(reached.asCollection()).containsExactlyElementsIn(expected);
+    assertThat(reached.getWaitlist()).containsExactlyElementsIn(expected);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(PARTITIONS);
+
+    int statesInPartitions = 0;
+    for (int p = 0; p < PARTITIONS; p++) {
+      for (AbstractState state : reached.getReached(new TestState(p))) {
+        assertThat(reached.contains(state)).isTrue();
+        statesInPartitions++;
+      }
+    }
+    assertThat(statesInPartitions).isEqualTo(expected.size());
+  }
+
+  @Test
+  public void testConcurrentFirstAndLastState() throws Exception {
+    final ConcurrentPartitionedReachedSet reached =
+        new ConcurrentPartitionedReachedSet(TraversalMethod.BFS);
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> writers = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      final int partition = t;
+      writers.add(executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < STATES_PER_THREAD; i++) {
+            reached.add(new TestState(partition), SingletonPrecision.getInstance());
+          }
+        }
+      }));
+    }
+    for (Future<?> writer : writers) {
+      writer.get();
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(reached.size()).isEqualTo(THREADS * STATES_PER_THREAD);
+    assertThat(reached.contains(reached.getFirstState())).isTrue();
+    assertThat(reached.contains(reached.getLastState())).isTrue();
+  }
+
+  @Test
+  public void testPopFromEmptyWaitlist() {
+    ConcurrentPartitionedReachedSet reached =
+        new ConcurrentPartitionedReachedSet(TraversalMethod.DFS);
+    TestState state = new TestState(0);
+    reached.add(state, SingletonPrecision.getInstance());
+
+    assertThat(reached.popFromWaitlist()).isSameAs(state);
+    assertThat(reached.popFromWaitlist()).isNull();
+    assertThat(reached.getReached(state)).containsExactly(state);
+  }
+
+  @Test
+  public void testGetReachedIsView() {
+    ConcurrentPartitionedReachedSet reached =
+        new ConcurrentPartitionedReachedSet(TraversalMethod.DFS);
+    TestState state1 = new TestState(0);
+    TestState state2 = new TestState(0);
+    reached.add(state1, SingletonPrecision.getInstance());
+
+    Collection<AbstractState> partition = reached.getReached(state1);
+    reached.add(state2, SingletonPrecision.getInstance());
+    assertThat(partition).containsExactly(state1, state2);
+
+    reached.remove(state1);
+    assertThat(partition).containsExactly(state2);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(1);
+
+    reached.remove(state2);
+    assertThat(partition).isEmpty();
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(0);
+  }
+}
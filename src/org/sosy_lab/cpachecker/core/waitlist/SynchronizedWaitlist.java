@@ -0,0 +1,113 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import java.util.Iterator;
+
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Waitlist decorator that makes an arbitrary waitlist implementation thread-safe
+ * by guarding all accesses with a single lock.
+ * The order in which states are popped is defined by the delegate.
+ *
+ * In contrast to most other implementations, {@link #pop()} returns null
+ * if the waitlist is empty, such that concurrent consumers can atomically
+ * check for and take the next state.
+ * The iterator operates on a snapshot of the waitlist.
+ */
+public class SynchronizedWaitlist implements Waitlist {
+
+  private final Waitlist delegate;
+
+  public SynchronizedWaitlist(Waitlist pDelegate) {
+    delegate = pDelegate;
+  }
+
+  @Override
+  public synchronized void add(AbstractState pState) {
+    delegate.add(pState);
+  }
+
+  @Override
+  public synchronized void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public synchronized boolean contains(AbstractState pState) {
+    return delegate.contains(pState);
+  }
+
+  /**
+   * Add the state to the waitlist if it is not yet contained.
+   * @return whether the state was added
+   */
+  public synchronized boolean addIfAbsent(AbstractState pState) {
+    if (delegate.contains(pState)) {
+      return false;
+    }
+    delegate.add(pState);
+    return true;
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return delegate.isEmpty();
+  }
+
+  @Override
+  public synchronized AbstractState pop() {
+    if (delegate.isEmpty()) {
+      return null;
+    }
+    return delegate.pop();
+  }
+
+  @Override
+  public synchronized boolean remove(AbstractState pState) {
+    return delegate.remove(pState);
+  }
+
+  @Override
+  public synchronized int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    ImmutableList<AbstractState> snapshot;
+    synchronized (this) {
+      snapshot = ImmutableList.copyOf(delegate);
+    }
+    return snapshot.iterator();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return delegate.toString();
+  }
+}
@@ -41,6 +41,7 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
@@ -122,6 +123,8 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
   private final Map<ARGState, CounterexampleInfo> counterexamples = new WeakHashMap<>();
   private final MachineModel machineModel;
 
+  private final Timer subtreeRemovalTime = new Timer();
+
   private ARGCPA(ConfigurableProgramAnalysis cpa, Configuration config, LogManager logger, CFA cfa) throws InvalidConfigurationException {
     super(cpa);
     config.inject(this);
@@ -269,6 +272,14 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
     counterexamples.keySet().removeAll(toRemove);
   }
 
+  /**
+   * Time spent in {@link ARGReachedSet#removeSubtree(ARGState)} and its variants,
+   * including re-adding the parents of the removed states to the waitlist.
+   */
+  public Timer getSubtreeRemovalTime() {
+    return subtreeRemovalTime;
+  }
+
   ARGToDotWriter getRefinementGraphWriter() {
     return stats.getRefinementGraphWriter();
   }
@@ -25,7 +25,12 @@ package org.sosy_lab.cpachecker.cpa.arg;
 
 import static org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.SINK_NODE_ID;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -34,6 +39,7 @@ import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -41,16 +47,18 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.Nullable;
-import javax.xml.parsers.ParserConfigurationException;
 
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.Language;
 import org.sosy_lab.cpachecker.cfa.ast.AExpression;
@@ -110,7 +118,6 @@ import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
 import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
 import org.sosy_lab.cpachecker.util.expressions.Or;
 import org.sosy_lab.cpachecker.util.expressions.ToCodeVisitor;
-import org.w3c.dom.Element;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Function;
@@ -171,6 +178,16 @@ public class ARGPathExporter {
   @Option(secure=true, description="Verification witness: Include the offset within the file?")
   boolean exportOffset = true;
 
+  @Option(secure=true, description="Verification witness: Compress the witness files with gzip?"
+      + " The suffix \".gz\" is appended to the file names.")
+  boolean compressWitness = false;
+
+  @Option(secure=true, description="Verification witness: Write the nodes and edges of the witness"
+      + " while the ARG is traversed, instead of building the witness graph in memory first?"
+      + " Then the edges of the witness are not kept in memory, but equivalent witness nodes"
+      + " are not merged, so the witness is larger.")
+  boolean streamWitness = false;
+
   private final LogManager logger;
 
   private final MachineModel machineModel;
@@ -249,6 +266,20 @@ public class ARGPathExporter {
         GraphBuilder.PROOF);
   }
 
+  /**
+   * Open a writer for a witness file,
+   * which compresses the written witness if this is configured.
+   */
+  public Writer openWitnessFile(Path pFile) throws IOException {
+    if (!compressWitness) {
+      return Files.openOutputFile(pFile);
+    }
+    Path file = Paths.get(pFile.getPath() + ".gz");
+    Files.createParentDirs(file);
+    OutputStream out = new GZIPOutputStream(new BufferedOutputStream(file.asByteSink().openStream()));
+    return new BufferedWriter(new OutputStreamWriter(out, Charsets.UTF_8));
+  }
+
   private String getInitialFileName(ARGState pRootState) {
     Deque<CFANode> worklist = Queues.newArrayDeque(AbstractStates.extractLocations(pRootState));
 
@@ -278,6 +309,12 @@ public class ARGPathExporter {
     private final Multimap<String, Edge> leavingEdges = TreeMultimap.create();
     private final Multimap<String, Edge> enteringEdges = TreeMultimap.create();
 
+    // only used if the witness is streamed:
+    // the ids of the nodes that were already written,
+    // and the leaving edges of the most recent source node that were not yet written
+    private final Set<String> writtenNodes = new HashSet<>();
+    private final Set<Edge> pendingEdges = new LinkedHashSet<>();
+
     private final String defaultSourcefileName;
     private boolean isFunctionScope = false;
 
@@ -292,7 +329,7 @@ public class ARGPathExporter {
         final String pTo,
         final CFAEdge pEdge,
         final Optional<Collection<ARGState>> pFromState,
-        final Map<ARGState, CFAEdgeWithAssumptions> pValueMap) {
+        final Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException {
 
       attemptSwitchToFunctionScope(pEdge);
 
@@ -300,7 +337,14 @@ public class ARGPathExporter {
 
       Edge edge = new Edge(pFrom, pTo, desc);
 
-      putEdge(edge);
+      if (streamWitness) {
+        if (!pendingEdges.isEmpty() && !pendingEdges.iterator().next().source.equals(pFrom)) {
+          writePendingEdges(pDoc);
+        }
+        pendingEdges.add(edge);
+      } else {
+        putEdge(edge);
+      }
     }
 
     @Override
@@ -309,10 +353,40 @@ public class ARGPathExporter {
         String pFrom,
         CFAEdge pEdge,
         Optional<Collection<ARGState>> pFromState,
-        Map<ARGState, CFAEdgeWithAssumptions> pValueMap) {
+        Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException {
       appendNewEdge(pDoc, pFrom, SINK_NODE_ID, pEdge, pFromState, pValueMap);
     }
 
+    /**
+     * Write the buffered leaving edges of a node and their target nodes,
+     * omitting edges to the sink that have a sibling edge with the same label.
+     * This is the streaming counterpart of the sink-edge removal in
+     * {@link #writePath(Appendable, ARGState, Predicate, Predicate, Optional, GraphBuilder)}.
+     * It only sees the edges that were appended consecutively for the same source node.
+     */
+    private void writePendingEdges(GraphMlBuilder pDoc) throws IOException {
+      for (final Edge edge : pendingEdges) {
+        if (edge.target.equals(SINK_NODE_ID)
+            && FluentIterable.from(pendingEdges).anyMatch(new Predicate<Edge>() {
+
+              @Override
+              public boolean apply(Edge pSibling) {
+                return !pSibling.equals(edge) && pSibling.label.equals(edge.label);
+              }})) {
+          continue;
+        }
+        // edges may start in nodes that are not the target of a written edge,
+        // e.g., if the edge to them was not relevant
+        for (String node : ImmutableList.of(edge.source, edge.target)) {
+          if (writtenNodes.add(node)) {
+            appendNewNode(pDoc, node);
+          }
+        }
+        newEdge(pDoc, edge);
+      }
+      pendingEdges.clear();
+    }
+
     private void attemptSwitchToFunctionScope(CFAEdge pEdge) {
       if (isFunctionScope) {
         return;
@@ -558,7 +632,7 @@ public class ARGPathExporter {
       return result;
     }
 
-    private void appendKeyDefinitions(GraphMlBuilder pDoc, GraphType pGraphType) {
+    private void appendKeyDefinitions(GraphMlBuilder pDoc, GraphType pGraphType) throws IOException {
       if (pGraphType == GraphType.PROOF_WITNESS) {
         pDoc.appendNewKeyDef(KeyDef.INVARIANT, null);
         pDoc.appendNewKeyDef(KeyDef.INVARIANTSCOPE, null);
@@ -709,12 +783,7 @@ public class ARGPathExporter {
 
       GraphType graphType = pGraphBuilder.getGraphType();
 
-      GraphMlBuilder doc;
-      try {
-        doc = new GraphMlBuilder(pTarget);
-      } catch (ParserConfigurationException e) {
-        throw new IOException(e);
-      }
+      GraphMlBuilder doc = new GraphMlBuilder(pTarget);
 
       // TODO: Full schema details
       // Version of format..
@@ -759,6 +828,16 @@ public class ARGPathExporter {
       // Write the sink node
       nodeFlags.put(SINK_NODE_ID, NodeFlag.ISSINKNODE);
 
+      if (streamWitness) {
+        // Write the graph while it is built, without merging nodes
+        writtenNodes.add(entryStateNodeId);
+        appendNewNode(doc, entryStateNodeId);
+        pGraphBuilder.buildGraph(pRootState, pIsRelevantState, pIsRelevantEdge, valueMap, doc, collectPathEdges(pRootState, successorFunction, pIsRelevantState), this);
+        writePendingEdges(doc);
+        doc.appendFooter();
+        return;
+      }
+
       // Build the actual graph
       pGraphBuilder.buildGraph(pRootState, pIsRelevantState, pIsRelevantEdge, valueMap, doc, collectPathEdges(pRootState, successorFunction, pIsRelevantState), this);
 
@@ -937,23 +1016,23 @@ public class ARGPathExporter {
       return false;
     }
 
-    private void newEdge(GraphMlBuilder pDoc, Edge pEdge) {
-      Element result = pDoc.createEdgeElement(pEdge.source, pEdge.target);
-      for (KeyDef k : pEdge.label.keyValues.keySet())  {
-        pDoc.addDataElementChild(result, k, pEdge.label.keyValues.get(k));
+    private void newEdge(GraphMlBuilder pDoc, Edge pEdge) throws IOException {
+      pDoc.startEdgeElement(pEdge.source, pEdge.target);
+      for (Map.Entry<KeyDef, String> keyValue : pEdge.label.keyValues.entrySet())  {
+        pDoc.appendDataElement(keyValue.getKey(), keyValue.getValue());
       }
-      pDoc.appendToAppendable(result);
+      pDoc.endElement();
     }
 
     private void appendNewNode(GraphMlBuilder pDoc, String pEntryStateNodeId) throws IOException {
-      Element result = pDoc.createNodeElement(pEntryStateNodeId, NodeType.ONPATH);
+      pDoc.startNodeElement(pEntryStateNodeId, NodeType.ONPATH);
       for (NodeFlag f : nodeFlags.get(pEntryStateNodeId)) {
-        pDoc.addDataElementChild(result, f.key, "true");
+        pDoc.appendDataElement(f.key, "true");
       }
       for (Property violation : violatedProperties.get(pEntryStateNodeId)) {
-        pDoc.addDataElementChild(result, KeyDef.VIOLATEDPROPERTY, violation.toString());
+        pDoc.appendDataElement(KeyDef.VIOLATEDPROPERTY, violation.toString());
       }
-      pDoc.appendToAppendable(result);
+      pDoc.endElement();
     }
 
     private Collection<NodeFlag> extractNodeFlags(ARGState pState) {
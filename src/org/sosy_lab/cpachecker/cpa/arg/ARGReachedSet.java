@@ -103,10 +103,15 @@ public class ARGReachedSet {
    * @param e The root of the removed subtree, may not be the initial element.
    */
   public void removeSubtree(ARGState e) {
-    Set<ARGState> toWaitlist = removeSubtree0(e);
+    startSubtreeRemovalTimer();
+    try {
+      Set<ARGState> toWaitlist = removeSubtree0(e);
 
-    for (ARGState ae : toWaitlist) {
-      mReached.reAddToWaitlist(ae);
+      for (ARGState ae : toWaitlist) {
+        mReached.reAddToWaitlist(ae);
+      }
+    } finally {
+      stopSubtreeRemovalTimer();
     }
   }
 
@@ -118,9 +123,14 @@ public class ARGReachedSet {
    * @param p The new precision.
    */
   public void removeSubtree(ARGState e, Precision p, Predicate<? super Precision> pPrecisionType) {
-    for (ARGState ae : removeSubtree0(e)) {
-      mReached.updatePrecision(ae, adaptPrecision(mReached.getPrecision(ae), p, pPrecisionType));
-      mReached.reAddToWaitlist(ae);
+    startSubtreeRemovalTimer();
+    try {
+      for (ARGState ae : removeSubtree0(e)) {
+        mReached.updatePrecision(ae, adaptPrecision(mReached.getPrecision(ae), p, pPrecisionType));
+        mReached.reAddToWaitlist(ae);
+      }
+    } finally {
+      stopSubtreeRemovalTimer();
     }
   }
 
@@ -138,15 +148,32 @@ public class ARGReachedSet {
 
     Preconditions.checkArgument(precisions.size() == precisionTypes.size());
 
-    Set<ARGState> toWaitlist = removeSubtree0(e);
+    startSubtreeRemovalTimer();
+    try {
+      Set<ARGState> toWaitlist = removeSubtree0(e);
 
-    for (ARGState ae : toWaitlist) {
-      Precision prec = mReached.getPrecision(ae);
-      for (int i = 0; i < precisions.size(); i++) {
-        prec = adaptPrecision(prec, precisions.get(i), precisionTypes.get(i));
+      for (ARGState ae : toWaitlist) {
+        Precision prec = mReached.getPrecision(ae);
+        for (int i = 0; i < precisions.size(); i++) {
+          prec = adaptPrecision(prec, precisions.get(i), precisionTypes.get(i));
+        }
+        mReached.updatePrecision(ae, prec);
+        mReached.reAddToWaitlist(ae);
       }
-      mReached.updatePrecision(ae, prec);
-      mReached.reAddToWaitlist(ae);
+    } finally {
+      stopSubtreeRemovalTimer();
+    }
+  }
+
+  private void startSubtreeRemovalTimer() {
+    if (cpa != null) {
+      cpa.getSubtreeRemovalTime().start();
+    }
+  }
+
+  private void stopSubtreeRemovalTimer() {
+    if (cpa != null) {
+      cpa.getSubtreeRemovalTime().stop();
     }
   }
 
@@ -328,8 +355,12 @@ public class ARGReachedSet {
           toWaitlist.add(parent);
         }
       }
+    }
 
-      ae.removeFromARG();
+    // relations between two removed states are simply dropped,
+    // such that the cost is proportional to the size of the removed set
+    for (ARGState ae : elements) {
+      ae.removeFromARGTogetherWith(elements);
     }
     return toWaitlist;
   }
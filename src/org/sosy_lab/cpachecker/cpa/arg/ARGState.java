@@ -386,6 +386,56 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
     destroyed = true;
   }
 
+  /**
+   * This method has the same effect as {@link #removeFromARG()},
+   * if it is called for every element of the given set.
+   * However, relations (ARG edges and coverage) between this element
+   * and other elements of the set are not removed on both sides,
+   * but simply dropped, because the other element will be destroyed anyway.
+   * Only the relations to elements outside of the set are updated.
+   * This avoids repeatedly removing elements from the children lists
+   * of large removed subtrees.
+   *
+   * @param pRemovedElements All elements that are removed from the ARG together with this element.
+   */
+  void removeFromARGTogetherWith(Set<ARGState> pRemovedElements) {
+    assert !destroyed : "Don't use destroyed ARGState " + this;
+    assert pRemovedElements.contains(this);
+
+    for (ARGState child : children) {
+      if (!pRemovedElements.contains(child)) {
+        assert (child.parents.contains(this));
+        child.parents.remove(this);
+      }
+    }
+    children.clear();
+
+    for (ARGState parent : parents) {
+      if (!pRemovedElements.contains(parent)) {
+        assert (parent.children.contains(this));
+        parent.children.remove(this);
+      }
+    }
+    parents.clear();
+
+    if (mCoveredBy != null) {
+      if (!pRemovedElements.contains(mCoveredBy)) {
+        assert mCoveredBy.mCoveredByThis.contains(this);
+        mCoveredBy.mCoveredByThis.remove(this);
+      }
+      mCoveredBy = null;
+    }
+
+    if (mCoveredByThis != null) {
+      for (ARGState covered : mCoveredByThis) {
+        covered.mCoveredBy = null;
+      }
+      mCoveredByThis = null;
+    }
+
+    destroyed = true;
+  }
+
   /**
    * This method removes the element from the covered set of the other
    * element covering this element, if it is covered.
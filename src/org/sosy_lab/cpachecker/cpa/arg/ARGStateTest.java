@@ -0,0 +1,91 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ARGStateTest {
+
+  private ARGState root;
+  private ARGState subtreeRoot;
+  private ARGState child1;
+  private ARGState child2;
+  private ARGState sibling;
+  private ARGState coveredOutside;
+
+  @Before
+  public void setup() {
+    // root -> subtreeRoot -> {child1, child2}, root -> sibling -> coveredOutside
+    root = new ARGState(null, null);
+    subtreeRoot = new ARGState(null, root);
+    child1 = new ARGState(null, subtreeRoot);
+    child2 = new ARGState(null, subtreeRoot);
+    child2.addParent(child1);
+    sibling = new ARGState(null, root);
+    coveredOutside = new ARGState(null, sibling);
+
+    // coverage inside of the removed part and from the removed part to the outside
+    child2.setCovered(child1);
+    coveredOutside.setCovered(child1);
+  }
+
+  @Test
+  public void testRemoveFromARGTogetherWith() {
+    Set<ARGState> removed = subtreeRoot.getSubgraph();
+    assertThat(removed).containsExactly(subtreeRoot, child1, child2);
+
+    for (ARGState state : removed) {
+      state.removeFromARGTogetherWith(removed);
+    }
+
+    for (ARGState state : removed) {
+      assertThat(state.isDestroyed()).isTrue();
+    }
+    assertThat(root.getChildren()).containsExactly(sibling);
+    assertThat(sibling.getParents()).containsExactly(root);
+    assertThat(sibling.getChildren()).containsExactly(coveredOutside);
+    assertThat(coveredOutside.isCovered()).isFalse();
+    assertThat(root.getSubgraph()).containsExactly(root, sibling, coveredOutside);
+  }
+
+  @Test
+  public void testRemoveFromARGTogetherWithCoveredByOutside() {
+    ARGState leaf = new ARGState(null, child1);
+    coveredOutside.uncover();
+    leaf.setCovered(coveredOutside);
+
+    Set<ARGState> removed = subtreeRoot.getSubgraph();
+    for (ARGState state : removed) {
+      state.removeFromARGTogetherWith(removed);
+    }
+
+    assertThat(coveredOutside.getCoveredByThis()).isEmpty();
+    assertThat(root.getChildren()).containsExactly(sibling);
+  }
+}
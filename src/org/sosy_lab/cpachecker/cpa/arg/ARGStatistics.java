@@ -230,7 +230,7 @@ public class ARGStatistics implements IterationStatistics {
     Function<ARGState, Collection<ARGState>> relevantSuccessorFunction = Functions.forMap(relevantSuccessorRelation.asMap(), ImmutableSet.<ARGState>of());
 
     if (proofWitness != null) {
-      try (Writer w = Files.openOutputFile(adjustPathNameForPartitioning(rootState, proofWitness))) {
+      try (Writer w = argPathExporter.openWitnessFile(adjustPathNameForPartitioning(rootState, proofWitness))) {
         argPathExporter.writeProofWitness(w, rootState,
             Predicates.alwaysTrue(),
             Predicates.alwaysTrue());
@@ -33,6 +33,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.CoverageSignatureStopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.ForcedCoveringStopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
@@ -40,7 +41,7 @@ import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 @Options(prefix="cpa.arg")
-public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
+public class ARGStopSep implements ForcedCoveringStopOperator, CoverageSignatureStopOperator {
 
   @Option(secure=true, description="whether to keep covered states in the reached set as addition to keeping them in the ARG")
   private boolean keepCoveredStatesInReached = false;
@@ -109,8 +110,13 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
 
     // Now do the usual coverage checks
 
+    final long signature = getCoverageSignature(argElement);
     for (AbstractState reachedState : pReached) {
       ARGState argReachedState = (ARGState)reachedState;
+      if ((getCoverageSignature(argReachedState) & ~signature) != 0) {
+        // the wrapped stop operator would not stop
+        continue;
+      }
       if (stop(argElement, argReachedState, pPrecision)) {
         // if this option is true, we always return false here on purpose
         return !keepCoveredStatesInReached;
@@ -148,6 +154,15 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
     return stop;
   }
 
+  @Override
+  public long getCoverageSignature(AbstractState pState) {
+    if (wrappedStop instanceof CoverageSignatureStopOperator) {
+      return ((CoverageSignatureStopOperator) wrappedStop)
+          .getCoverageSignature(((ARGState) pState).getWrappedState());
+    }
+    return 0;
+  }
+
   boolean isCoveredBy(AbstractState pElement, AbstractState pOtherElement, ProofChecker wrappedProofChecker) throws CPAException, InterruptedException {
     ARGState argElement = (ARGState)pElement;
     ARGState otherArtElement = (ARGState)pOtherElement;
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cpa.arg;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
 
@@ -40,13 +41,13 @@ interface EdgeAppender {
       String pTo,
       CFAEdge pEdge,
       Optional<Collection<ARGState>> pFromState,
-      Map<ARGState, CFAEdgeWithAssumptions> pValueMap);
+      Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException;
 
   void appendNewEdgeToSink(
       final GraphMlBuilder pDoc,
       String pFrom,
       CFAEdge pEdge,
       Optional<Collection<ARGState>> pFromState,
-      Map<ARGState, CFAEdgeWithAssumptions> pValueMap);
+      Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException;
 
 }
\ No newline at end of file
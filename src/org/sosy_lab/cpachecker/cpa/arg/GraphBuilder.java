@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cpa.arg;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
@@ -75,7 +76,7 @@ enum GraphBuilder {
         Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
         GraphMlBuilder pDocument,
         Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
-        EdgeAppender pEdgeAppender) {
+        EdgeAppender pEdgeAppender) throws IOException {
       int multiEdgeCount = 0;
       for (Pair<ARGState, Iterable<ARGState>> argEdges : pARGEdges) {
         ARGState s = argEdges.getFirst();
@@ -150,7 +151,7 @@ enum GraphBuilder {
         Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
         GraphMlBuilder pDocument,
         Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
-        EdgeAppender pEdgeAppender) {
+        EdgeAppender pEdgeAppender) throws IOException {
 
       // normally there is only one node per state, thus we assume that there is only one root-node
       final CFANode rootNode = Iterables.getOnlyElement(AbstractStates.extractLocations(pRootState));
@@ -208,7 +209,7 @@ enum GraphBuilder {
         EdgeAppender pEdgeAppender,
         CFAEdge pEdge,
         Optional<Collection<ARGState>> pStates,
-        Map<ARGState, CFAEdgeWithAssumptions> pValueMap) {
+        Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException {
       if (pEdge instanceof MultiEdge) {
         Iterator<CFAEdge> edgeIterator = ((MultiEdge) pEdge).iterator();
         while (edgeIterator.hasNext()) {
@@ -244,6 +245,6 @@ enum GraphBuilder {
       Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
       GraphMlBuilder pDocument,
       Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
-      EdgeAppender pEdgeAppender);
+      EdgeAppender pEdgeAppender) throws IOException;
 
 }
\ No newline at end of file
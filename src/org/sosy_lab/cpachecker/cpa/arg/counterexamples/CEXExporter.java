@@ -28,6 +28,7 @@ import static com.google.common.base.Predicates.notNull;
 import static com.google.common.collect.FluentIterable.from;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -271,15 +272,19 @@ public class CEXExporter {
       }
     }
 
-    writeErrorPathFile(errorPathAutomatonGraphmlFile, cexIndex, new Appender() {
-      @Override
-      public void appendTo(Appendable pAppendable) throws IOException {
-        witnessExporter.writeErrorWitness(pAppendable, rootState,
+    if (errorPathAutomatonGraphmlFile != null) {
+      // the witness is streamed directly into the (possibly compressed) file
+      Path file = errorPathAutomatonGraphmlFile.getPath(cexIndex);
+      try (Writer w = witnessExporter.openWitnessFile(file)) {
+        witnessExporter.writeErrorWitness(w, rootState,
                 Predicates.in(pathElements),
                 isTargetPathEdge,
                 counterexample);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e,
+                "Could not write information about the error path to file");
       }
-    });
+    }
   }
 
   private Appender createErrorPathWithVariableAssignmentInformation(
@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.cpa.automaton;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintStream;
 import java.io.Writer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -34,7 +35,6 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -44,10 +44,7 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamException;
 
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -69,21 +66,24 @@ import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CBasicType;
 import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.automaton.GraphMlDocumentData.GraphMlEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.GraphMlDocumentData.GraphMlNode;
 import org.sosy_lab.cpachecker.exceptions.CParserException;
 import org.sosy_lab.cpachecker.util.SourceLocationMapper.LocationDescriptor;
 import org.sosy_lab.cpachecker.util.SourceLocationMapper.OffsetDescriptor;
 import org.sosy_lab.cpachecker.util.SourceLocationMapper.OriginLineDescriptor;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.AssumeCase;
-import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlTag;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
@@ -91,8 +91,8 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.FluentIterable;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -102,7 +102,7 @@ import com.google.common.collect.Sets;
 import com.google.common.io.ByteSource;
 
 @Options(prefix="spec")
-public class AutomatonGraphmlParser {
+public class AutomatonGraphmlParser implements StatisticsProvider {
 
   private static final String DISTANCE_TO_VIOLATION = "__DISTANCE_TO_VIOLATION";
 
@@ -138,6 +138,11 @@ public class AutomatonGraphmlParser {
   private Configuration config;
   private MachineModel machine;
 
+  private final StatTimer parseTimer = new StatTimer(StatKind.SUM, "Time for reading witness file");
+  private final StatTimer automatonCreationTimer = new StatTimer(StatKind.SUM, "Time for building witness automaton");
+  private final StatInt parsedNodes = new StatInt(StatKind.SUM, "Number of witness nodes");
+  private final StatInt parsedEdges = new StatInt(StatKind.SUM, "Number of witness edges");
+
   public AutomatonGraphmlParser(Configuration pConfig, LogManager pLogger, MachineModel pMachine, Scope pScope) throws InvalidConfigurationException {
     pConfig.inject(this);
 
@@ -161,54 +166,50 @@ public class AutomatonGraphmlParser {
    */
   public List<Automaton> parseAutomatonFile(ByteSource pInputFile) throws InvalidConfigurationException {
     CParser cparser = CParser.Factory.getParser(config, logger, CParser.Factory.getOptions(config), machine);
+    GraphMlDocumentData docDat;
+    parseTimer.start();
     try (InputStream input = pInputFile.openStream()) {
-      // Parse the XML document ----
-      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(input);
-      doc.getDocumentElement().normalize();
-
-      GraphMlDocumentData docDat = new GraphMlDocumentData(doc);
-
-      // (The one) root node of the graph ----
-      NodeList graphs = doc.getElementsByTagName(GraphMlTag.GRAPH.toString());
-      Preconditions.checkArgument(graphs.getLength() == 1, "The graph file must describe exactly one automaton.");
-      Node graphNode = graphs.item(0);
+      // Read the nodes and edges of (the one) graph ----
+      docDat = GraphMlDocumentData.read(input);
+    } catch (IOException | XMLStreamException e) {
+      throw new InvalidConfigurationException("Error while accessing automaton file!", e);
+    } finally {
+      parseTimer.stop();
+    }
+    parsedNodes.setNextValue(docDat.getIdToNodeMap().size());
+    parsedEdges.setNextValue(docDat.getEdges().size());
 
+    automatonCreationTimer.start();
+    try {
       // Extract the information on the automaton ----
-      Node nameAttribute = graphNode.getAttributes().getNamedItem("name");
       String automatonName = WITNESS_AUTOMATON_NAME;
-      if (nameAttribute != null) {
-        automatonName += "_" + nameAttribute.getTextContent();
+      if (docDat.getGraphName().isPresent()) {
+        automatonName += "_" + docDat.getGraphName().get();
       }
       String initialStateName = null;
 
       // Create transitions ----
       //AutomatonBoolExpr epsilonTrigger = new SubsetMatchEdgeTokens(Collections.<Comparable<Integer>>emptySet());
-      NodeList edges = doc.getElementsByTagName(GraphMlTag.EDGE.toString());
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
       Map<String, LinkedList<AutomatonTransition>> stateTransitions = Maps.newHashMap();
       Map<String, Deque<String>> stacks = Maps.newHashMap();
 
       // Create graph
-      Multimap<String, Node> leavingEdges = HashMultimap.create();
-      Multimap<String, Node> enteringEdges = HashMultimap.create();
+      Multimap<String, GraphMlEdge> leavingEdges = ArrayListMultimap.create();
+      Multimap<String, GraphMlEdge> enteringEdges = ArrayListMultimap.create();
       String entryNodeId = null;
 
-      Set<String> violationStates = Sets.newHashSet();
+      Set<String> violationStates = Sets.newLinkedHashSet();
 
-      for (int i = 0; i < edges.getLength(); i++) {
-        Node stateTransitionEdge = edges.item(i);
-
-        String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
-        String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
+      for (GraphMlEdge stateTransitionEdge : docDat.getEdges()) {
+        String sourceStateId = stateTransitionEdge.getSource();
+        String targetStateId = stateTransitionEdge.getTarget();
         leavingEdges.put(sourceStateId, stateTransitionEdge);
         enteringEdges.put(targetStateId, stateTransitionEdge);
 
-        Element sourceStateNode = docDat.getNodeWithId(sourceStateId);
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
-        EnumSet<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceStateNode);
-        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
+        GraphMlNode sourceStateNode = docDat.getNodeWithId(sourceStateId);
+        GraphMlNode targetStateNode = docDat.getNodeWithId(targetStateId);
+        EnumSet<NodeFlag> sourceNodeFlags = GraphMlDocumentData.getNodeFlags(sourceStateNode);
+        EnumSet<NodeFlag> targetNodeFlags = GraphMlDocumentData.getNodeFlags(targetStateNode);
         if (targetNodeFlags.contains(NodeFlag.ISVIOLATION)) {
           violationStates.add(targetStateId);
         }
@@ -218,10 +219,9 @@ public class AutomatonGraphmlParser {
       }
 
       // Find entry
-      for (int i = 0; i < nodes.getLength(); ++i) {
-        Node node = nodes.item(i);
+      for (GraphMlNode node : docDat.getIdToNodeMap().values()) {
         if (Boolean.parseBoolean(docDat.getDataValueWithDefault(node, KeyDef.ISENTRYNODE, "false"))) {
-          entryNodeId = GraphMlDocumentData.getAttributeValue(node, "id", "Every node needs an id!");
+          entryNodeId = node.getId();
           break;
         }
       }
@@ -237,8 +237,8 @@ public class AutomatonGraphmlParser {
       while (!waitlist.isEmpty()) {
         String current = waitlist.poll();
         int newDistance = distances.get(current) + 1;
-        for (Node enteringEdge : enteringEdges.get(current)) {
-          String sourceStateId = GraphMlDocumentData.getAttributeValue(enteringEdge, "source", "Every transition needs a source!");
+        for (GraphMlEdge enteringEdge : enteringEdges.get(current)) {
+          String sourceStateId = enteringEdge.getSource();
           Integer oldDistance = distances.get(sourceStateId);
           if (oldDistance == null || oldDistance > newDistance) {
             distances.put(sourceStateId, newDistance);
@@ -249,24 +249,24 @@ public class AutomatonGraphmlParser {
       // Sink nodes have infinite distance to the target location, encoded as -1
       distances.put(AutomatonGraphmlCommon.SINK_NODE_ID, -1);
 
-      Set<Node> visitedEdges = new HashSet<>();
-      Queue<Node> waitingEdges = new ArrayDeque<>();
+      Set<GraphMlEdge> visitedEdges = Sets.newIdentityHashSet();
+      Queue<GraphMlEdge> waitingEdges = new ArrayDeque<>();
       waitingEdges.addAll(leavingEdges.get(entryNodeId));
       visitedEdges.addAll(waitingEdges);
       while (!waitingEdges.isEmpty()) {
-        Node stateTransitionEdge = waitingEdges.poll();
+        GraphMlEdge stateTransitionEdge = waitingEdges.poll();
 
-        String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
-        String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
+        String sourceStateId = stateTransitionEdge.getSource();
+        String targetStateId = stateTransitionEdge.getTarget();
 
-        for (Node successorEdge : leavingEdges.get(targetStateId)) {
+        for (GraphMlEdge successorEdge : leavingEdges.get(targetStateId)) {
           if (visitedEdges.add(successorEdge)) {
             waitingEdges.add(successorEdge);
           }
         }
 
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
-        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
+        GraphMlNode targetStateNode = docDat.getNodeWithId(targetStateId);
+        EnumSet<NodeFlag> targetNodeFlags = GraphMlDocumentData.getNodeFlags(targetStateNode);
 
         final List<AutomatonBoolExpr> assertions = Collections.emptyList();
         boolean leadsToViolationNode = targetNodeFlags.contains(NodeFlag.ISVIOLATION);
@@ -477,8 +477,8 @@ public class AutomatonGraphmlParser {
         // Multiple CFA edges in a sequence might match the triggers,
         // so in that case we ALSO need a transition back to the source state
         if (strictMatching || !assumptions.isEmpty() || !actions.isEmpty() || leadsToViolationNode) {
-          Element sourceNode = docDat.getNodeWithId(sourceStateId);
-          Set<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceNode);
+          GraphMlNode sourceNode = docDat.getNodeWithId(sourceStateId);
+          Set<NodeFlag> sourceNodeFlags = GraphMlDocumentData.getNodeFlags(sourceNode);
           boolean sourceIsViolationNode = sourceNodeFlags.contains(NodeFlag.ISVIOLATION);
           matchingTransitions.add(createAutomatonTransition(
               and(conjunctedTriggers,
@@ -496,8 +496,8 @@ public class AutomatonGraphmlParser {
       // Create states ----
       List<AutomatonInternalState> automatonStates = Lists.newArrayList();
       for (String stateId : docDat.getIdToNodeMap().keySet()) {
-        Element stateNode = docDat.getIdToNodeMap().get(stateId);
-        EnumSet<NodeFlag> nodeFlags = docDat.getNodeFlags(stateNode);
+        GraphMlNode stateNode = docDat.getIdToNodeMap().get(stateId);
+        EnumSet<NodeFlag> nodeFlags = GraphMlDocumentData.getNodeFlags(stateNode);
 
         List<AutomatonTransition> transitions = stateTransitions.get(stateId);
         if (transitions == null) {
@@ -557,15 +557,35 @@ public class AutomatonGraphmlParser {
 
       return result;
 
-    } catch (IOException | ParserConfigurationException | SAXException e) {
-      throw new InvalidConfigurationException("Error while accessing automaton file!", e);
     } catch (InvalidAutomatonException e) {
       throw new InvalidConfigurationException("The automaton provided is invalid!", e);
     } catch (CParserException e) {
       throw new InvalidConfigurationException("The automaton contains invalid C code!", e);
+    } finally {
+      automatonCreationTimer.stop();
     }
   }
 
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(new Statistics() {
+
+      @Override
+      public String getName() {
+        return "Witness parser";
+      }
+
+      @Override
+      public void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+        StatisticsWriter.writingStatisticsTo(pOut)
+            .put(parseTimer)
+            .put(automatonCreationTimer)
+            .put(parsedNodes)
+            .put(parsedEdges);
+      }
+    });
+  }
+
   private static AutomatonBoolExpr createViolationAssertion() {
     return and(
         not(new AutomatonBoolExpr.ALLCPAQuery(AutomatonState.INTERNAL_STATE_IS_TARGET_PROPERTY))
@@ -777,152 +797,13 @@ public class AutomatonGraphmlParser {
     return pAssumeCode;
   }
 
-  private static class GraphMlDocumentData {
-
-    private final HashMap<String, Optional<String>> defaultDataValues = Maps.newHashMap();
-    private final Document doc;
-
-    private Map<String, Element> idToNodeMap = null;
-
-    public GraphMlDocumentData(Document doc) {
-      this.doc = doc;
-    }
-
-    public EnumSet<NodeFlag> getNodeFlags(Element pStateNode) {
-      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
-
-      NodeList dataChilds = pStateNode.getElementsByTagName(GraphMlTag.DATA.toString());
-
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String key = attribute.getTextContent();
-        NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
-        if (flag != null) {
-          result.add(flag);
-        }
-      }
-
-      return result;
-    }
-
-    public Map<String, Element> getIdToNodeMap() {
-      if (idToNodeMap != null) {
-        return idToNodeMap;
-      }
-
-      idToNodeMap = Maps.newHashMap();
-
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
-      for (int i=0; i<nodes.getLength(); i++) {
-        Element stateNode = (Element) nodes.item(i);
-        String stateId = getNodeId(stateNode);
-
-        idToNodeMap.put(stateId, stateNode);
-      }
-
-      return idToNodeMap;
-    }
-
-    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage) {
-      Node attribute = of.getAttributes().getNamedItem(attributeName);
-      Preconditions.checkNotNull(attribute, exceptionMessage);
-      return attribute.getTextContent();
-    }
-
-    private Optional<String> getDataDefault(KeyDef dataKey) {
-      Optional<String> result = defaultDataValues.get(dataKey.id);
-      if (result != null) {
-        return result;
-      }
-
-      NodeList keyDefs = doc.getElementsByTagName(GraphMlTag.KEY.toString());
-      for (int i=0; i<keyDefs.getLength(); i++) {
-        Element keyDef = (Element) keyDefs.item(i);
-        Node id = keyDef.getAttributes().getNamedItem("id");
-        if (dataKey.id.equals(id.getTextContent())) {
-          NodeList defaultTags = keyDef.getElementsByTagName(GraphMlTag.DEFAULT.toString());
-          result = Optional.absent();
-          if (defaultTags.getLength() > 0) {
-            Preconditions.checkArgument(defaultTags.getLength() == 1);
-            result = Optional.of(defaultTags.item(0).getTextContent());
-          }
-          defaultDataValues.put(dataKey.id, result);
-          return result;
-        }
-      }
-      return Optional.absent();
-    }
-
-    private static String getNodeId(Node stateNode) {
-      return getAttributeValue(stateNode, "id", "Every state needs an ID!");
-    }
-
-    private Element getNodeWithId(String nodeId) {
-      Element result = getIdToNodeMap().get(nodeId);
-      Preconditions.checkNotNull(result, "Node not found. Id: " + nodeId);
-      return result;
-    }
-
-    private String getDataValueWithDefault(Node dataOnNode, KeyDef dataKey, final String defaultValue) {
-      Set<String> values = getDataOnNode(dataOnNode, dataKey);
-      if (values.size() == 0) {
-        Optional<String> dataDefault = getDataDefault(dataKey);
-        if (dataDefault.isPresent()) {
-          return dataDefault.get();
-        } else {
-          return defaultValue;
-        }
-      } else {
-        return values.iterator().next();
-      }
-    }
-
-    private static Set<String> getDataOnNode(Node node, final KeyDef dataKey) {
-      Preconditions.checkNotNull(node);
-      Preconditions.checkArgument(node.getNodeType() == Node.ELEMENT_NODE);
-
-      Element nodeElement = (Element) node;
-      Set<Node> dataNodes = findKeyedDataNode(nodeElement, dataKey);
-
-      Set<String> result = Sets.newHashSet();
-      for (Node n: dataNodes) {
-        result.add(n.getTextContent());
-      }
-
-      return result;
-    }
-
-    private static Set<Node> findKeyedDataNode(Element of, final KeyDef dataKey) {
-      Set<Node> result = Sets.newHashSet();
-      NodeList dataChilds = of.getElementsByTagName(GraphMlTag.DATA.toString());
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        if (attribute.getTextContent().equals(dataKey.id)) {
-          result.add(dataChild);
-        }
-      }
-      return result;
-    }
-
-  }
-
   public static boolean isGraphmlAutomaton(Path pPath, LogManager pLogger) throws InvalidConfigurationException {
     try (InputStream input = pPath.asByteSource().openStream()) {
-      SAXParserFactory.newInstance().newSAXParser().parse(input, new DefaultHandler());
-      return true;
+      return GraphMlDocumentData.startsWithXmlElement(input);
     } catch (FileNotFoundException e) {
       throw new InvalidConfigurationException("Invalid automaton file provided! File not found: " + pPath.getPath());
     } catch (IOException e) {
       throw new InvalidConfigurationException("Error while accessing automaton file", e);
-    } catch (SAXException e) {
-      return false;
-    } catch (ParserConfigurationException e) {
-      pLogger.logException(Level.WARNING, e, "SAX parser configured incorrectly. Could not determine whether or not the path describes a graphml automaton.");
-      return false;
     }
   }
 
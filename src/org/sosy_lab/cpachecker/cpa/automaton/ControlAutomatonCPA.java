@@ -200,7 +200,7 @@ public class ControlAutomatonCPA implements ConfigurableProgramAnalysis, Statist
     return new ControlAutomatonPrecisionAdjustment(pConfig, topState, lPrecisionAdjustment);
   }
 
-  Automaton getAutomaton() {
+  public Automaton getAutomaton() {
     return this.automaton;
   }
 
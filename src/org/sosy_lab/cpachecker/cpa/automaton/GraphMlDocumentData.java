@@ -0,0 +1,327 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlTag;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Lists;
+
+/**
+ * The nodes and edges of a GraphML witness, read in a single pass with a StAX parser.
+ *
+ * In contrast to a DOM, only the information that is needed for building the witness automaton
+ * is kept in memory: the ids and flags of the nodes, and the edges with the data for the keys
+ * of {@link KeyDef} that are defined for edges.
+ * All other content of the file is skipped while reading.
+ */
+final class GraphMlDocumentData {
+
+  /** A node of the witness graph. */
+  static final class GraphMlNode {
+
+    private final String id;
+    private final EnumSet<NodeFlag> flags;
+    private final ImmutableSetMultimap<String, String> data;
+
+    private GraphMlNode(String pId, EnumSet<NodeFlag> pFlags, ImmutableSetMultimap<String, String> pData) {
+      id = pId;
+      flags = pFlags;
+      data = pData;
+    }
+
+    String getId() {
+      return id;
+    }
+  }
+
+  /** An edge of the witness graph. */
+  static final class GraphMlEdge {
+
+    private final String source;
+    private final String target;
+    private final ImmutableSetMultimap<String, String> data;
+
+    private GraphMlEdge(String pSource, String pTarget, ImmutableSetMultimap<String, String> pData) {
+      source = pSource;
+      target = pTarget;
+      data = pData;
+    }
+
+    String getSource() {
+      return source;
+    }
+
+    String getTarget() {
+      return target;
+    }
+
+    @Override
+    public String toString() {
+      return source + " -> " + target;
+    }
+  }
+
+  private static final ImmutableSet<String> EDGE_KEYS;
+  private static final ImmutableSet<String> NODE_KEYS;
+
+  static {
+    ImmutableSet.Builder<String> edgeKeys = ImmutableSet.builder();
+    for (KeyDef keyDef : KeyDef.values()) {
+      if (keyDef.keyFor.equals("edge")) {
+        edgeKeys.add(keyDef.id);
+      }
+    }
+    EDGE_KEYS = edgeKeys.build();
+
+    ImmutableSet.Builder<String> nodeKeys = ImmutableSet.builder();
+    for (NodeFlag flag : NodeFlag.values()) {
+      nodeKeys.add(flag.key.id);
+    }
+    NODE_KEYS = nodeKeys.build();
+  }
+
+  private final Optional<String> graphName;
+  private final Map<String, GraphMlNode> idToNodeMap;
+  private final List<GraphMlEdge> edges;
+  private final Map<String, String> dataDefaults;
+
+  private GraphMlDocumentData(Optional<String> pGraphName, Map<String, GraphMlNode> pIdToNodeMap,
+      List<GraphMlEdge> pEdges, Map<String, String> pDataDefaults) {
+    graphName = pGraphName;
+    idToNodeMap = pIdToNodeMap;
+    edges = pEdges;
+    dataDefaults = pDataDefaults;
+  }
+
+  /**
+   * Read a GraphML document that describes exactly one graph.
+   */
+  static GraphMlDocumentData read(InputStream pInput) throws XMLStreamException {
+    XMLStreamReader reader = createInputFactory().createXMLStreamReader(pInput);
+    try {
+      return read(reader);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static GraphMlDocumentData read(XMLStreamReader reader) throws XMLStreamException {
+    int graphs = 0;
+    Optional<String> graphName = Optional.absent();
+    Map<String, GraphMlNode> idToNodeMap = new LinkedHashMap<>();
+    List<GraphMlEdge> edges = Lists.newArrayList();
+    Map<String, String> dataDefaults = new HashMap<>();
+
+    String currentKey = null;
+    String currentNodeId = null;
+    String currentEdgeSource = null;
+    String currentEdgeTarget = null;
+    ImmutableSetMultimap.Builder<String, String> currentData = null;
+
+    while (reader.hasNext()) {
+      int event = reader.next();
+
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        String tag = reader.getLocalName();
+
+        if (tag.equals(GraphMlTag.KEY.toString())) {
+          currentKey = reader.getAttributeValue(null, "id");
+
+        } else if (tag.equals(GraphMlTag.DEFAULT.toString())) {
+          String value = readTextContent(reader);
+          if (currentKey != null) {
+            Preconditions.checkArgument(!dataDefaults.containsKey(currentKey),
+                "At most one default value must be provided for key %s.", currentKey);
+            dataDefaults.put(currentKey, value);
+          }
+
+        } else if (tag.equals(GraphMlTag.GRAPH.toString())) {
+          graphs++;
+          graphName = Optional.fromNullable(reader.getAttributeValue(null, "name"));
+
+        } else if (tag.equals(GraphMlTag.NODE.toString())) {
+          currentNodeId = getAttributeValue(reader, "id", "Every state needs an ID!");
+          currentData = ImmutableSetMultimap.builder();
+
+        } else if (tag.equals(GraphMlTag.EDGE.toString())) {
+          currentEdgeSource = getAttributeValue(reader, "source", "Every transition needs a source!");
+          currentEdgeTarget = getAttributeValue(reader, "target", "Every transition needs a target!");
+          currentData = ImmutableSetMultimap.builder();
+
+        } else if (tag.equals(GraphMlTag.DATA.toString()) && currentData != null) {
+          String key = getAttributeValue(reader, "key", "Every data element must have a key attribute!");
+          Set<String> relevantKeys = currentEdgeSource != null ? EDGE_KEYS : NODE_KEYS;
+          String value = readTextContent(reader);
+          if (relevantKeys.contains(key)) {
+            currentData.put(key, value);
+          }
+        }
+
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        String tag = reader.getLocalName();
+
+        if (tag.equals(GraphMlTag.KEY.toString())) {
+          currentKey = null;
+
+        } else if (tag.equals(GraphMlTag.NODE.toString())) {
+          ImmutableSetMultimap<String, String> data = currentData.build();
+          EnumSet<NodeFlag> flags = EnumSet.noneOf(NodeFlag.class);
+          for (String key : data.keySet()) {
+            NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
+            if (flag != null) {
+              flags.add(flag);
+            }
+          }
+          idToNodeMap.put(currentNodeId, new GraphMlNode(currentNodeId, flags, data));
+          currentNodeId = null;
+          currentData = null;
+
+        } else if (tag.equals(GraphMlTag.EDGE.toString())) {
+          edges.add(new GraphMlEdge(currentEdgeSource, currentEdgeTarget, currentData.build()));
+          currentEdgeSource = null;
+          currentEdgeTarget = null;
+          currentData = null;
+        }
+      }
+    }
+
+    Preconditions.checkArgument(graphs == 1, "The graph file must describe exactly one automaton.");
+
+    return new GraphMlDocumentData(graphName, idToNodeMap, edges, dataDefaults);
+  }
+
+  /**
+   * Check whether the given input starts with a well-formed XML element,
+   * without reading the rest of the input.
+   */
+  static boolean startsWithXmlElement(InputStream pInput) {
+    try {
+      XMLStreamReader reader = createInputFactory().createXMLStreamReader(pInput);
+      try {
+        while (reader.hasNext()) {
+          if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+            return true;
+          }
+        }
+        return false;
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      return false;
+    }
+  }
+
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    return factory;
+  }
+
+  private static String getAttributeValue(XMLStreamReader reader, String attributeName, String exceptionMessage) {
+    String value = reader.getAttributeValue(null, attributeName);
+    Preconditions.checkNotNull(value, exceptionMessage);
+    return value;
+  }
+
+  /**
+   * Read the text content of the current element including all descendants
+   * (like {@link org.w3c.dom.Node#getTextContent()}),
+   * afterwards the reader is positioned at the end of the element.
+   */
+  private static String readTextContent(XMLStreamReader reader) throws XMLStreamException {
+    StringBuilder text = new StringBuilder();
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      } else if (event == XMLStreamConstants.CHARACTERS
+          || event == XMLStreamConstants.CDATA
+          || event == XMLStreamConstants.SPACE) {
+        text.append(reader.getText());
+      }
+    }
+    return text.toString();
+  }
+
+  Optional<String> getGraphName() {
+    return graphName;
+  }
+
+  Map<String, GraphMlNode> getIdToNodeMap() {
+    return Collections.unmodifiableMap(idToNodeMap);
+  }
+
+  List<GraphMlEdge> getEdges() {
+    return Collections.unmodifiableList(edges);
+  }
+
+  GraphMlNode getNodeWithId(String nodeId) {
+    GraphMlNode result = idToNodeMap.get(nodeId);
+    Preconditions.checkNotNull(result, "Node not found. Id: " + nodeId);
+    return result;
+  }
+
+  static EnumSet<NodeFlag> getNodeFlags(GraphMlNode pStateNode) {
+    return EnumSet.copyOf(pStateNode.flags);
+  }
+
+  String getDataValueWithDefault(GraphMlNode pNode, KeyDef dataKey, final String defaultValue) {
+    Set<String> values = pNode.data.get(dataKey.id);
+    if (values.isEmpty()) {
+      String dataDefault = dataDefaults.get(dataKey.id);
+      return dataDefault != null ? dataDefault : defaultValue;
+    } else {
+      return values.iterator().next();
+    }
+  }
+
+  static Set<String> getDataOnNode(GraphMlEdge pEdge, final KeyDef dataKey) {
+    return pEdge.data.get(dataKey.id);
+  }
+}
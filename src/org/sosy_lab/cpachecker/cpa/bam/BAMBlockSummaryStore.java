@@ -0,0 +1,555 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.model.ADeclarationEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Reducer;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.automaton.ControlAutomatonCPA;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Store for block summaries of BAM that is kept in a file,
+ * such that a later run can reuse the summaries of blocks that did not change.
+ *
+ * A summary consists of the reduced entry state of a block and the reduced states
+ * at the return nodes of the block. It is identified by a hash over the CFA of the block
+ * (including all nested blocks and called functions) and over everything else
+ * that influences the result of the analysis of a block:
+ * the configuration (except for options like output files)
+ * together with the content of the input files of the CPAs (e.g., initial predicates),
+ * the specification automata, and the global declarations of the program
+ * (e.g., types and declarations of called functions outside of the block).
+ * Nodes enter the hash with their position in the block instead of their node number,
+ * so that a block that only got renumbered (e.g., because code before it was changed)
+ * still matches. The precision is not stored (precisions are not serializable),
+ * summaries are reused with any precision, as done by {@link BAMCache} for imprecise entries.
+ *
+ * Abstract states are written with Java serialization, each summary separately,
+ * such that summaries with non-serializable states can be skipped.
+ * Locations are serialized by their node number, so each summary also stores the node numbers
+ * of its block, and while reading the states these numbers are translated
+ * to the nodes at the same position in the current block (cf. {@link CFAInfo#setNodeNumberTranslation}).
+ *
+ * The states are deserialized lazily on the first lookup for their block,
+ * because deserializing states needs the complete analysis to be set up.
+ */
+final class BAMBlockSummaryStore {
+
+  private static final int MAGIC = 0x43504253; // "CPBS"
+  private static final int VERSION = 3;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+
+  /** Options that cannot influence the result of a block analysis. */
+  private static final ImmutableList<String> IRRELEVANT_OPTION_PREFIXES = ImmutableList.of(
+      "analysis.programNames",
+      "cpa.bam.summaries.",
+      "limits.",
+      "log.",
+      "output.",
+      "statistics.");
+
+  /** A summary of a block. The states are decoded on demand. */
+  static final class BlockSummary {
+
+    private final String blockHash;
+
+    // node numbers of the block when the summary was written, in the order of the block hash
+    private final int[] nodeNumbers;
+    private final byte[] serializedStates;
+
+    // block for which the states were decoded, and the unwrapped (i.e., not ARGState) states
+    private @Nullable Block decodedFor = null;
+    private AbstractState entryState;
+    private ImmutableList<AbstractState> returnStates;
+
+    private BlockSummary(String pBlockHash, int[] pNodeNumbers, byte[] pSerializedStates) {
+      blockHash = pBlockHash;
+      nodeNumbers = pNodeNumbers;
+      serializedStates = pSerializedStates;
+    }
+
+    /** The unwrapped (i.e., not {@link ARGState}) reduced states at the return nodes of the block. */
+    List<AbstractState> getReturnStates() {
+      return returnStates;
+    }
+  }
+
+  private final Path file;
+  private final LogManager logger;
+  private final CFA cfa;
+
+  // hash of everything except the block itself that the summaries depend on
+  private final HashCode contextHash;
+
+  private final Map<Block, String> blockHashes = new HashMap<>();
+
+  // null until loaded
+  private ListMultimap<String, BlockSummary> summaries = null;
+
+  int loadedSummaries = 0;
+  int usedSummaries = 0;
+  int discardedSummaries = 0;
+  int unreadableSummaries = 0;
+  int writtenSummaries = 0;
+  int unserializableSummaries = 0;
+
+  /**
+   * Create a store for the summaries of the given CPA (the CPA wrapped by BAM).
+   * @throws IOException If a file that is referenced by the configuration cannot be read.
+   */
+  BAMBlockSummaryStore(Path pFile, Configuration pConfig, ConfigurableProgramAnalysis pCpa,
+      CFA pCfa, LogManager pLogger) throws IOException {
+    file = pFile;
+    logger = pLogger;
+    cfa = pCfa;
+    contextHash = computeContextHash(pConfig, pCpa, pCfa);
+  }
+
+  private static HashCode computeContextHash(Configuration pConfig, ConfigurableProgramAnalysis pCpa,
+      CFA pCfa) throws IOException {
+    Hasher hasher = HASH_FUNCTION.newHasher();
+    hasher.putInt(VERSION);
+    hasher.putString(CPAchecker.getCPAcheckerVersion(), StandardCharsets.UTF_8);
+
+    for (String line : Splitter.on('\n').omitEmptyStrings().split(pConfig.asPropertiesString())) {
+      if (!isIrrelevantOption(line)) {
+        hasher.putString(line, StandardCharsets.UTF_8);
+      }
+    }
+
+    // Input files (initial predicates, precisions, etc.) are relevant with their content.
+    // Relative paths in the configuration are resolved by Configuration
+    // (relative to the file that set the option, or to the root directory),
+    // so we take the paths that were actually injected into the CPAs.
+    Set<Object> visited = Sets.newIdentityHashSet();
+    for (ConfigurableProgramAnalysis cpa : CPAs.asIterable(pCpa)) {
+      hasher.putString(cpa.getClass().getName(), StandardCharsets.UTF_8);
+      putInputFiles(hasher, cpa, visited);
+      if (cpa instanceof ControlAutomatonCPA) {
+        StringBuilder automaton = new StringBuilder();
+        ((ControlAutomatonCPA)cpa).getAutomaton().writeDotFile(automaton);
+        hasher.putString(automaton, StandardCharsets.UTF_8);
+      }
+    }
+
+    putGlobalDeclarations(hasher, pCfa);
+    return hasher.hash();
+  }
+
+  /**
+   * Add the content of all input files that are injected into the given object
+   * (i.e., fields with {@link FileOption}) to the hash.
+   * Objects referenced by the fields of this object are handled recursively
+   * if they also get options injected (e.g., the precision bootstrapper of the PredicateCPA).
+   */
+  private static void putInputFiles(Hasher pHasher, Object pObject, Set<Object> pVisited) throws IOException {
+    if (!pVisited.add(pObject)) {
+      return;
+    }
+    for (Class<?> cls = pObject.getClass(); cls != null; cls = cls.getSuperclass()) {
+      for (Field field : cls.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+          continue;
+        }
+        Object value;
+        try {
+          field.setAccessible(true);
+          value = field.get(pObject);
+        } catch (IllegalAccessException | SecurityException e) {
+          throw new IOException("Cannot determine files used by " + cls.getName(), e);
+        }
+        if (value == null) {
+          continue;
+        }
+
+        FileOption fileOption = field.getAnnotation(FileOption.class);
+        if (fileOption != null) {
+          if (fileOption.value() != FileOption.Type.OUTPUT_FILE) {
+            Iterable<?> paths = value instanceof Iterable<?> ? (Iterable<?>)value : ImmutableList.of(value);
+            for (Object path : paths) {
+              putFile(pHasher, (Path)path);
+            }
+          }
+        } else if (value.getClass().isAnnotationPresent(Options.class)) {
+          putInputFiles(pHasher, value, pVisited);
+        }
+      }
+    }
+  }
+
+  private static void putFile(Hasher pHasher, Path pFile) throws IOException {
+    pHasher.putString(pFile.getAbsolutePath(), StandardCharsets.UTF_8);
+    if (pFile.isFile()) {
+      byte[] content = pFile.asByteSource().read();
+      pHasher.putInt(content.length);
+      pHasher.putBytes(content);
+    }
+  }
+
+  /**
+   * Add all global declarations of the program to the hash.
+   * Blocks depend on them without containing them, e.g.,
+   * on types, typedefs, and struct layouts, on global variables,
+   * and on the declarations of called functions that are not part of the block.
+   */
+  private static void putGlobalDeclarations(Hasher pHasher, CFA pCfa) {
+    List<String> declarations = new ArrayList<>();
+    for (CFANode node : pCfa.getAllNodes()) {
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        Iterable<CFAEdge> edges = edge instanceof MultiEdge ? ((MultiEdge)edge).getEdges() : ImmutableList.of(edge);
+        for (CFAEdge innerEdge : edges) {
+          if (innerEdge instanceof ADeclarationEdge) {
+            ADeclaration declaration = ((ADeclarationEdge)innerEdge).getDeclaration();
+            if (declaration.isGlobal()) {
+              declarations.add(declaration.toASTString());
+            }
+          }
+        }
+      }
+    }
+    // the order of the nodes is not stable across runs
+    Collections.sort(declarations);
+    pHasher.putInt(declarations.size());
+    for (String declaration : declarations) {
+      pHasher.putString(declaration, StandardCharsets.UTF_8);
+    }
+  }
+
+  private static boolean isIrrelevantOption(String pLine) {
+    for (String prefix : IRRELEVANT_OPTION_PREFIXES) {
+      if (pLine.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void loadIfNecessary() {
+    if (summaries != null) {
+      return;
+    }
+    summaries = ArrayListMultimap.create();
+    if (!file.exists()) {
+      return;
+    }
+    try {
+      read();
+    } catch (IOException e) {
+      summaries.clear();
+      logger.logUserException(Level.WARNING, e, "Could not read BAM block summaries, starting without summaries");
+    }
+    loadedSummaries = summaries.size();
+  }
+
+  private void read() throws IOException {
+    try (InputStream in = file.asByteSource().openBufferedStream();
+         DataInputStream data = new DataInputStream(in)) {
+      if (data.readInt() != MAGIC) {
+        throw new IOException("File " + file + " does not contain BAM block summaries");
+      }
+      int version = data.readInt();
+      if (version != VERSION) {
+        throw new IOException("BAM block summaries in " + file + " have unsupported version " + version);
+      }
+      int size = data.readInt();
+      for (int i = 0; i < size; i++) {
+        String blockHash = data.readUTF();
+        int[] nodeNumbers = new int[data.readInt()];
+        for (int j = 0; j < nodeNumbers.length; j++) {
+          nodeNumbers[j] = data.readInt();
+        }
+        byte[] states = new byte[data.readInt()];
+        data.readFully(states);
+        summaries.put(blockHash, new BlockSummary(blockHash, nodeNumbers, states));
+      }
+    }
+  }
+
+  /**
+   * Returns the nodes of a block in the order in which they enter the block hash.
+   */
+  private static List<CFANode> getOrderedNodes(Block pBlock) {
+    // CFANodes are ordered by their number,
+    // so this order is kept if the block is renumbered consistently
+    return ImmutableSortedSet.copyOf(pBlock.getNodes()).asList();
+  }
+
+  /**
+   * Compute the hash that identifies a block.
+   * It covers the context hash, the declarations of the functions of the block,
+   * all edges of the block (with their code) and the call and return nodes of the block.
+   * Nodes are identified by their position in {@link #getOrderedNodes(Block)}.
+   */
+  private String getBlockHash(Block pBlock) {
+    String result = blockHashes.get(pBlock);
+    if (result == null) {
+      List<CFANode> nodes = getOrderedNodes(pBlock);
+      Map<CFANode, Integer> ids = new HashMap<>();
+      for (CFANode node : nodes) {
+        ids.put(node, ids.size());
+      }
+
+      Hasher hasher = HASH_FUNCTION.newHasher();
+      hasher.putBytes(contextHash.asBytes());
+
+      // signatures (e.g., parameter types) of the functions of the block
+      for (String function : ImmutableSortedSet.copyOf(Collections2.transform(nodes, CFAUtils.GET_FUNCTION))) {
+        hasher.putString(cfa.getFunctionHead(function).getFunctionDefinition().toASTString(),
+            StandardCharsets.UTF_8);
+      }
+
+      hasher.putInt(nodes.size());
+      for (CFANode node : nodes) {
+        hasher.putString(node.getFunctionName(), StandardCharsets.UTF_8);
+        hasher.putBoolean(pBlock.getCallNodes().contains(node));
+        hasher.putBoolean(pBlock.isReturnNode(node));
+        for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+          hasher.putString(edge.getEdgeType().name(), StandardCharsets.UTF_8);
+          hasher.putString(edge.getCode(), StandardCharsets.UTF_8);
+          Integer successor = ids.get(edge.getSuccessor());
+          hasher.putInt(successor == null ? -1 : successor);
+        }
+      }
+      result = hasher.hash().toString();
+      blockHashes.put(pBlock, result);
+    }
+    return result;
+  }
+
+  /**
+   * Deserialize the states of a summary for the given block,
+   * translating the node numbers of the stored block to the current nodes.
+   * @return whether the states could be read
+   */
+  private boolean decode(BlockSummary pSummary, Block pBlock) {
+    if (pSummary.decodedFor == pBlock) {
+      return true;
+    }
+    Optional<CFAInfo> cfaInfo = GlobalInfo.getInstance().getCFAInfo();
+    List<CFANode> nodes = getOrderedNodes(pBlock);
+    if (!cfaInfo.isPresent() || nodes.size() != pSummary.nodeNumbers.length) {
+      return false;
+    }
+    Map<Integer, CFANode> translation = new HashMap<>();
+    for (int i = 0; i < nodes.size(); i++) {
+      translation.put(pSummary.nodeNumbers[i], nodes.get(i));
+    }
+
+    cfaInfo.get().setNodeNumberTranslation(translation);
+    try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(pSummary.serializedStates))) {
+      @SuppressWarnings("unchecked")
+      List<AbstractState> states = (List<AbstractState>) objects.readObject();
+      pSummary.entryState = states.get(0);
+      pSummary.returnStates = ImmutableList.copyOf(states.subList(1, states.size()));
+      pSummary.decodedFor = pBlock;
+      return true;
+    } catch (ClassNotFoundException | ClassCastException | IllegalArgumentException | IOException e) {
+      // IllegalArgumentException: a state refers to a node outside of the block
+      logger.logDebugException(e, "Skipping unreadable BAM block summary");
+      return false;
+    } finally {
+      cfaInfo.get().setNodeNumberTranslation(null);
+    }
+  }
+
+  /**
+   * Search for a summary of the given block whose entry state is equal to the given reduced state,
+   * as determined by the reducer for the given precision.
+   * @return the summary or null if there is none
+   */
+  @Nullable BlockSummary lookup(ARGState pReducedState, Precision pReducedPrecision,
+      Block pBlock, Reducer pReducer) {
+    loadIfNecessary();
+    List<BlockSummary> candidates = summaries.get(getBlockHash(pBlock));
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    Object key = pReducer.getHashCodeForState(pReducedState, pReducedPrecision);
+    for (Iterator<BlockSummary> it = candidates.iterator(); it.hasNext(); ) {
+      BlockSummary summary = it.next();
+      if (!decode(summary, pBlock)) {
+        it.remove();
+        unreadableSummaries++;
+        continue;
+      }
+      ARGState entryState = new ARGState(summary.entryState, null);
+      if (key.equals(pReducer.getHashCodeForState(entryState, pReducedPrecision))) {
+        usedSummaries++;
+        return summary;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remove a summary from the store,
+   * e.g., because the analysis needs the complete ARG of the block.
+   */
+  void discard(BlockSummary pSummary) {
+    if (summaries != null && summaries.remove(pSummary.blockHash, pSummary)) {
+      discardedSummaries++;
+    }
+  }
+
+  /**
+   * Replace the content of the file with the given summaries.
+   * @param pEntries triples of reduced entry state, block, and reduced return states
+   */
+  void save(Collection<Triple<AbstractState, Block, Collection<AbstractState>>> pEntries)
+      throws IOException {
+    List<Triple<String, int[], byte[]>> toWrite = new ArrayList<>(pEntries.size());
+    for (Triple<AbstractState, Block, Collection<AbstractState>> entry : pEntries) {
+      byte[] bytes = serialize(entry.getFirst(), entry.getThird());
+      if (bytes != null) {
+        Block block = entry.getSecond();
+        List<CFANode> nodes = getOrderedNodes(block);
+        int[] nodeNumbers = new int[nodes.size()];
+        for (int i = 0; i < nodeNumbers.length; i++) {
+          nodeNumbers[i] = nodes.get(i).getNodeNumber();
+        }
+        toWrite.add(Triple.of(getBlockHash(block), nodeNumbers, bytes));
+      } else {
+        unserializableSummaries++;
+      }
+    }
+
+    // Write to a temporary file and replace the old file atomically,
+    // such that a run that is killed while saving does not leave a truncated file.
+    Files.createParentDirs(file);
+    File target = file.toFile().getAbsoluteFile();
+    File tmpFile = File.createTempFile("bamsummaries", ".tmp", target.getParentFile());
+    try {
+      write(Paths.get(tmpFile.getPath()), toWrite);
+      java.nio.file.Files.move(tmpFile.toPath(), target.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      tmpFile.delete();
+    }
+    writtenSummaries = toWrite.size();
+    logger.log(Level.FINE, "Wrote", writtenSummaries, "BAM block summaries to", file);
+  }
+
+  private static void write(Path pFile, List<Triple<String, int[], byte[]>> pSummaries)
+      throws IOException {
+    try (OutputStream out = pFile.asByteSink().openBufferedStream();
+         DataOutputStream data = new DataOutputStream(out)) {
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      data.writeInt(pSummaries.size());
+      for (Triple<String, int[], byte[]> summary : pSummaries) {
+        data.writeUTF(summary.getFirst());
+        data.writeInt(summary.getSecond().length);
+        for (int nodeNumber : summary.getSecond()) {
+          data.writeInt(nodeNumber);
+        }
+        data.writeInt(summary.getThird().length);
+        data.write(summary.getThird());
+      }
+    }
+  }
+
+  /**
+   * Serialize the unwrapped entry state and return states of a summary (in this order),
+   * returns null if some state is not serializable.
+   */
+  private static @Nullable byte[] serialize(AbstractState pEntryState,
+      Collection<AbstractState> pReturnStates) throws IOException {
+    List<AbstractState> states = new ArrayList<>(pReturnStates.size() + 1);
+    states.add(((ARGState) pEntryState).getWrappedState());
+    for (AbstractState returnState : pReturnStates) {
+      states.add(((ARGState) returnState).getWrappedState());
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+      objects.writeObject(states);
+    } catch (NotSerializableException e) {
+      return null;
+    }
+    return bytes.toByteArray();
+  }
+}
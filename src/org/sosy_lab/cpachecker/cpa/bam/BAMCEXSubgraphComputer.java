@@ -203,6 +203,19 @@ public class BAMCEXSubgraphComputer {
     // TODO why do we use 'abstractStateToReachedSet' to get the reachedSet and not 'bamCache'?
     final ReachedSet reachedSet = data.initialStateToReachedSet.get(expandedRoot);
 
+    if (data.importedReachedSets.containsKey(reachedSet)) {
+      // the reachedSet was created from a summary of a previous run and does not contain the ARG of the block,
+      // thus we drop the summary and enforce a new analysis of the block.
+      logger.log(Level.FINE,
+              "Target state is reachable via a block summary from a previous run, the block will be analyzed again.");
+      final CFANode rootNode = extractLocation(expandedRoot);
+      final Block rootBlock = partitioning.getBlockForCallNode(rootNode);
+      final AbstractState reducedRootState = reducer.getVariableReducedState(expandedRoot, rootBlock, rootNode);
+      data.summaryStore.discard(data.importedReachedSets.remove(reachedSet));
+      data.bamCache.removeEntry(reducedRootState, reachedSet.getPrecision(reachedSet.getFirstState()), rootBlock);
+      return DUMMY_STATE_FOR_MISSING_BLOCK;
+    }
+
     // we found the reachedSet, corresponding to the root and precision.
     // now try to find the target in the reach set.
 
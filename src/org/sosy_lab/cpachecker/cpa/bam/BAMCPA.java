@@ -23,7 +23,9 @@
  */
 package org.sosy_lab.cpachecker.cpa.bam;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.logging.Level;
 
 import org.sosy_lab.common.Classes;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -50,6 +52,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBAM;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithPersistentData;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
@@ -69,7 +72,8 @@ import com.google.common.base.Preconditions;
 
 
 @Options(prefix = "cpa.bam")
-public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvider, ProofChecker {
+public class BAMCPA extends AbstractSingleWrapperCPA
+    implements StatisticsProvider, ProofChecker, ConfigurableProgramAnalysisWithPersistentData {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(BAMCPA.class);
@@ -109,6 +113,15 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
       + "to re-explore the program along the error-path.")
   private boolean doPrecisionRefinementForAllStates = false;
 
+  @Option(secure=true, name="summaries.file",
+      description="file for storing block summaries across several runs (empty for disabling). "
+          + "Summaries from this file are reused for blocks whose CFA did not change (ignoring node numbers) "
+          + "if the configuration and the specification did not change either, "
+          + "and the summaries of the current run are written back at the end of the analysis. "
+          + "All abstract states of the wrapped CPAs need to be serializable.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path summariesFile = null;
+
   public BAMCPA(ConfigurableProgramAnalysis pCpa, Configuration config, LogManager pLogger,
       ReachedSetFactory pReachedSetFactory, ShutdownNotifier pShutdownNotifier, CFA pCfa) throws InvalidConfigurationException, CPAException {
     super(pCpa);
@@ -129,7 +142,15 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
     }
     reducer = new TimedReducer(wrappedReducer);
     final BAMCache cache = new BAMCache(config, reducer, logger);
-    data = new BAMDataManager(cache, pReachedSetFactory, pLogger);
+    BAMBlockSummaryStore summaryStore = null;
+    if (summariesFile != null) {
+      try {
+        summaryStore = new BAMBlockSummaryStore(summariesFile, config, pCpa, cfa, logger);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not compute key for BAM block summaries, summaries are disabled");
+      }
+    }
+    data = new BAMDataManager(cache, summaryStore, pReachedSetFactory, pLogger);
 
     if (handleRecursiveProcedures) {
 
@@ -181,6 +202,17 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
         CFA.class }, new Object[] { logger, cfa }, CPAException.class);
   }
 
+  @Override
+  public void savePersistentData() {
+    if (data.summaryStore != null) {
+      try {
+        data.summaryStore.save(data.bamCache.getFinishedEntries());
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write BAM block summaries");
+      }
+    }
+  }
+
   @Override
   public AbstractDomain getAbstractDomain() {
     return getWrappedCpa().getAbstractDomain();
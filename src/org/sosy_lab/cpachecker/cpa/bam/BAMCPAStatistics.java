@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cpa.bam;
 
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.div;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 
 import java.io.IOException;
@@ -144,9 +145,22 @@ class BAMCPAStatistics implements Statistics {
     out.println("Time for checking equality of abstract states:                " + data.bamCache.equalsTimer + " (Calls: " + data.bamCache.equalsTimer.getNumberOfIntervals() + ")");
     out.println("Time for computing the hashCode of abstract states:           " + data.bamCache.hashingTimer + " (Calls: " + data.bamCache.hashingTimer.getNumberOfIntervals() + ")");
     out.println("Time for searching for similar cache entries:                   " + data.bamCache.searchingTimer + " (Calls: " + data.bamCache.searchingTimer.getNumberOfIntervals() + ")");
+    if (data.bamCache.similarStateSearches > 0) {
+      out.println("  Compared cache entries per search:                            " + div(data.bamCache.comparedCacheEntries, data.bamCache.similarStateSearches));
+      out.println("  Cache entries skipped due to block index:                     " + data.bamCache.skippedCacheEntries);
+    }
     out.println("Time for reducing precisions:                                   " + reducer.reducePrecisionTime + " (Calls: " + reducer.reducePrecisionTime.getNumberOfIntervals() + ")");
     out.println("Time for expanding precisions:                                  " + reducer.expandPrecisionTime + " (Calls: " + reducer.expandPrecisionTime.getNumberOfIntervals() + ")");
 
+    if (data.summaryStore != null) {
+      out.println("Number of loaded block summaries:                               " + data.summaryStore.loadedSummaries);
+      out.println("  Number of used block summaries:                               " + data.summaryStore.usedSummaries);
+      out.println("  Number of discarded block summaries:                          " + data.summaryStore.discardedSummaries);
+      out.println("  Number of unreadable block summaries:                         " + data.summaryStore.unreadableSummaries);
+      out.println("Number of written block summaries:                              " + data.summaryStore.writtenSummaries);
+      out.println("  Number of non-serializable block summaries:                   " + data.summaryStore.unserializableSummaries);
+    }
+
 
     for (AbstractBAMBasedRefiner refiner : refiners) {
       // TODO We print these statistics also for use-cases of BAM-refiners, that never use timers. Can we ignore them?
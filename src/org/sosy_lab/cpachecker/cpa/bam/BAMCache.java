@@ -25,13 +25,18 @@ package org.sosy_lab.cpachecker.cpa.bam;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -44,8 +49,13 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
 
 @Options(prefix = "cpa.bam")
 public class BAMCache {
@@ -68,12 +78,25 @@ public class BAMCache {
   int precisionCausedMisses = 0;
   int noSimilarCausedMisses = 0;
 
+  int similarStateSearches = 0;
+  long comparedCacheEntries = 0;
+  long skippedCacheEntries = 0;
+
   // we use LinkedHashMaps to avoid non-determinism
   private final Map<AbstractStateHash, ReachedSet> preciseReachedCache = new LinkedHashMap<>();
   private final Map<AbstractStateHash, ReachedSet> unpreciseReachedCache = new HashMap<>();
   private final Map<AbstractStateHash, Collection<AbstractState>> returnCache = new HashMap<>();
   private final Map<AbstractStateHash, ARGState> blockARGCache = new HashMap<>();
 
+  // index of the keys of preciseReachedCache by their block,
+  // keys for other blocks can never match a query, so we do not need to look at them.
+  private final SetMultimap<Block, AbstractStateHash> preciseKeysForBlock = LinkedHashMultimap.create();
+
+  // reached-sets whose analysis was started but did not return (yet),
+  // e.g., because of a nested block or because the analysis was interrupted.
+  // Such reached-sets can lack successors of already popped states.
+  private final Set<ReachedSet> reachedSetsInProgress = Sets.newIdentityHashSet();
+
   private ARGState lastAnalyzedBlock = null;
   private final Reducer reducer;
 
@@ -96,7 +119,7 @@ public class BAMCache {
   public void put(AbstractState stateKey, Precision precisionKey, Block context, ReachedSet item) {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     assert !preciseReachedCache.containsKey(hash);
-    preciseReachedCache.put(hash, item);
+    putPreciseEntry(hash, item);
   }
 
   public void put(AbstractState stateKey, Precision precisionKey, Block context, Collection<AbstractState> item,
@@ -109,6 +132,16 @@ public class BAMCache {
     setLastAnalyzedBlock(hash);
   }
 
+  private void putPreciseEntry(AbstractStateHash hash, ReachedSet item) {
+    preciseReachedCache.put(hash, item);
+    preciseKeysForBlock.put(hash.context, hash);
+  }
+
+  private ReachedSet removePreciseEntry(AbstractStateHash hash) {
+    preciseKeysForBlock.remove(hash.context, hash);
+    return preciseReachedCache.remove(hash);
+  }
+
   private boolean allStatesContainedInReachedSet(Collection<AbstractState> pElements, ReachedSet reached) {
     for (AbstractState e : pElements) {
       if (!reached.contains(e)) { return false; }
@@ -206,7 +239,12 @@ public class BAMCache {
       int min = Integer.MAX_VALUE;
       Pair<ReachedSet, Collection<AbstractState>> result = null;
 
-      for (AbstractStateHash cacheKey : preciseReachedCache.keySet()) {
+      final Collection<AbstractStateHash> candidates = preciseKeysForBlock.get(pContext);
+      similarStateSearches++;
+      comparedCacheEntries += candidates.size();
+      skippedCacheEntries += preciseReachedCache.size() - candidates.size();
+
+      for (AbstractStateHash cacheKey : candidates) {
         //searchKey != cacheKey, check whether it is the same if we ignore the precision
         AbstractStateHash ignorePrecisionSearchKey = getHashCode(pStateKey, cacheKey.precisionKey, pContext);
         if (ignorePrecisionSearchKey.equals(cacheKey)) {
@@ -228,7 +266,7 @@ public class BAMCache {
 
   private void findCacheMissCause(AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
     AbstractStateHash searchKey = getHashCode(pStateKey, pPrecisionKey, pContext);
-    for (AbstractStateHash cacheKey : preciseReachedCache.keySet()) {
+    for (AbstractStateHash cacheKey : preciseKeysForBlock.get(pContext)) {
       assert !searchKey.equals(cacheKey);
       //searchKey != cacheKey, check whether it is the same if we ignore the precision
       AbstractStateHash ignorePrecisionSearchKey = getHashCode(pStateKey, cacheKey.precisionKey, pContext);
@@ -246,10 +284,22 @@ public class BAMCache {
     noSimilarCausedMisses++;
   }
 
+  /** Mark that the analysis of the given reached-set has started. */
+  public void startAnalysis(ReachedSet reached) {
+    reachedSetsInProgress.add(reached);
+  }
+
+  /** Mark that the analysis of the given reached-set has returned normally. */
+  public void finishAnalysis(ReachedSet reached) {
+    reachedSetsInProgress.remove(reached);
+  }
+
   public void clear() {
     preciseReachedCache.clear();
+    preciseKeysForBlock.clear();
     unpreciseReachedCache.clear();
     returnCache.clear();
+    reachedSetsInProgress.clear();
   }
 
   public boolean containsPreciseKey(AbstractState stateKey, Precision precisionKey, Block context) {
@@ -260,11 +310,46 @@ public class BAMCache {
   public void updatePrecisionForEntry(AbstractState stateKey, Precision precisionKey, Block context,
                                       Precision newPrecisionKey) {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
-    ReachedSet reachedSet = preciseReachedCache.get(hash);
+    ReachedSet reachedSet = removePreciseEntry(hash);
     if (reachedSet != null) {
-      preciseReachedCache.remove(hash);
-      preciseReachedCache.put(getHashCode(stateKey, newPrecisionKey, context), reachedSet);
+      putPreciseEntry(getHashCode(stateKey, newPrecisionKey, context), reachedSet);
+    }
+  }
+
+  /**
+   * Remove the reached-set and the return states for the given key completely,
+   * such that the next query for the key is a cache miss.
+   * Imprecise entries that refer to the same reached-set are removed, too.
+   */
+  public void removeEntry(AbstractState stateKey, Precision precisionKey, Block context) {
+    AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
+    ReachedSet reached = removePreciseEntry(hash);
+    returnCache.remove(hash);
+    blockARGCache.remove(hash);
+    if (reached != null) {
+      unpreciseReachedCache.values().removeAll(Collections.singleton(reached));
+    }
+  }
+
+  /**
+   * Returns all completely analyzed entries of the cache,
+   * i.e., the analysis of the reached-set has returned normally,
+   * the reached-set has no waiting states, and it contains no target state.
+   * This may be called after the analysis was aborted.
+   * Each entry consists of the reduced initial state, the block, and the reduced return states.
+   */
+  public List<Triple<AbstractState, Block, Collection<AbstractState>>> getFinishedEntries() {
+    List<Triple<AbstractState, Block, Collection<AbstractState>>> result = new ArrayList<>();
+    for (Map.Entry<AbstractStateHash, ReachedSet> entry : preciseReachedCache.entrySet()) {
+      Collection<AbstractState> returnStates = returnCache.get(entry.getKey());
+      ReachedSet reached = entry.getValue();
+      if (returnStates != null && !reachedSetsInProgress.contains(reached)
+          && !reached.hasWaitingState()
+          && !Iterables.any(reached, AbstractStates.IS_TARGET_STATE)) {
+        result.add(Triple.of(entry.getKey().stateKey, entry.getKey().context, returnStates));
+      }
     }
+    return result;
   }
 
   public Collection<ReachedSet> getAllCachedReachedStates() {
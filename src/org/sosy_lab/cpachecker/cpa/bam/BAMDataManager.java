@@ -26,12 +26,15 @@ package org.sosy_lab.cpachecker.cpa.bam;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 
 /** This class contains all additional data-structures needed to run BAM.
  * If possible, we should clear some data sometimes to avoid memory-leaks. */
@@ -43,6 +46,13 @@ public class BAMDataManager {
    * It contains every reached-set of every sub-analysis. */
   final BAMCache bamCache;
 
+  /** The summaryStore contains block summaries from previous runs, it is null if disabled. */
+  final @Nullable BAMBlockSummaryStore summaryStore;
+
+  /** importedReachedSets contains the reached-sets that were created from summaries of previous runs.
+   * These reached-sets contain only the initial state and the return states of a block. */
+  final Map<ReachedSet, BAMBlockSummaryStore.BlockSummary> importedReachedSets = new HashMap<>();
+
   private final ReachedSetFactory reachedSetFactory;
 
   /** abstractStateToReachedSet contains the mapping of non-reduced initial states
@@ -61,8 +71,10 @@ public class BAMDataManager {
    * the corresponding expanded precision. */
   final Map<AbstractState, Precision> expandedStateToExpandedPrecision = new HashMap<>();
 
-  public BAMDataManager(BAMCache pArgCache, ReachedSetFactory pReachedSetFactory, LogManager pLogger) {
+  public BAMDataManager(BAMCache pArgCache, @Nullable BAMBlockSummaryStore pSummaryStore,
+      ReachedSetFactory pReachedSetFactory, LogManager pLogger) {
     bamCache = pArgCache;
+    summaryStore = pSummaryStore;
     reachedSetFactory = pReachedSetFactory;
     logger = pLogger;
   }
@@ -96,6 +108,21 @@ public class BAMDataManager {
     return reached;
   }
 
+  /** Create a finished reached-set from a block summary of a previous run.
+   * The return states are direct children of the initial state. */
+  ReachedSet createReachedSetFromSummary(ARGState initialState, Precision initialPrecision,
+      BAMBlockSummaryStore.BlockSummary summary) {
+    ReachedSet reached = createInitialReachedSet(initialState, initialPrecision);
+    reached.popFromWaitlist();
+    for (AbstractState returnState : summary.getReturnStates()) {
+      ARGState state = new ARGState(returnState, initialState);
+      reached.add(state, initialPrecision);
+      reached.removeOnlyFromWaitlist(state);
+    }
+    importedReachedSets.put(reached, summary);
+    return reached;
+  }
+
   /** Register an expanded state in our data-manager,
    * such that we know later, which state in which block was expanded to the state. */
   void registerExpandedState(AbstractState expandedState, Precision expandedPrecision,
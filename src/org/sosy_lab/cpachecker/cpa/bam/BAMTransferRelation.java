@@ -377,21 +377,35 @@ public class BAMTransferRelation implements TransferRelation {
       statesForFurtherAnalysis = cachedReturnStates;
 
     } else {
-      if (reached == null) {
-        // we have not even cached a partly computed reach-set,
-        // so we must compute the subgraph specification from scratch
-        reached = data.createInitialReachedSet(reducedInitialState, reducedInitialPrecision);
+      final BAMBlockSummaryStore.BlockSummary summary = reached == null && data.summaryStore != null
+          ? data.summaryStore.lookup((ARGState) reducedInitialState, reducedInitialPrecision, currentBlock, wrappedReducer)
+          : null;
+
+      if (summary != null) {
+        // we have a summary from a previous run, so we do not need to analyze the block
+        reached = data.createReachedSetFromSummary((ARGState) reducedInitialState, reducedInitialPrecision, summary);
         data.bamCache.put(reducedInitialState, reducedInitialPrecision, currentBlock, reached);
-        logger.log(Level.FINEST, "Cache miss: starting recursive CPAAlgorithm with new initial reached-set.");
+        logger.log(Level.FINEST, "Cache miss: using block summary from previous run.");
+        reducedResult = new ArrayList<AbstractState>(((ARGState) reducedInitialState).getChildren());
+        statesForFurtherAnalysis = reducedResult;
+
       } else {
-        logger.log(Level.FINEST, "Partial cache hit: starting recursive CPAAlgorithm with partial reached-set with root", reached.getFirstState());
-      }
+        if (reached == null) {
+          // we have not even cached a partly computed reach-set,
+          // so we must compute the subgraph specification from scratch
+          reached = data.createInitialReachedSet(reducedInitialState, reducedInitialPrecision);
+          data.bamCache.put(reducedInitialState, reducedInitialPrecision, currentBlock, reached);
+          logger.log(Level.FINEST, "Cache miss: starting recursive CPAAlgorithm with new initial reached-set.");
+        } else {
+          logger.log(Level.FINEST, "Partial cache hit: starting recursive CPAAlgorithm with partial reached-set with root", reached.getFirstState());
+        }
 
-      reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached);
+        reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached);
 
-      assert reducedResult != null;
+        assert reducedResult != null;
 
-      statesForFurtherAnalysis = filterResultStatesForFurtherAnalysis(reducedResult, cachedReturnStates);
+        statesForFurtherAnalysis = filterResultStatesForFurtherAnalysis(reducedResult, cachedReturnStates);
+      }
     }
 
     assert reached != null;
@@ -427,7 +441,9 @@ public class BAMTransferRelation implements TransferRelation {
 
     // CPAAlgorithm is not re-entrant due to statistics
     final CPAAlgorithm algorithm = algorithmFactory.newInstance();
+    data.bamCache.startAnalysis(reached);
     algorithm.run(reached);
+    data.bamCache.finishAnalysis(reached);
 
     // if the element is an error element
     final Collection<AbstractState> returnStates;
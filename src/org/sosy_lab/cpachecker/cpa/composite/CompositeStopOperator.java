@@ -31,6 +31,7 @@ import java.util.List;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.CoverageSignatureStopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.ForcedCoveringStopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
@@ -39,12 +40,21 @@ import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 import com.google.common.collect.ImmutableList;
 
-public class CompositeStopOperator implements StopOperator, ForcedCoveringStopOperator {
+public class CompositeStopOperator implements ForcedCoveringStopOperator, CoverageSignatureStopOperator {
 
   protected final ImmutableList<StopOperator> stopOperators;
 
+  /** whether any of the component stop operators provides coverage signatures */
+  private final boolean hasCoverageSignatures;
+
   public CompositeStopOperator(ImmutableList<StopOperator> stopOperators) {
     this.stopOperators = stopOperators;
+
+    boolean signatures = false;
+    for (StopOperator stopOp : stopOperators) {
+      signatures |= stopOp instanceof CoverageSignatureStopOperator;
+    }
+    hasCoverageSignatures = signatures;
   }
 
   @Override
@@ -52,7 +62,12 @@ public class CompositeStopOperator implements StopOperator, ForcedCoveringStopOp
     CompositeState compositeState = (CompositeState) element;
     CompositePrecision compositePrecision = (CompositePrecision) precision;
 
+    final long signature = getCoverageSignature(compositeState);
     for (AbstractState e : reached) {
+      if ((getCoverageSignature(e) & ~signature) != 0) {
+        // some component state of e has a fact that is missing in the component of element
+        continue;
+      }
       if (stop(compositeState, (CompositeState)e, compositePrecision)) {
         return true;
       }
@@ -60,6 +75,31 @@ public class CompositeStopOperator implements StopOperator, ForcedCoveringStopOp
     return false;
   }
 
+  /**
+   * The signature of a composite state is the union of the signatures
+   * of the component states. The signatures of the components are rotated
+   * by different amounts, such that facts of different components are less likely
+   * to share a bit. This is sound because the composite state can only be covered
+   * if all component states are covered.
+   */
+  @Override
+  public long getCoverageSignature(AbstractState pState) {
+    if (!hasCoverageSignatures) {
+      return 0;
+    }
+    List<AbstractState> componentStates = ((CompositeState) pState).getWrappedStates();
+    long signature = 0;
+    for (int idx = 0; idx < componentStates.size(); idx++) {
+      StopOperator stopOp = stopOperators.get(idx);
+      if (stopOp instanceof CoverageSignatureStopOperator) {
+        long componentSignature =
+            ((CoverageSignatureStopOperator) stopOp).getCoverageSignature(componentStates.get(idx));
+        signature |= Long.rotateLeft(componentSignature, 13 * idx);
+      }
+    }
+    return signature;
+  }
+
   private boolean stop(CompositeState compositeState, CompositeState compositeReachedState, CompositePrecision compositePrecision) throws CPAException, InterruptedException {
     List<AbstractState> compositeElements = compositeState.getWrappedStates();
     checkArgument(compositeElements.size() == stopOperators.size(), "State with wrong number of component states given");
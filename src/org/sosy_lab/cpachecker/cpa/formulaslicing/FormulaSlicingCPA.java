@@ -85,7 +85,7 @@ public class FormulaSlicingCPA extends SingleEdgeTransferRelation
         AnalysisDirection.FORWARD);
 
     if (useCachingPathFormulaManager) {
-      pathFormulaManager = new CachingPathFormulaManager(pathFormulaManager);
+      pathFormulaManager = new CachingPathFormulaManager(pathFormulaManager, pConfiguration);
     }
 
     LoopTransitionFinder ltf = new LoopTransitionFinder(
@@ -35,6 +35,7 @@ import org.sosy_lab.common.collect.PersistentMap;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.exceptions.InvalidQueryException;
@@ -49,7 +50,7 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.view.NumeralFormulaMan
 import com.google.common.base.Splitter;
 
 public class IntervalAnalysisState implements Serializable, LatticeAbstractState<IntervalAnalysisState>,
-    AbstractQueryableState, Graphable, FormulaReportingState {
+    AbstractQueryableState, Graphable, FormulaReportingState, AbstractStateWithCoverageSignature {
 
   private static final long serialVersionUID = -2030700797958100666L;
 
@@ -65,6 +66,12 @@ public class IntervalAnalysisState implements Serializable, LatticeAbstractState
    */
   private PersistentMap<String, Integer> referenceCounts;
 
+  /**
+   * the cached signature of the tracked variables, valid if {@link #hasCoverageSignature} is set
+   */
+  private transient long coverageSignature = 0;
+  private transient boolean hasCoverageSignature = false;
+
   /**
    *  This method acts as the default constructor, which initializes the intervals and reference counts to empty maps and the previous element to null.
    */
@@ -153,6 +160,7 @@ public class IntervalAnalysisState implements Serializable, LatticeAbstractState
         referenceCounts = referenceCounts.putAndCopy(variableName, referenceCount + 1);
 
         intervals = intervals.putAndCopy(variableName, interval);
+        hasCoverageSignature = false;
       } else {
         removeInterval(variableName);
       }
@@ -171,6 +179,7 @@ public class IntervalAnalysisState implements Serializable, LatticeAbstractState
   public IntervalAnalysisState removeInterval(String variableName) {
     if (intervals.containsKey(variableName)) {
       intervals = intervals.removeAndCopy(variableName);
+      hasCoverageSignature = false;
     }
 
     return this;
@@ -260,6 +269,24 @@ public class IntervalAnalysisState implements Serializable, LatticeAbstractState
     return true;
   }
 
+  /**
+   * The signature contains all tracked variables,
+   * because a state is only covered by states that track a subset of its variables.
+   */
+  @Override
+  public long getCoverageSignature() {
+    if (!hasCoverageSignature) {
+      long signature = 0;
+      for (String variableName : intervals.keySet()) {
+        int hash = variableName.hashCode();
+        signature |= 1L << (hash ^ (hash >>> 16));
+      }
+      coverageSignature = signature;
+      hasCoverageSignature = true;
+    }
+    return coverageSignature;
+  }
+
   public static IntervalAnalysisState copyOf(IntervalAnalysisState old) {
     return new IntervalAnalysisState(old.intervals, old.referenceCounts);
   }
@@ -48,6 +48,7 @@ import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.octagon.OctagonFloatManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonIntManager;
+import org.sosy_lab.cpachecker.util.octagon.OctagonJavaManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonManager;
 
 @Options(prefix="cpa.octagon")
@@ -62,6 +63,11 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
           + " library will be changed between floats and ints.")
   private String octagonLibrary = "INT";
 
+  @Option(secure=true, name="octagonImplementation", toUppercase=true, values={"NATIVE", "JAVA"},
+      description="whether the native octagon library or the implementation"
+          + " in Java (which does not need native code) should be used.")
+  private String octagonImplementation = "NATIVE";
+
   @Option(secure=true, name="initialPrecisionType", toUppercase=true, values={"STATIC_FULL", "REFINEABLE_EMPTY"},
       description="this option determines which initial precision should be used")
   private String precisionType = "STATIC_FULL";
@@ -88,7 +94,9 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
     logger = log;
     OctagonDomain octagonDomain = new OctagonDomain(logger);
 
-    if (octagonLibrary.equals("FLOAT")) {
+    if (octagonImplementation.equals("JAVA")) {
+      octagonManager = new OctagonJavaManager(octagonLibrary.equals("INT"));
+    } else if (octagonLibrary.equals("FLOAT")) {
       octagonManager = new OctagonFloatManager();
     } else {
       octagonManager = new OctagonIntManager();
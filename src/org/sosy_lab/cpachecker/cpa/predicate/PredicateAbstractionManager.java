@@ -38,6 +38,7 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,6 +50,7 @@ import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -121,6 +123,9 @@ public class PredicateAbstractionManager {
     public final Timer booleanAbstractionTime = new Timer();
     public final NestedTimer abstractionEnumTime = new NestedTimer(); // outer: solver time, inner: bdd time
     public final Timer abstractionSolveTime = new Timer(); // only the time for solving, not for model enumeration
+    public final Timer abstractionWithNewProverTime = new Timer(); // only with abstraction.incremental
+    public final Timer abstractionWithReusedProverTime = new Timer(); // only with abstraction.incremental
+    public int numIncrementalProversClosed = 0;
 
     public long allSatCount = 0;
     public int maxAllSatCount = 0;
@@ -185,6 +190,19 @@ public class PredicateAbstractionManager {
       description="Eliminate propositions about dead variables in abstraction predicates by running a generalization procedure.")
   private boolean elimDeadVariablePredsByGeneralization = false;
 
+  @Option(secure=true, name = "abstraction.incremental",
+      description="Keep one prover environment per abstraction location alive and reuse it "
+          + "for subsequent abstraction computations at the same location with push/pop, "
+          + "such that the solver can reuse its internal state. "
+          + "Not used for abstraction.computation=ELIMINATION.")
+  private boolean incrementalAbstraction = false;
+
+  @Option(secure=true, name = "abstraction.incremental.maxProvers",
+      description="Maximal number of prover environments that are kept alive "
+          + "for incremental abstraction computations (least-recently used ones are closed first).")
+  @IntegerOption(min=1)
+  private int maxIncrementalProvers = 100;
+
   private boolean warnedOfCartesianAbstraction = false;
 
   private boolean abstractionReuseDisabledBecauseOfAmbiguity = false;
@@ -203,6 +221,10 @@ public class PredicateAbstractionManager {
 
   private final PredicateAbstractionsStorage abstractionStorage;
 
+  // Long-living prover environments for incremental abstraction computations,
+  // ordered by last access such that the least-recently used one is closed if there are too many.
+  private final @Nullable Map<CFANode, ProverEnvironment> incrementalProvers;
+
   private Optional<LiveVariables> liveVars;
 
   public PredicateAbstractionManager(
@@ -248,6 +270,24 @@ public class PredicateAbstractionManager {
       cartesianAbstractionCache = null;
     }
 
+    if (incrementalAbstraction && abstractionType != AbstractionType.ELIMINATION) {
+      incrementalProvers = new LinkedHashMap<CFANode, ProverEnvironment>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CFANode, ProverEnvironment> pEldest) {
+          if (size() > maxIncrementalProvers) {
+            pEldest.getValue().close();
+            stats.numIncrementalProversClosed++;
+            return true;
+          }
+          return false;
+        }
+      };
+    } else {
+      incrementalProvers = null;
+    }
+
     abstractionStorage = new PredicateAbstractionsStorage(reuseAbstractionsFrom, logger, fmgr, null);
     SSAMap extractionSsa = SSAMap.emptySSAMap().withDefault(1);
     for (AbstractionNode an : abstractionStorage.getAbstractions().values()) {
@@ -357,7 +397,23 @@ public class PredicateAbstractionManager {
       stats.trivialPredicatesTime.stop();
     }
 
-    try (ProverEnvironment thmProver = solver.newProverEnvironment()) {
+    ProverEnvironment thmProver = null;
+    Timer proverTimer = null;
+    if (incrementalProvers != null) {
+      thmProver = incrementalProvers.get(location);
+      proverTimer = stats.abstractionWithReusedProverTime;
+      if (thmProver == null) {
+        thmProver = solver.newProverEnvironment();
+        incrementalProvers.put(location, thmProver);
+        proverTimer = stats.abstractionWithNewProverTime;
+      }
+      proverTimer.start();
+    } else {
+      thmProver = solver.newProverEnvironment();
+    }
+
+    boolean successful = false;
+    try {
       thmProver.push(f);
 
       if (predicates.isEmpty() && (abstractionType != AbstractionType.ELIMINATION)) {
@@ -415,7 +471,25 @@ public class PredicateAbstractionManager {
           }
 
           // Warning:
-          // buildBooleanAbstraction() does not clean up thmProver, so do not use it here.
+          // buildBooleanAbstraction() pops its own formula from thmProver only for incremental
+          // abstraction, otherwise the predicate definitions stay on the stack,
+          // so do not use thmProver here.
+        }
+      }
+      successful = true;
+
+    } finally {
+      if (incrementalProvers == null) {
+        thmProver.close();
+      } else {
+        proverTimer.stop();
+        if (successful) {
+          // remove f from the prover, such that it can be reused for the next abstraction
+          thmProver.pop();
+        } else {
+          // the stack of the prover may be in an unknown state
+          incrementalProvers.remove(location);
+          thmProver.close();
         }
       }
     }
@@ -457,6 +531,20 @@ public class PredicateAbstractionManager {
     return result;
   }
 
+  /**
+   * Close all prover environments that were kept alive for
+   * incremental abstraction computations.
+   * This needs to be called before the solver is closed.
+   */
+  void closeIncrementalProvers() {
+    if (incrementalProvers != null) {
+      for (ProverEnvironment prover : incrementalProvers.values()) {
+        prover.close();
+      }
+      incrementalProvers.clear();
+    }
+  }
+
   private @Nullable AbstractionFormula reuseAbstractionIfPossible(
       final AbstractionFormula abstractionFormula,
       final PathFormula pathFormula,
@@ -940,8 +1028,12 @@ public class PredicateAbstractionManager {
     AllSatCallbackImpl callback = new AllSatCallbackImpl();
     Region result = thmProver.allSat(callback, predVars);
 
-    // pop() is actually costly sometimes, and we delete the environment anyway
-    // thmProver.pop();
+    if (incrementalProvers != null) {
+      // the environment is reused for the next abstraction
+      thmProver.pop();
+    }
+    // Otherwise, we do not pop() here, because it is actually costly sometimes,
+    // and we delete the environment anyway.
 
     // update statistics
     int numModels = callback.getCount();
@@ -47,7 +47,7 @@ import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
 import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
-import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithPersistentData;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
@@ -78,7 +78,7 @@ import com.google.common.base.Optional;
  * CPA that defines symbolic predicate abstraction.
  */
 @Options(prefix="cpa.predicate")
-public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProvider, ProofChecker, AutoCloseable {
+public class PredicateCPA implements ConfigurableProgramAnalysisWithPersistentData, StatisticsProvider, ProofChecker, AutoCloseable {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(PredicateCPA.class).withOptions(BlockOperator.class);
@@ -158,7 +158,7 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
 
     PathFormulaManager pfMgr = new PathFormulaManagerImpl(formulaManager, config, logger, shutdownNotifier, cfa, direction);
     if (useCache) {
-      pfMgr = new CachingPathFormulaManager(pfMgr);
+      pfMgr = new CachingPathFormulaManager(pfMgr, config);
     }
     pathFormulaManager = pfMgr;
 
@@ -307,8 +307,14 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
     solver.getFormulaManager().collectStatistics(pStatsCollection);
   }
 
+  @Override
+  public void savePersistentData() {
+    solver.savePersistentCache();
+  }
+
   @Override
   public void close() throws Exception {
+    predicateManager.closeIncrementalProvers();
     solver.close();
   }
 
@@ -65,6 +65,7 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.CachingPathFormulaMan
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
@@ -302,6 +303,13 @@ class PredicateCPAStatistics extends AbstractStatistics {
     out.println("Number of SMT sat checks:          " + solver.satChecks);
     out.println("  trivial:                         " + solver.trivialSatChecks);
     out.println("  cached:                          " + solver.cachedSatChecks);
+    CacheStats unsatCacheStats = solver.getUnsatCacheStatistics();
+    out.println("  cache misses:                    " + unsatCacheStats.missCount());
+    out.println("  cache evictions:                 " + unsatCacheStats.evictionCount());
+    out.println("  formulas in cache:               " + solver.getUnsatCacheSize());
+    if (solver.hasPersistentCache()) {
+      out.println("  cached on disk:                  " + solver.persistentCachedSatChecks + " (of " + solver.getPersistentCacheLoadedEntries() + " loaded results)");
+    }
     out.println();
     out.println("Max ABE block size:                       " + prec.maxBlockSize);
     out.println("Number of predicates discovered:          " + allDistinctPreds);
@@ -333,9 +341,12 @@ class PredicateCPAStatistics extends AbstractStatistics {
     }
     out.println();
     if (pfMgr != null) {
-      int pathFormulaCacheHits = pfMgr.pathFormulaCacheHits;
-      int totalPathFormulaComputations = pfMgr.pathFormulaComputationTimer.getNumberOfIntervals() + pathFormulaCacheHits;
+      int pathFormulaCacheHits = pfMgr.getCacheHits();
+      int totalPathFormulaComputations = pfMgr.getCacheMisses() + pathFormulaCacheHits;
       out.println("Number of path formula cache hits:   " + pathFormulaCacheHits + " (" + toPercent(pathFormulaCacheHits, totalPathFormulaComputations) + ")");
+      out.println("Number of path formula cache misses: " + pfMgr.getCacheMisses());
+      out.println("Path formula cache evictions:        " + pfMgr.getCacheEvictions());
+      out.println("Path formulas in cache:              " + pfMgr.getCacheSize());
     }
 
     out.println();
@@ -373,6 +384,12 @@ class PredicateCPAStatistics extends AbstractStatistics {
         out.println("    Abstraction reuse:              " + as.abstractionReuseTime);
         out.println("    Abstraction reuse implication:  " + as.abstractionReuseImplicationTime);
       }
+      if (as.abstractionWithReusedProverTime.getNumberOfIntervals() > 0
+          || as.abstractionWithNewProverTime.getNumberOfIntervals() > 0) {
+        out.println("    With new prover environment:     " + as.abstractionWithNewProverTime + " (Avg: " + as.abstractionWithNewProverTime.getAvgTime().formatAs(SECONDS) + ", Count: " + as.abstractionWithNewProverTime.getNumberOfIntervals() + ")");
+        out.println("    With reused prover environment:  " + as.abstractionWithReusedProverTime + " (Avg: " + as.abstractionWithReusedProverTime.getAvgTime().formatAs(SECONDS) + ", Count: " + as.abstractionWithReusedProverTime.getNumberOfIntervals() + ")");
+        out.println("    Prover environments closed:      " + as.numIncrementalProversClosed);
+      }
       out.println("    Solving time:                    " + as.abstractionSolveTime + " (Max: " + as.abstractionSolveTime.getMaxTime().formatAs(SECONDS) + ")");
       out.println("    Model enumeration time:          " + as.abstractionEnumTime.getOuterSumTime().formatAs(SECONDS));
       out.println("    Time for BDD construction:       " + as.abstractionEnumTime.getInnerSumTime().formatAs(SECONDS)   + " (Max: " + as.abstractionEnumTime.getInnerMaxTime().formatAs(SECONDS) + ")");
@@ -28,6 +28,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.SMGHasValueEdgeSet;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
 
 import com.google.common.base.Predicate;
@@ -99,9 +100,26 @@ public class SMGEdgeHasValueFilter {
     return true;
   }
 
+  /**
+   * Select the edges that may match this filter.
+   * If the given set is indexed, only the edges with the filtered object (and offset)
+   * or the filtered value are returned, otherwise the given set itself.
+   */
+  private Set<SMGEdgeHasValue> getCandidates(Set<SMGEdgeHasValue> pEdges) {
+    if (pEdges instanceof SMGHasValueEdgeSet) {
+      SMGHasValueEdgeSet indexedEdges = (SMGHasValueEdgeSet) pEdges;
+      if (object != null) {
+        return indexedEdges.getEdgesForObject(object, offset);
+      } else if (value != null && !valueComplement) {
+        return indexedEdges.getEdgesWithValue(value);
+      }
+    }
+    return pEdges;
+  }
+
   public Set<SMGEdgeHasValue> filterSet(Set<SMGEdgeHasValue> pEdges) {
     Set<SMGEdgeHasValue> returnSet = new HashSet<>();
-    for (SMGEdgeHasValue edge : pEdges) {
+    for (SMGEdgeHasValue edge : getCandidates(pEdges)) {
       if (holdsFor(edge)) {
         returnSet.add(edge);
       }
@@ -116,7 +134,7 @@ public class SMGEdgeHasValueFilter {
     assert offset != null;
     assert type != null;
 
-    for (SMGEdgeHasValue edge : pEdges) {
+    for (SMGEdgeHasValue edge : getCandidates(pEdges)) {
       if (holdsFor(edge)) {
         return true;
       }
@@ -64,17 +64,27 @@ public class CLangSMG extends SMG {
    *
    * TODO: [STACK-FRAME-STRUCTURE] Perhaps it could be wrapped in a class?
    */
-  final private Deque<CLangStackFrame> stack_objects = new ArrayDeque<>();
+  private Deque<CLangStackFrame> stack_objects = new ArrayDeque<>();
 
   /**
    * A container for objects allocated on heap
    */
-  final private Set<SMGObject> heap_objects = new HashSet<>();
+  private Set<SMGObject> heap_objects = new HashSet<>();
 
   /**
    * A container for global objects
    */
-  final private Map<String, SMGRegion> global_objects = new HashMap<>();
+  private Map<String, SMGRegion> global_objects = new HashMap<>();
+
+  /*
+   * Like in SMG, the containers above are shared with copies of this SMG
+   * until they are modified (copy-on-write). Only the top stack frame is ever
+   * modified, so it is the only frame that needs to be owned before writing.
+   */
+  private boolean stackShared = false;
+  private boolean topFrameShared = false;
+  private boolean heapObjectsShared = false;
+  private boolean globalObjectsShared = false;
 
   /**
    * A flag signifying the edge leading to this state caused memory to be leaked
@@ -125,16 +135,51 @@ public class CLangSMG extends SMG {
   public CLangSMG(CLangSMG pHeap) {
     super(pHeap);
 
-    for (CLangStackFrame stack_frame : pHeap.stack_objects) {
-      CLangStackFrame new_frame = new CLangStackFrame(stack_frame);
-      stack_objects.add(new_frame);
-    }
+    stack_objects = pHeap.stack_objects;
+    heap_objects = pHeap.heap_objects;
+    global_objects = pHeap.global_objects;
+
+    pHeap.stackShared = stackShared = true;
+    pHeap.topFrameShared = topFrameShared = true;
+    pHeap.heapObjectsShared = heapObjectsShared = true;
+    pHeap.globalObjectsShared = globalObjectsShared = true;
 
-    heap_objects.addAll(pHeap.heap_objects);
-    global_objects.putAll(pHeap.global_objects);
     has_leaks = pHeap.has_leaks;
   }
 
+  private Deque<CLangStackFrame> mutableStack() {
+    if (stackShared) {
+      stack_objects = new ArrayDeque<>(stack_objects);
+      stackShared = false;
+    }
+    return stack_objects;
+  }
+
+  private CLangStackFrame mutableTopFrame() {
+    Deque<CLangStackFrame> stack = mutableStack();
+    if (topFrameShared) {
+      stack.push(new CLangStackFrame(stack.pop()));
+      topFrameShared = false;
+    }
+    return stack.peek();
+  }
+
+  private Set<SMGObject> mutableHeapObjects() {
+    if (heapObjectsShared) {
+      heap_objects = new HashSet<>(heap_objects);
+      heapObjectsShared = false;
+    }
+    return heap_objects;
+  }
+
+  private Map<String, SMGRegion> mutableGlobalObjects() {
+    if (globalObjectsShared) {
+      global_objects = new HashMap<>(global_objects);
+      globalObjectsShared = false;
+    }
+    return global_objects;
+  }
+
   /**
    * Add a object to the heap.
    *
@@ -149,7 +194,7 @@ public class CLangSMG extends SMG {
     if (CLangSMG.performChecks() && heap_objects.contains(pObject)) {
       throw new IllegalArgumentException("Heap object already in the SMG: [" + pObject + "]");
     }
-    heap_objects.add(pObject);
+    mutableHeapObjects().add(pObject);
     addObject(pObject);
   }
 
@@ -173,7 +218,7 @@ public class CLangSMG extends SMG {
       throw new IllegalArgumentException("Global object with label [" + pObject.getLabel() + "] already in the SMG");
     }
 
-    global_objects.put(pObject.getLabel(), pObject);
+    mutableGlobalObjects().put(pObject.getLabel(), pObject);
     super.addObject(pObject);
   }
 
@@ -193,7 +238,7 @@ public class CLangSMG extends SMG {
    */
   public void addStackObject(SMGRegion pObject) {
     super.addObject(pObject);
-    stack_objects.peek().addStackVariable(pObject.getLabel(), pObject);
+    mutableTopFrame().addStackVariable(pObject.getLabel(), pObject);
   }
 
   /**
@@ -211,7 +256,8 @@ public class CLangSMG extends SMG {
     if (returnObject != null) {
       super.addObject(newFrame.getReturnObject());
     }
-    stack_objects.push(newFrame);
+    mutableStack().push(newFrame);
+    topFrameShared = false;
   }
 
   /**
@@ -235,7 +281,9 @@ public class CLangSMG extends SMG {
    * Keeps consistency: yes
    */
   public void dropStackFrame() {
-    CLangStackFrame frame = stack_objects.pop();
+    CLangStackFrame frame = mutableStack().pop();
+    // the new top frame may still be shared with copies of this SMG
+    topFrameShared = true;
     for (SMGObject object : frame.getAllObjects()) {
       removeObjectAndEdges(object);
     }
@@ -304,7 +352,9 @@ public class CLangSMG extends SMG {
           setMemoryLeak();
         }
         removeObjectAndEdges(stray_object);
-        heap_objects.remove(stray_object);
+        if (heap_objects.contains(stray_object)) {
+          mutableHeapObjects().remove(stray_object);
+        }
 
       }
     }
@@ -381,7 +431,9 @@ public class CLangSMG extends SMG {
   }
 
   /**
-   * Returns the (modifiable) stack of frames containing objects. Constant.
+   * Returns the stack of frames containing objects. Constant.
+   * The stack and its frames may be shared with other SMGs
+   * and must not be modified.
    *
    * @return Stack of frames
    */
@@ -467,7 +519,9 @@ public class CLangSMG extends SMG {
   }
 
   final public void removeHeapObjectAndEdges(SMGObject pObject) {
-    heap_objects.remove(pObject);
+    if (heap_objects.contains(pObject)) {
+      mutableHeapObjects().remove(pObject);
+    }
     removeObjectAndEdges(pObject);
   }
 
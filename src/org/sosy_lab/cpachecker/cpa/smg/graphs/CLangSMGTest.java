@@ -110,6 +110,31 @@ public class CLangSMGTest {
     Assert.assertEquals(hv, Iterables.getOnlyElement(smg_copy.getHVEdges(filter)));
   }
 
+  @Test
+  public void CLangSMGCopyIndependenceTest() {
+    CLangSMG smg = getNewCLangSMG64();
+    smg.addStackFrame(sf.getFunctionDeclaration());
+    SMGRegion obj1 = new SMGRegion(8, "obj1");
+    smg.addStackObject(obj1);
+
+    CLangSMG smg_copy = new CLangSMG(smg);
+    SMGRegion obj2 = new SMGRegion(8, "obj2");
+    SMGRegion obj3 = new SMGRegion(8, "obj3");
+    smg_copy.addStackObject(obj2);
+    smg.addHeapObject(obj3);
+    smg.addValue(Integer.valueOf(5));
+
+    Assert.assertTrue(CLangSMGConsistencyVerifier.verifyCLangSMG(logger, smg));
+    Assert.assertTrue(CLangSMGConsistencyVerifier.verifyCLangSMG(logger, smg_copy));
+
+    Assert.assertEquals(1, smg.getStackFrames().peek().getVariables().size());
+    Assert.assertEquals(2, smg_copy.getStackFrames().peek().getVariables().size());
+    Assert.assertFalse(smg.getObjects().contains(obj2));
+    Assert.assertFalse(smg_copy.isHeapObject(obj3));
+    Assert.assertFalse(smg_copy.getObjects().contains(obj3));
+    Assert.assertFalse(smg_copy.getValues().contains(Integer.valueOf(5)));
+  }
+
   @Test
   public void CLangSMGaddHeapObjectTest() {
     CLangSMG smg = getNewCLangSMG64();
@@ -23,11 +23,12 @@
  */
 package org.sosy_lab.cpachecker.cpa.smg.graphs;
 
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -40,14 +41,29 @@ import org.sosy_lab.cpachecker.cpa.smg.SMGEdgePointsTo;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
 
 import com.google.common.annotations.VisibleForTesting;
-
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The collections of an SMG are shared between an SMG and its copies
+ * (copy-on-write): the copy constructor does not copy them,
+ * but marks them as shared in both SMGs, and the first modification
+ * of a shared collection creates a private copy of only this collection.
+ * Thus successors share all parts of the graph they do not change.
+ */
 public class SMG {
-  final private Set<SMGObject> objects = new HashSet<>();
-  final private Set<Integer> values = new HashSet<>();
-  final private Set<SMGEdgeHasValue> hv_edges = new HashSet<>();
-  final private Map<Integer, SMGEdgePointsTo> pt_edges = new HashMap<>();
-  final private Map<SMGObject, Boolean> object_validity = new HashMap<>();
-  final private NeqRelation neq = new NeqRelation();
+  private Set<SMGObject> objects = new HashSet<>();
+  private Set<Integer> values = new HashSet<>();
+  private SMGHasValueEdgeSet hv_edges = new SMGHasValueEdgeSet();
+  private Map<Integer, SMGEdgePointsTo> pt_edges = new HashMap<>();
+  private Map<SMGObject, Boolean> object_validity = new HashMap<>();
+  private NeqRelation neq = new NeqRelation();
+
+  private boolean objectsShared = false;
+  private boolean valuesShared = false;
+  private boolean hvEdgesShared = false;
+  private boolean ptEdgesShared = false;
+  private boolean objectValidityShared = false;
+  private boolean neqShared = false;
 
   final private MachineModel machine_model;
 
@@ -73,7 +89,7 @@ public class SMG {
     SMGEdgePointsTo nullPointer = new SMGEdgePointsTo(nullAddress, nullObject, 0);
 
     addObject(nullObject);
-    object_validity.put(nullObject, false);
+    mutableObjectValidity().put(nullObject, false);
 
     addValue(nullAddress);
     addPointsToEdge(nullPointer);
@@ -86,16 +102,80 @@ public class SMG {
    *
    * Consistent after call: yes if pHeap is consistent, no otherwise.
    *
+   * The collections of pHeap are shared until either of the SMGs modifies them.
+   *
    * @param pHeap Original SMG.
    */
   public SMG(final SMG pHeap) {
     machine_model = pHeap.machine_model;
-    hv_edges.addAll(pHeap.hv_edges);
-    neq.putAll(pHeap.neq);
-    object_validity.putAll(pHeap.object_validity);
-    objects.addAll(pHeap.objects);
-    pt_edges.putAll(pHeap.pt_edges);
-    values.addAll(pHeap.values);
+
+    hv_edges = pHeap.hv_edges;
+    neq = pHeap.neq;
+    object_validity = pHeap.object_validity;
+    objects = pHeap.objects;
+    pt_edges = pHeap.pt_edges;
+    values = pHeap.values;
+
+    pHeap.hvEdgesShared = hvEdgesShared = true;
+    pHeap.neqShared = neqShared = true;
+    pHeap.objectValidityShared = objectValidityShared = true;
+    pHeap.objectsShared = objectsShared = true;
+    pHeap.ptEdgesShared = ptEdgesShared = true;
+    pHeap.valuesShared = valuesShared = true;
+  }
+
+  /* ************************************************** */
+  /* Accessors that unshare a collection before writing */
+  /* ************************************************** */
+
+  private Set<SMGObject> mutableObjects() {
+    if (objectsShared) {
+      objects = new HashSet<>(objects);
+      objectsShared = false;
+    }
+    return objects;
+  }
+
+  private Set<Integer> mutableValues() {
+    if (valuesShared) {
+      values = new HashSet<>(values);
+      valuesShared = false;
+    }
+    return values;
+  }
+
+  private SMGHasValueEdgeSet mutableHVEdges() {
+    if (hvEdgesShared) {
+      hv_edges = new SMGHasValueEdgeSet(hv_edges);
+      hvEdgesShared = false;
+    }
+    return hv_edges;
+  }
+
+  private Map<Integer, SMGEdgePointsTo> mutablePTEdges() {
+    if (ptEdgesShared) {
+      pt_edges = new HashMap<>(pt_edges);
+      ptEdgesShared = false;
+    }
+    return pt_edges;
+  }
+
+  private Map<SMGObject, Boolean> mutableObjectValidity() {
+    if (objectValidityShared) {
+      object_validity = new HashMap<>(object_validity);
+      objectValidityShared = false;
+    }
+    return object_validity;
+  }
+
+  private NeqRelation mutableNeq() {
+    if (neqShared) {
+      NeqRelation newNeq = new NeqRelation();
+      newNeq.putAll(neq);
+      neq = newNeq;
+      neqShared = false;
+    }
+    return neq;
   }
 
   @Override
@@ -152,8 +232,12 @@ public class SMG {
    * @param pValue Value to remove
    */
   final public void removeValue(final Integer pValue) {
-    values.remove(pValue);
-    neq.removeValue(pValue);
+    if (values.contains(pValue)) {
+      mutableValues().remove(pValue);
+    }
+    if (!neq.getNeqsForValue(pValue).isEmpty()) {
+      mutableNeq().removeValue(pValue);
+    }
   }
   /**
    * Remove {@link pObj} from the SMG. This method does not remove
@@ -165,8 +249,12 @@ public class SMG {
    */
   @VisibleForTesting
   final public void removeObject(final SMGObject pObj) {
-    objects.remove(pObj);
-    object_validity.remove(pObj);
+    if (objects.contains(pObj)) {
+      mutableObjects().remove(pObj);
+    }
+    if (object_validity.containsKey(pObj)) {
+      mutableObjectValidity().remove(pObj);
+    }
   }
 
   /**
@@ -178,19 +266,20 @@ public class SMG {
    */
   final public void removeObjectAndEdges(final SMGObject pObj) {
     removeObject(pObj);
-    Iterator<SMGEdgeHasValue> hv_iter = hv_edges.iterator();
-    Iterator<SMGEdgePointsTo> pt_iter = pt_edges.values().iterator();
-    while (hv_iter.hasNext()) {
-      if (hv_iter.next().getObject() == pObj) {
-        hv_iter.remove();
-      }
+    Set<SMGEdgeHasValue> obj_hv_edges = hv_edges.getEdgesForObject(pObj, null);
+    if (!obj_hv_edges.isEmpty()) {
+      mutableHVEdges().removeAll(ImmutableList.copyOf(obj_hv_edges));
     }
 
-    while (pt_iter.hasNext()) {
-      if (pt_iter.next().getObject() == pObj) {
-        pt_iter.remove();
+    List<Integer> obj_pt_values = new ArrayList<>();
+    for (SMGEdgePointsTo pt_edge : pt_edges.values()) {
+      if (pt_edge.getObject() == pObj) {
+        obj_pt_values.add(pt_edge.getValue());
       }
     }
+    if (!obj_pt_values.isEmpty()) {
+      mutablePTEdges().keySet().removeAll(obj_pt_values);
+    }
   }
 
   /**
@@ -203,8 +292,8 @@ public class SMG {
    *
    */
   final public void addObject(final SMGObject pObj, final boolean pValidity) {
-    objects.add(pObj);
-    object_validity.put(pObj, pValidity);
+    mutableObjects().add(pObj);
+    mutableObjectValidity().put(pObj, pValidity);
   }
 
   /**
@@ -215,7 +304,9 @@ public class SMG {
    * @param pValue  Value to add.
    */
   final public void addValue(Integer pValue) {
-    values.add(pValue);
+    if (!values.contains(pValue)) {
+      mutableValues().add(pValue);
+    }
   }
 
   /**
@@ -226,7 +317,7 @@ public class SMG {
    * @param pEdge Points-To edge to add.
    */
   final public void addPointsToEdge(SMGEdgePointsTo pEdge) {
-    pt_edges.put(pEdge.getValue(), pEdge);
+    mutablePTEdges().put(pEdge.getValue(), pEdge);
   }
 
   /**
@@ -237,7 +328,9 @@ public class SMG {
    * @param pEdge Has-Value edge to add
    */
   final public void addHasValueEdge(SMGEdgeHasValue pEdge) {
-    hv_edges.add(pEdge);
+    if (!hv_edges.contains(pEdge)) {
+      mutableHVEdges().add(pEdge);
+    }
   }
 
   /**
@@ -248,7 +341,9 @@ public class SMG {
    * @param pEdge Has-Value edge to remove
    */
   final public void removeHasValueEdge(SMGEdgeHasValue pEdge) {
-    hv_edges.remove(pEdge);
+    if (hv_edges.contains(pEdge)) {
+      mutableHVEdges().remove(pEdge);
+    }
   }
 
   /**
@@ -259,7 +354,9 @@ public class SMG {
    * @param pValue the Source of the Points-To edge to be removed
    */
   final public void removePointsToEdge(int pValue) {
-    pt_edges.remove(pValue);
+    if (pt_edges.containsKey(pValue)) {
+      mutablePTEdges().remove(pValue);
+    }
   }
 
   /**
@@ -277,7 +374,9 @@ public class SMG {
       throw new IllegalArgumentException("Object [" + pObject + "] not in SMG");
     }
 
-    object_validity.put(pObject, pValidity);
+    if (!Boolean.valueOf(pValidity).equals(object_validity.get(pObject))) {
+      mutableObjectValidity().put(pObject, pValidity);
+    }
   }
 
   /**
@@ -287,8 +386,9 @@ public class SMG {
    * Keeps consistency: no
    */
   public void replaceHVSet(Set<SMGEdgeHasValue> pNewHV) {
-    hv_edges.clear();
+    hv_edges = new SMGHasValueEdgeSet();
     hv_edges.addAll(pNewHV);
+    hvEdgesShared = false;
   }
 
   /**
@@ -300,7 +400,9 @@ public class SMG {
    * Keeps consistency: no
    */
   public void addNeqRelation(Integer pV1, Integer pV2) {
-    neq.add_relation(pV1, pV2);
+    if (!neq.neq_exists(pV1, pV2)) {
+      mutableNeq().add_relation(pV1, pV2);
+    }
   }
 
   /* ********************************************* */
@@ -511,18 +613,16 @@ public class SMG {
       pV2 = tmp;
     }
 
-    neq.mergeValues(pV1, pV2);
+    mutableNeq().mergeValues(pV1, pV2);
     removeValue(pV2);
-    Set<SMGEdgeHasValue> new_hv_edges = new HashSet<>();
-    for (SMGEdgeHasValue hv : hv_edges) {
-      if (hv.getValue() != pV2) {
-        new_hv_edges.add(hv);
-      } else {
+    List<SMGEdgeHasValue> hv_edges_with_v2 = ImmutableList.copyOf(hv_edges.getEdgesWithValue(pV2));
+    if (!hv_edges_with_v2.isEmpty()) {
+      SMGHasValueEdgeSet new_hv_edges = mutableHVEdges();
+      new_hv_edges.removeAll(hv_edges_with_v2);
+      for (SMGEdgeHasValue hv : hv_edges_with_v2) {
         new_hv_edges.add(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
       }
     }
-    hv_edges.clear();
-    hv_edges.addAll(new_hv_edges);
     // TODO: Handle PT Edges: I'm not entirely sure how they should be handled
   }
 
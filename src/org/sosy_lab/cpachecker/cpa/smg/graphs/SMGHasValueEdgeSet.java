@@ -0,0 +1,186 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.smg.graphs;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Set of Has-Value edges that is additionally indexed
+ * by the source object and offset and by the value of the edges.
+ * This allows to retrieve all edges of an object (at an offset)
+ * or all edges with a given value without iterating over all edges of the SMG.
+ *
+ * {@link org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValueFilter} uses these indices
+ * automatically when it is applied to an instance of this class.
+ */
+public class SMGHasValueEdgeSet extends AbstractSet<SMGEdgeHasValue> {
+
+  private final Set<SMGEdgeHasValue> edges;
+  private final Map<SMGObject, SetMultimap<Integer, SMGEdgeHasValue>> edgesByObjectAndOffset;
+  private final SetMultimap<Integer, SMGEdgeHasValue> edgesByValue;
+
+  public SMGHasValueEdgeSet() {
+    edges = new HashSet<>();
+    edgesByObjectAndOffset = new HashMap<>();
+    edgesByValue = HashMultimap.create();
+  }
+
+  /**
+   * Copy constructor.
+   * @param pOther The set to copy.
+   */
+  public SMGHasValueEdgeSet(SMGHasValueEdgeSet pOther) {
+    edges = new HashSet<>(pOther.edges);
+    edgesByObjectAndOffset = new HashMap<>(pOther.edgesByObjectAndOffset.size());
+    for (Map.Entry<SMGObject, SetMultimap<Integer, SMGEdgeHasValue>> entry : pOther.edgesByObjectAndOffset.entrySet()) {
+      edgesByObjectAndOffset.put(entry.getKey(), HashMultimap.create(entry.getValue()));
+    }
+    edgesByValue = HashMultimap.create(pOther.edgesByValue);
+  }
+
+  @Override
+  public boolean add(SMGEdgeHasValue pEdge) {
+    if (!edges.add(pEdge)) {
+      return false;
+    }
+
+    SetMultimap<Integer, SMGEdgeHasValue> objectEdges = edgesByObjectAndOffset.get(pEdge.getObject());
+    if (objectEdges == null) {
+      objectEdges = HashMultimap.create();
+      edgesByObjectAndOffset.put(pEdge.getObject(), objectEdges);
+    }
+    objectEdges.put(pEdge.getOffset(), pEdge);
+    edgesByValue.put(pEdge.getValue(), pEdge);
+    return true;
+  }
+
+  @Override
+  public boolean remove(Object pObj) {
+    if (!edges.remove(pObj)) {
+      return false;
+    }
+    removeFromIndices((SMGEdgeHasValue) pObj);
+    return true;
+  }
+
+  private void removeFromIndices(SMGEdgeHasValue pEdge) {
+    SetMultimap<Integer, SMGEdgeHasValue> objectEdges = edgesByObjectAndOffset.get(pEdge.getObject());
+    if (objectEdges != null) {
+      objectEdges.remove(pEdge.getOffset(), pEdge);
+      if (objectEdges.isEmpty()) {
+        edgesByObjectAndOffset.remove(pEdge.getObject());
+      }
+    }
+    edgesByValue.remove(pEdge.getValue(), pEdge);
+  }
+
+  @Override
+  public boolean contains(Object pObj) {
+    return edges.contains(pObj);
+  }
+
+  @Override
+  public int size() {
+    return edges.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return edges.isEmpty();
+  }
+
+  @Override
+  public void clear() {
+    edges.clear();
+    edgesByObjectAndOffset.clear();
+    edgesByValue.clear();
+  }
+
+  @Override
+  public Iterator<SMGEdgeHasValue> iterator() {
+    final Iterator<SMGEdgeHasValue> it = edges.iterator();
+    return new Iterator<SMGEdgeHasValue>() {
+
+      private SMGEdgeHasValue last = null;
+
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public SMGEdgeHasValue next() {
+        last = it.next();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        it.remove();
+        removeFromIndices(last);
+      }
+    };
+  }
+
+  /**
+   * Get all edges that lead from the given object,
+   * optionally restricted to those at the given offset.
+   * @param pObject The source object of the edges.
+   * @param pOffset The offset of the edges, or null for all offsets.
+   * @return An unmodifiable set of the matching edges.
+   */
+  public Set<SMGEdgeHasValue> getEdgesForObject(SMGObject pObject, @Nullable Integer pOffset) {
+    SetMultimap<Integer, SMGEdgeHasValue> objectEdges = edgesByObjectAndOffset.get(pObject);
+    if (objectEdges == null) {
+      return Collections.emptySet();
+    }
+    if (pOffset == null) {
+      return ImmutableSet.copyOf(objectEdges.values());
+    }
+    return Collections.unmodifiableSet(objectEdges.get(pOffset));
+  }
+
+  /**
+   * Get all edges that have the given value.
+   * @return An unmodifiable view on the matching edges.
+   */
+  public Set<SMGEdgeHasValue> getEdgesWithValue(int pValue) {
+    return Collections.unmodifiableSet(edgesByValue.get(pValue));
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.smg.graphs;
+
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.cpa.smg.AnonymousTypes;
+import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValueFilter;
+import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
+import org.sosy_lab.cpachecker.cpa.smg.objects.SMGRegion;
+
+
+public class SMGHasValueEdgeSetTest {
+
+  private SMGHasValueEdgeSet set;
+  CType mockType = AnonymousTypes.createTypeWithLength(4);
+
+  SMGObject obj1 = new SMGRegion(8, "object-1");
+  SMGObject obj2 = new SMGRegion(8, "object-2");
+
+  SMGEdgeHasValue hv1has1at0 = new SMGEdgeHasValue(mockType, 0, obj1, 1);
+  SMGEdgeHasValue hv1has2at4 = new SMGEdgeHasValue(mockType, 4, obj1, 2);
+  SMGEdgeHasValue hv2has2at0 = new SMGEdgeHasValue(mockType, 0, obj2, 2);
+
+  @Before
+  public void setUp() {
+    set = new SMGHasValueEdgeSet();
+    set.add(hv1has1at0);
+    set.add(hv1has2at4);
+    set.add(hv2has2at0);
+  }
+
+  @Test
+  public void indexLookupTest() {
+    Assert.assertEquals(3, set.size());
+    Assert.assertEquals(2, set.getEdgesForObject(obj1, null).size());
+    Assert.assertTrue(set.getEdgesForObject(obj1, 4).contains(hv1has2at4));
+    Assert.assertEquals(1, set.getEdgesForObject(obj1, 4).size());
+    Assert.assertEquals(2, set.getEdgesWithValue(2).size());
+    Assert.assertTrue(set.getEdgesWithValue(3).isEmpty());
+  }
+
+  @Test
+  public void removeTest() {
+    Assert.assertTrue(set.remove(hv1has2at4));
+    Assert.assertFalse(set.contains(hv1has2at4));
+    Assert.assertEquals(1, set.getEdgesForObject(obj1, null).size());
+    Assert.assertEquals(1, set.getEdgesWithValue(2).size());
+
+    Iterator<SMGEdgeHasValue> it = set.iterator();
+    while (it.hasNext()) {
+      if (it.next().getObject() == obj2) {
+        it.remove();
+      }
+    }
+    Assert.assertTrue(set.getEdgesForObject(obj2, null).isEmpty());
+    Assert.assertTrue(set.getEdgesWithValue(2).isEmpty());
+  }
+
+  @Test
+  public void copyTest() {
+    SMGHasValueEdgeSet copy = new SMGHasValueEdgeSet(set);
+    copy.remove(hv1has1at0);
+
+    Assert.assertEquals(set.size() - 1, copy.size());
+    Assert.assertTrue(set.getEdgesForObject(obj1, 0).contains(hv1has1at0));
+    Assert.assertTrue(copy.getEdgesForObject(obj1, 0).isEmpty());
+  }
+
+  @Test
+  public void filterUsesIndexTest() {
+    SMGEdgeHasValueFilter filter = SMGEdgeHasValueFilter.objectFilter(obj1).filterAtOffset(0);
+    Assert.assertEquals(1, filter.filterSet(set).size());
+    Assert.assertTrue(filter.filterSet(set).contains(hv1has1at0));
+
+    filter = new SMGEdgeHasValueFilter().filterHavingValue(2);
+    Assert.assertEquals(2, filter.filterSet(set).size());
+
+    filter = new SMGEdgeHasValueFilter().filterNotHavingValue(2);
+    Assert.assertEquals(1, filter.filterSet(set).size());
+  }
+}
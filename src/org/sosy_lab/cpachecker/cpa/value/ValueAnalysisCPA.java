@@ -75,6 +75,7 @@ import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.StateToFormulaWriter;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
@@ -94,6 +95,11 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private Path initialPrecisionFile = null;
 
+  @Option(secure=true, description="share equal abstract states (and their memory locations"
+      + " and values) through a weak intern table, such that equal states are represented"
+      + " by the same object")
+  private boolean internStates = false;
+
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(ValueAnalysisCPA.class);
   }
@@ -131,7 +137,9 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
     mergeOperator       = initializeMergeOperator();
     stopOperator        = initializeStopOperator();
 
-    precisionAdjustment = new ValueAnalysisPrecisionAdjustment(config, cfa);
+    precisionAdjustment = new ValueAnalysisPrecisionAdjustment(config, cfa,
+        internStates ? Optional.of(new ValueAnalysisStateInterner())
+                     : Optional.<ValueAnalysisStateInterner>absent());
 
     reducer             = new ValueAnalysisReducer();
     statistics          = new ValueAnalysisCPAStatistics(this, config);
@@ -102,10 +102,13 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment, St
 
   private final Optional<LiveVariables> liveVariables;
 
-  public ValueAnalysisPrecisionAdjustment(Configuration pConfig, CFA pCfa)
-      throws InvalidConfigurationException {
+  private final Optional<ValueAnalysisStateInterner> interner;
+
+  public ValueAnalysisPrecisionAdjustment(Configuration pConfig, CFA pCfa,
+      Optional<ValueAnalysisStateInterner> pInterner) throws InvalidConfigurationException {
 
     pConfig.inject(this);
+    interner = pInterner;
 
     if (alwaysAtLoop && pCfa.getAllLoopHeads().isPresent()) {
       loopHeads = pCfa.getAllLoopHeads().get();
@@ -123,6 +126,10 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment, St
         writer.put(totalAbstraction);
         writer.put(totalEnforcePath);
         writer.put("Number of tracked memory locations", trackedMemoryLocation.size());
+        if (interner.isPresent()) {
+          writer.put(interner.get().internedStates);
+          writer.put(interner.get().sharedStates);
+        }
       }
 
       @Override
@@ -173,6 +180,10 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment, St
     // all memory locations contained in the state here are both tracked and have a known valuation
     trackedMemoryLocation.addAll(resultState.getTrackedMemoryLocations());
 
+    if (interner.isPresent()) {
+      resultState = interner.get().intern(resultState);
+    }
+
     return Optional.of(PrecisionAdjustmentResult.create(resultState, pPrecision, Action.CONTINUE));
   }
 
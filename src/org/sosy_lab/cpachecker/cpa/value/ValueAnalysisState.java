@@ -34,6 +34,9 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
 
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentMap;
@@ -42,6 +45,7 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
 import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
@@ -67,11 +71,13 @@ import com.google.common.collect.Multimap;
 
 public class ValueAnalysisState implements AbstractQueryableState, FormulaReportingState,
     ForgetfulState<ValueAnalysisInformation>, Serializable, Graphable,
-    LatticeAbstractState<ValueAnalysisState> {
+    LatticeAbstractState<ValueAnalysisState>, AbstractStateWithCoverageSignature {
 
   private static final long serialVersionUID = -3152134511524554357L;
 
-  private static final Set<MemoryLocation> blacklist = new HashSet<>();
+  // concurrent, because refiners may use several transfer relations in parallel
+  private static final Set<MemoryLocation> blacklist =
+      Collections.newSetFromMap(new ConcurrentHashMap<MemoryLocation, Boolean>());
 
   static void addToBlacklist(MemoryLocation var) {
     blacklist.add(checkNotNull(var));
@@ -84,6 +90,25 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
 
   private transient PersistentMap<MemoryLocation, Type> memLocToType = PathCopyingPersistentTreeMap.of();
 
+  /** cached hash code, 0 if not yet computed */
+  private transient int hashCache = 0;
+
+  /** cached signature of all assignments, valid if {@link #hasCoverageSignature} is set */
+  private transient long coverageSignature = 0;
+  private transient boolean hasCoverageSignature = false;
+
+  /**
+   * the {@link ValueAnalysisStateInterner} in which this state is the representative
+   * of its equivalence class (or null), this is reset if the state is modified
+   */
+  private transient @Nullable ValueAnalysisStateInterner internedIn = null;
+
+  /**
+   * whether memory locations and values that are added to this state should be interned,
+   * this is inherited by copies of interned states
+   */
+  private transient boolean internValues = false;
+
   public ValueAnalysisState() {
     constantsMap = PathCopyingPersistentTreeMap.of();
   }
@@ -94,7 +119,28 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
   }
 
   public static ValueAnalysisState copyOf(ValueAnalysisState state) {
-    return new ValueAnalysisState(state.constantsMap, state.memLocToType);
+    ValueAnalysisState copy = new ValueAnalysisState(state.constantsMap, state.memLocToType);
+    copy.internValues = state.internValues;
+    return copy;
+  }
+
+  /**
+   * Mark this state as the representative of its equivalence class in the given intern table.
+   * Two different states interned in the same table are never equal
+   * (unless one of them was modified afterwards).
+   */
+  void markInterned(ValueAnalysisStateInterner pInterner) {
+    internedIn = pInterner;
+    internValues = true;
+  }
+
+  /**
+   * This method has to be called after each modification of the maps of this state.
+   */
+  private void stateChanged() {
+    hashCache = 0;
+    hasCoverageSignature = false;
+    internedIn = null;
   }
 
   /**
@@ -108,17 +154,26 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
       return;
     }
 
-    addToConstantsMap(MemoryLocation.valueOf(variableName), value);
+    addToConstantsMap(internIfNecessary(MemoryLocation.valueOf(variableName)), value);
+  }
+
+  private MemoryLocation internIfNecessary(MemoryLocation pMemLoc) {
+    return internValues ? pMemLoc.intern() : pMemLoc;
   }
 
   private void addToConstantsMap(final MemoryLocation pMemLoc, final Value pValue) {
     Value valueToAdd = pValue;
 
+    if (internValues && valueToAdd instanceof NumericValue) {
+      valueToAdd = ((NumericValue) valueToAdd).intern();
+    }
+
     if (valueToAdd instanceof SymbolicValue) {
       valueToAdd = ((SymbolicValue) valueToAdd).copyForLocation(pMemLoc);
     }
 
     constantsMap = constantsMap.putAndCopy(pMemLoc, checkNotNull(valueToAdd));
+    stateChanged();
   }
 
   /**
@@ -133,8 +188,9 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
       return;
     }
 
-    addToConstantsMap(pMemoryLocation, value);
-    memLocToType = memLocToType.putAndCopy(pMemoryLocation, pType);
+    MemoryLocation memLoc = internIfNecessary(pMemoryLocation);
+    addToConstantsMap(memLoc, value);
+    memLocToType = memLocToType.putAndCopy(memLoc, pType);
   }
 
   /**
@@ -187,6 +243,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     Type type = memLocToType.get(pMemoryLocation);
     constantsMap = constantsMap.removeAndCopy(pMemoryLocation);
     memLocToType = memLocToType.removeAndCopy(pMemoryLocation);
+    stateChanged();
 
     Map<MemoryLocation, Type> typeAssignment;
 
@@ -346,7 +403,9 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     if (newConstantsMap.size() == reachedState.constantsMap.size()) {
       return reachedState;
     } else {
-      return new ValueAnalysisState(newConstantsMap, newlocToTypeMap);
+      ValueAnalysisState result = new ValueAnalysisState(newConstantsMap, newlocToTypeMap);
+      result.internValues = internValues || reachedState.internValues;
+      return result;
     }
   }
 
@@ -359,6 +418,10 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    if (this == other) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
@@ -380,6 +443,24 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     return true;
   }
 
+  /**
+   * The signature contains all assignments of this state,
+   * because a state is only covered by states with a subset of its assignments.
+   */
+  @Override
+  public long getCoverageSignature() {
+    if (!hasCoverageSignature) {
+      long signature = 0;
+      for (Map.Entry<MemoryLocation, Value> entry : constantsMap.entrySet()) {
+        int hash = entry.getKey().hashCode() * 31 + entry.getValue().hashCode();
+        signature |= 1L << (hash ^ (hash >>> 16));
+      }
+      coverageSignature = signature;
+      hasCoverageSignature = true;
+    }
+    return coverageSignature;
+  }
+
   @Override
   public boolean equals(Object other) {
     if (this == other) {
@@ -396,12 +477,24 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
 
     ValueAnalysisState otherElement = (ValueAnalysisState) other;
 
+    if (internedIn != null && internedIn == otherElement.internedIn) {
+      // equal states interned in the same table are identical
+      return false;
+    }
+
+    if (hashCode() != otherElement.hashCode()) {
+      return false;
+    }
+
     return otherElement.constantsMap.equals(constantsMap) && Objects.equals(memLocToType, otherElement.memLocToType);
   }
 
   @Override
   public int hashCode() {
-    return constantsMap.hashCode();
+    if (hashCache == 0) {
+      hashCache = constantsMap.hashCode();
+    }
+    return hashCache;
   }
 
   @Override
@@ -690,6 +783,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
       if (memoryLocation.getIdentifier().equals(pIdentifier)) {
         constantsMap = constantsMap.removeAndCopy(memoryLocation);
         memLocToType = memLocToType.removeAndCopy(memoryLocation);
+        stateChanged();
       }
     }
   }
@@ -0,0 +1,62 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Weak intern table for {@link ValueAnalysisState}s.
+ *
+ * Equal states that are created on different paths are replaced by one representative,
+ * which reduces the memory consumption and makes the comparison of states cheaper:
+ * interned states cache their hash code, and two different states interned in the same table
+ * are known to be unequal without comparing their maps.
+ * States derived from an interned state also intern the memory locations and numeric values
+ * that are added to them.
+ *
+ * States must not be modified after they have been interned.
+ * If this happens nevertheless, the modified state loses its status as representative
+ * (equality checks stay correct, only the sharing is lost).
+ */
+final class ValueAnalysisStateInterner {
+
+  private final Interner<ValueAnalysisState> interner = Interners.newWeakInterner();
+
+  final StatCounter internedStates = new StatCounter("Number of interned states");
+  final StatCounter sharedStates = new StatCounter("Number of states replaced by an equal state");
+
+  ValueAnalysisState intern(ValueAnalysisState pState) {
+    ValueAnalysisState representative = interner.intern(pState);
+    if (representative == pState) {
+      pState.markInterned(this);
+      internedStates.inc();
+    } else {
+      sharedStates.inc();
+    }
+    return representative;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class ValueAnalysisStateInternerTest {
+
+  private ValueAnalysisStateInterner interner;
+
+  @Before
+  public void setUp() {
+    interner = new ValueAnalysisStateInterner();
+  }
+
+  private static ValueAnalysisState createState(String pVariable, long pValue) {
+    ValueAnalysisState state = new ValueAnalysisState();
+    state.assignConstant(MemoryLocation.valueOf("main", pVariable, 0),
+        new NumericValue(pValue), CNumericTypes.INT);
+    return state;
+  }
+
+  @Test
+  public void testEqualStatesAreShared() {
+    ValueAnalysisState first = interner.intern(createState("x", 1));
+    ValueAnalysisState second = interner.intern(createState("x", 1));
+
+    assertThat(second).isSameAs(first);
+    assertThat(interner.internedStates.getValue()).isEqualTo(1);
+    assertThat(interner.sharedStates.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDifferentStatesAreNotShared() {
+    ValueAnalysisState first = interner.intern(createState("x", 1));
+    ValueAnalysisState second = interner.intern(createState("x", 2));
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second).isNotEqualTo(first);
+  }
+
+  @Test
+  public void testStatesOfDifferentInternersAreEqual() {
+    ValueAnalysisStateInterner otherInterner = new ValueAnalysisStateInterner();
+    ValueAnalysisState first = interner.intern(createState("x", 1));
+    ValueAnalysisState second = otherInterner.intern(createState("x", 1));
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second).isEqualTo(first);
+    assertThat(first).isEqualTo(second);
+  }
+
+  @Test
+  public void testCopiesInternValues() {
+    ValueAnalysisState interned = interner.intern(createState("x", 1));
+    ValueAnalysisState copy1 = ValueAnalysisState.copyOf(interned);
+    ValueAnalysisState copy2 = ValueAnalysisState.copyOf(interned);
+    copy1.assignConstant(MemoryLocation.valueOf("main", "y", 0), new NumericValue(5L), CNumericTypes.INT);
+    copy2.assignConstant(MemoryLocation.valueOf("main", "y", 0), new NumericValue(5L), CNumericTypes.INT);
+
+    MemoryLocation y = MemoryLocation.valueOf("main", "y", 0);
+    assertThat(copy1.getValueFor(y)).isSameAs(copy2.getValueFor(y));
+    assertThat(copy1).isEqualTo(copy2);
+  }
+
+  @Test
+  public void testModifiedStateIsNoLongerRepresentative() {
+    ValueAnalysisState first = interner.intern(createState("x", 1));
+    ValueAnalysisState second = interner.intern(createState("y", 1));
+    assertThat(first).isNotEqualTo(second);
+
+    // violates the contract, but equality has to stay correct
+    first.forget(MemoryLocation.valueOf("main", "x", 0));
+    second.forget(MemoryLocation.valueOf("main", "y", 0));
+    assertThat(first).isEqualTo(second);
+  }
+}
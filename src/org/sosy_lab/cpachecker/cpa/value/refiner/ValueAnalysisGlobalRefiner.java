@@ -23,27 +23,49 @@
  */
 package org.sosy_lab.cpachecker.cpa.value.refiner;
 
+import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
 
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.SortingPathExtractor;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisFeasibilityChecker;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisPrefixProvider;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.refinement.GenericPrefixProvider;
+import org.sosy_lab.cpachecker.util.refinement.InterpolationTree;
 import org.sosy_lab.cpachecker.util.refinement.PrefixSelector;
 import org.sosy_lab.cpachecker.util.refinement.StrongestPostOperator;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+import com.google.common.base.Throwables;
 
 @Options(prefix = "cpa.value.refinement")
 public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
@@ -53,6 +75,52 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
       description = "whether to use the top-down interpolation strategy or the bottom-up interpolation strategy")
   private boolean useTopDownInterpolationStrategy = true;
 
+  @Option(
+      secure = true,
+      description = "number of threads for checking the feasibility of the error paths "
+          + "and for interpolating independent error paths of the interpolation tree concurrently "
+          + "(only with the top-down interpolation strategy). "
+          + "Each thread uses its own feasibility checker and interpolator.")
+  @IntegerOption(min = 1)
+  private int threads = 1;
+
+  /**
+   * The feasibility checkers and interpolators for concurrent refinement,
+   * one per thread, or empty if refinement is sequential.
+   * Each of them is used by at most one thread at a time.
+   */
+  private final List<RefinementWorker> workers = new ArrayList<>();
+
+  // Statistics
+  private final StatCounter concurrentFeasibilityChecks =
+      new StatCounter("Number of rounds of concurrent feasibility checks");
+  private final StatCounter concurrentInterpolations =
+      new StatCounter("Number of rounds of concurrent interpolations");
+
+  /**
+   * A feasibility checker and an interpolator with their own strongest-post operator,
+   * independent of all other instances.
+   */
+  private static class RefinementWorker {
+
+    private final ValueAnalysisFeasibilityChecker checker;
+    private final ValueAnalysisPathInterpolator interpolator;
+
+    private RefinementWorker(final Configuration pConfig, final LogManager pLogger,
+        final ShutdownNotifier pShutdownNotifier, final CFA pCfa)
+        throws InvalidConfigurationException {
+
+      final StrongestPostOperator<ValueAnalysisState> strongestPostOp =
+          new ValueAnalysisStrongestPostOperator(pLogger, Configuration.builder().build(), pCfa);
+
+      checker = new ValueAnalysisFeasibilityChecker(strongestPostOp, pLogger, pCfa, pConfig);
+      interpolator = new ValueAnalysisPathInterpolator(checker,
+          strongestPostOp,
+          new ValueAnalysisPrefixProvider(pLogger, pCfa, pConfig),
+          pConfig, pLogger, pShutdownNotifier, pCfa);
+    }
+  }
+
   public static ValueAnalysisGlobalRefiner create(final ConfigurableProgramAnalysis pCpa)
       throws InvalidConfigurationException {
 
@@ -115,6 +183,12 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
         pCfa);
 
     pConfig.inject(this, ValueAnalysisGlobalRefiner.class);
+
+    if (threads > 1) {
+      for (int i = 0; i < threads; i++) {
+        workers.add(new RefinementWorker(pConfig, pLogger, pShutdownNotifier, pCfa));
+      }
+    }
   }
 
   /**
@@ -124,5 +198,131 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
   protected ValueAnalysisInterpolationTree createInterpolationTree(final List<ARGPath> targetsPaths) {
     return new ValueAnalysisInterpolationTree(logger, targetsPaths, useTopDownInterpolationStrategy);
   }
-}
 
+  @Override
+  protected List<Boolean> checkFeasibility(final List<ARGPath> pErrorPaths)
+      throws CPAException, InterruptedException {
+    if (workers.isEmpty()) {
+      return super.checkFeasibility(pErrorPaths);
+    }
+
+    List<WorkerTask<Boolean>> tasks = new ArrayList<>(pErrorPaths.size());
+    for (final ARGPath errorPath : pErrorPaths) {
+      tasks.add(new WorkerTask<Boolean>() {
+        @Override
+        public Boolean call(RefinementWorker pWorker) throws CPAException, InterruptedException {
+          return pWorker.checker.isFeasible(errorPath);
+        }
+      });
+    }
+
+    concurrentFeasibilityChecks.inc();
+    return runConcurrently(tasks);
+  }
+
+  /**
+   * With several threads, all paths of the interpolation tree whose initial interpolant is known
+   * are interpolated concurrently, and afterwards their interpolants are added to the tree.
+   */
+  @Override
+  protected void performPathInterpolations(
+      final InterpolationTree<ValueAnalysisState, ValueAnalysisInterpolant> pInterpolationTree)
+      throws CPAException, InterruptedException {
+    if (workers.isEmpty()) {
+      super.performPathInterpolations(pInterpolationTree);
+      return;
+    }
+
+    final ARGState root = pInterpolationTree.getRoot();
+    List<WorkerTask<Map<ARGState, ValueAnalysisInterpolant>>> tasks = new ArrayList<>();
+    for (final ARGPath errorPath : pInterpolationTree.getNextPathsForInterpolation()) {
+      if (errorPath == InterpolationTree.EMPTY_PATH) {
+        logger.log(Level.FINEST, "skipping interpolation,"
+            + " because false interpolant on path to target state");
+        continue;
+      }
+
+      final ValueAnalysisInterpolant initialItp =
+          pInterpolationTree.getInitialInterpolantForPath(errorPath);
+      tasks.add(new WorkerTask<Map<ARGState, ValueAnalysisInterpolant>>() {
+        @Override
+        public Map<ARGState, ValueAnalysisInterpolant> call(RefinementWorker pWorker)
+            throws CPAException, InterruptedException {
+          return interpolatePath(errorPath, initialItp, root, pWorker.checker, pWorker.interpolator);
+        }
+      });
+    }
+
+    if (tasks.size() > 1) {
+      concurrentInterpolations.inc();
+    }
+    for (Map<ARGState, ValueAnalysisInterpolant> interpolants : runConcurrently(tasks)) {
+      pInterpolationTree.addInterpolants(interpolants);
+    }
+  }
+
+  private interface WorkerTask<T> {
+    T call(RefinementWorker pWorker) throws CPAException, InterruptedException;
+  }
+
+  /**
+   * Run the given tasks on the threads of the workers and return their results in the same order.
+   */
+  private <T> List<T> runConcurrently(final List<WorkerTask<T>> pTasks)
+      throws CPAException, InterruptedException {
+    final BlockingQueue<RefinementWorker> idleWorkers =
+        new ArrayBlockingQueue<>(workers.size(), false, workers);
+
+    ExecutorService executor = Executors.newFixedThreadPool(workers.size(),
+        Threads.threadFactoryBuilder().setDaemon(true).build());
+    List<Future<T>> futures = new ArrayList<>(pTasks.size());
+    try {
+      for (final WorkerTask<T> task : pTasks) {
+        futures.add(executor.submit(new Callable<T>() {
+          @Override
+          public T call() throws CPAException, InterruptedException {
+            RefinementWorker worker = idleWorkers.take();
+            try {
+              return task.call(worker);
+            } finally {
+              idleWorkers.add(worker);
+            }
+          }
+        }));
+      }
+
+      List<T> results = new ArrayList<>(pTasks.size());
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, CPAException.class, InterruptedException.class);
+      throw new CPAException("Unexpected exception during concurrent refinement", cause);
+    } finally {
+      for (Future<?> future : futures) {
+        future.cancel(true);
+      }
+      executor.shutdownNow();
+    }
+  }
+
+  @Override
+  protected void printAdditionalStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+    super.printAdditionalStatistics(pOut, pResult, pReached);
+
+    if (!workers.isEmpty()) {
+      StatisticsWriter.writingStatisticsTo(pOut)
+          .put(concurrentFeasibilityChecks)
+          .put(concurrentInterpolations);
+
+      for (int i = 0; i < workers.size(); i++) {
+        pOut.println();
+        pOut.println("Interpolation of refinement thread " + (i + 1) + ":");
+        workers.get(i).interpolator.printStatistics(pOut, pResult, pReached);
+      }
+    }
+  }
+}
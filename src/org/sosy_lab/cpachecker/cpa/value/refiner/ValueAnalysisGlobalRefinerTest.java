@@ -0,0 +1,103 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value.refiner;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.defaults.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Precisions;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ValueAnalysisGlobalRefinerTest {
+
+  private static final String PROGRAM = "test/programs/simple/explicit/globalRefinementBranches.c";
+
+  private static final Pattern NODE_PATTERN = Pattern.compile("^N(\\d+):$", Pattern.MULTILINE);
+
+  private static TestResults runWithThreads(int threads) throws Exception {
+    Map<String, String> prop = ImmutableMap.<String, String>builder()
+        .put("analysis.algorithm.CEGAR", "true")
+        .put("cegar.globalRefinement", "true")
+        .put("cegar.refiner", "cpa.value.refiner.ValueAnalysisGlobalRefiner")
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA")
+        .put("specification", "config/specification/default.spc")
+        .put("cpa.automaton.breakOnTargetState", "0")
+        .put("cpa.value.refinement.threads", Integer.toString(threads))
+        .build();
+
+    return CPATestRunner.run(prop, PROGRAM);
+  }
+
+  /**
+   * Returns the joined precision of all states,
+   * with node numbers relative to the initial location,
+   * such that the precisions of different runs (i.e., of different CFAs) can be compared.
+   */
+  private static String getPrecision(UnmodifiableReachedSet pReached) throws IOException {
+    VariableTrackingPrecision joined = null;
+    for (Precision precision : pReached.getPrecisions()) {
+      VariableTrackingPrecision current =
+          Precisions.extractPrecisionByType(precision, VariableTrackingPrecision.class);
+      joined = joined == null ? current : joined.join(current);
+    }
+    StringWriter serialized = new StringWriter();
+    joined.serialize(serialized);
+
+    int initialNode = AbstractStates.extractLocation(pReached.getFirstState()).getNodeNumber();
+    Matcher matcher = NODE_PATTERN.matcher(serialized.toString());
+    StringBuffer result = new StringBuffer();
+    while (matcher.find()) {
+      matcher.appendReplacement(result, "N" + (Integer.parseInt(matcher.group(1)) - initialNode) + ":");
+    }
+    matcher.appendTail(result);
+    return result.toString();
+  }
+
+  @Test
+  public void testConcurrentRefinementEqualsSequentialRefinement() throws Exception {
+    TestResults sequential = runWithThreads(1);
+    sequential.assertIsSafe();
+    String sequentialPrecision = getPrecision(sequential.getCheckerResult().getReached());
+    assertThat(sequentialPrecision.isEmpty()).isFalse();
+
+    TestResults concurrent = runWithThreads(2);
+    concurrent.assertIsSafe();
+    assertThat(getPrecision(concurrent.getCheckerResult().getReached())).isEqualTo(sequentialPrecision);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value.refiner;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.model.BlankEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cpa.arg.ARGPath;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.location.LocationState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+public class ValueAnalysisInterpolationTreeTest {
+
+  // the tree of the error paths:
+  // root - a - b - c - d - t1
+  //            |       \ - t2
+  //             \ - e - t3
+  private ARGState root;
+  private ARGState a;
+  private ARGState b;
+  private ARGState c;
+  private ARGState d;
+  private ARGState e;
+  private ARGState t1;
+  private ARGState t2;
+  private ARGState t3;
+
+  @Before
+  public void setUp() {
+    root = createState(null);
+    a = createState(root);
+    b = createState(a);
+    c = createState(b);
+    d = createState(c);
+    t1 = createState(d);
+    t2 = createState(d);
+    e = createState(b);
+    t3 = createState(e);
+  }
+
+  private static ARGState createState(ARGState pParent) {
+    CFANode node = new CFANode("main");
+    if (pParent != null) {
+      CFANode parentNode = ((LocationState)pParent.getWrappedState()).getLocationNode();
+      CFAEdge edge = BlankEdge.buildNoopEdge(parentNode, node);
+      parentNode.addLeavingEdge(edge);
+      node.addEnteringEdge(edge);
+    }
+
+    LocationState location = Mockito.mock(LocationState.class);
+    Mockito.when(location.getLocationNode()).thenReturn(node);
+    Mockito.when(location.getLocationNodes()).thenReturn(Collections.singleton(node));
+    return new ARGState(location, pParent);
+  }
+
+  private static ARGPath pathTo(ARGState pTarget) {
+    List<ARGState> states = new ArrayList<>();
+    for (ARGState current = pTarget; current != null;
+        current = Iterables.getFirst(current.getParents(), null)) {
+      states.add(current);
+    }
+    states = Lists.reverse(states);
+
+    List<CFAEdge> edges = new ArrayList<>();
+    for (int i = 0; i < states.size() - 1; i++) {
+      edges.add(states.get(i).getEdgeToChild(states.get(i + 1)));
+    }
+    return new ARGPath(states, edges);
+  }
+
+  private ValueAnalysisInterpolationTree createTree() {
+    return new ValueAnalysisInterpolationTree(TestLogManager.getInstance(),
+        ImmutableList.of(pathTo(t1), pathTo(t2), pathTo(t3)), true);
+  }
+
+  @Test
+  public void testFirstPathsStartAtRoot() {
+    ValueAnalysisInterpolationTree tree = createTree();
+    List<ARGPath> paths = tree.getNextPathsForInterpolation();
+
+    assertThat(paths).hasSize(1);
+    assertThat(paths.get(0).asStatesList()).isEqualTo(ImmutableList.of(root, a, b, c, d, t1));
+    assertThat(tree.hasNextPathForInterpolation()).isTrue();
+  }
+
+  @Test
+  public void testNextPathsAreAllCurrentSources() {
+    ValueAnalysisInterpolationTree tree = createTree();
+    tree.getNextPathsForInterpolation();
+    List<ARGPath> paths = tree.getNextPathsForInterpolation();
+
+    // one path for each sibling that was left by the first path, starting at the branching state
+    assertThat(paths).hasSize(2);
+    assertThat(paths.get(0).asStatesList()).isEqualTo(ImmutableList.of(d, t2));
+    assertThat(paths.get(1).asStatesList()).isEqualTo(ImmutableList.of(b, e, t3));
+
+    // the paths are in disjoint subtrees, so they can be interpolated independently
+    assertThat(Collections.disjoint(paths.get(0).asStatesList(), paths.get(1).asStatesList())).isTrue();
+    assertThat(tree.hasNextPathForInterpolation()).isFalse();
+  }
+
+  @Test
+  public void testNextPathsContainEmptyPathBelowFalseInterpolant() {
+    ValueAnalysisInterpolationTree tree = createTree();
+    tree.getNextPathsForInterpolation();
+    tree.addInterpolants(ImmutableMap.of(d, ValueAnalysisInterpolant.FALSE));
+    List<ARGPath> paths = tree.getNextPathsForInterpolation();
+
+    assertThat(paths).hasSize(2);
+    assertThat(paths.get(0)).isNull();
+    assertThat(paths.get(1).asStatesList()).isEqualTo(ImmutableList.of(b, e, t3));
+  }
+
+  @Test
+  public void testNextPathsAreSequentialPaths() {
+    ValueAnalysisInterpolationTree batchedTree = createTree();
+    List<ARGPath> batchedPaths = new ArrayList<>();
+    while (batchedTree.hasNextPathForInterpolation()) {
+      batchedPaths.addAll(batchedTree.getNextPathsForInterpolation());
+    }
+
+    ValueAnalysisInterpolationTree sequentialTree = createTree();
+    List<ARGPath> sequentialPaths = new ArrayList<>();
+    while (sequentialTree.hasNextPathForInterpolation()) {
+      sequentialPaths.add(sequentialTree.getNextPathForInterpolation());
+    }
+
+    assertThat(batchedPaths).hasSize(3);
+    assertThat(new HashSet<>(batchedPaths)).isEqualTo(new HashSet<>(sequentialPaths));
+  }
+}
@@ -32,6 +32,9 @@ import org.sosy_lab.cpachecker.cfa.types.c.CBasicType;
 import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 /**
  * Stores a numeric value that can be tracked by the ValueAnalysisCPA.
  */
@@ -39,6 +42,8 @@ public class NumericValue implements Value, Serializable {
 
   private static final long serialVersionUID = -3829943575180448170L;
 
+  private static final Interner<NumericValue> INTERNER = Interners.newWeakInterner();
+
   private Number number;
 
   /**
@@ -109,13 +114,27 @@ public class NumericValue implements Value, Serializable {
    */
   @Override
   public boolean equals(Object other) {
-    if (other instanceof NumericValue) {
+    if (this == other) {
+      return true;
+    } else if (other instanceof NumericValue) {
       return this.getNumber().equals(((NumericValue) other).getNumber());
     } else {
       return false;
     }
   }
 
+  /**
+   * Returns the canonical representation of this value,
+   * such that equal values can share the same object.
+   * The canonical objects are kept in a weak table, i.e., they are garbage collected
+   * when they are no longer used.
+   *
+   * @return a <code>NumericValue</code> that is equal to this object
+   */
+  public NumericValue intern() {
+    return INTERNER.intern(this);
+  }
+
   /**
    * Always returns <code>true</code>.
    *
@@ -71,6 +71,24 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   @FileOption(FileOption.Type.OUTPUT_FILE)
   protected Path file = Paths.get("arg.obj");
 
+  public static enum ProofFormat {
+    /** zip file with one entry for each part of the proof */
+    ZIP,
+    /** file with separately compressed parts that can be read independently, see {@link SectionedProofFile} */
+    SECTIONED
+  }
+
+  @Option(secure=true,
+      name = "proofFormat",
+      description = "format of the proof file: ZIP writes a zip file with one entry per part of the proof, "
+          + "SECTIONED writes a file with an index of its parts (e.g., partitions), such that a part "
+          + "can be located without decoding the preceding parts, which allows to read them in parallel. "
+          + "SECTIONED also uses a more compact encoding of the serialized objects, "
+          + "but can only be read by the same version of CPAchecker.")
+  protected ProofFormat proofFormat = ProofFormat.ZIP;
+
+  private SectionedProofFile.Reader sectionedProofReader = null;
+
   @Option(secure=true,
       name = "useCores",
       description = "number of cpus/cores which should be used in parallel for proof checking")
@@ -89,6 +107,10 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   @Override
   @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Do not close stream o because it wraps stream zos/fos which need to remain open and would be closed if o.close() is called.")
   public void writeProof(UnmodifiableReachedSet pReached) {
+    if (proofFormat == ProofFormat.SECTIONED) {
+      writeSectionedProof(pReached);
+      return;
+    }
 
     try (final OutputStream fos = file.asByteSink().openStream();
         final ZipOutputStream zos = new ZipOutputStream(fos)) {
@@ -127,13 +149,46 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     }
   }
 
+  @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Do not close stream o because it wraps the section stream which is finished by the writer.")
+  private void writeSectionedProof(UnmodifiableReachedSet pReached) {
+    try (SectionedProofFile.Writer writer = new SectionedProofFile.Writer(file.asByteSink().openStream())) {
+      ObjectOutputStream o = new SectionedProofFile.CompactObjectOutputStream(writer.startSection());
+      writeProofToStream(o, pReached);
+      o.flush();
+      writer.endSection();
+
+      // write additional proof information,
+      // the last section is omitted if nothing is written into it (e.g., if there is no additional information)
+      boolean continueWriting;
+      do {
+        o = new SectionedProofFile.CompactObjectOutputStream(writer.startSection());
+        continueWriting = writeAdditionalProofStream(o);
+        o.flush();
+        if (continueWriting) {
+          writer.endSection();
+        } else {
+          writer.endLastSection();
+        }
+      } while (continueWriting);
+
+    } catch (NotSerializableException eS) {
+      logger.log(Level.SEVERE, "Proof cannot be written. Class " + eS.getMessage() + " does not implement Serializable interface");
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } catch (InvalidConfigurationException e) {
+      logger.log(Level.SEVERE, "Proof cannot be constructed due to conflicting configuration.", e.getMessage());
+    } catch (InterruptedException e) {
+      logger.log(Level.SEVERE, "Proof cannot be written due to time out during proof construction");
+    }
+  }
+
   protected abstract void writeProofToStream(ObjectOutputStream out, UnmodifiableReachedSet reached)
       throws IOException, InvalidConfigurationException, InterruptedException;
 
 
   @Override
   public void readProof() throws IOException, ClassNotFoundException, InvalidConfigurationException {
-    Triple<InputStream, ZipInputStream, ObjectInputStream> proofStream = openProofStream();
+    Triple<InputStream, InputStream, ObjectInputStream> proofStream = openProofStream();
     readProofFromStream(proofStream.getThird());
     proofStream.getThird().close();
     proofStream.getSecond().close();
@@ -144,7 +199,28 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     return false;
   }
 
-  protected Triple<InputStream, ZipInputStream, ObjectInputStream> openProofStream() throws IOException {
+  private synchronized SectionedProofFile.Reader getSectionedProofReader() throws IOException {
+    if (sectionedProofReader == null) {
+      sectionedProofReader = SectionedProofFile.Reader.open(file);
+    }
+    return sectionedProofReader;
+  }
+
+  private Triple<InputStream, InputStream, ObjectInputStream> openSectionedProofSection(int pSection)
+      throws IOException {
+    InputStream in = getSectionedProofReader().openSection(pSection);
+    try {
+      return Triple.of(in, in, new SectionedProofFile.CompactObjectInputStream(in));
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  protected Triple<InputStream, InputStream, ObjectInputStream> openProofStream() throws IOException {
+    if (proofFormat == ProofFormat.SECTIONED) {
+      return openSectionedProofSection(0);
+    }
     InputStream fis = file.asByteSource().openStream();
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = zis.getNextEntry();
@@ -152,9 +228,12 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     return Triple.of(fis, zis, new ObjectInputStream(zis));
   }
 
-  public Triple<InputStream, ZipInputStream, ObjectInputStream> openAdditionalProofStream(final int index)
+  public Triple<InputStream, InputStream, ObjectInputStream> openAdditionalProofStream(final int index)
       throws IOException {
     if (index < 0) { throw new IllegalArgumentException("Not a valid index. Indices must be at least zero."); }
+    if (proofFormat == ProofFormat.SECTIONED) {
+      return openSectionedProofSection(1 + index);
+    }
     InputStream fis = file.asByteSource().openStream();
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = null;
@@ -59,6 +59,7 @@ public class PartitionedReachedSetStrategy extends AbstractStrategy {
   private final PartitioningIOHelper ioHelper;
   private final PropertyCheckerCPA cpa;
   private final ShutdownNotifier shutdownNotifier;
+  private int nextPartition;
 
   public PartitionedReachedSetStrategy(final Configuration pConfig, final LogManager pLogger,
       final ShutdownNotifier pShutdownNotifier, final PropertyCheckerCPA pCpa) throws InvalidConfigurationException {
@@ -147,13 +148,34 @@ public class PartitionedReachedSetStrategy extends AbstractStrategy {
   @Override
   protected void writeProofToStream(ObjectOutputStream pOut, UnmodifiableReachedSet pReached) throws IOException,
       InvalidConfigurationException, InterruptedException {
-    ioHelper.writeProof(pOut, pReached);
+    if (proofFormat == ProofFormat.SECTIONED) {
+      // write only metadata, every partition gets its own additional proof stream
+      // such that partitions can be read independently
+      ioHelper.writeMetadataOfInternalProof(pOut, pReached);
+      nextPartition = 0;
+    } else {
+      ioHelper.writeProof(pOut, pReached);
+    }
+  }
+
+  @Override
+  protected boolean writeAdditionalProofStream(final ObjectOutputStream pOut) throws IOException {
+    if (proofFormat != ProofFormat.SECTIONED || nextPartition >= ioHelper.getNumPartitions()) {
+      return false;
+    }
+    ioHelper.writePartition(pOut, ioHelper.getPartition(nextPartition));
+    nextPartition++;
+    return nextPartition < ioHelper.getNumPartitions();
   }
 
   @Override
   protected void readProofFromStream(ObjectInputStream pIn) throws ClassNotFoundException,
       InvalidConfigurationException, IOException {
-   ioHelper.readProof(pIn, stats);
+    if (proofFormat == ProofFormat.SECTIONED) {
+      ioHelper.readMetadataAndReadPartitionsOnDemand(pIn, this, stats);
+    } else {
+      ioHelper.readProof(pIn, stats);
+    }
   }
 
   @Override
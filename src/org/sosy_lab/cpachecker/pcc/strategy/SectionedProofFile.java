@@ -0,0 +1,441 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.sosy_lab.common.io.Path;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.CountingOutputStream;
+
+/**
+ * Container file for proofs (certificates) that consists of independently readable sections.
+ *
+ * In contrast to the zip format, each section (the proof itself and the additional
+ * proof streams, e.g., partitions) can be located without decompressing
+ * the sections before it, so sections can be read independently and in parallel,
+ * and checking can start as soon as the first section is decoded.
+ * The content of the sections is written by the strategies,
+ * usually with a {@link CompactObjectOutputStream}.
+ * Sections into which nothing is written are kept as empty sections,
+ * such that the index of a section does not depend on the content of the sections before it.
+ *
+ * Layout of a file (all numbers in big-endian byte order):
+ * <pre>
+ *   int     magic number
+ *   int     format version
+ *   byte[]  sections, each one compressed separately (zlib format, or zero bytes if empty)
+ *   int     number of sections
+ *   long[]  file offset of each section
+ *   long    file offset of the number of sections (start of the index)
+ *   int     magic number
+ * </pre>
+ * The index is written at the end, such that the writer can stream
+ * all sections to the file without knowing their sizes in advance.
+ */
+final class SectionedProofFile {
+
+  static final int MAGIC = 0x43504346; // "CPCF"
+  static final int VERSION = 3;
+
+  private static final int HEADER_SIZE = 4 + 4;
+  private static final int TRAILER_SIZE = 8 + 4;
+
+  private static final int INFLATER_BUFFER_SIZE = 8192;
+
+  private SectionedProofFile() { }
+
+  /**
+   * Writes the sections of a proof one after another.
+   * Only one section can be open at a time.
+   * The compressed stream of a section is only started once something is written into it,
+   * sections without content take up no space except for their entry in the index.
+   */
+  static final class Writer implements Closeable {
+
+    private final CountingOutputStream out;
+    private final DataOutputStream dataOut;
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final List<Long> sectionOffsets = new ArrayList<>();
+
+    private boolean sectionStarted = false;
+    private boolean lastSectionEnded = false;
+    private DeflaterOutputStream currentSection = null;
+
+    Writer(OutputStream pOut) throws IOException {
+      out = new CountingOutputStream(new BufferedOutputStream(pOut));
+      dataOut = new DataOutputStream(out);
+      dataOut.writeInt(MAGIC);
+      dataOut.writeInt(VERSION);
+    }
+
+    /**
+     * Start a new section. The returned stream must not be closed,
+     * call {@link #endSection()} instead.
+     */
+    OutputStream startSection() {
+      checkState(!sectionStarted, "Previous section was not ended");
+      checkState(!lastSectionEnded, "Last section was already ended");
+      sectionStarted = true;
+      return new OutputStream() {
+
+        @Override
+        public void write(int pByte) throws IOException {
+          getCurrentSection().write(pByte);
+        }
+
+        @Override
+        public void write(byte[] pBytes, int pOffset, int pLength) throws IOException {
+          if (pLength > 0) {
+            getCurrentSection().write(pBytes, pOffset, pLength);
+          }
+        }
+
+        @Override
+        public void flush() throws IOException {
+          if (currentSection != null) {
+            currentSection.flush();
+          }
+        }
+      };
+    }
+
+    private DeflaterOutputStream getCurrentSection() throws IOException {
+      checkState(sectionStarted, "Section was already ended");
+      if (currentSection == null) {
+        dataOut.flush();
+        sectionOffsets.add(out.getCount());
+        deflater.reset();
+        currentSection = new DeflaterOutputStream(out, deflater);
+      }
+      return currentSection;
+    }
+
+    void endSection() throws IOException {
+      checkState(sectionStarted, "No section was started");
+      sectionStarted = false;
+      if (currentSection != null) {
+        currentSection.finish();
+        currentSection = null;
+      } else {
+        // empty section, which ends where it starts
+        dataOut.flush();
+        sectionOffsets.add(out.getCount());
+      }
+    }
+
+    /**
+     * End the current section like {@link #endSection()},
+     * but omit it from the file if nothing was written into it.
+     * No further section can be started afterwards,
+     * so this does not change the index of any other section.
+     */
+    void endLastSection() throws IOException {
+      checkState(sectionStarted, "No section was started");
+      if (currentSection == null) {
+        sectionStarted = false;
+      } else {
+        endSection();
+      }
+      lastSectionEnded = true;
+    }
+
+    /**
+     * Write the index and close the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+      try {
+        if (sectionStarted) {
+          endSection();
+        }
+        long indexOffset = out.getCount();
+        dataOut.writeInt(sectionOffsets.size());
+        for (long offset : sectionOffsets) {
+          dataOut.writeLong(offset);
+        }
+        dataOut.writeLong(indexOffset);
+        dataOut.writeInt(MAGIC);
+        dataOut.flush();
+      } finally {
+        deflater.end();
+        out.close();
+      }
+    }
+  }
+
+  /**
+   * Gives access to the sections of a proof file.
+   * The sections are mapped into memory (read-only), so their content is served
+   * from the page cache of the operating system instead of being copied to the heap,
+   * and any section can be decoded directly without touching the others.
+   * Instances are immutable and can be shared between threads,
+   * each call to {@link #openSection(int)} returns a new independent stream.
+   */
+  static final class Reader {
+
+    private final ByteBuffer[] sections;
+
+    private Reader(ByteBuffer[] pSections) {
+      sections = pSections;
+    }
+
+    static Reader open(Path pFile) throws IOException {
+      try (RandomAccessFile raf = new RandomAccessFile(pFile.toFile(), "r")) {
+        long length = raf.length();
+        if (length < HEADER_SIZE + 4 + TRAILER_SIZE || raf.readInt() != MAGIC) {
+          throw new IOException("File " + pFile + " is not a sectioned proof file");
+        }
+        int version = raf.readInt();
+        if (version != VERSION) {
+          throw new IOException("Proof file " + pFile + " has unsupported format version " + version);
+        }
+
+        raf.seek(length - TRAILER_SIZE);
+        long indexOffset = raf.readLong();
+        if (raf.readInt() != MAGIC || indexOffset < HEADER_SIZE || indexOffset > length - TRAILER_SIZE - 4) {
+          throw new IOException("Proof file " + pFile + " is truncated or corrupted");
+        }
+
+        raf.seek(indexOffset);
+        int numSections = raf.readInt();
+        if (numSections < 0 || indexOffset + 4 + 8L * numSections != length - TRAILER_SIZE) {
+          throw new IOException("Proof file " + pFile + " has an invalid section index");
+        }
+        long[] offsets = new long[numSections + 1];
+        for (int i = 0; i < numSections; i++) {
+          offsets[i] = raf.readLong();
+        }
+        // each section ends where the next one (or the index) starts
+        offsets[numSections] = indexOffset;
+
+        // The mappings stay valid after the channel is closed.
+        FileChannel channel = raf.getChannel();
+        ByteBuffer[] sections = new ByteBuffer[numSections];
+        for (int i = 0; i < numSections; i++) {
+          long size = offsets[i + 1] - offsets[i];
+          if (offsets[i] < HEADER_SIZE || size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("Proof file " + pFile + " has an invalid section index");
+          }
+          sections[i] = channel.map(MapMode.READ_ONLY, offsets[i], size);
+        }
+        return new Reader(sections);
+      }
+    }
+
+    int getNumberOfSections() {
+      return sections.length;
+    }
+
+    /**
+     * Open a stream that returns the decompressed content of a section.
+     * The caller is responsible for closing it.
+     */
+    InputStream openSection(int pIndex) {
+      checkElementIndex(pIndex, sections.length);
+      if (!sections[pIndex].hasRemaining()) {
+        return new ByteArrayInputStream(new byte[0]);
+      }
+      final Inflater inflater = new Inflater();
+      return new InflaterInputStream(new ByteBufferInputStream(sections[pIndex].duplicate()),
+          inflater, INFLATER_BUFFER_SIZE) {
+        private boolean closed = false;
+
+        @Override
+        public void close() throws IOException {
+          if (!closed) {
+            closed = true;
+            try {
+              super.close();
+            } finally {
+              inflater.end();
+            }
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * ObjectOutputStream that writes a shorter encoding than the standard one.
+   * There is no stream header, so nothing is written to the stream until the first object,
+   * and class descriptors (which list all fields with their names and types)
+   * are replaced by the class name, the serialVersionUID,
+   * and a fingerprint of the serializable fields.
+   * The reader uses its local class definition instead and checks that it has
+   * the same serialVersionUID and fingerprint, so a proof that was written by
+   * a version of CPAchecker with different classes is rejected instead of misread.
+   * Descriptors of arrays, interfaces and enums are written in the standard encoding.
+   * Use {@link CompactObjectInputStream} for reading.
+   */
+  static final class CompactObjectOutputStream extends ObjectOutputStream {
+
+    static final int FULL_DESCRIPTOR = 0;
+    static final int NAME_DESCRIPTOR = 1;
+
+    CompactObjectOutputStream(OutputStream pOut) throws IOException {
+      super(pOut);
+    }
+
+    @Override
+    protected void writeStreamHeader() {
+      // no header
+    }
+
+    @Override
+    protected void writeClassDescriptor(ObjectStreamClass pDesc) throws IOException {
+      Class<?> cls = pDesc.forClass();
+      if (cls == null || cls.isArray() || cls.isInterface() || cls.isEnum()) {
+        write(FULL_DESCRIPTOR);
+        super.writeClassDescriptor(pDesc);
+      } else {
+        write(NAME_DESCRIPTOR);
+        writeUTF(pDesc.getName());
+        writeLong(pDesc.getSerialVersionUID());
+        writeLong(fieldFingerprint(pDesc));
+      }
+    }
+
+    /**
+     * Compute a hash of the names and types of the serializable fields
+     * that are declared in the given class (not in its super classes,
+     * they have their own descriptors).
+     */
+    static long fieldFingerprint(ObjectStreamClass pDesc) {
+      Hasher hasher = Hashing.murmur3_128().newHasher();
+      for (ObjectStreamField field : pDesc.getFields()) {
+        hasher.putInt(field.getName().length());
+        hasher.putString(field.getName(), StandardCharsets.UTF_8);
+        hasher.putChar(field.getTypeCode());
+        if (!field.isPrimitive()) {
+          hasher.putString(field.getTypeString(), StandardCharsets.UTF_8);
+        }
+      }
+      return hasher.hash().asLong();
+    }
+  }
+
+  /**
+   * ObjectInputStream for reading what was written with a {@link CompactObjectOutputStream}.
+   */
+  static final class CompactObjectInputStream extends ObjectInputStream {
+
+    CompactObjectInputStream(InputStream pIn) throws IOException {
+      super(pIn);
+    }
+
+    @Override
+    protected void readStreamHeader() {
+      // no header
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+      int type = read();
+      switch (type) {
+      case CompactObjectOutputStream.FULL_DESCRIPTOR:
+        return super.readClassDescriptor();
+      case CompactObjectOutputStream.NAME_DESCRIPTOR:
+        String name = readUTF();
+        long serialVersionUID = readLong();
+        long fingerprint = readLong();
+        Class<?> cls = Class.forName(name, false, CompactObjectInputStream.class.getClassLoader());
+        ObjectStreamClass desc = ObjectStreamClass.lookup(cls);
+        if (desc == null) {
+          throw new InvalidClassException(name, "Class is not serializable");
+        }
+        if (desc.getSerialVersionUID() != serialVersionUID
+            || CompactObjectOutputStream.fieldFingerprint(desc) != fingerprint) {
+          throw new InvalidClassException(name,
+              "Local class is incompatible with the class that was used for writing the proof");
+        }
+        return desc;
+      default:
+        throw new IOException("Invalid class descriptor type " + type);
+      }
+    }
+  }
+
+  /**
+   * An InputStream that reads from a ByteBuffer.
+   * The buffer should not be shared with other streams.
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer pBuffer) {
+      buffer = pBuffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] pBytes, int pOffset, int pLength) {
+      if (pLength == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int length = Math.min(pLength, buffer.remaining());
+      buffer.get(pBytes, pOffset, length);
+      return length;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
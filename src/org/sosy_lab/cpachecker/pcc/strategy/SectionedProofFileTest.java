@@ -0,0 +1,233 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Longs;
+
+public class SectionedProofFileTest {
+
+  private File tempFile;
+  private Path proofFile;
+
+  @Before
+  public void setUp() throws IOException {
+    tempFile = File.createTempFile("proof", ".bin");
+    proofFile = Paths.get(tempFile.getPath());
+  }
+
+  @After
+  public void tearDown() {
+    tempFile.delete();
+  }
+
+  @Test
+  public void testSectionsCanBeReadInAnyOrder() throws IOException {
+    try (SectionedProofFile.Writer writer = new SectionedProofFile.Writer(proofFile.asByteSink().openStream())) {
+      for (int section = 0; section < 3; section++) {
+        DataOutputStream out = new DataOutputStream(writer.startSection());
+        for (int i = 0; i < 1000; i++) {
+          out.writeInt(section * i);
+        }
+        out.flush();
+        writer.endSection();
+      }
+    }
+
+    SectionedProofFile.Reader reader = SectionedProofFile.Reader.open(proofFile);
+    assertThat(reader.getNumberOfSections()).isEqualTo(3);
+
+    for (int section = 2; section >= 0; section--) {
+      try (InputStream in = reader.openSection(section)) {
+        DataInputStream dataIn = new DataInputStream(in);
+        for (int i = 0; i < 1000; i++) {
+          assertThat(dataIn.readInt()).isEqualTo(section * i);
+        }
+        assertThat(dataIn.read()).isEqualTo(-1);
+      }
+    }
+  }
+
+  @Test
+  public void testEmptySectionsAreKept() throws IOException {
+    try (SectionedProofFile.Writer writer = new SectionedProofFile.Writer(proofFile.asByteSink().openStream())) {
+      writer.startSection().write(1);
+      writer.endSection();
+      writer.startSection().flush();
+      writer.endSection();
+      writer.startSection().write(2);
+      writer.endSection();
+      writer.startSection();
+      writer.endSection();
+    }
+
+    SectionedProofFile.Reader reader = SectionedProofFile.Reader.open(proofFile);
+    assertThat(reader.getNumberOfSections()).isEqualTo(4);
+    try (InputStream in = reader.openSection(1)) {
+      assertThat(in.read()).isEqualTo(-1);
+    }
+    try (InputStream in = reader.openSection(2)) {
+      assertThat(in.read()).isEqualTo(2);
+      assertThat(in.read()).isEqualTo(-1);
+    }
+    try (InputStream in = reader.openSection(3)) {
+      assertThat(in.read()).isEqualTo(-1);
+    }
+  }
+
+  @Test
+  public void testEmptyLastSectionIsOmitted() throws IOException {
+    try (SectionedProofFile.Writer writer = new SectionedProofFile.Writer(proofFile.asByteSink().openStream())) {
+      writer.startSection().write(1);
+      writer.endSection();
+      writer.startSection();
+      writer.endSection();
+      writer.startSection();
+      writer.endLastSection();
+    }
+
+    SectionedProofFile.Reader reader = SectionedProofFile.Reader.open(proofFile);
+    assertThat(reader.getNumberOfSections()).isEqualTo(2);
+    try (InputStream in = reader.openSection(0)) {
+      assertThat(in.read()).isEqualTo(1);
+    }
+  }
+
+  private static class TestObject implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int value;
+    private final TimeUnit unit;
+    private final TestObject next;
+
+    private TestObject(int pValue, TimeUnit pUnit, TestObject pNext) {
+      value = pValue;
+      unit = pUnit;
+      next = pNext;
+    }
+  }
+
+  @Test
+  public void testCompactObjectStream() throws IOException, ClassNotFoundException {
+    List<TestObject> objects = new ArrayList<>();
+    TestObject previous = null;
+    for (int i = 0; i < 100; i++) {
+      previous = new TestObject(i, TimeUnit.values()[i % TimeUnit.values().length], previous);
+      objects.add(previous);
+    }
+    TestObject[] array = objects.toArray(new TestObject[objects.size()]);
+
+    ByteArrayOutputStream compact = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new SectionedProofFile.CompactObjectOutputStream(compact)) {
+      out.writeInt(array.length);
+      out.writeObject(array);
+    }
+    ByteArrayOutputStream standard = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(standard)) {
+      out.writeInt(array.length);
+      out.writeObject(array);
+    }
+    assertThat(compact.size() < standard.size()).isTrue();
+
+    try (ObjectInputStream in = new SectionedProofFile.CompactObjectInputStream(
+        new ByteArrayInputStream(compact.toByteArray()))) {
+      assertThat(in.readInt()).isEqualTo(array.length);
+      TestObject[] read = (TestObject[]) in.readObject();
+      assertThat(read.length).isEqualTo(array.length);
+      for (int i = 0; i < array.length; i++) {
+        assertThat(read[i].value).isEqualTo(i);
+        assertThat(read[i].unit).isSameAs(array[i].unit);
+        assertThat(read[i].next).isSameAs(i == 0 ? null : read[i - 1]);
+      }
+    }
+  }
+
+  private static class VersionedObject implements Serializable {
+
+    private static final long serialVersionUID = 0x0123456789ABCDEFL;
+
+    @SuppressWarnings("unused")
+    private final int value = 42;
+  }
+
+  @Test(expected=InvalidClassException.class)
+  public void testCompactObjectStreamRejectsIncompatibleClass() throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new SectionedProofFile.CompactObjectOutputStream(bytes)) {
+      out.writeObject(new VersionedObject());
+    }
+
+    // simulate a proof that was written with another version of the class
+    byte[] content = bytes.toByteArray();
+    byte[] uid = Longs.toByteArray(0x0123456789ABCDEFL);
+    int pos = Bytes.indexOf(content, uid);
+    assertThat(pos >= 0).isTrue();
+    content[pos + uid.length - 1]++;
+
+    try (ObjectInputStream in = new SectionedProofFile.CompactObjectInputStream(
+        new ByteArrayInputStream(content))) {
+      in.readObject();
+    }
+  }
+
+  @Test
+  public void testCompactObjectStreamWritesNothingWithoutContent() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new SectionedProofFile.CompactObjectOutputStream(bytes)) {
+      out.flush();
+    }
+    assertThat(bytes.size()).isEqualTo(0);
+  }
+
+  @Test(expected=IOException.class)
+  public void testRejectsOtherFiles() throws IOException {
+    proofFile.asCharSink(StandardCharsets.US_ASCII).write("not a sectioned proof file");
+    SectionedProofFile.Reader.open(proofFile);
+  }
+}
@@ -35,7 +35,6 @@ import java.util.List;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
-import java.util.zip.ZipInputStream;
 
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.cpachecker.util.Triple;
@@ -155,7 +154,7 @@ public class ARG_CMCStrategy extends AbstractStrategy {
       List<ARGState> incompleteStates = new ArrayList<>();
       ConfigurableProgramAnalysis cpa;
 
-      Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+      Triple<InputStream, InputStream, ObjectInputStream> streams = null;
       try {
         streams = openProofStream();
         ObjectInputStream o = streams.getThird();
@@ -235,7 +234,7 @@ public class ARG_CMCStrategy extends AbstractStrategy {
 
         @Override
         public void run() {
-          Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+          Triple<InputStream, InputStream, ObjectInputStream> streams = null;
           try {
             streams = openProofStream();
             ObjectInputStream o = streams.getThird();
@@ -32,7 +32,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
-import java.util.zip.ZipInputStream;
 
 import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.common.log.LogManager;
@@ -90,7 +89,7 @@ public class ParallelPartitionReader implements Runnable {
 
   @Override
   public void run() {
-    Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+    Triple<InputStream, InputStream, ObjectInputStream> streams = null;
     int nextId;
     while ((nextId = nextPartition.getAndIncrement()) < ioHelper.getNumPartitions()) {
       try {
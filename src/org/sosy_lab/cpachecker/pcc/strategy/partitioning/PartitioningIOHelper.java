@@ -24,6 +24,7 @@
 package org.sosy_lab.cpachecker.pcc.strategy.partitioning;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.PrintStream;
@@ -31,12 +32,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -51,6 +54,7 @@ import org.sosy_lab.cpachecker.core.interfaces.pcc.PartialReachedConstructionAlg
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy.PCStrategyStatistics;
 import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.PartialCertificateTypeProvider;
 import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.PartialReachedSetDirectedGraph;
@@ -76,6 +80,14 @@ public class PartitioningIOHelper {
   private List<Pair<AbstractState[], AbstractState[]>> partitions;
   private Statistics currentGraphStatistics;
 
+  // the reached set from which the current partitions were constructed, if any
+  private @Nullable UnmodifiableReachedSet internalProofSource = null;
+
+  // only used if partitions are read on demand, see readMetadataAndReadPartitionsOnDemand
+  private AbstractStrategy partitionSource = null;
+  private PCStrategyStatistics partitionSourceStats = null;
+  private AtomicReferenceArray<Pair<AbstractState[], AbstractState[]>> partitionsReadOnDemand = null;
+
   public PartitioningIOHelper(final Configuration pConfig, final LogManager pLogger,
       final ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
     this(pConfig, pLogger, pShutdownNotifier, false);
@@ -99,15 +111,69 @@ public class PartitioningIOHelper {
   }
 
   public @Nullable Pair<AbstractState[], AbstractState[]> getPartition(int pIndex) {
+    if (partitionSource != null) {
+      if (0 <= pIndex && pIndex < numPartitions) {
+        return getPartitionReadOnDemand(pIndex);
+      }
+      return null;
+    }
     if (0<=pIndex && pIndex<numPartitions && pIndex<partitions.size()) {
       return partitions.get(pIndex);
     }
     return null;
   }
 
+  /**
+   * Get a partition that is stored in its own additional proof stream,
+   * and read it if this was not done before.
+   * This method is thread-safe, and different partitions can be read in parallel.
+   *
+   * @return the partition or null if it cannot be read
+   */
+  private @Nullable Pair<AbstractState[], AbstractState[]> getPartitionReadOnDemand(int pIndex) {
+    Pair<AbstractState[], AbstractState[]> result = partitionsReadOnDemand.get(pIndex);
+    if (result != null) {
+      return result;
+    }
+
+    Triple<InputStream, InputStream, ObjectInputStream> streams = null;
+    try {
+      streams = partitionSource.openAdditionalProofStream(pIndex);
+      result = readPartitionContent(streams.getThird());
+    } catch (IOException | ClassNotFoundException e) {
+      logger.logUserException(Level.SEVERE, e, "Reading partition " + pIndex + " failed");
+      return null;
+    } finally {
+      if (streams != null) {
+        try {
+          streams.getThird().close();
+        } catch (IOException e) {
+        }
+      }
+    }
+
+    if (partitionsReadOnDemand.compareAndSet(pIndex, null, result)) {
+      synchronized (this) {
+        partitions.add(result);
+        partitionSourceStats.increaseProofSize(result.getFirst().length + result.getSecond().length);
+      }
+      return result;
+    }
+    // another thread was faster
+    return partitionsReadOnDemand.get(pIndex);
+  }
+
+  /**
+   * Compute and store the partitions of the given reached set.
+   * Does nothing if this was already done for the same reached set.
+   */
   public void constructInternalProofRepresentation(final UnmodifiableReachedSet pReached)
       throws InvalidConfigurationException, InterruptedException {
+    if (pReached == internalProofSource) {
+      return;
+    }
     saveInternalProof(pReached.size(), computePartialReachedSetAndPartition(pReached));
+    internalProofSource = pReached;
   }
 
   protected void saveInternalProof(final int size,
@@ -176,6 +242,7 @@ public class PartitioningIOHelper {
 
   public void readMetadata(final ObjectInputStream pIn, final boolean pSave) throws IOException {
     if (pSave) {
+      internalProofSource = null;
       savedReachedSetSize = pIn.readInt();
       numPartitions = pIn.readInt();
       partitions = new ArrayList<>(numPartitions);
@@ -185,6 +252,20 @@ public class PartitioningIOHelper {
     }
   }
 
+  /**
+   * Read the metadata of a proof whose partitions are stored in separate additional proof streams
+   * (one per partition, as written by {@link #writePartition(ObjectOutputStream, Pair)}).
+   * Partitions are not read now, but on the first call to {@link #getPartition(int)},
+   * so they can be read independently by the threads that check them.
+   */
+  public void readMetadataAndReadPartitionsOnDemand(final ObjectInputStream pIn,
+      final AbstractStrategy pPartitionSource, final PCStrategyStatistics pStats) throws IOException {
+    readMetadata(pIn, true);
+    partitionsReadOnDemand = new AtomicReferenceArray<>(numPartitions);
+    partitionSourceStats = pStats;
+    partitionSource = pPartitionSource;
+  }
+
   public void readProof(final ObjectInputStream pIn, final PCStrategyStatistics pStats) throws IOException,
       ClassNotFoundException {
     readMetadata(pIn, true);
@@ -201,6 +282,17 @@ public class PartitioningIOHelper {
     pOut.reset();
   }
 
+  /**
+   * Write only the metadata of the proof for the given reached set.
+   * The partitions are constructed if this was not yet done for this reached set,
+   * and can afterwards be written one by one with {@link #writePartition(ObjectOutputStream, Pair)}.
+   */
+  public void writeMetadataOfInternalProof(final ObjectOutputStream pOut, final UnmodifiableReachedSet pReached)
+      throws InvalidConfigurationException, IOException, InterruptedException {
+    constructInternalProofRepresentation(pReached);
+    writeMetadata(pOut, savedReachedSetSize, numPartitions);
+  }
+
   public void writePartition(final ObjectOutputStream pOut, final Set<Integer> pPartition,
       final PartialReachedSetDirectedGraph pPartialReachedSetDirectedGraph) throws IOException {
     logger.log(Level.FINER, "Write partition");
@@ -27,6 +27,7 @@ import java.util.logging.Level;
 
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithPersistentData;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperCPA;
 
 import com.google.common.base.Throwables;
@@ -75,6 +76,30 @@ public class CPAs {
     }.preOrderTraversal(pCpa);
   }
 
+  /**
+   * Save the persistent data of all CPAs (including wrapped CPAs)
+   * that implement {@link ConfigurableProgramAnalysisWithPersistentData}.
+   * This may be called while the current thread is interrupted
+   * (e.g., after the analysis was stopped by a timeout),
+   * the interrupt is postponed until the data was written.
+   * @param cpa A CPA (possibly a WrapperCPA).
+   */
+  public static void savePersistentDataIfPossible(ConfigurableProgramAnalysis cpa) {
+    // Interrupted threads cannot write files with NIO channels.
+    boolean interrupted = Thread.interrupted();
+    try {
+      for (ConfigurableProgramAnalysis currentCpa : CPAs.asIterable(cpa)) {
+        if (currentCpa instanceof ConfigurableProgramAnalysisWithPersistentData) {
+          ((ConfigurableProgramAnalysisWithPersistentData)currentCpa).savePersistentData();
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
   /**
    * Close all CPAs (including wrapped CPAs) if they support this.
    * @param cpa A CPA (possibly a WrapperCPA).
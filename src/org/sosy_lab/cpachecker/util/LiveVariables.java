@@ -26,7 +26,10 @@ package org.sosy_lab.cpachecker.util;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Predicates.*;
 import static com.google.common.collect.FluentIterable.from;
-
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -34,6 +37,8 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -80,6 +85,8 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedSet;
@@ -89,7 +96,9 @@ import com.google.common.collect.Ordering;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
 
-public class LiveVariables {
+public class LiveVariables implements Serializable {
+
+  private static final long serialVersionUID = -4106725628717904395L;
 
   public enum EvaluationStrategy {
     FUNCTION_WISE, GLOBAL
@@ -159,9 +168,17 @@ public class LiveVariables {
    */
   private static class AllVariablesAsLiveVariables extends LiveVariables {
 
+    private static final long serialVersionUID = 6173904286713305862L;
+
     private FluentIterable<String> allVariables;
     private FluentIterable<ASimpleDeclaration> allVariableDecls;
 
+    private AllVariablesAsLiveVariables(ImmutableList<ASimpleDeclaration> pAllVariableDecls) {
+      super();
+      allVariableDecls = from(pAllVariableDecls);
+      allVariables = allVariableDecls.transform(ASimpleDeclaration.GET_QUALIFIED_NAME);
+    }
+
     private AllVariablesAsLiveVariables(CFA cfa, List<Pair<ADeclaration, String>> globalsList) {
       super();
       checkNotNull(cfa);
@@ -210,6 +227,29 @@ public class LiveVariables {
     public FluentIterable<ASimpleDeclaration> getLiveVariablesForNode(CFANode pNode) {
       return allVariableDecls;
     }
+
+    private Object writeReplace() {
+      return new AllVariablesSerializationProxy(allVariableDecls.toList());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      throw new InvalidObjectException("Proxy required");
+    }
+  }
+
+  private static class AllVariablesSerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -1462083352958730418L;
+
+    private final ImmutableList<ASimpleDeclaration> allVariableDecls;
+
+    private AllVariablesSerializationProxy(ImmutableList<ASimpleDeclaration> pAllVariableDecls) {
+      allVariableDecls = pAllVariableDecls;
+    }
+
+    private Object readResolve() {
+      return new AllVariablesAsLiveVariables(allVariableDecls);
+    }
   }
 
   /**
@@ -267,6 +307,47 @@ public class LiveVariables {
     liveVariablesStrings = ImmutableSetMultimap.copyOf(Multimaps.transformValues(liveVariables, FROM_EQUIV_WRAPPER_TO_STRING));
   }
 
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * The equivalence wrappers and orderings used by this class are not serializable,
+   * so we store the plain declarations and let the constructor rebuild the rest.
+   */
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = 2315774983501736390L;
+
+    private final ImmutableListMultimap<CFANode, ASimpleDeclaration> liveVariables;
+    private final ImmutableList<ASimpleDeclaration> globalVariables;
+    private final @Nullable VariableClassification variableClassification;
+    private final EvaluationStrategy evaluationStrategy;
+    private final Language language;
+
+    private SerializationProxy(LiveVariables pLiveVariables) {
+      liveVariables = ImmutableListMultimap.copyOf(
+          Multimaps.transformValues(pLiveVariables.liveVariables, FROM_EQUIV_WRAPPER));
+      globalVariables = from(pLiveVariables.globalVariables).transform(FROM_EQUIV_WRAPPER).toList();
+      variableClassification = pLiveVariables.variableClassification;
+      evaluationStrategy = pLiveVariables.evaluationStrategy;
+      language = pLiveVariables.language;
+    }
+
+    private Object readResolve() {
+      return new LiveVariables(
+          Multimaps.transformValues(liveVariables, TO_EQUIV_WRAPPER),
+          variableClassification,
+          from(globalVariables).transform(TO_EQUIV_WRAPPER).toSet(),
+          evaluationStrategy,
+          language);
+    }
+  }
+
   public boolean isVariableLive(ASimpleDeclaration variable, CFANode location) {
     String varName = variable.getQualifiedName();
     final Wrapper<ASimpleDeclaration> wrappedDecl = LIVE_DECL_EQUIVALENCE.wrap(variable);
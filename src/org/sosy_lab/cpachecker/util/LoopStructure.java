@@ -29,6 +29,7 @@ import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.cfa.model.CFAEdgeType.FunctionReturnEdge;
 import static org.sosy_lab.cpachecker.util.CFAUtils.*;
 
+import java.io.Serializable;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -75,7 +76,9 @@ import com.google.common.collect.Sets;
 /**
  * Class collecting and containing information about all loops in a CFA.
  */
-public final class LoopStructure {
+public final class LoopStructure implements Serializable {
+
+  private static final long serialVersionUID = -6389812764528371201L;
 
   /**
    * Class representing one loop in a CFA.
@@ -113,7 +116,10 @@ public final class LoopStructure {
    * In such cases, both loops are considered only one loop
    * (which is legal according to the definition above).
    */
-  public static class Loop {
+  public static class Loop implements Serializable {
+
+    private static final long serialVersionUID = 2748306957219441628L;
+
     // Technically not immutable, but all modifying methods are private
     // and never called after the LoopStructure information has been collected.
 
@@ -125,9 +131,10 @@ public final class LoopStructure {
     private ImmutableSortedSet<CFANode> nodes;
 
     // the following sets are computed lazily by calling {@link #computeSets()}
-    private ImmutableSet<CFAEdge> innerLoopEdges;
-    private ImmutableSet<CFAEdge> incomingEdges;
-    private ImmutableSet<CFAEdge> outgoingEdges;
+    // (not serialized, because they can be restored from the nodes)
+    private transient ImmutableSet<CFAEdge> innerLoopEdges;
+    private transient ImmutableSet<CFAEdge> incomingEdges;
+    private transient ImmutableSet<CFAEdge> outgoingEdges;
 
     private Loop(CFANode loopHead, Set<CFANode> pNodes) {
       loopHeads = ImmutableSet.of(loopHead);
@@ -275,11 +282,11 @@ public final class LoopStructure {
 
   private final ImmutableMultimap<String, Loop> loops;
 
-  private @Nullable ImmutableSet<CFANode> loopHeads = null; // computed lazily
+  private transient @Nullable ImmutableSet<CFANode> loopHeads = null; // computed lazily
 
   // computed lazily
-  private @Nullable ImmutableSet<String> loopExitConditionVariables;
-  private @Nullable ImmutableSet<String> loopIncDecVariables;
+  private transient @Nullable ImmutableSet<String> loopExitConditionVariables;
+  private transient @Nullable ImmutableSet<String> loopIncDecVariables;
 
   private LoopStructure(ImmutableMultimap<String, Loop> pLoops) {
     loops = pLoops;
@@ -25,10 +25,17 @@ package org.sosy_lab.cpachecker.util;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -44,15 +51,20 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 
-public class VariableClassification {
+public class VariableClassification implements Serializable {
+
+  private static final long serialVersionUID = 8263412870936624577L;
 
   private final boolean hasRelevantNonIntAddVars;
 
@@ -137,6 +149,29 @@ public class VariableClassification {
         pLogger);
   }
 
+  /**
+   * Return a copy of this classification that uses the given logger.
+   * The logger is not part of the serialized state,
+   * so deserialized instances need to get one with this method.
+   */
+  public VariableClassification withLogger(LogManager pLogger) {
+    return new VariableClassification(hasRelevantNonIntAddVars,
+        intBoolVars,
+        intEqualVars,
+        intAddVars,
+        relevantVariables,
+        addressedVariables,
+        relevantFields,
+        partitions,
+        intBoolPartitions,
+        intEqualPartitions,
+        intAddPartitions,
+        edgeToPartitions,
+        assumedVariables,
+        assignedVariables,
+        pLogger);
+  }
+
   public boolean hasRelevantNonIntAddVars() {
     return hasRelevantNonIntAddVars;
   }
@@ -348,6 +383,152 @@ public class VariableClassification {
     return str.toString();
   }
 
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * Partitions share their mutable lookup maps with each other,
+   * so instead of serializing them directly we store their content
+   * and refer to them by index.
+   * The logger is not serialized, use {@link VariableClassification#withLogger(LogManager)}
+   * after deserialization.
+   */
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -3709584410382245120L;
+
+    private final boolean hasRelevantNonIntAddVars;
+    private final ImmutableSet<String> intBoolVars;
+    private final ImmutableSet<String> intEqualVars;
+    private final ImmutableSet<String> intAddVars;
+    private final ImmutableSet<String> relevantVariables;
+    private final ImmutableSet<String> addressedVariables;
+    private final ImmutableSetMultimap<CCompositeType, String> relevantFields;
+    private final ImmutableMultiset<String> assumedVariables;
+    private final ImmutableMultiset<String> assignedVariables;
+
+    private final ImmutableList<ImmutableSet<String>> partitionVars;
+    private final ImmutableList<ImmutableSet<BigInteger>> partitionValues;
+    private final ImmutableList<ImmutableListMultimap<CFAEdge, Integer>> partitionEdges;
+
+    private final int[] partitions;
+    private final int[] intBoolPartitions;
+    private final int[] intEqualPartitions;
+    private final int[] intAddPartitions;
+
+    private final ImmutableList<CFAEdge> mappedEdges;
+    private final int[] mappedEdgeIndices;
+    private final int[] mappedPartitions;
+
+    private SerializationProxy(VariableClassification pVarClass) {
+      hasRelevantNonIntAddVars = pVarClass.hasRelevantNonIntAddVars;
+      intBoolVars = ImmutableSet.copyOf(pVarClass.intBoolVars);
+      intEqualVars = ImmutableSet.copyOf(pVarClass.intEqualVars);
+      intAddVars = ImmutableSet.copyOf(pVarClass.intAddVars);
+      relevantVariables = ImmutableSet.copyOf(pVarClass.relevantVariables);
+      addressedVariables = ImmutableSet.copyOf(pVarClass.addressedVariables);
+      relevantFields = ImmutableSetMultimap.copyOf(pVarClass.relevantFields);
+      assumedVariables = ImmutableMultiset.copyOf(pVarClass.assumedVariables);
+      assignedVariables = ImmutableMultiset.copyOf(pVarClass.assignedVariables);
+
+      Map<Partition, Integer> indices = new HashMap<>();
+      ImmutableList.Builder<ImmutableSet<String>> vars = ImmutableList.builder();
+      ImmutableList.Builder<ImmutableSet<BigInteger>> values = ImmutableList.builder();
+      ImmutableList.Builder<ImmutableListMultimap<CFAEdge, Integer>> edges = ImmutableList.builder();
+      for (Partition partition : Iterables.concat(pVarClass.partitions,
+          pVarClass.edgeToPartitions.values())) {
+        if (!indices.containsKey(partition)) {
+          indices.put(partition, indices.size());
+          vars.add(ImmutableSet.copyOf(partition.getVars()));
+          values.add(ImmutableSet.copyOf(partition.getValues()));
+          edges.add(ImmutableListMultimap.copyOf(partition.getEdges()));
+        }
+      }
+      partitionVars = vars.build();
+      partitionValues = values.build();
+      partitionEdges = edges.build();
+
+      partitions = toIndices(pVarClass.partitions, indices);
+      intBoolPartitions = toIndices(pVarClass.intBoolPartitions, indices);
+      intEqualPartitions = toIndices(pVarClass.intEqualPartitions, indices);
+      intAddPartitions = toIndices(pVarClass.intAddPartitions, indices);
+
+      int size = pVarClass.edgeToPartitions.size();
+      ImmutableList.Builder<CFAEdge> mappedEdgesBuilder = ImmutableList.builder();
+      mappedEdgeIndices = new int[size];
+      mappedPartitions = new int[size];
+      int i = 0;
+      for (Entry<Pair<CFAEdge, Integer>, Partition> entry : pVarClass.edgeToPartitions.entrySet()) {
+        mappedEdgesBuilder.add(entry.getKey().getFirst());
+        mappedEdgeIndices[i] = entry.getKey().getSecond();
+        mappedPartitions[i] = indices.get(entry.getValue());
+        i++;
+      }
+      mappedEdges = mappedEdgesBuilder.build();
+    }
+
+    private static int[] toIndices(Collection<Partition> pPartitions, Map<Partition, Integer> pIndices) {
+      int[] result = new int[pPartitions.size()];
+      int i = 0;
+      for (Partition partition : pPartitions) {
+        result[i++] = pIndices.get(partition);
+      }
+      return result;
+    }
+
+    private static Set<Partition> fromIndices(int[] pIndices, List<Partition> pPartitions) {
+      ImmutableSet.Builder<Partition> result = ImmutableSet.builder();
+      for (int index : pIndices) {
+        result.add(pPartitions.get(index));
+      }
+      return result.build();
+    }
+
+    private Object readResolve() {
+      Map<String, Partition> varToPartition = new HashMap<>();
+      Map<Pair<CFAEdge, Integer>, Partition> edgeToPartition = new HashMap<>();
+      List<Partition> allPartitions = new ArrayList<>(partitionVars.size());
+      for (int i = 0; i < partitionVars.size(); i++) {
+        Partition partition = new Partition(varToPartition, edgeToPartition);
+        for (String var : partitionVars.get(i)) {
+          partition.add(var);
+        }
+        partition.addValues(partitionValues.get(i));
+        for (Entry<CFAEdge, Integer> edge : partitionEdges.get(i).entries()) {
+          partition.addEdge(edge.getKey(), edge.getValue());
+        }
+        allPartitions.add(partition);
+      }
+
+      Map<Pair<CFAEdge, Integer>, Partition> edgeToPartitions = new HashMap<>();
+      for (int i = 0; i < mappedEdges.size(); i++) {
+        edgeToPartitions.put(Pair.of(mappedEdges.get(i), mappedEdgeIndices[i]),
+            allPartitions.get(mappedPartitions[i]));
+      }
+
+      return new VariableClassification(hasRelevantNonIntAddVars,
+          intBoolVars,
+          intEqualVars,
+          intAddVars,
+          relevantVariables,
+          addressedVariables,
+          relevantFields,
+          fromIndices(partitions, allPartitions),
+          fromIndices(intBoolPartitions, allPartitions),
+          fromIndices(intEqualPartitions, allPartitions),
+          fromIndices(intAddPartitions, allPartitions),
+          edgeToPartitions,
+          assumedVariables,
+          assignedVariables,
+          null);
+    }
+  }
+
   /** A Partition is a Wrapper for a Collection of vars, values and edges.
   * The Partitions are disjunct, so no variable and no edge is in 2 Partitions. */
   public static class Partition {
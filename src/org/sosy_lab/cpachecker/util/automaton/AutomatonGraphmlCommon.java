@@ -28,15 +28,9 @@ import java.io.Writer;
 import java.util.Map;
 
 import javax.annotation.Nullable;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.sosy_lab.cpachecker.cfa.Language;
 import org.sosy_lab.cpachecker.cfa.ast.c.CDeclaration;
@@ -50,9 +44,6 @@ import org.sosy_lab.cpachecker.cfa.model.c.CDeclarationEdge;
 import org.sosy_lab.cpachecker.cfa.model.c.CFunctionReturnEdge;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.core.CPAchecker;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
@@ -216,91 +207,119 @@ public class AutomatonGraphmlCommon {
     }
   }
 
+  /**
+   * Writes a GraphML document incrementally to an {@link Appendable}.
+   *
+   * Elements are written as soon as they are appended, so no representation
+   * of the whole document is kept in memory.
+   * Nodes and edges with data are written by a call to
+   * {@link #startNodeElement(String, NodeType)} or {@link #startEdgeElement(String, String)},
+   * followed by calls to {@link #appendDataElement(KeyDef, String)} and {@link #endElement()}.
+   */
   public static class GraphMlBuilder {
 
-    private final Document doc;
     private final Writer target;
+    private final XMLStreamWriter xmlWriter;
 
-    public GraphMlBuilder(Appendable target) throws ParserConfigurationException {
-      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-
-      this.doc = docBuilder.newDocument();
+    public GraphMlBuilder(Appendable target) throws IOException {
       this.target = CharStreams.asWriter(target);
+      try {
+        this.xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(this.target);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
     }
 
-    public Element createElement(GraphMlTag tag) {
-      return doc.createElement(tag.toString());
-    }
-
-    public Element createDataElement(final KeyDef key, final String value) {
-      Element result = createElement(GraphMlTag.DATA);
-      result.setAttribute("key", key.id);
-      result.setTextContent(value);
-      return result;
+    private void startElement(GraphMlTag tag) throws IOException {
+      try {
+        xmlWriter.writeStartElement(tag.toString());
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
     }
 
-    public Element createEdgeElement(final String from, final String to) {
-      Element result = createElement(GraphMlTag.EDGE);
-      result.setAttribute("source", from);
-      result.setAttribute("target", to);
-      return result;
+    private void appendAttribute(String name, String value) throws IOException {
+      try {
+        xmlWriter.writeAttribute(name, value);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
     }
 
-    public Element createKeyDefElement(KeyDef keyDef, @Nullable String defaultValue) {
-      return createKeyDefElement(keyDef.id, keyDef.keyFor, keyDef.attrName, keyDef.attrType, defaultValue);
+    private void appendText(String text) throws IOException {
+      try {
+        xmlWriter.writeCharacters(text);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
     }
 
-    public Element createKeyDefElement(String id, String keyFor, String attrName, String attrType,
-        @Nullable String defaultValue) {
-
-      Preconditions.checkNotNull(doc);
-      Preconditions.checkNotNull(id);
-      Preconditions.checkNotNull(keyFor);
-      Preconditions.checkNotNull(attrName);
-      Preconditions.checkNotNull(attrType);
-
-      Element result = createElement(GraphMlTag.KEY);
-
-      result.setAttribute("id", id);
-      result.setAttribute("for", keyFor);
-      result.setAttribute("attr.name", attrName);
-      result.setAttribute("attr.type", attrType);
-
-      if (defaultValue != null) {
-        Element defaultValueElement = createElement(GraphMlTag.DEFAULT);
-        defaultValueElement.setTextContent(defaultValue);
-        result.appendChild(defaultValueElement);
+    /**
+     * Close the element that was started last and begin a new line.
+     */
+    public void endElement() throws IOException {
+      try {
+        xmlWriter.writeEndElement();
+        xmlWriter.writeCharacters("\n");
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
       }
+    }
 
-      return result;
+    public void startEdgeElement(final String from, final String to) throws IOException {
+      startElement(GraphMlTag.EDGE);
+      appendAttribute("source", from);
+      appendAttribute("target", to);
+      appendText("\n");
     }
 
-    public Element createNodeElement(String nodeId, NodeType nodeType) {
-      Element result = createElement(GraphMlTag.NODE);
-      result.setAttribute("id", nodeId);
+    public void startNodeElement(String nodeId, NodeType nodeType) throws IOException {
+      startElement(GraphMlTag.NODE);
+      appendAttribute("id", nodeId);
+      appendText("\n");
 
       if (nodeType != defaultNodeType) {
-        addDataElementChild(result, KeyDef.NODETYPE, nodeType.toString());
+        appendDataElement(KeyDef.NODETYPE, nodeType.toString());
       }
-
-      return result;
     }
 
     public void appendNewNode(String nodeId, NodeType nodeType) throws IOException {
-      Element result = createNodeElement(nodeId, nodeType);
-      appendToAppendable(result);
+      startNodeElement(nodeId, nodeType);
+      endElement();
     }
 
-    public Element addDataElementChild(Element childOf, final KeyDef key, final String value) {
-      Element result = createDataElement(key, value);
-      childOf.appendChild(result);
-      return result;
+    public void appendDataElement(final KeyDef key, final String value) throws IOException {
+      startElement(GraphMlTag.DATA);
+      appendAttribute("key", key.id);
+      appendText(value);
+      endElement();
     }
 
-    public void appendDataElement(final KeyDef key, final String value) {
-      Element result = createDataElement(key, value);
-      appendToAppendable(result);
+    public void appendNewKeyDef(KeyDef keyDef, @Nullable String defaultValue) throws IOException {
+      appendNewKeyDef(keyDef.id, keyDef.keyFor, keyDef.attrName, keyDef.attrType, defaultValue);
+    }
+
+    public void appendNewKeyDef(String id, String keyFor, String attrName, String attrType,
+        @Nullable String defaultValue) throws IOException {
+
+      Preconditions.checkNotNull(id);
+      Preconditions.checkNotNull(keyFor);
+      Preconditions.checkNotNull(attrName);
+      Preconditions.checkNotNull(attrType);
+
+      startElement(GraphMlTag.KEY);
+      appendAttribute("id", id);
+      appendAttribute("for", keyFor);
+      appendAttribute("attr.name", attrName);
+      appendAttribute("attr.type", attrType);
+
+      if (defaultValue != null) {
+        appendText("\n");
+        startElement(GraphMlTag.DEFAULT);
+        appendText(defaultValue);
+        endElement();
+      }
+      endElement();
     }
 
     public void appendDocHeader() throws IOException {
@@ -314,7 +333,8 @@ public class AutomatonGraphmlCommon {
         String pProgramNames,
         String pMemoryModel,
         MachineModel pMachineModel) throws IOException {
-      target.append("<graph edgedefault=\"directed\">");
+      flush();
+      target.append("<graph edgedefault=\"directed\">\n");
       appendDataElement(KeyDef.GRAPH_TYPE, pGraphType.toString());
       appendDataElement(KeyDef.SOURCECODELANGUAGE, pLanguage.toString());
       appendDataElement(KeyDef.PRODUCER, "CPAchecker " + CPAchecker.getCPAcheckerVersion());
@@ -336,30 +356,20 @@ public class AutomatonGraphmlCommon {
       }
     }
 
-    public void appendNewKeyDef(KeyDef keyDef, @Nullable String defaultValue) {
-      appendToAppendable(createKeyDefElement(keyDef, defaultValue));
-    }
-
-    public void appendToAppendable(Node n) {
-      try {
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer transformer = tf.newTransformer();
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-
-        transformer.transform(new DOMSource(n), new StreamResult(target));
-      } catch (TransformerException ex) {
-          throw new RuntimeException("Error while dumping program path", ex);
-      }
-    }
-
     public void appendFooter() throws IOException {
+      flush();
       target.append("</graph>\n");
       target.append("</graphml>\n");
+      target.flush();
     }
 
+    private void flush() throws IOException {
+      try {
+        xmlWriter.flush();
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
   }
 
   public static boolean handleAsEpsilonEdge(CFAEdge edge) {
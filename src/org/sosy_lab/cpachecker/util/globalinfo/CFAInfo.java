@@ -23,9 +23,13 @@
  */
 package org.sosy_lab.cpachecker.util.globalinfo;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cpa.location.LocationState.LocationStateFactory;
@@ -35,6 +39,9 @@ public class CFAInfo {
   private final Map<Integer, CFANode> nodeNumberToNode;
   private LocationStateFactory locationStateFactory;
 
+  // translation of node numbers of another numbering of the same CFA, for the current thread
+  private final ThreadLocal<Map<Integer, CFANode>> nodeNumberTranslation = new ThreadLocal<>();
+
   CFAInfo(CFA cfa) {
     HashMap<Integer, CFANode> nodeNumberToNode = new HashMap<>();
     for (CFANode node : cfa.getAllNodes()) {
@@ -44,9 +51,30 @@ public class CFAInfo {
   }
 
   public CFANode getNodeByNodeNumber(int nodeNumber) {
+    Map<Integer, CFANode> translation = nodeNumberTranslation.get();
+    if (translation != null) {
+      CFANode node = translation.get(nodeNumber);
+      checkArgument(node != null, "No translation for node number %s", nodeNumber);
+      return node;
+    }
     return nodeNumberToNode.get(nodeNumber);
   }
 
+  /**
+   * Let {@link #getNodeByNodeNumber(int)} use the given mapping in the current thread,
+   * e.g., while deserializing states that were written for a different numbering
+   * of the same part of the CFA. Numbers that are not in the mapping are rejected
+   * with an {@link IllegalArgumentException}.
+   * Call with null to restore the normal behavior.
+   */
+  public void setNodeNumberTranslation(@Nullable Map<Integer, CFANode> pTranslation) {
+    if (pTranslation == null) {
+      nodeNumberTranslation.remove();
+    } else {
+      nodeNumberTranslation.set(pTranslation);
+    }
+  }
+
   public void storeLocationStateFactory(LocationStateFactory pElementFactory) {
     locationStateFactory = pElementFactory;
   }
@@ -26,15 +26,28 @@ package org.sosy_lab.cpachecker.util.octagon;
 public class NumArray {
 
   private final long array;
+  private final double[] values; // only for OctagonJavaManager
 
   NumArray(long l) {
     array = l;
+    values = null;
+  }
+
+  NumArray(double[] pValues) {
+    array = 0;
+    values = pValues;
   }
 
   long getArray() {
+    assert values == null : "array is not managed by the native library";
     return array;
   }
 
+  double[] getValues() {
+    assert values != null : "array is managed by the native library";
+    return values;
+  }
+
   @Override
   public String toString() {
     // TODO
@@ -47,11 +60,11 @@ public class NumArray {
       return false;
     }
     NumArray otherArr = (NumArray) pObj;
-    return this.array == otherArr.array;
+    return this.array == otherArr.array && this.values == otherArr.values;
   }
 
   @Override
   public int hashCode() {
-    return (int)array;
+    return values == null ? (int)array : System.identityHashCode(values);
   }
 }
\ No newline at end of file
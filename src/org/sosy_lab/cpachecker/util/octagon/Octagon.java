@@ -32,16 +32,24 @@ import java.util.List;
 public class Octagon {
 
   private final long octId;
+  private final OctagonMatrix matrix; // only for OctagonJavaManager
   private final OctagonManager manager;
   private static List<OctagonPhantomReference> phantomReferences = new ArrayList<>();
   private static ReferenceQueue<Octagon> referenceQueue = new ReferenceQueue<>();
 
-  Octagon(long l, OctagonManager manager) {
+  Octagon(long l, OctagonNativeManager manager) {
     octId = l;
+    matrix = null;
     this.manager = manager;
     registerPhantomReference(this);
   }
 
+  Octagon(OctagonMatrix pMatrix, OctagonJavaManager manager) {
+    octId = 0;
+    matrix = pMatrix;
+    this.manager = manager;
+  }
+
   private static void registerPhantomReference(Octagon oct) {
     phantomReferences.add(new OctagonPhantomReference(oct, referenceQueue));
   }
@@ -54,15 +62,25 @@ public class Octagon {
   }
 
   long getOctId() {
+    assert matrix == null : "octagon is not managed by the native library";
     return octId;
   }
 
+  OctagonMatrix getMatrix() {
+    assert matrix != null : "octagon is managed by the native library";
+    return matrix;
+  }
+
   public OctagonManager getManager() {
     return manager;
   }
 
   @Override
   public int hashCode() {
+    if (matrix != null) {
+      // the matrix is not canonical before it is closed, so we can only use the dimension
+      return matrix.getDimension();
+    }
     return (int)octId;
   }
 
@@ -78,6 +96,9 @@ public class Octagon {
 
   @Override
   public String toString() {
+    if (matrix != null) {
+      return "octagon with dimension: " + matrix.getDimension();
+    }
     return "octagon with id: " + octId;
   }
 }
\ No newline at end of file
@@ -0,0 +1,755 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonDoubleValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonIntValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+import com.google.common.collect.BiMap;
+
+/**
+ * Implementation of the octagon domain in Java,
+ * which does not need the native octagon library.
+ *
+ * Octagons are stored as difference-bound matrices in primitive arrays
+ * (cf. {@link OctagonMatrix}), so there is no JNI call per number or operation
+ * and octagons are freed by the garbage collector.
+ * Numbers are always doubles, for integers the tight closure is used instead of the strong closure
+ * and constants are rounded.
+ * Octagons are closed lazily, and after adding constraints to a closed octagon
+ * only the rows and columns of the changed variables are used to restore the closure.
+ * Like in the native library, the closure of an octagon is cached separately
+ * and the octagon itself is not changed by operations that need its closure.
+ *
+ * The results of this implementation are not always identical to those
+ * of the native library, but are always sound over-approximations.
+ */
+public class OctagonJavaManager extends OctagonManager {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  private static final int TBOOL_TRUE = 1;
+  private static final int TBOOL_FALSE = 2;
+  private static final int TBOOL_TOP = 3;
+
+  private final boolean integral;
+
+  /**
+   * @param pIntegral whether all variables are integers
+   * (like for the native library "JOct_int") or floating-point numbers
+   */
+  public OctagonJavaManager(boolean pIntegral) {
+    integral = pIntegral;
+  }
+
+  private OctagonMatrix matrix(Octagon oct) {
+    checkArgument(oct.getManager() == this, "octagon belongs to a different manager");
+    return oct.getMatrix();
+  }
+
+  private Octagon wrap(OctagonMatrix matrix) {
+    return new Octagon(matrix, this);
+  }
+
+  /** The closure of the octagon, which must not be modified. */
+  private OctagonMatrix closure(Octagon oct) {
+    return matrix(oct).getClosure(integral);
+  }
+
+  private OctagonMatrix closedCopy(Octagon oct) {
+    return closure(oct).copy();
+  }
+
+  /* num handling function*/
+
+  @Override
+  public NumArray init_num_t(int n) {
+    return new NumArray(new double[n]);
+  }
+
+  @Override
+  public void num_set(NumArray n1, NumArray n2) {
+    n1.getValues()[0] = n2.getValues()[0];
+  }
+
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    OctagonMatrix result = closedCopy(oct);
+    result.forget(pos);
+    double low = lower.getValues()[0];
+    double high = upper.getValues()[0];
+    addUnaryBounds(result, pos, low, high);
+    result.closeIncrementally(integral, true, pos);
+    return wrap(result);
+  }
+
+  @Override
+  public void num_set_int(NumArray n, int pos, long i) {
+    n.getValues()[pos] = i;
+  }
+
+  @Override
+  public void num_set_float(NumArray n, int pos, double d) {
+    n.getValues()[pos] = d;
+  }
+
+  @Override
+  public void num_set_inf(NumArray n, int pos) {
+    n.getValues()[pos] = INF;
+  }
+
+  @Override
+  public long num_get_int(NumArray n, int pos) {
+    return (long) n.getValues()[pos];
+  }
+
+  @Override
+  public double num_get_float(NumArray n, int pos) {
+    return n.getValues()[pos];
+  }
+
+  @Override
+  public boolean num_infty(NumArray n, int pos) {
+    return Double.isInfinite(n.getValues()[pos]);
+  }
+
+  @Override
+  public void num_clear_n(NumArray n, int size) {
+    // memory is managed by the garbage collector
+  }
+
+  /* Octagon handling functions */
+
+  @Override
+  public Octagon empty(int n) {
+    return wrap(OctagonMatrix.empty(n));
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return wrap(OctagonMatrix.universe(n));
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    return wrap(matrix(oct).copy());
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return wrap(matrix(oct).copy());
+  }
+
+  @Override
+  public int dimension(Octagon oct) {
+    return matrix(oct).getDimension();
+  }
+
+  @Override
+  public int nbconstraints(Octagon oct) {
+    return matrix(oct).countConstraints();
+  }
+
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return closure(oct).isKnownEmpty();
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    OctagonMatrix m = matrix(oct);
+    if (m.isKnownEmpty()) {
+      return TBOOL_TRUE;
+    }
+    return m.getKnownClosure() != null ? TBOOL_FALSE : TBOOL_TOP;
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    OctagonMatrix m = closure(oct);
+    return !m.isKnownEmpty() && m.isUnconstrained();
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    return isIncludedIn(closure(oct1), matrix(oct2));
+  }
+
+  /** Inclusion test, which is exact if the first matrix is closed. */
+  private static boolean isIncludedIn(OctagonMatrix m1, OctagonMatrix m2) {
+    return m1.isKnownEmpty() || (!m2.isKnownEmpty() && m1.isPointwiseLessOrEqual(m2));
+  }
+
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    OctagonMatrix m1 = matrix(oct1).getKnownClosure();
+    if (m1 == null) {
+      return TBOOL_TOP;
+    }
+    return isIncludedIn(m1, matrix(oct2)) ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    return isEqual(closure(oct1), closure(oct2));
+  }
+
+  /** Equality test, which is exact if both matrices are closed. */
+  private static boolean isEqual(OctagonMatrix m1, OctagonMatrix m2) {
+    if (m1.isKnownEmpty() || m2.isKnownEmpty()) {
+      return m1.isKnownEmpty() && m2.isKnownEmpty();
+    }
+    return m1.isPointwiseEqual(m2);
+  }
+
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    OctagonMatrix m1 = matrix(oct1).getKnownClosure();
+    OctagonMatrix m2 = matrix(oct2).getKnownClosure();
+    if (m1 == null || m2 == null) {
+      return TBOOL_TOP;
+    }
+    return isEqual(m1, m2) ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    OctagonMatrix m = closure(oct1);
+    return !m.isKnownEmpty() && m.contains(array.getValues());
+  }
+
+  /* Operators */
+
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    OctagonMatrix m1 = matrix(oct1);
+    OctagonMatrix m2 = matrix(oct2);
+    if (m1.isKnownEmpty() || m2.isKnownEmpty()) {
+      return empty(m1.getDimension());
+    }
+    return wrap(OctagonMatrix.meet(m1, m2));
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    OctagonMatrix m1 = closure(oct1);
+    OctagonMatrix m2 = closure(oct2);
+    if (m1.isKnownEmpty()) {
+      return wrap(m2.copy());
+    } else if (m2.isKnownEmpty()) {
+      return wrap(m1.copy());
+    }
+    return wrap(OctagonMatrix.join(m1, m2));
+  }
+
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    // closing the first argument could prevent termination, the second one has to be closed
+    OctagonMatrix m1 = matrix(oct1);
+    OctagonMatrix m2 = closure(oct2);
+    if (m1.isKnownEmpty()) {
+      return wrap(m2.copy());
+    } else if (m2.isKnownEmpty()) {
+      return wrap(m1.copy());
+    }
+    return wrap(OctagonMatrix.widen(m1, m2));
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    OctagonMatrix m1 = matrix(oct1);
+    OctagonMatrix m2 = closure(oct2);
+    if (m1.isKnownEmpty() || m2.isKnownEmpty()) {
+      return empty(m1.getDimension());
+    }
+    return wrap(OctagonMatrix.narrow(m1, m2));
+  }
+
+  /* Transfer Functions */
+
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    OctagonMatrix result = closedCopy(oct);
+    if (!result.isKnownEmpty()) {
+      result.forget(k);
+    }
+    return wrap(result);
+  }
+
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    double[] coefficients = array.getValues();
+    return wrap(assign(closedCopy(oct), k, coefficients, coefficients));
+  }
+
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    int n = dimension(oct);
+    return wrap(assign(closedCopy(oct), k, getLowerBounds(array, n), getUpperBounds(array, n)));
+  }
+
+  /**
+   * Assign x_k := sum_i [low_i, high_i] * x_i + [low_n, high_n] in a closed matrix.
+   * The given matrix is modified.
+   */
+  private OctagonMatrix assign(OctagonMatrix m, int k, double[] low, double[] high) {
+    final int n = m.getDimension();
+    if (m.isKnownEmpty()) {
+      return m;
+    }
+
+    int single = -1;
+    int nonZero = 0;
+    for (int i = 0; i < n; i++) {
+      if (low[i] != 0 || high[i] != 0) {
+        single = i;
+        nonZero++;
+      }
+    }
+
+    if (nonZero == 0) {
+      m.forget(k);
+      addUnaryBounds(m, k, low[n], high[n]);
+      m.closeIncrementally(integral, true, k);
+
+    } else if (nonZero == 1 && isUnit(low[single], high[single])) {
+      boolean negative = low[single] < 0;
+      if (single == k) {
+        // x := +-x + c, this keeps all relations of x
+        if (negative) {
+          m.negate(k);
+        }
+        m.shift(k, low[n], high[n]);
+        m.closeIncrementally(integral, true, k);
+
+      } else {
+        // x := +-y + c, add the difference (or sum) of x and y
+        int x = 2 * k;
+        int y = 2 * single;
+        m.forget(k);
+        if (negative) {
+          // x + y <= high and -x - y <= -low
+          m.addConstraint(y + 1, x, binaryBound(high[n]));
+          m.addConstraint(y, x + 1, binaryBound(-low[n]));
+        } else {
+          // x - y <= high and -x + y <= -low
+          m.addConstraint(y, x, binaryBound(high[n]));
+          m.addConstraint(x, y, binaryBound(-low[n]));
+        }
+        m.closeIncrementally(integral, true, k, single);
+      }
+
+    } else {
+      // not octagonal, use the interval of the expression
+      double lowSum = low[n];
+      double highSum = high[n];
+      for (int i = 0; i < n; i++) {
+        if (low[i] != 0 || high[i] != 0) {
+          double varLow = -m.getNegatedLowerBound(i);
+          double varHigh = m.getUpperBound(i);
+          lowSum += Math.min(Math.min(mul(low[i], varLow), mul(low[i], varHigh)),
+                             Math.min(mul(high[i], varLow), mul(high[i], varHigh)));
+          highSum += Math.max(Math.max(mul(low[i], varLow), mul(low[i], varHigh)),
+                              Math.max(mul(high[i], varLow), mul(high[i], varHigh)));
+        }
+      }
+      m.forget(k);
+      addUnaryBounds(m, k, lowSum, highSum);
+      m.closeIncrementally(integral, true, k);
+    }
+    return m;
+  }
+
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    // start from the closure if it is known, such that it can be restored incrementally
+    OctagonMatrix source = matrix(oct);
+    OctagonMatrix knownClosure = source.getKnownClosure();
+    boolean wasClosed = knownClosure != null;
+    OctagonMatrix result = wasClosed ? knownClosure.copy() : source.copy();
+    if (result.isKnownEmpty()) {
+      return wrap(result);
+    }
+
+    double[] values = array.getValues();
+    int[] changedVariables = new int[2 * noOfConstraints];
+    int changed = 0;
+    for (int c = 0; c < noOfConstraints; c++) {
+      int type = (int) values[4 * c];
+      int x = (int) values[4 * c + 1];
+      int y = (int) values[4 * c + 2];
+      double bound = values[4 * c + 3];
+      addBinaryConstraint(result, type, x, y, bound);
+      changedVariables[changed++] = x;
+      if (type >= 2) {
+        changedVariables[changed++] = y;
+      }
+    }
+
+    result.closeIncrementally(integral, wasClosed, Arrays.copyOf(changedVariables, changed));
+    return wrap(result);
+  }
+
+  /**
+   * Add a constraint in the encoding of the native library (cf. OctagonState.BinaryConstraints):
+   * 0: x <= c, 1: -x <= c, 2: x + y <= c, 3: x - y <= c, 4: -x + y <= c, 5: -x - y <= c.
+   */
+  private void addBinaryConstraint(OctagonMatrix m, int type, int x, int y, double c) {
+    int px = 2 * x;
+    int py = 2 * y;
+    switch (type) {
+    case 0:
+      m.addConstraint(px + 1, px, unaryBound(c));
+      break;
+    case 1:
+      m.addConstraint(px, px + 1, unaryBound(c));
+      break;
+    case 2:
+      m.addConstraint(py + 1, px, binaryBound(c));
+      break;
+    case 3:
+      m.addConstraint(py, px, binaryBound(c));
+      break;
+    case 4:
+      m.addConstraint(px, py, binaryBound(c));
+      break;
+    case 5:
+      m.addConstraint(py, px + 1, binaryBound(c));
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown type of octagon constraint: " + type);
+    }
+  }
+
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    return wrap(addConstraint(closedCopy(oct), array.getValues()));
+  }
+
+  /**
+   * Add the constraint sum_i a_i * x_i + a_n >= 0 to a closed matrix.
+   * The given matrix is modified.
+   */
+  private OctagonMatrix addConstraint(OctagonMatrix m, double[] a) {
+    final int n = m.getDimension();
+    if (m.isKnownEmpty()) {
+      return m;
+    }
+
+    int first = -1;
+    int second = -1;
+    int nonZero = 0;
+    boolean octagonal = true;
+    for (int i = 0; i < n; i++) {
+      if (a[i] != 0) {
+        nonZero++;
+        octagonal &= (a[i] == 1 || a[i] == -1);
+        if (first == -1) {
+          first = i;
+        } else {
+          second = i;
+        }
+      }
+    }
+    final double c = a[n];
+
+    if (nonZero == 0) {
+      return c >= 0 ? m : OctagonMatrix.empty(n);
+
+    } else if (octagonal && nonZero == 1) {
+      // a*x + c >= 0 <=> -a*x <= c
+      addBinaryConstraint(m, a[first] > 0 ? 1 : 0, first, -1, c);
+      m.closeIncrementally(integral, true, first);
+
+    } else if (octagonal && nonZero == 2) {
+      // a*x + b*y + c >= 0 <=> -a*x - b*y <= c
+      int type;
+      if (a[first] > 0) {
+        type = a[second] > 0 ? 5 : 4;
+      } else {
+        type = a[second] > 0 ? 3 : 2;
+      }
+      addBinaryConstraint(m, type, first, second, c);
+      m.closeIncrementally(integral, true, first, second);
+
+    } else {
+      // not octagonal, derive the bounds for each variable from the bounds of the others
+      double[] maxTerm = new double[n];
+      double maxSum = c;
+      int unbounded = 0;
+      for (int i = 0; i < n; i++) {
+        if (a[i] > 0) {
+          maxTerm[i] = a[i] * m.getUpperBound(i);
+        } else if (a[i] < 0) {
+          maxTerm[i] = -a[i] * m.getNegatedLowerBound(i);
+        }
+        if (maxTerm[i] == INF) {
+          unbounded++;
+        } else {
+          maxSum += maxTerm[i];
+        }
+      }
+
+      int[] changedVariables = new int[nonZero];
+      int changed = 0;
+      for (int i = 0; i < n; i++) {
+        if (a[i] == 0) {
+          continue;
+        }
+        // a_i * x_i >= -(c + max of all other terms)
+        double rest;
+        if (maxTerm[i] == INF) {
+          rest = unbounded == 1 ? maxSum : INF;
+        } else {
+          rest = unbounded == 0 ? maxSum - maxTerm[i] : INF;
+        }
+        if (rest != INF) {
+          addBinaryConstraint(m, a[i] > 0 ? 1 : 0, i, -1, rest / Math.abs(a[i]));
+          changedVariables[changed++] = i;
+        }
+      }
+      m.closeIncrementally(integral, true, Arrays.copyOf(changedVariables, changed));
+    }
+    return m;
+  }
+
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    int n = dimension(oct);
+    double[] low = getLowerBounds(array, n);
+    double[] high = getUpperBounds(array, n);
+    for (int i = 0; i < n; i++) {
+      if (low[i] != high[i]) {
+        // sound, but not precise
+        return copy(oct);
+      }
+    }
+    // the constraint holds for some constant in [low_n, high_n], so the upper bound is sound
+    double[] coefficients = Arrays.copyOf(high, n + 1);
+    return wrap(addConstraint(closedCopy(oct), coefficients));
+  }
+
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    double[] coefficients = array.getValues();
+    return substitute(oct, x, coefficients, coefficients);
+  }
+
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    int n = dimension(oct);
+    return substitute(oct, x, getLowerBounds(array, n), getUpperBounds(array, n));
+  }
+
+  /**
+   * Compute the set of all values such that the assignment of the expression to x
+   * leads into the given octagon. A temporary variable t is used for the value of the expression.
+   */
+  private Octagon substitute(Octagon oct, int x, double[] low, double[] high) {
+    final int n = dimension(oct);
+    final int t = n;
+    OctagonMatrix source = closedCopy(oct);
+    if (source.isKnownEmpty()) {
+      return wrap(source);
+    }
+
+    // the constraints of the octagon for x are moved to t, x is unconstrained
+    OctagonMatrix renamed = source.addDimensions(1);
+    renamed.swapVariables(x, t);
+
+    // t == expression for all values of x, the other variables are as in the octagon
+    double[] extendedLow = new double[n + 2];
+    double[] extendedHigh = new double[n + 2];
+    System.arraycopy(low, 0, extendedLow, 0, n);
+    System.arraycopy(high, 0, extendedHigh, 0, n);
+    extendedLow[n + 1] = low[n];
+    extendedHigh[n + 1] = high[n];
+    OctagonMatrix expression = renamed.copy();
+    expression.forget(t);
+    expression = assign(expression, t, extendedLow, extendedHigh);
+
+    OctagonMatrix result = OctagonMatrix.meet(renamed, expression);
+    result.close(integral);
+    if (result.isKnownEmpty()) {
+      return empty(n);
+    }
+    return wrap(result.removeDimensions(1));
+  }
+
+  /* change of dimensions */
+
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    return wrap(matrix(oct).addDimensions(k));
+  }
+
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    OctagonMatrix source = matrix(oct);
+    OctagonMatrix result = source.addDimensions(k);
+    for (int i = source.getDimension(); i < result.getDimension(); i++) {
+      addUnaryBounds(result, i, 0, 0);
+    }
+    return wrap(result);
+  }
+
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    return wrap(closure(oct).removeDimensions(k));
+  }
+
+  /* helper methods */
+
+  private void addUnaryBounds(OctagonMatrix m, int k, double low, double high) {
+    if (high != INF) {
+      m.addConstraint(2 * k + 1, 2 * k, unaryBound(high));
+    }
+    if (low != Double.NEGATIVE_INFINITY) {
+      m.addConstraint(2 * k, 2 * k + 1, unaryBound(-low));
+    }
+  }
+
+  /** Matrix entry for a unary constraint (+-x <= c). */
+  private double unaryBound(double c) {
+    return 2 * (integral ? Math.floor(c) : c);
+  }
+
+  /** Matrix entry for a binary constraint (+-x +-y <= c). */
+  private double binaryBound(double c) {
+    return integral ? Math.floor(c) : c;
+  }
+
+  private static boolean isUnit(double low, double high) {
+    return low == high && (low == 1 || low == -1);
+  }
+
+  /** Multiplication of interval bounds, where zero times infinity is zero. */
+  private static double mul(double a, double b) {
+    if (a == 0 || b == 0) {
+      return 0;
+    }
+    return a * b;
+  }
+
+  /** Lower bounds of an interval array, which contains the upper bound and the negated lower bound. */
+  private static double[] getLowerBounds(NumArray array, int n) {
+    double[] values = array.getValues();
+    double[] result = new double[n + 1];
+    for (int i = 0; i <= n; i++) {
+      result[i] = -values[2 * i + 1];
+    }
+    return result;
+  }
+
+  /** Upper bounds of an interval array, which contains the upper bound and the negated lower bound. */
+  private static double[] getUpperBounds(NumArray array, int n) {
+    double[] values = array.getValues();
+    double[] result = new double[n + 1];
+    for (int i = 0; i <= n; i++) {
+      result[i] = values[2 * i];
+    }
+    return result;
+  }
+
+  @Override
+  public void printNum(NumArray arr, int size) {
+    System.out.println(Arrays.toString(Arrays.copyOf(arr.getValues(), size)));
+  }
+
+  @Override
+  public void printOct(Octagon oct) {
+    OctagonMatrix m = matrix(oct);
+    int size = 2 * m.getDimension();
+    StringBuilder str = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        str.append(m.get(i, j)).append(' ');
+      }
+      str.append('\n');
+    }
+    System.out.print(str);
+  }
+
+  @Override
+  public String print(Octagon oct, BiMap<Integer, MemoryLocation> map) {
+    StringBuilder str = new StringBuilder();
+    str.append("Octagon (dimension: " + dimension(oct) + ")\n");
+    if (isEmpty(oct)) {
+      str.append("[Empty]\n");
+      return str.toString();
+    }
+
+    OctagonMatrix m = closure(oct);
+    for (int i = 0; i < map.size(); i++) {
+      str.append(" ").append(map.get(i)).append(" -> [");
+      double negatedLower = m.getNegatedLowerBound(i);
+      double upper = m.getUpperBound(i);
+      if (negatedLower == INF) {
+        str.append("-INFINITY, ");
+      } else {
+        str.append(format(-negatedLower)).append(", ");
+      }
+      if (upper == INF) {
+        str.append("INFINITY]\n");
+      } else {
+        str.append(format(upper)).append("]\n");
+      }
+    }
+    return str.toString();
+  }
+
+  private String format(double value) {
+    return integral ? Long.toString((long) value) : Double.toString(value);
+  }
+
+  @Override
+  public OctagonInterval getVariableBounds(Octagon oct, int id) {
+    assert id < dimension(oct);
+    OctagonMatrix m = closure(oct);
+    double negatedLower = m.getNegatedLowerBound(id);
+    double upper = m.getUpperBound(id);
+    boolean lowerInfinite = negatedLower == INF;
+    boolean upperInfinite = upper == INF;
+
+    if (lowerInfinite && upperInfinite) {
+      return new OctagonInterval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    } else if (!integral) {
+      return new OctagonInterval(-negatedLower, upper);
+    } else if (lowerInfinite) {
+      return new OctagonInterval(new OctagonDoubleValue(Double.NEGATIVE_INFINITY),
+                                 OctagonIntValue.of((long) upper));
+    } else if (upperInfinite) {
+      return new OctagonInterval(OctagonIntValue.of((long) -negatedLower),
+                                 new OctagonDoubleValue(Double.POSITIVE_INFINITY));
+    } else {
+      return new OctagonInterval((long) -negatedLower, (long) upper);
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+
+
+public class OctagonJavaManagerTest {
+
+  // constraint types, cf. OctagonState.BinaryConstraints
+  private static final int PX = 0;
+  private static final int MX = 1;
+  private static final int PXMY = 3;
+
+  private OctagonManager manager;
+
+  @Before
+  public void setUp() {
+    manager = new OctagonJavaManager(true);
+  }
+
+  private Octagon addConstraint(Octagon oct, int type, int x, int y, long c) {
+    NumArray arr = manager.init_num_t(4);
+    manager.num_set_int(arr, 0, type);
+    manager.num_set_int(arr, 1, x);
+    manager.num_set_int(arr, 2, y);
+    manager.num_set_int(arr, 3, c);
+    return manager.addBinConstraint(oct, 1, arr);
+  }
+
+  /** Octagon with lower <= x_k <= upper for all variables. */
+  private Octagon box(int dimension, long lower, long upper) {
+    Octagon oct = manager.universe(dimension);
+    for (int k = 0; k < dimension; k++) {
+      oct = addConstraint(oct, PX, k, -1, upper);
+      oct = addConstraint(oct, MX, k, -1, -lower);
+    }
+    return oct;
+  }
+
+  private NumArray coefficients(long... values) {
+    NumArray arr = manager.init_num_t(values.length);
+    for (int i = 0; i < values.length; i++) {
+      manager.num_set_int(arr, i, values[i]);
+    }
+    return arr;
+  }
+
+  private void assertBounds(Octagon oct, int k, double lower, double upper) {
+    OctagonInterval bounds = manager.getVariableBounds(oct, k);
+    assertThat(bounds.getLow().getValue().doubleValue()).isEqualTo(lower);
+    assertThat(bounds.getHigh().getValue().doubleValue()).isEqualTo(upper);
+  }
+
+  @Test
+  public void testUniverseAndEmpty() {
+    assertThat(manager.isUniverse(manager.universe(2))).isTrue();
+    assertThat(manager.isEmpty(manager.universe(2))).isFalse();
+    assertThat(manager.isEmpty(manager.empty(2))).isTrue();
+    assertThat(manager.dimension(manager.universe(3))).isEqualTo(3);
+  }
+
+  @Test
+  public void testClosure() {
+    // x_0 <= 3 and x_1 - x_0 <= 2 implies x_1 <= 5
+    Octagon oct = manager.universe(2);
+    oct = addConstraint(oct, PX, 0, -1, 3);
+    oct = addConstraint(oct, PXMY, 1, 0, 2);
+    assertBounds(oct, 1, Double.NEGATIVE_INFINITY, 5);
+  }
+
+  @Test
+  public void testIntegerTightening() {
+    // x_0 - x_1 <= 0 and -x_0 - x_1 <= -1 (i.e., x_0 + x_1 >= 1) implies 2*x_1 >= 1, so x_1 >= 1
+    Octagon oct = manager.universe(2);
+    oct = addConstraint(oct, PXMY, 0, 1, 0);
+    oct = addConstraint(oct, 5, 0, 1, -1);
+    assertBounds(oct, 1, 1, Double.POSITIVE_INFINITY);
+  }
+
+  @Test
+  public void testEmptiness() {
+    Octagon oct = box(2, 0, 10);
+    oct = addConstraint(oct, PXMY, 0, 1, -11);
+    assertThat(manager.isEmpty(oct)).isTrue();
+  }
+
+  @Test
+  public void testInclusionAndUnion() {
+    Octagon small = box(1, 2, 3);
+    Octagon large = box(1, 0, 5);
+    assertThat(manager.isIncludedIn(small, large)).isTrue();
+    assertThat(manager.isIncludedIn(large, small)).isFalse();
+
+    Octagon union = manager.union(box(1, 0, 1), box(1, 4, 5));
+    assertBounds(union, 0, 0, 5);
+    assertThat(manager.isEqual(manager.union(small, large), large)).isTrue();
+  }
+
+  @Test
+  public void testWidening() {
+    Octagon widened = manager.widening(box(1, 0, 1), box(1, 0, 2));
+    assertBounds(widened, 0, 0, Double.POSITIVE_INFINITY);
+    assertThat(manager.isIncludedIn(box(1, 0, 100), widened)).isTrue();
+  }
+
+  @Test
+  public void testAssignment() {
+    // x_1 := x_0 + 1 keeps the relation between x_0 and x_1
+    Octagon oct = manager.assingVar(box(2, 0, 10), 1, coefficients(1, 0, 1));
+    assertBounds(oct, 1, 1, 11);
+    oct = addConstraint(oct, PX, 0, -1, 4);
+    assertBounds(oct, 1, 1, 5);
+
+    // x_0 := x_0 - 2
+    oct = manager.assingVar(oct, 0, coefficients(1, 0, -2));
+    assertBounds(oct, 0, -2, 2);
+    assertBounds(oct, 1, 1, 5);
+
+    // x_0 := 2 * x_1 is not octagonal
+    oct = manager.assingVar(oct, 0, coefficients(0, 2, 0));
+    assertBounds(oct, 0, 2, 10);
+  }
+
+  @Test
+  public void testIntervalAssignment() {
+    // x_1 := x_0 + [1, 3]
+    Octagon oct = manager.intervAssingVar(box(2, 0, 10), 1, coefficients(1, -1, 0, 0, 3, -1));
+    assertBounds(oct, 1, 1, 13);
+    oct = addConstraint(oct, PX, 0, -1, 4);
+    assertBounds(oct, 1, 1, 7);
+
+    // x_0 := [1, 2] * x_1 is not octagonal
+    oct = manager.intervAssingVar(oct, 0, coefficients(0, 0, 2, -1, 0, 0));
+    assertBounds(oct, 0, 1, 14);
+  }
+
+  @Test
+  public void testSubstitution() {
+    // x_0 := x_1 + 1 leads into 0 <= x_0 <= 10 iff -1 <= x_1 <= 9
+    Octagon oct = manager.intersection(manager.forget(box(2, 0, 10), 1), manager.forget(box(2, -5, 5), 0));
+    oct = manager.substituteVar(oct, 0, coefficients(0, 1, 1));
+    assertBounds(oct, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    assertBounds(oct, 1, -1, 5);
+  }
+
+  @Test
+  public void testIntervalSubstitution() {
+    // x_0 := x_1 + [0, 1] can lead into 0 <= x_0 <= 5 iff -1 <= x_1 <= 5
+    Octagon oct = manager.forget(box(2, 0, 5), 1);
+    oct = manager.intervSubstituteVar(oct, 0, coefficients(0, 0, 1, -1, 1, 0));
+    assertBounds(oct, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    assertBounds(oct, 1, -1, 5);
+  }
+
+  @Test
+  public void testClosureDoesNotChangeOctagon() {
+    // the intersection is not closed, its closure has x_1 <= 5
+    Octagon oct = manager.intersection(
+        addConstraint(manager.universe(2), PX, 0, -1, 3),
+        addConstraint(manager.universe(2), PXMY, 1, 0, 2));
+    Octagon next = manager.universe(2);
+    next = addConstraint(next, PX, 0, -1, 4);
+    next = addConstraint(next, PX, 1, -1, 5);
+    next = addConstraint(next, PXMY, 1, 0, 2);
+
+    // the widening must not use the closure of its first argument,
+    // otherwise the bound of x_1 would be kept although it depends on the unstable bound of x_0
+    Octagon widenedBefore = manager.widening(oct, next);
+    assertThat(manager.isEmpty(oct)).isFalse();
+    assertBounds(oct, 1, Double.NEGATIVE_INFINITY, 5);
+    Octagon widenedAfter = manager.widening(oct, next);
+    assertThat(manager.isEqual(widenedBefore, widenedAfter)).isTrue();
+    assertBounds(widenedAfter, 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+  }
+
+  @Test
+  public void testForget() {
+    Octagon oct = manager.forget(box(2, 0, 10), 0);
+    assertBounds(oct, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    assertBounds(oct, 1, 0, 10);
+  }
+
+  @Test
+  public void testDimensions() {
+    Octagon oct = manager.addDimensionAndEmbed(box(1, 0, 10), 2);
+    assertThat(manager.dimension(oct)).isEqualTo(3);
+    assertBounds(oct, 0, 0, 10);
+    oct = manager.removeDimension(oct, 2);
+    assertThat(manager.isEqual(oct, box(1, 0, 10))).isTrue();
+  }
+}
@@ -0,0 +1,491 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Difference-bound matrix of an octagon, used by {@link OctagonJavaManager}.
+ *
+ * For n variables x_0, ..., x_{n-1} the matrix has 2n rows and columns,
+ * one for each signed variable V_{2k} = x_k and V_{2k+1} = -x_k.
+ * The entry in row i and column j is an upper bound for V_j - V_i
+ * (positive infinity if there is no bound).
+ * The matrix is kept coherent, i.e., the entries (i, j) and (j^1, i^1) are equal.
+ * Unary constraints are stored doubled, e.g., x_k <= c is stored as entry (2k+1, 2k) = 2c.
+ *
+ * All entries are stored in one row-major array,
+ * such that the inner loops of the closure run over consecutive memory.
+ *
+ * Instances are only modified by {@link OctagonJavaManager} before they are published
+ * in an {@link Octagon}. The closure of a published matrix is stored in a separate matrix
+ * that is cached (like the native library does), because some operators
+ * need the matrix as it is (e.g., closing the first argument of the widening
+ * could prevent termination).
+ */
+final class OctagonMatrix {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  private final int dimension;
+  private final int size;
+  private final double[] m;
+
+  /** whether the matrix is strongly closed (tightly closed for integers) */
+  private boolean closed;
+
+  /** whether the matrix is known to represent the empty set */
+  private boolean empty;
+
+  /** the closed form of this matrix if it is not closed itself, null if not yet computed */
+  private volatile OctagonMatrix closure;
+
+  private OctagonMatrix(int pDimension, double[] pEntries, boolean pClosed, boolean pEmpty) {
+    this(pDimension, pEntries, pClosed, pEmpty, null);
+  }
+
+  private OctagonMatrix(int pDimension, double[] pEntries, boolean pClosed, boolean pEmpty,
+      OctagonMatrix pClosure) {
+    dimension = pDimension;
+    size = 2 * pDimension;
+    m = pEntries;
+    closed = pClosed;
+    empty = pEmpty;
+    closure = pClosure;
+  }
+
+  static OctagonMatrix universe(int pDimension) {
+    checkArgument(pDimension >= 0);
+    int size = 2 * pDimension;
+    double[] entries = new double[size * size];
+    Arrays.fill(entries, INF);
+    for (int i = 0; i < size; i++) {
+      entries[i * size + i] = 0;
+    }
+    return new OctagonMatrix(pDimension, entries, true, false);
+  }
+
+  static OctagonMatrix empty(int pDimension) {
+    OctagonMatrix result = universe(pDimension);
+    result.empty = true;
+    return result;
+  }
+
+  OctagonMatrix copy() {
+    // the closure is shared, it is never modified and is dropped when the copy is modified
+    return new OctagonMatrix(dimension, m.clone(), closed, empty, closure);
+  }
+
+  int getDimension() {
+    return dimension;
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Returns whether the matrix is known to be empty,
+   * this is exact only for closed matrices or if the closure was already computed.
+   */
+  boolean isKnownEmpty() {
+    if (empty) {
+      return true;
+    }
+    OctagonMatrix cachedClosure = closure;
+    return cachedClosure != null && cachedClosure.empty;
+  }
+
+  /** Returns the closure of this matrix if it is closed or its closure was already computed, null otherwise. */
+  OctagonMatrix getKnownClosure() {
+    return closed || empty ? this : closure;
+  }
+
+  double get(int i, int j) {
+    return m[i * size + j];
+  }
+
+  /** Upper bound of x_k, positive infinity if unbounded. */
+  double getUpperBound(int k) {
+    return m[(2 * k + 1) * size + 2 * k] / 2;
+  }
+
+  /** Negated lower bound of x_k (i.e., the upper bound of -x_k), positive infinity if unbounded. */
+  double getNegatedLowerBound(int k) {
+    return m[(2 * k) * size + 2 * k + 1] / 2;
+  }
+
+  /**
+   * Add the constraint V_j - V_i <= c (and its coherent counterpart).
+   * The closure has to be restored by the caller.
+   */
+  void addConstraint(int i, int j, double c) {
+    if (c < m[i * size + j]) {
+      m[i * size + j] = c;
+      m[(j ^ 1) * size + (i ^ 1)] = c;
+      closed = false;
+      closure = null;
+    }
+  }
+
+  /** Remove all constraints about x_k. The closure is kept. */
+  void forget(int k) {
+    closure = null;
+    int p = 2 * k;
+    for (int i = 0; i < size; i++) {
+      m[p * size + i] = INF;
+      m[(p + 1) * size + i] = INF;
+      m[i * size + p] = INF;
+      m[i * size + p + 1] = INF;
+    }
+    m[p * size + p] = 0;
+    m[(p + 1) * size + p + 1] = 0;
+  }
+
+  /** Replace x_k by -x_k, i.e., swap the signed variables 2k and 2k+1. The closure is kept. */
+  void negate(int k) {
+    closure = null;
+    int p = 2 * k;
+    for (int i = 0; i < size; i++) {
+      swap(p * size + i, (p + 1) * size + i);
+    }
+    for (int i = 0; i < size; i++) {
+      swap(i * size + p, i * size + p + 1);
+    }
+  }
+
+  /** Exchange the variables x_a and x_b. The closure is kept. */
+  void swapVariables(int a, int b) {
+    if (a == b) {
+      return;
+    }
+    closure = null;
+    for (int s = 0; s < 2; s++) {
+      int p = 2 * a + s;
+      int q = 2 * b + s;
+      for (int i = 0; i < size; i++) {
+        swap(p * size + i, q * size + i);
+      }
+      for (int i = 0; i < size; i++) {
+        swap(i * size + p, i * size + q);
+      }
+    }
+  }
+
+  private void swap(int a, int b) {
+    double tmp = m[a];
+    m[a] = m[b];
+    m[b] = tmp;
+  }
+
+  /**
+   * Replace x_k by x_k + t for some t in [low, high].
+   * The closure is kept only if low == high.
+   */
+  void shift(int k, double low, double high) {
+    closure = null;
+    int p = 2 * k;
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (i == j) {
+          continue;
+        }
+        // upper bound of (delta_j - delta_i), where delta_2k = t and delta_2k+1 = -t
+        double delta = upperDelta(j, p, low, high) - lowerDelta(i, p, low, high);
+        if (delta != 0) {
+          m[i * size + j] += delta;
+        }
+      }
+    }
+    if (low != high) {
+      closed = false;
+    }
+  }
+
+  private static double upperDelta(int i, int p, double low, double high) {
+    if (i == p) {
+      return high;
+    } else if (i == p + 1) {
+      return -low;
+    }
+    return 0;
+  }
+
+  private static double lowerDelta(int i, int p, double low, double high) {
+    if (i == p) {
+      return low;
+    } else if (i == p + 1) {
+      return -high;
+    }
+    return 0;
+  }
+
+  /** Returns a copy with the given number of new unconstrained variables at the end. */
+  OctagonMatrix addDimensions(int k) {
+    checkArgument(k >= 0);
+    OctagonMatrix result = universe(dimension + k);
+    for (int i = 0; i < size; i++) {
+      System.arraycopy(m, i * size, result.m, i * result.size, size);
+    }
+    result.closed = closed;
+    result.empty = empty;
+    return result;
+  }
+
+  /** Returns a copy without the last k variables. The matrix should be closed before. */
+  OctagonMatrix removeDimensions(int k) {
+    checkArgument(0 <= k && k <= dimension);
+    OctagonMatrix result = universe(dimension - k);
+    for (int i = 0; i < result.size; i++) {
+      System.arraycopy(m, i * size, result.m, i * result.size, result.size);
+    }
+    result.closed = closed;
+    result.empty = empty;
+    return result;
+  }
+
+  /**
+   * Returns the strong closure (the tight closure for integers) of this matrix
+   * without modifying this matrix.
+   * The result is cached, and it must not be modified (it may be this matrix itself).
+   */
+  OctagonMatrix getClosure(boolean integral) {
+    OctagonMatrix result = getKnownClosure();
+    if (result == null) {
+      result = new OctagonMatrix(dimension, m.clone(), closed, empty);
+      result.close(integral);
+      closure = result;
+    }
+    return result;
+  }
+
+  /**
+   * Compute the strong closure (the tight closure for integers) in place
+   * and determine whether the matrix is empty.
+   * This is only allowed for matrices that are not yet published, cf. {@link #getClosure(boolean)}.
+   * This is the algorithm of Bagnara, Hill, and Zaffanella:
+   * Floyd-Warshall shortest-path closure followed by one strengthening step.
+   */
+  void close(boolean integral) {
+    if (closed || empty) {
+      return;
+    }
+    closure = null;
+    for (int k = 0; k < size; k++) {
+      closeWithPivot(k);
+    }
+    strengthen(integral);
+  }
+
+  /**
+   * Restore the closure after constraints about the given variables were added
+   * to a closed matrix. Only the signed variables of the changed variables are used as pivots,
+   * so this needs quadratic instead of cubic time.
+   */
+  void closeIncrementally(boolean integral, boolean wasClosed, int... changedVariables) {
+    if (closed || empty) {
+      return;
+    }
+    if (!wasClosed) {
+      close(integral);
+      return;
+    }
+    closure = null;
+    for (int var : changedVariables) {
+      closeWithPivot(2 * var);
+      closeWithPivot(2 * var + 1);
+    }
+    strengthen(integral);
+  }
+
+  private void closeWithPivot(int k) {
+    final int rowK = k * size;
+    for (int i = 0; i < size; i++) {
+      final double ik = m[i * size + k];
+      if (ik == INF) {
+        continue;
+      }
+      final int rowI = i * size;
+      for (int j = 0; j < size; j++) {
+        final double viaK = ik + m[rowK + j];
+        if (viaK < m[rowI + j]) {
+          m[rowI + j] = viaK;
+        }
+      }
+    }
+  }
+
+  private void strengthen(boolean integral) {
+    for (int i = 0; i < size; i++) {
+      if (m[i * size + i] < 0) {
+        empty = true;
+        closed = true;
+        return;
+      }
+    }
+
+    final double[] unary = new double[size];
+    for (int i = 0; i < size; i++) {
+      double bound = m[i * size + (i ^ 1)];
+      if (integral) {
+        bound = 2 * Math.floor(bound / 2);
+        m[i * size + (i ^ 1)] = bound;
+      }
+      unary[i] = bound;
+    }
+    for (int i = 0; i < size; i++) {
+      if (unary[i] + unary[i ^ 1] < 0) {
+        empty = true;
+        closed = true;
+        return;
+      }
+    }
+
+    for (int i = 0; i < size; i++) {
+      final int rowI = i * size;
+      for (int j = 0; j < size; j++) {
+        final double viaUnary = (unary[i] + unary[j ^ 1]) / 2;
+        if (viaUnary < m[rowI + j]) {
+          m[rowI + j] = viaUnary;
+        }
+      }
+      m[rowI + i] = 0;
+    }
+    closed = true;
+  }
+
+  /** Whether all entries are less or equal to the entries of the other matrix. */
+  boolean isPointwiseLessOrEqual(OctagonMatrix other) {
+    checkArgument(dimension == other.dimension);
+    for (int i = 0; i < m.length; i++) {
+      if (m[i] > other.m[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Whether all entries are equal to the entries of the other matrix. */
+  boolean isPointwiseEqual(OctagonMatrix other) {
+    checkArgument(dimension == other.dimension);
+    for (int i = 0; i < m.length; i++) {
+      if (m[i] != other.m[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Whether the given values of the variables satisfy all constraints. */
+  boolean contains(double[] point) {
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (signedValue(point, j) - signedValue(point, i) > m[i * size + j]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static double signedValue(double[] point, int i) {
+    return (i & 1) == 0 ? point[i / 2] : -point[i / 2];
+  }
+
+  /** Number of finite constraints, each pair of coherent entries is counted once. */
+  int countConstraints() {
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j <= (i | 1); j++) {
+        if (i != j && m[i * size + j] != INF) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /** Whether there are no constraints except for the diagonal. */
+  boolean isUnconstrained() {
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (i != j && m[i * size + j] != INF) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Pointwise minimum, the result is not closed. */
+  static OctagonMatrix meet(OctagonMatrix a, OctagonMatrix b) {
+    checkArgument(a.dimension == b.dimension);
+    double[] result = new double[a.m.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Math.min(a.m[i], b.m[i]);
+    }
+    return new OctagonMatrix(a.dimension, result, false, false);
+  }
+
+  /** Pointwise maximum, the result is closed if both arguments are closed. */
+  static OctagonMatrix join(OctagonMatrix a, OctagonMatrix b) {
+    checkArgument(a.dimension == b.dimension);
+    double[] result = new double[a.m.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Math.max(a.m[i], b.m[i]);
+    }
+    return new OctagonMatrix(a.dimension, result, a.closed && b.closed, false);
+  }
+
+  /**
+   * Widening with threshold zero: unstable bounds are replaced by zero if possible,
+   * and by infinity otherwise. The result is not closed (closing it could prevent termination).
+   */
+  static OctagonMatrix widen(OctagonMatrix a, OctagonMatrix b) {
+    checkArgument(a.dimension == b.dimension);
+    double[] result = new double[a.m.length];
+    for (int i = 0; i < result.length; i++) {
+      if (a.m[i] >= b.m[i]) {
+        result[i] = a.m[i];
+      } else if (b.m[i] <= 0) {
+        result[i] = 0;
+      } else {
+        result[i] = INF;
+      }
+    }
+    return new OctagonMatrix(a.dimension, result, false, false);
+  }
+
+  /** Narrowing: only bounds that are infinite in the first argument are refined. */
+  static OctagonMatrix narrow(OctagonMatrix a, OctagonMatrix b) {
+    checkArgument(a.dimension == b.dimension);
+    double[] result = new double[a.m.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = a.m[i] == INF ? b.m[i] : a.m[i];
+    }
+    return new OctagonMatrix(a.dimension, result, false, false);
+  }
+}
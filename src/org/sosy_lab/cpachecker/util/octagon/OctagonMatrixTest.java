@@ -0,0 +1,112 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class OctagonMatrixTest {
+
+  private static final int DIMENSION = 4;
+
+  private final Random random = new Random(0);
+
+  /** Add a random constraint about x_k and one of the other variables (or x_k alone). */
+  private void addRandomConstraint(OctagonMatrix m, int k, int other) {
+    int i = 2 * k + random.nextInt(2);
+    int j = random.nextBoolean() ? i ^ 1 : 2 * other + random.nextInt(2);
+    if (j == i) {
+      j = i ^ 1;
+    }
+    int c = random.nextInt(20) - 5;
+    m.addConstraint(i, j, i == (j ^ 1) ? 2 * c : c);
+  }
+
+  /** Closed random matrix that is not empty. */
+  private OctagonMatrix randomClosedMatrix(boolean integral) {
+    OctagonMatrix m;
+    do {
+      m = OctagonMatrix.universe(DIMENSION);
+      for (int c = 0; c < 6; c++) {
+        addRandomConstraint(m, random.nextInt(DIMENSION), random.nextInt(DIMENSION));
+      }
+      m.close(integral);
+    } while (m.isKnownEmpty());
+    return m;
+  }
+
+  private void checkIncrementalClosure(boolean integral) {
+    for (int round = 0; round < 500; round++) {
+      OctagonMatrix incremental = randomClosedMatrix(integral);
+      int x = random.nextInt(DIMENSION);
+      int y = random.nextInt(DIMENSION);
+      addRandomConstraint(incremental, x, y);
+      addRandomConstraint(incremental, y, x);
+      OctagonMatrix full = incremental.copy();
+
+      incremental.closeIncrementally(integral, true, x, y);
+      full.close(integral);
+
+      assertThat(incremental.isKnownEmpty()).isEqualTo(full.isKnownEmpty());
+      if (!full.isKnownEmpty()) {
+        assertThat(incremental.isPointwiseEqual(full)).isTrue();
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalClosureIsClosure() {
+    checkIncrementalClosure(false);
+  }
+
+  @Test
+  public void testIncrementalTightClosureIsTightClosure() {
+    checkIncrementalClosure(true);
+  }
+
+  @Test
+  public void testClosureIsCachedSeparately() {
+    // x_0 <= 3 and x_1 - x_0 <= 2, without the implied bound x_1 <= 5
+    OctagonMatrix m = OctagonMatrix.universe(2);
+    m.addConstraint(1, 0, 6);
+    m.addConstraint(0, 2, 2);
+    OctagonMatrix copy = m.copy();
+
+    OctagonMatrix closure = m.getClosure(true);
+    assertThat(closure.getUpperBound(1)).isEqualTo(5.0);
+    assertThat(m.getUpperBound(1)).isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(m.isClosed()).isFalse();
+    assertThat(m.isPointwiseEqual(copy)).isTrue();
+    assertThat(m.getClosure(true)).isSameAs(closure);
+
+    // modifying the matrix drops the cached closure
+    m.addConstraint(3, 2, 8);
+    assertThat(m.getKnownClosure()).isNull();
+    assertThat(m.getClosure(true).getUpperBound(1)).isEqualTo(4.0);
+  }
+}
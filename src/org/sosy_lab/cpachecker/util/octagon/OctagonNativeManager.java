@@ -0,0 +1,266 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.*;
+
+import org.sosy_lab.common.NativeLibraries;
+
+
+/**
+ * Base class for the octagon managers that use the native octagon library
+ * through JNI. Numbers and octagons are pointers to native memory,
+ * octagons are freed when they are garbage-collected (cf. {@link OctagonPhantomReference}).
+ */
+public abstract class OctagonNativeManager extends OctagonManager {
+
+  private static boolean libraryLoaded = false;
+
+  protected OctagonNativeManager(String libraryName) {
+    if (!libraryLoaded) {
+      libraryLoaded = true;
+      NativeLibraries.loadLibrary(libraryName);
+      J_init();
+    }
+  }
+
+  /* num handling function*/
+
+  /* allocate new space for num array and init*/
+  @Override
+  public NumArray init_num_t (int n) {
+    return new NumArray(J_init_n(n));
+  }
+
+  /* num copy */
+  @Override
+  public void num_set(NumArray n1, NumArray n2) {
+    J_num_set(n1.getArray(), n2.getArray());
+  }
+
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    return new Octagon(J_set_bounds(oct.getOctId(), pos, lower.getArray(), upper.getArray(), false), this);
+  }
+
+  /* set int */
+  @Override
+  public void num_set_int(NumArray n, int pos, long i) {
+    J_num_set_int(n.getArray(), pos, (int)i);
+  }
+  /* set float */
+  @Override
+  public void num_set_float(NumArray n, int pos, double d) {
+    J_num_set_float(n.getArray(), pos, d);
+  }
+  /* set infinity */
+  @Override
+  public void num_set_inf(NumArray n, int pos) {
+    J_num_set_inf(n.getArray(), pos);
+  }
+
+  @Override
+  public long num_get_int(NumArray n, int pos) {
+    return J_num_get_int(n.getArray(), pos);
+  }
+
+  @Override
+  public double num_get_float(NumArray n, int pos) {
+    return J_num_get_float(n.getArray(), pos);
+  }
+
+  @Override
+  public boolean num_infty(NumArray n, int pos) {
+    return J_num_infty(n.getArray(), pos);
+  }
+
+  @Override
+  public void num_clear_n(NumArray n, int size) {
+    J_num_clear_n(n.getArray(), size);
+  }
+
+  /* Octagon handling functions */
+
+  /* Octagon Creation */
+  @Override
+  public Octagon empty(int n) {
+    return new Octagon(J_empty(n), this);
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return new Octagon(J_universe(n), this);
+  }
+  void free(Long oct) {
+    J_free(oct);
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    return new Octagon(J_copy(oct.getOctId()), this);
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return new Octagon(J_full_copy(oct.getOctId()), this);
+  }
+
+  /* Query Functions */
+  @Override
+  public int dimension(Octagon oct) {
+    return J_dimension(oct.getOctId());
+  }
+
+  @Override
+  public int nbconstraints(Octagon oct) {
+    return J_nbconstraints(oct.getOctId());
+  }
+
+  /* Test Functions */
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return J_isEmpty(oct.getOctId());
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    return J_isEmptyLazy(oct.getOctId());
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    return J_isUniverse(oct.getOctId());
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    return J_isIncludedIn(oct1.getOctId(), oct2.getOctId());
+  }
+
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    return J_isIncludedInLazy(oct1.getOctId(), oct2.getOctId());
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    return J_isEqual(oct1.getOctId(), oct2.getOctId());
+  }
+
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return J_isEqualLazy(oct1.getOctId(), oct2.getOctId());
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    return J_isIn(oct1.getOctId(), array.getArray());
+  }
+
+  /* Operators */
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    return new Octagon(J_intersection(oct1.getOctId(), oct2.getOctId(), false), this);
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    return new Octagon(J_union(oct1.getOctId(), oct2.getOctId(), false), this);
+  }
+
+  /* int widening = 0 -> OCT_WIDENING_FAST
+   * int widening = 1 ->  OCT_WIDENING_ZERO
+   * int widening = 2 -> OCT_WIDENING_UNIT*/
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    return new Octagon(J_widening(oct1.getOctId(), oct2.getOctId(), false, 1), this);
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    return new Octagon(J_narrowing(oct1.getOctId(), oct2.getOctId(), false), this);
+  }
+
+  /* Transfer Functions */
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    return new Octagon(J_forget(oct.getOctId(), k, false), this);
+  }
+
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    return new Octagon(J_assingVar(oct.getOctId(), k, array.getArray(), false), this);
+  }
+
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    return new Octagon(J_addBinConstraints(oct.getOctId(), noOfConstraints, array.getArray(), false), this);
+  }
+
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    return new Octagon(J_substituteVar(oct.getOctId(), x, array.getArray(), false), this);
+  }
+
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    return new Octagon(J_addConstraint(oct.getOctId(), array.getArray(), false), this);
+  }
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    return new Octagon(J_intervAssingVar(oct.getOctId(), k, array.getArray(), false), this);
+  }
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    return new Octagon(J_intervSubstituteVar(oct.getOctId(), x, array.getArray(), false), this);
+  }
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    return new Octagon(J_intervAddConstraint(oct.getOctId(), array.getArray(), false), this);
+  }
+
+  /* change of dimensions */
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    return new Octagon(J_addDimenensionAndEmbed(oct.getOctId(), k, false), this);
+  }
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    return new Octagon(J_addDimenensionAndProject(oct.getOctId(), k, false), this);
+  }
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    return new Octagon(J_removeDimension(oct.getOctId(), k, false), this);
+  }
+
+  @Override
+  public void printNum(NumArray arr, int size) {
+      J_printNum(arr.getArray(), size);
+  }
+
+  @Override
+  public void printOct(Octagon oct) {
+    J_print(oct.getOctId());
+  }
+}
\ No newline at end of file
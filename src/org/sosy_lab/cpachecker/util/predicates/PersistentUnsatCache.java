@@ -0,0 +1,230 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.LogManager;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Cache for the results of satisfiability checks that is stored in a file
+ * such that it can be shared by several runs of CPAchecker.
+ *
+ * Formulas are identified by a cryptographic hash of a canonical string
+ * representation (e.g., the SMT-LIB dump), so the cache does not depend
+ * on a specific solver instance. Nothing is written to the file until
+ * {@link #save()} is called. Saving merges the cache with the current content
+ * of the file, such that several instances (in the same or in different
+ * processes) can share a file without losing each other's results.
+ *
+ * The file format is a small header (magic number, version, number of entries)
+ * followed by the entries, each consisting of the hash and the result.
+ */
+final class PersistentUnsatCache {
+
+  private static final int MAGIC = 0x43504143; // "CPAC"
+  private static final int VERSION = 1;
+  private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+  private static final int HASH_BYTES = HASH_FUNCTION.bits() / Byte.SIZE;
+
+  /** File locks are held per process, so instances in the same process need to synchronize. */
+  private static final Object SAVE_LOCK = new Object();
+
+  private final Path file;
+  private final LogManager logger;
+
+  private final Map<HashCode, Boolean> results = new HashMap<>();
+  private int loadedEntries = 0;
+  private boolean modified = false;
+
+  private PersistentUnsatCache(Path pFile, LogManager pLogger) {
+    file = pFile;
+    logger = pLogger;
+  }
+
+  /**
+   * Create a cache that is backed by the given file.
+   * If the file exists, its content is loaded,
+   * if it cannot be read, a warning is logged and the cache starts empty.
+   */
+  static PersistentUnsatCache load(Path pFile, LogManager pLogger) {
+    PersistentUnsatCache cache = new PersistentUnsatCache(pFile, pLogger);
+    if (pFile.exists()) {
+      try {
+        cache.read(cache.results);
+      } catch (IOException e) {
+        cache.results.clear();
+        pLogger.logUserException(Level.WARNING, e, "Could not read solver cache, starting with an empty cache");
+      }
+    }
+    cache.loadedEntries = cache.results.size();
+    return cache;
+  }
+
+  private void read(Map<HashCode, Boolean> pResults) throws IOException {
+    try (InputStream in = file.asByteSource().openStream();
+         DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+      if (data.readInt() != MAGIC) {
+        throw new IOException("File " + file + " is not a solver cache");
+      }
+      int version = data.readInt();
+      if (version != VERSION) {
+        throw new IOException("Solver cache " + file + " has unsupported version " + version);
+      }
+      int size = data.readInt();
+      byte[] hash = new byte[HASH_BYTES];
+      for (int i = 0; i < size; i++) {
+        data.readFully(hash);
+        pResults.put(HashCode.fromBytes(hash), data.readBoolean());
+      }
+    }
+  }
+
+  /**
+   * Compute the key of the formula with the given representation,
+   * which can be used both for {@link #get(HashCode)} and {@link #put(HashCode, boolean)}.
+   */
+  static HashCode hash(String pFormulaRepresentation) {
+    return HASH_FUNCTION.hashString(pFormulaRepresentation, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Look up whether the formula with the given key is unsat.
+   * @return the cached result, or null if the formula is not in the cache
+   */
+  synchronized @Nullable Boolean get(HashCode pKey) {
+    return results.get(pKey);
+  }
+
+  synchronized void put(HashCode pKey, boolean pIsUnsat) {
+    Boolean previous = results.put(pKey, pIsUnsat);
+    if (previous == null || previous != pIsUnsat) {
+      modified = true;
+    }
+  }
+
+  /**
+   * Write the content of the cache back to its file, if it was modified.
+   * Entries that were added to the file by others since it was loaded are kept.
+   * The file is locked while it is updated and replaced atomically,
+   * such that readers never see a partially written file.
+   */
+  synchronized void save() throws IOException {
+    if (!modified) {
+      return;
+    }
+    Files.createParentDirs(file);
+    File target = file.toFile().getAbsoluteFile();
+    File lockFile = new File(target.getPath() + ".lock");
+
+    synchronized (SAVE_LOCK) {
+      try (FileChannel lockChannel = FileChannel.open(lockFile.toPath(),
+              StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        FileLock lock = lockChannel.lock();
+        try {
+          mergeAndWrite(target);
+        } finally {
+          lock.release();
+        }
+      }
+    }
+    modified = false;
+    logger.log(Level.FINE, "Wrote", results.size(), "entries to solver cache", file);
+  }
+
+  /**
+   * Merge the entries of the cache file into this cache and replace the file.
+   * Has to be called while holding the file lock.
+   */
+  private void mergeAndWrite(File target) throws IOException {
+    if (file.exists()) {
+      Map<HashCode, Boolean> onDisk = new HashMap<>();
+      try {
+        read(onDisk);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not read solver cache, overwriting it");
+        onDisk.clear();
+      }
+      for (Map.Entry<HashCode, Boolean> entry : onDisk.entrySet()) {
+        if (!results.containsKey(entry.getKey())) {
+          results.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+
+    File tmpFile = File.createTempFile("solvercache", ".tmp", target.getParentFile());
+    try {
+      write(Paths.get(tmpFile.getPath()));
+      java.nio.file.Files.move(tmpFile.toPath(), target.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      tmpFile.delete();
+    }
+  }
+
+  private void write(Path pFile) throws IOException {
+    try (OutputStream out = pFile.asByteSink().openStream();
+         DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      data.writeInt(results.size());
+      for (Map.Entry<HashCode, Boolean> entry : results.entrySet()) {
+        data.write(entry.getKey().asBytes());
+        data.writeBoolean(entry.getValue());
+      }
+    }
+  }
+
+  synchronized int getNumberOfLoadedEntries() {
+    return loadedEntries;
+  }
+
+  synchronized int size() {
+    return results.size();
+  }
+}
@@ -23,14 +23,18 @@
  */
 package org.sosy_lab.cpachecker.util.predicates;
 
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
+import java.util.logging.Level;
 
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.view.BooleanFormulaManagerView;
@@ -59,7 +63,10 @@ import org.sosy_lab.solver.logging.LoggingProverEnvironment;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Verify;
-import com.google.common.collect.Maps;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
 
 /**
  * Encapsulation of an SMT solver.
@@ -84,13 +91,31 @@ public final class Solver implements AutoCloseable {
   private boolean checkUFs = false;
   private final UFCheckingProverOptions ufCheckingProverOptions;
 
+  @Option(secure=true, name="unsatCache.maximumSize",
+      description="maximum number of formulas in the cache for satisfiability checks "
+          + "(-1 for an unbounded cache, 0 for disabling the cache). "
+          + "If the cache is full, the least-recently used formulas are removed.")
+  @IntegerOption(min=-1)
+  private long unsatCacheMaximumSize = -1;
+
+  @Option(secure=true, name="persistentCache.file",
+      description="file for storing the results of satisfiability checks across several runs "
+          + "(empty for disabling the persistent cache). "
+          + "Formulas are identified by a hash of their SMT-LIB representation. "
+          + "New results are merged into the file at the end of the analysis "
+          + "(currently only for the solver of the PredicateCPA).")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path persistentCacheFile = null;
+
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManagerView bfmgr;
 
   private final FormulaManager solvingFormulaManager;
   private final FormulaManager interpolationFormulaManager;
 
-  private final Map<BooleanFormula, Boolean> unsatCache = Maps.newHashMap();
+  private final Cache<BooleanFormula, Boolean> unsatCache;
+
+  private final PersistentUnsatCache persistentCache;
 
   private final LogManager logger;
 
@@ -99,6 +124,7 @@ public final class Solver implements AutoCloseable {
   public int satChecks = 0;
   public int trivialSatChecks = 0;
   public int cachedSatChecks = 0;
+  public int persistentCachedSatChecks = 0;
 
   /**
    * Please use {@link #create(Configuration, LogManager, ShutdownNotifier)} in normal code.
@@ -117,6 +143,18 @@ public final class Solver implements AutoCloseable {
     solvingFormulaManager = pFactory.getFormulaManager();
     interpolationFormulaManager = pFactory.getFormulaManagerForInterpolation();
 
+    CacheBuilder<Object, Object> unsatCacheBuilder = CacheBuilder.newBuilder().recordStats();
+    if (unsatCacheMaximumSize >= 0) {
+      unsatCacheBuilder.maximumSize(unsatCacheMaximumSize);
+    }
+    unsatCache = unsatCacheBuilder.build();
+
+    if (persistentCacheFile != null) {
+      persistentCache = PersistentUnsatCache.load(persistentCacheFile, logger);
+    } else {
+      persistentCache = null;
+    }
+
     if (checkUFs) {
       ufCheckingProverOptions = new UFCheckingProverOptions(config);
     } else {
@@ -260,22 +298,37 @@ public final class Solver implements AutoCloseable {
       trivialSatChecks++;
       return true;
     }
-    Boolean result = unsatCache.get(f);
+    Boolean result = unsatCache.getIfPresent(f);
     if (result != null) {
       cachedSatChecks++;
       return result;
     }
 
+    // The hash is needed both for the lookup and for storing the result,
+    // so the formula is dumped only once.
+    HashCode persistentKey = null;
+    if (persistentCache != null) {
+      persistentKey = PersistentUnsatCache.hash(fmgr.dumpFormula(f).toString());
+      result = persistentCache.get(persistentKey);
+      if (result != null) {
+        persistentCachedSatChecks++;
+        unsatCache.put(f, result);
+        return result;
+      }
+    }
+
     solverTime.start();
     try {
       result = isUnsatUncached(f);
-
-      unsatCache.put(f, result);
-      return result;
-
     } finally {
       solverTime.stop();
     }
+
+    unsatCache.put(f, result);
+    if (persistentKey != null) {
+      persistentCache.put(persistentKey, result);
+    }
+    return result;
   }
 
   /**
@@ -346,6 +399,22 @@ public final class Solver implements AutoCloseable {
     return isUnsat(f);
   }
 
+  /**
+   * Write the results of the satisfiability checks of this instance
+   * to the persistent cache file (if configured), merging them with the current content of the file.
+   * This should be called once the analysis has finished.
+   */
+  public void savePersistentCache() {
+    if (persistentCache == null) {
+      return;
+    }
+    try {
+      persistentCache.save();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write solver cache");
+    }
+  }
+
   /**
    * Close this solver instance and all underlying formula managers.
    * This instance and any instance retrieved from it (including all {@link Formula}s)
@@ -353,6 +422,8 @@ public final class Solver implements AutoCloseable {
    */
   @Override
   public void close() throws Exception {
+    savePersistentCache();
+
     // Reliably close both formula managers and re-throw exceptions,
     // such that no exception gets lost and both managers get closed.
     // Taken from https://stackoverflow.com/questions/24705055/wrapping-multiple-autocloseables
@@ -388,7 +459,7 @@ public final class Solver implements AutoCloseable {
    * @param unsat An unsatisfiable formula.
    */
   public void addUnsatisfiableFormulaToCache(BooleanFormula unsat) {
-    if (unsatCache.containsKey(unsat) || bfmgr.isFalse(unsat)) {
+    if (unsatCache.asMap().containsKey(unsat) || bfmgr.isFalse(unsat)) {
       return;
     }
     try {
@@ -402,6 +473,38 @@ public final class Solver implements AutoCloseable {
     unsatCache.put(unsat, true);
   }
 
+  /**
+   * Return the statistics (hits, misses, evictions) of the cache for satisfiability checks.
+   * Trivial checks are not counted.
+   */
+  public CacheStats getUnsatCacheStatistics() {
+    return unsatCache.stats();
+  }
+
+  /**
+   * Return the number of formulas that are currently retained by the cache
+   * for satisfiability checks.
+   */
+  public long getUnsatCacheSize() {
+    return unsatCache.size();
+  }
+
+  /**
+   * Whether results of satisfiability checks are also stored in a file
+   * that is shared across several runs.
+   */
+  public boolean hasPersistentCache() {
+    return persistentCache != null;
+  }
+
+  /**
+   * Return the number of results that were loaded from the persistent cache file
+   * at the start of the analysis (0 if there is no persistent cache).
+   */
+  public int getPersistentCacheLoadedEntries() {
+    return persistentCache == null ? 0 : persistentCache.getNumberOfLoadedEntries();
+  }
+
   public SmtAstMatcher getSmtAstMatcher() {
     return new SmtAstMatcherImpl(
         solvingFormulaManager.getUnsafeFormulaManager(),
@@ -23,10 +23,14 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.pathformula;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
@@ -39,41 +43,129 @@ import org.sosy_lab.solver.api.BooleanFormula;
 import org.sosy_lab.solver.api.Formula;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
 /**
  * Implementation of {@link PathFormulaManager} that delegates to another
  * instance but caches results of some methods.
+ *
+ * The caches can be bounded by the number of entries or by the weight of
+ * the cached path formulas (their length), in which case the least-recently
+ * used entries are removed.
  */
+@Options(prefix="cpa.predicate.pathFormulaCache")
 public class CachingPathFormulaManager implements PathFormulaManager {
 
+  @Option(secure=true,
+      description="maximum number of entries in each of the path-formula caches "
+          + "(-1 for unbounded caches). "
+          + "If a cache is full, the least-recently used entries are removed.")
+  @IntegerOption(min=-1)
+  private long maximumSize = -1;
+
+  @Option(secure=true,
+      description="maximum weight of each of the path-formula caches, "
+          + "where the weight of an entry is the length of the cached path formula plus one "
+          + "(-1 for unbounded caches). Cannot be used together with maximumSize. "
+          + "If a cache is full, the least-recently used entries are removed.")
+  @IntegerOption(min=-1)
+  private long maximumWeight = -1;
+
   public final Timer pathFormulaComputationTimer = new Timer();
-  public int pathFormulaCacheHits = 0;
+  private int pathFormulaCacheHits = 0;
+  private int pathFormulaCacheMisses = 0;
 
   public final PathFormulaManager delegate;
 
-  private final Map<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache
-            = new HashMap<>();
-  private final Map<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache
-            = new HashMap<>();
+  private final Cache<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache;
+  private final Cache<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache;
 
-  private final Map<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache
-            = new HashMap<>();
+  private final Cache<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache;
 
-  private final Map<PathFormula, PathFormula> emptyFormulaCache
-            = new HashMap<>();
+  private final Cache<PathFormula, PathFormula> emptyFormulaCache;
 
   private final PathFormula emptyFormula;
 
-  public CachingPathFormulaManager(PathFormulaManager pDelegate) {
+  private static final Weigher<Object, PathFormula> PATH_FORMULA_WEIGHER =
+      new Weigher<Object, PathFormula>() {
+        @Override
+        public int weigh(Object pKey, PathFormula pValue) {
+          return pValue.getLength() + 1;
+        }
+      };
+
+  private static final Weigher<Object, Pair<PathFormula, ErrorConditions>> PATH_FORMULA_PAIR_WEIGHER =
+      new Weigher<Object, Pair<PathFormula, ErrorConditions>>() {
+        @Override
+        public int weigh(Object pKey, Pair<PathFormula, ErrorConditions> pValue) {
+          return pValue.getFirst().getLength() + 1;
+        }
+      };
+
+  public CachingPathFormulaManager(PathFormulaManager pDelegate, Configuration pConfig)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    if (maximumSize >= 0 && maximumWeight >= 0) {
+      throw new InvalidConfigurationException("Only one of the options "
+          + "cpa.predicate.pathFormulaCache.maximumSize and "
+          + "cpa.predicate.pathFormulaCache.maximumWeight may be specified.");
+    }
     delegate = pDelegate;
+
+    andFormulaWithConditionsCache = newCache(PATH_FORMULA_PAIR_WEIGHER);
+    andFormulaCache = newCache(PATH_FORMULA_WEIGHER);
+    orFormulaCache = newCache(PATH_FORMULA_WEIGHER);
+    emptyFormulaCache = newCache(PATH_FORMULA_WEIGHER);
+
     emptyFormula = delegate.makeEmptyPathFormula();
   }
 
+  private <K, V> Cache<K, V> newCache(Weigher<Object, V> weigher) {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+    if (maximumSize >= 0) {
+      return builder.maximumSize(maximumSize).build();
+    } else if (maximumWeight >= 0) {
+      return builder.maximumWeight(maximumWeight).weigher(weigher).build();
+    } else {
+      return builder.build();
+    }
+  }
+
+  /** Number of calls that were answered from one of the caches. */
+  public int getCacheHits() {
+    return pathFormulaCacheHits;
+  }
+
+  /** Number of calls that could not be answered from one of the caches. */
+  public int getCacheMisses() {
+    return pathFormulaCacheMisses;
+  }
+
+  /** Number of entries that were removed from the caches because of their size limit. */
+  public long getCacheEvictions() {
+    return andFormulaWithConditionsCache.stats().evictionCount()
+        + andFormulaCache.stats().evictionCount()
+        + orFormulaCache.stats().evictionCount()
+        + emptyFormulaCache.stats().evictionCount();
+  }
+
+  /** Number of entries that are currently in the caches. */
+  public long getCacheSize() {
+    return andFormulaWithConditionsCache.size()
+        + andFormulaCache.size()
+        + orFormulaCache.size()
+        + emptyFormulaCache.size();
+  }
+
   @Override
   public Pair<PathFormula, ErrorConditions> makeAndWithErrorConditions(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
 
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
-    Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.get(formulaCacheKey);
+    Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.getIfPresent(formulaCacheKey);
     if (result == null) {
+      pathFormulaCacheMisses++;
       pathFormulaComputationTimer.start();
       // compute new pathFormula with the operation on the edge
       result = delegate.makeAndWithErrorConditions(pOldFormula, pEdge);
@@ -89,8 +181,9 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   @Override
   public PathFormula makeAnd(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
-    PathFormula result = andFormulaCache.get(formulaCacheKey);
+    PathFormula result = andFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
+      pathFormulaCacheMisses++;
       pathFormulaComputationTimer.start();
       // compute new pathFormula with the operation on the edge
       result = delegate.makeAnd(pOldFormula, pEdge);
@@ -107,13 +200,14 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   public PathFormula makeOr(PathFormula pF1, PathFormula pF2) throws InterruptedException {
     final Pair<PathFormula, PathFormula> formulaCacheKey = Pair.of(pF1, pF2);
 
-    PathFormula result = orFormulaCache.get(formulaCacheKey);
+    PathFormula result = orFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
       // try again with other order
-      result = orFormulaCache.get(Pair.of(pF2, pF1));
+      result = orFormulaCache.getIfPresent(Pair.of(pF2, pF1));
     }
 
     if (result == null) {
+      pathFormulaCacheMisses++;
       result = delegate.makeOr(pF1, pF2);
       orFormulaCache.put(formulaCacheKey, result);
     } else {
@@ -132,8 +226,9 @@ public class CachingPathFormulaManager implements PathFormulaManager {
     if (pOldFormula.getFormula() == null) {
       return delegate.makeEmptyPathFormula(pOldFormula);
     }
-    PathFormula result = emptyFormulaCache.get(pOldFormula);
+    PathFormula result = emptyFormulaCache.getIfPresent(pOldFormula);
     if (result == null) {
+      pathFormulaCacheMisses++;
       result = delegate.makeEmptyPathFormula(pOldFormula);
       emptyFormulaCache.put(pOldFormula, result);
     } else {
@@ -0,0 +1,394 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * An immutable map from non-negative int keys to positive int values
+ * without any boxing. It is implemented as a trie over the bits of the key
+ * with 32 children per node, and modifications copy only the path from the
+ * root to the modified leaf, so all other parts are shared with the old trie.
+ *
+ * Keys are expected to be dense (e.g., ids assigned by an interning table),
+ * the trie grows in depth as necessary for the largest key.
+ *
+ * Internally the value 0 means "absent", and subtrees without entries
+ * are always represented by null, which makes equality checks structural.
+ */
+final class PersistentIntTrie {
+
+  /**
+   * Visitor for the differences that are found while merging two tries.
+   */
+  interface DifferenceVisitor {
+    void leftValueOnly(int key, int leftValue);
+    void rightValueOnly(int key, int rightValue);
+    void differingValues(int key, int leftValue, int rightValue);
+  }
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  private static final PersistentIntTrie EMPTY = new PersistentIntTrie(null, 0, 0);
+
+  /** Either null (no entries), an int[] (if shift == 0), or an Object[] of child nodes. */
+  private final Object root;
+
+  /** Number of key bits that are below the root level. */
+  private final int shift;
+
+  private final int size;
+
+  private PersistentIntTrie(Object pRoot, int pShift, int pSize) {
+    root = pRoot;
+    shift = pShift;
+    size = pSize;
+  }
+
+  static PersistentIntTrie of() {
+    return EMPTY;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  private int capacityBits() {
+    return shift + BITS;
+  }
+
+  private boolean inRange(int key) {
+    return capacityBits() >= Integer.SIZE - 1 || key < (1 << capacityBits());
+  }
+
+  /**
+   * Get the value for a key, or 0 if there is no such key.
+   */
+  int get(int key) {
+    if (key < 0 || !inRange(key)) {
+      return 0;
+    }
+    Object node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      if (node == null) {
+        return 0;
+      }
+      node = ((Object[]) node)[(key >>> level) & MASK];
+    }
+    if (node == null) {
+      return 0;
+    }
+    return ((int[]) node)[key & MASK];
+  }
+
+  boolean containsKey(int key) {
+    return get(key) != 0;
+  }
+
+  PersistentIntTrie putAndCopy(int key, int value) {
+    Preconditions.checkArgument(key >= 0, "Negative key %s", key);
+    Preconditions.checkArgument(value > 0, "Only positive values are allowed, got %s", value);
+    int oldValue = get(key);
+    if (oldValue == value) {
+      return this;
+    }
+
+    PersistentIntTrie trie = this;
+    while (!trie.inRange(key)) {
+      trie = trie.grow();
+    }
+    Object newRoot = put(trie.root, trie.shift, key, value);
+    return new PersistentIntTrie(newRoot, trie.shift, oldValue == 0 ? size + 1 : size);
+  }
+
+  private static Object put(Object node, int level, int key, int value) {
+    if (level == 0) {
+      int[] leaf = (node == null) ? new int[WIDTH] : ((int[]) node).clone();
+      leaf[key & MASK] = value;
+      return leaf;
+    }
+    Object[] children = (node == null) ? new Object[WIDTH] : ((Object[]) node).clone();
+    int i = (key >>> level) & MASK;
+    children[i] = put(children[i], level - BITS, key, value);
+    return children;
+  }
+
+  PersistentIntTrie removeAndCopy(int key) {
+    if (get(key) == 0) {
+      return this;
+    }
+    return new PersistentIntTrie(remove(root, shift, key), shift, size - 1);
+  }
+
+  private static Object remove(Object node, int level, int key) {
+    if (level == 0) {
+      int[] leaf = ((int[]) node).clone();
+      leaf[key & MASK] = 0;
+      for (int value : leaf) {
+        if (value != 0) {
+          return leaf;
+        }
+      }
+      return null;
+    }
+    Object[] children = ((Object[]) node).clone();
+    int i = (key >>> level) & MASK;
+    children[i] = remove(children[i], level - BITS, key);
+    for (Object child : children) {
+      if (child != null) {
+        return children;
+      }
+    }
+    return null;
+  }
+
+  /** Return an equal trie with one more level. */
+  private PersistentIntTrie grow() {
+    Object newRoot = null;
+    if (root != null) {
+      Object[] children = new Object[WIDTH];
+      children[0] = root;
+      newRoot = children;
+    }
+    return new PersistentIntTrie(newRoot, shift + BITS, size);
+  }
+
+  private Object rootWithShift(int pShift) {
+    PersistentIntTrie trie = this;
+    while (trie.shift < pShift) {
+      trie = trie.grow();
+    }
+    return trie.root;
+  }
+
+  /**
+   * Return all keys of this trie in ascending order.
+   */
+  int[] keys() {
+    int[] result = new int[size];
+    int count = collectKeys(root, shift, 0, result, 0);
+    assert count == size;
+    return result;
+  }
+
+  private static int collectKeys(Object node, int level, int prefix, int[] result, int count) {
+    if (node == null) {
+      return count;
+    }
+    if (level == 0) {
+      int[] leaf = (int[]) node;
+      for (int i = 0; i < WIDTH; i++) {
+        if (leaf[i] != 0) {
+          result[count++] = prefix | i;
+        }
+      }
+      return count;
+    }
+    Object[] children = (Object[]) node;
+    for (int i = 0; i < WIDTH; i++) {
+      count = collectKeys(children[i], level - BITS, prefix | (i << level), result, count);
+    }
+    return count;
+  }
+
+  /**
+   * Create a trie that contains all keys of both tries.
+   * If a key is present in both tries, the maximum of both values is used.
+   * All keys that are not mapped to the same value in both tries
+   * are reported to the visitor in ascending order.
+   * Subtrees that are shared by both tries are skipped,
+   * and subtrees of the result are shared with the inputs wherever possible.
+   */
+  static PersistentIntTrie mergeWithMaximum(PersistentIntTrie t1, PersistentIntTrie t2,
+      DifferenceVisitor visitor) {
+    if (t1 == t2) {
+      return t1;
+    }
+    int shift = Math.max(t1.shift, t2.shift);
+    Merger merger = new Merger(visitor);
+    Object newRoot = merger.merge(t1.rootWithShift(shift), t2.rootWithShift(shift), shift, 0);
+    return new PersistentIntTrie(newRoot, shift, t1.size + merger.rightOnlyCount);
+  }
+
+  private static final class Merger {
+
+    private final DifferenceVisitor visitor;
+    private int rightOnlyCount = 0;
+
+    private Merger(DifferenceVisitor pVisitor) {
+      visitor = pVisitor;
+    }
+
+    private Object merge(Object node1, Object node2, int level, int prefix) {
+      if (node1 == node2) {
+        return node1;
+      } else if (node2 == null) {
+        visitAll(node1, level, prefix, true);
+        return node1;
+      } else if (node1 == null) {
+        visitAll(node2, level, prefix, false);
+        return node2;
+      }
+
+      if (level == 0) {
+        int[] leaf1 = (int[]) node1;
+        int[] leaf2 = (int[]) node2;
+        int[] result = null;
+        for (int i = 0; i < WIDTH; i++) {
+          int value1 = leaf1[i];
+          int value2 = leaf2[i];
+          if (value1 == value2) {
+            continue;
+          }
+          if (value2 == 0) {
+            visitor.leftValueOnly(prefix | i, value1);
+          } else if (value1 == 0) {
+            visitor.rightValueOnly(prefix | i, value2);
+            rightOnlyCount++;
+          } else {
+            visitor.differingValues(prefix | i, value1, value2);
+          }
+          if (value2 > value1) {
+            if (result == null) {
+              result = leaf1.clone();
+            }
+            result[i] = value2;
+          }
+        }
+        if (result == null) {
+          return leaf1;
+        }
+        return Arrays.equals(result, leaf2) ? leaf2 : result;
+      }
+
+      Object[] children1 = (Object[]) node1;
+      Object[] children2 = (Object[]) node2;
+      Object[] result = null;
+      for (int i = 0; i < WIDTH; i++) {
+        Object child = merge(children1[i], children2[i], level - BITS, prefix | (i << level));
+        if (child != children1[i]) {
+          if (result == null) {
+            result = children1.clone();
+          }
+          result[i] = child;
+        }
+      }
+      if (result == null) {
+        return children1;
+      }
+      for (int i = 0; i < WIDTH; i++) {
+        if (result[i] != children2[i]) {
+          return result;
+        }
+      }
+      return children2;
+    }
+
+    private void visitAll(Object node, int level, int prefix, boolean left) {
+      if (node == null) {
+        return;
+      }
+      if (level == 0) {
+        int[] leaf = (int[]) node;
+        for (int i = 0; i < WIDTH; i++) {
+          if (leaf[i] != 0) {
+            if (left) {
+              visitor.leftValueOnly(prefix | i, leaf[i]);
+            } else {
+              visitor.rightValueOnly(prefix | i, leaf[i]);
+              rightOnlyCount++;
+            }
+          }
+        }
+        return;
+      }
+      Object[] children = (Object[]) node;
+      for (int i = 0; i < WIDTH; i++) {
+        visitAll(children[i], level - BITS, prefix | (i << level), left);
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(Object pObj) {
+    if (this == pObj) {
+      return true;
+    } else if (!(pObj instanceof PersistentIntTrie)) {
+      return false;
+    }
+    PersistentIntTrie other = (PersistentIntTrie) pObj;
+    if (size != other.size) {
+      return false;
+    }
+    int commonShift = Math.max(shift, other.shift);
+    return nodesEqual(rootWithShift(commonShift), other.rootWithShift(commonShift), commonShift);
+  }
+
+  private static boolean nodesEqual(Object node1, Object node2, int level) {
+    if (node1 == node2) {
+      return true;
+    } else if (node1 == null || node2 == null) {
+      return false;
+    } else if (level == 0) {
+      return Arrays.equals((int[]) node1, (int[]) node2);
+    }
+    Object[] children1 = (Object[]) node1;
+    Object[] children2 = (Object[]) node2;
+    for (int i = 0; i < WIDTH; i++) {
+      if (!nodesEqual(children1[i], children2[i], level - BITS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int key : keys()) {
+      hashCode += key ^ get(key);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int key : keys()) {
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(key).append('=').append(get(key));
+    }
+    return sb.append('}').toString();
+  }
+}
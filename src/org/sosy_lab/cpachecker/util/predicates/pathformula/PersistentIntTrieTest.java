@@ -0,0 +1,112 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.primitives.Ints;
+
+public class PersistentIntTrieTest {
+
+  private static class CollectingVisitor implements PersistentIntTrie.DifferenceVisitor {
+
+    private final List<String> differences = new ArrayList<>();
+
+    @Override
+    public void leftValueOnly(int pKey, int pLeftValue) {
+      differences.add(pKey + ":" + pLeftValue + "/-");
+    }
+
+    @Override
+    public void rightValueOnly(int pKey, int pRightValue) {
+      differences.add(pKey + ":-/" + pRightValue);
+    }
+
+    @Override
+    public void differingValues(int pKey, int pLeftValue, int pRightValue) {
+      differences.add(pKey + ":" + pLeftValue + "/" + pRightValue);
+    }
+  }
+
+  @Test
+  public void testPutAndGet() {
+    PersistentIntTrie trie = PersistentIntTrie.of();
+    PersistentIntTrie trie1 = trie.putAndCopy(3, 7).putAndCopy(5000, 2);
+
+    assertThat(trie.isEmpty()).isTrue();
+    assertThat(trie1.size()).isEqualTo(2);
+    assertThat(trie1.get(3)).isEqualTo(7);
+    assertThat(trie1.get(5000)).isEqualTo(2);
+    assertThat(trie1.get(4)).isEqualTo(0);
+    assertThat(trie1.get(1 << 20)).isEqualTo(0);
+    assertThat(Ints.asList(trie1.keys())).containsExactly(3, 5000).inOrder();
+
+    PersistentIntTrie trie2 = trie1.putAndCopy(3, 8);
+    assertThat(trie2.size()).isEqualTo(2);
+    assertThat(trie2.get(3)).isEqualTo(8);
+    assertThat(trie1.get(3)).isEqualTo(7);
+  }
+
+  @Test
+  public void testRemoveAndEquals() {
+    PersistentIntTrie trie1 = PersistentIntTrie.of().putAndCopy(1, 1);
+    PersistentIntTrie trie2 = trie1.putAndCopy(100000, 4).removeAndCopy(100000);
+
+    assertThat(trie2.size()).isEqualTo(1);
+    assertThat(trie2).isEqualTo(trie1);
+    assertThat(trie2.hashCode()).isEqualTo(trie1.hashCode());
+    assertThat(trie2.removeAndCopy(1)).isEqualTo(PersistentIntTrie.of());
+  }
+
+  @Test
+  public void testMerge() {
+    PersistentIntTrie base = PersistentIntTrie.of().putAndCopy(0, 1).putAndCopy(40, 1);
+    PersistentIntTrie left = base.putAndCopy(0, 3).putAndCopy(2, 1);
+    PersistentIntTrie right = base.putAndCopy(0, 2).putAndCopy(40, 5).putAndCopy(2000, 1);
+
+    CollectingVisitor visitor = new CollectingVisitor();
+    PersistentIntTrie merged = PersistentIntTrie.mergeWithMaximum(left, right, visitor);
+
+    assertThat(visitor.differences).containsExactly("0:3/2", "2:1/-", "40:1/5", "2000:-/1").inOrder();
+    assertThat(merged.size()).isEqualTo(4);
+    assertThat(merged.get(0)).isEqualTo(3);
+    assertThat(merged.get(2)).isEqualTo(1);
+    assertThat(merged.get(40)).isEqualTo(5);
+    assertThat(merged.get(2000)).isEqualTo(1);
+  }
+
+  @Test
+  public void testMergeIdentical() {
+    PersistentIntTrie trie = PersistentIntTrie.of().putAndCopy(7, 1);
+    CollectingVisitor visitor = new CollectingVisitor();
+
+    assertThat(PersistentIntTrie.mergeWithMaximum(trie, trie, visitor)).isSameAs(trie);
+    assertThat(visitor.differences).isEmpty();
+  }
+}
@@ -23,11 +23,18 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.pathformula;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.sosy_lab.common.collect.Collections3;
 import org.sosy_lab.common.collect.MapsDifference;
@@ -43,18 +50,69 @@ import org.sosy_lab.cpachecker.cfa.types.c.CPointerType;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cfa.types.c.CTypes;
 
-import com.google.common.base.Equivalence;
-import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSortedMap;
 
 /**
  * Maps a variable name to its latest "SSA index", that should be used when
  * referring to that variable.
+ *
+ * Internally, variable names are interned to dense int ids
+ * and the indices are stored in a {@link PersistentIntTrie} keyed by these ids,
+ * such that lookups, updates and merges need neither string comparisons
+ * nor boxed integers.
  */
 public class SSAMap implements Serializable {
 
   private static final long serialVersionUID = 7618801653203679876L;
 
+  /*
+   * Global table of variable ids. It only grows, which is fine because the
+   * number of variable names is bounded by the analyzed program.
+   * Reads are lock-free, new ids are created while holding the lock of variableIds.
+   * The ids depend on the order in which variables are first seen in this process,
+   * so they must never become visible outside of this class:
+   * everything that is iterated or serialized uses the variable names.
+   */
+  private static final ConcurrentMap<String, Integer> variableIds = new ConcurrentHashMap<>();
+  private static volatile String[] variableNames = new String[1024];
+  private static int nextVariableId = 0;
+
+  private static int getOrCreateVariableId(String name) {
+    Integer id = variableIds.get(name);
+    if (id != null) {
+      return id;
+    }
+    synchronized (variableIds) {
+      id = variableIds.get(name);
+      if (id != null) {
+        return id;
+      }
+      int newId = nextVariableId++;
+      String[] names = variableNames;
+      if (newId >= names.length) {
+        names = Arrays.copyOf(names, 2 * names.length);
+      }
+      names[newId] = name;
+      variableNames = names;
+      variableIds.put(name, newId);
+      return newId;
+    }
+  }
+
+  /**
+   * Returns the id of a variable, or -1 if the variable was never put into any SSAMap
+   * (in which case it cannot be contained in any SSAMap).
+   */
+  private static int getVariableId(String name) {
+    Integer id = variableIds.get(name);
+    return (id == null) ? -1 : id;
+  }
+
+  private static String getVariableName(int id) {
+    return variableNames[id];
+  }
+
   // Default value for the default value
   private static final int DEFAULT_DEFAULT_IDX = -1;
 
@@ -93,7 +151,7 @@ public class SSAMap implements Serializable {
   public static class SSAMapBuilder {
 
     private SSAMap ssa;
-    private PersistentSortedMap<String, Integer> vars; // Do not update without updating varsHashCode!
+    private PersistentIntTrie vars; // Do not update without updating varsHashCode!
     private FreshValueProvider freshValueProvider;
     private PersistentSortedMap<String, CType> varTypes;
 
@@ -137,7 +195,7 @@ public class SSAMap implements Serializable {
       }
 
       if (idx > oldIdx || idx == ssa.defaultValue) {
-        vars = vars.putAndCopy(name, idx);
+        vars = vars.putAndCopy(getOrCreateVariableId(name), idx);
         if (oldIdx != ssa.defaultValue) {
           varsHashCode -= mapEntryHashCode(name, oldIdx);
         }
@@ -154,7 +212,7 @@ public class SSAMap implements Serializable {
     public SSAMapBuilder deleteVariable(String variable) {
       int index = getIndex(variable);
       if (index != ssa.defaultValue) {
-        vars = vars.removeAndCopy(variable);
+        vars = vars.removeAndCopy(getVariableId(variable));
         varsHashCode -= mapEntryHashCode(variable, index);
 
         varTypes = varTypes.removeAndCopy(variable);
@@ -193,7 +251,7 @@ public class SSAMap implements Serializable {
   }
 
   private static final SSAMap EMPTY_SSA_MAP = new SSAMap(
-      PathCopyingPersistentTreeMap.<String, Integer>of(),
+      PersistentIntTrie.of(),
       new FreshValueProvider.DefaultFreshValueProvider(),
       0,
       PathCopyingPersistentTreeMap.<String, CType>of());
@@ -213,7 +271,8 @@ public class SSAMap implements Serializable {
    * Creates an unmodifiable SSAMap that contains all indices from two SSAMaps.
    * If there are conflicting indices, the maximum of both is used.
    * Further returns a list with all variables for which different indices
-   * were found, together with the two conflicting indices.
+   * were found, together with the two conflicting indices,
+   * in the order of the variable names.
    */
   public static SSAMap merge(
       SSAMap s1, SSAMap s2, MapsDifference.Visitor<String, Integer> collectDifferences) {
@@ -224,20 +283,18 @@ public class SSAMap implements Serializable {
     // We don't bother checking the vars set for emptiness, because this will
     // probably never be the case on a merge.
 
-    PersistentSortedMap<String, Integer> vars;
+    PersistentIntTrie vars;
     FreshValueProvider freshValueProvider;
+    int varsHashCode;
     if (s1.vars == s2.vars && s1.freshValueProvider == s2.freshValueProvider) {
       // both are absolutely identical
       return s1;
 
     } else {
-      vars =
-          PersistentSortedMaps.merge(
-              s1.vars,
-              s2.vars,
-              Equivalence.equals(),
-              PersistentSortedMaps.<String, Integer>getMaximumMergeConflictHandler(),
-              collectDifferences);
+      MergeVisitor visitor = new MergeVisitor(collectDifferences, s1.varsHashCode);
+      vars = PersistentIntTrie.mergeWithMaximum(s1.vars, s2.vars, visitor);
+      varsHashCode = visitor.varsHashCode;
+      visitor.reportDifferences();
       freshValueProvider = s1.freshValueProvider.merge(s2.freshValueProvider);
     }
 
@@ -249,17 +306,80 @@ public class SSAMap implements Serializable {
             TYPE_CONFLICT_CHECKER,
             MapsDifference.ignoreMapsDifference());
 
-    return new SSAMap(vars, freshValueProvider, 0, varTypes);
+    return new SSAMap(vars, freshValueProvider, varsHashCode, varTypes);
   }
 
-  private final PersistentSortedMap<String, Integer> vars;
+  /**
+   * Translates the differences found by {@link PersistentIntTrie#mergeWithMaximum}
+   * back to variable names, and updates the hash code of the left map
+   * to the hash code of the merged map.
+   *
+   * The trie reports differences in the order of variable ids,
+   * which depends on the order in which variables were first seen by any SSAMap.
+   * Thus the differences are buffered and passed on in the order of variable names
+   * by {@link #reportDifferences()}, such that the result of a merge does not depend
+   * on what was analyzed before.
+   */
+  private static final class MergeVisitor implements PersistentIntTrie.DifferenceVisitor {
+
+    private final MapsDifference.Visitor<String, Integer> delegate;
+    private final SortedMap<String, int[]> differences = new TreeMap<>();
+    private int varsHashCode;
+
+    private MergeVisitor(MapsDifference.Visitor<String, Integer> pDelegate, int pLeftHashCode) {
+      delegate = pDelegate;
+      varsHashCode = pLeftHashCode;
+    }
+
+    @Override
+    public void leftValueOnly(int pKey, int pLeftValue) {
+      differences.put(getVariableName(pKey), new int[] {pLeftValue, 0});
+    }
+
+    @Override
+    public void rightValueOnly(int pKey, int pRightValue) {
+      String name = getVariableName(pKey);
+      varsHashCode += SSAMapBuilder.mapEntryHashCode(name, pRightValue);
+      differences.put(name, new int[] {0, pRightValue});
+    }
+
+    @Override
+    public void differingValues(int pKey, int pLeftValue, int pRightValue) {
+      String name = getVariableName(pKey);
+      if (pRightValue > pLeftValue) {
+        varsHashCode -= SSAMapBuilder.mapEntryHashCode(name, pLeftValue);
+        varsHashCode += SSAMapBuilder.mapEntryHashCode(name, pRightValue);
+      }
+      differences.put(name, new int[] {pLeftValue, pRightValue});
+    }
+
+    /**
+     * Pass all collected differences to the delegate, sorted by variable name.
+     * Indices are always positive, so 0 marks a missing value.
+     */
+    private void reportDifferences() {
+      for (Map.Entry<String, int[]> entry : differences.entrySet()) {
+        int leftValue = entry.getValue()[0];
+        int rightValue = entry.getValue()[1];
+        if (rightValue == 0) {
+          delegate.leftValueOnly(entry.getKey(), leftValue);
+        } else if (leftValue == 0) {
+          delegate.rightValueOnly(entry.getKey(), rightValue);
+        } else {
+          delegate.differingValues(entry.getKey(), leftValue, rightValue);
+        }
+      }
+    }
+  }
+
+  private final transient PersistentIntTrie vars;
   private final FreshValueProvider freshValueProvider;
   private final PersistentSortedMap<String, CType> varTypes;
 
   // Cache hashCode of potentially big map
   private final int varsHashCode;
 
-  private SSAMap(PersistentSortedMap<String, Integer> vars,
+  private SSAMap(PersistentIntTrie vars,
                  FreshValueProvider freshValueProvider,
                  int varsHashCode,
                  PersistentSortedMap<String, CType> varTypes,
@@ -269,16 +389,28 @@ public class SSAMap implements Serializable {
     this.varTypes = varTypes;
 
     if (varsHashCode == 0) {
-      this.varsHashCode = vars.hashCode();
+      this.varsHashCode = computeVarsHashCode(vars);
     } else {
       this.varsHashCode = varsHashCode;
-      assert varsHashCode == vars.hashCode();
+      assert varsHashCode == computeVarsHashCode(vars);
     }
 
     defaultValue = defaultSSAIdx;
   }
 
-  private SSAMap(PersistentSortedMap<String, Integer> vars,
+  /**
+   * Compute the hash code that a Map<String, Integer> with the same content
+   * as the given trie would have.
+   */
+  private static int computeVarsHashCode(PersistentIntTrie vars) {
+    int hashCode = 0;
+    for (int id : vars.keys()) {
+      hashCode += SSAMapBuilder.mapEntryHashCode(getVariableName(id), vars.get(id));
+    }
+    return hashCode;
+  }
+
+  private SSAMap(PersistentIntTrie vars,
                  FreshValueProvider freshValueProvider,
                  int varsHashCode,
                  PersistentSortedMap<String, CType> varTypes) {
@@ -292,9 +424,13 @@ public class SSAMap implements Serializable {
     return new SSAMapBuilder(this);
   }
 
-  private static int getIndex(String variable, Map<String, Integer> vars, int defaultValue) {
-    Integer value = vars.get(variable);
-    if (value == null) {
+  private static int getIndex(String variable, PersistentIntTrie vars, int defaultValue) {
+    int id = getVariableId(variable);
+    if (id < 0) {
+      return defaultValue;
+    }
+    int value = vars.get(id);
+    if (value == 0) {
       return defaultValue;
     }
     return value;
@@ -309,7 +445,8 @@ public class SSAMap implements Serializable {
   }
 
   public boolean containsVariable(String variable) {
-    return vars.containsKey(variable);
+    int id = getVariableId(variable);
+    return id >= 0 && vars.containsKey(id);
   }
 
   public CType getType(String name) {
@@ -317,14 +454,21 @@ public class SSAMap implements Serializable {
   }
 
   public SortedSet<String> allVariables() {
-    return vars.keySet();
+    // Every variable with an index also has a type and vice versa,
+    // so we can use the sorted key set of varTypes.
+    return varTypes.keySet();
   }
 
-  private static final Joiner joiner = Joiner.on(" ");
-
   @Override
   public String toString() {
-    return joiner.join(vars.entrySet());
+    StringBuilder sb = new StringBuilder();
+    for (String variable : varTypes.keySet()) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      sb.append(variable).append('=').append(getIndex(variable));
+    }
+    return sb.toString();
   }
 
   @Override
@@ -346,4 +490,46 @@ public class SSAMap implements Serializable {
           && freshValueProvider.equals(other.freshValueProvider);
     }
   }
+
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * Variable ids are only valid within one run,
+   * so the serialized form contains the variable names.
+   */
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -3291364519482370563L;
+
+    private final Map<String, Integer> vars;
+    private final FreshValueProvider freshValueProvider;
+    private final Map<String, CType> varTypes;
+    private final int defaultValue;
+
+    private SerializationProxy(SSAMap pSsa) {
+      ImmutableSortedMap.Builder<String, Integer> builder = ImmutableSortedMap.naturalOrder();
+      for (int id : pSsa.vars.keys()) {
+        builder.put(getVariableName(id), pSsa.vars.get(id));
+      }
+      vars = builder.build();
+      freshValueProvider = pSsa.freshValueProvider;
+      varTypes = ImmutableSortedMap.copyOfSorted(pSsa.varTypes);
+      defaultValue = pSsa.defaultValue;
+    }
+
+    private Object readResolve() {
+      PersistentIntTrie newVars = PersistentIntTrie.of();
+      for (Map.Entry<String, Integer> entry : vars.entrySet()) {
+        newVars = newVars.putAndCopy(getOrCreateVariableId(entry.getKey()), entry.getValue());
+      }
+      return new SSAMap(newVars, freshValueProvider, 0,
+          PathCopyingPersistentTreeMap.copyOf(varTypes), defaultValue);
+    }
+  }
 }
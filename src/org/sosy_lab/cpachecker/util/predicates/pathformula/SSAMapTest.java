@@ -0,0 +1,64 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.common.collect.MapsDifference.collectMapsDifferenceTo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.common.collect.MapsDifference;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+
+public class SSAMapTest {
+
+  @Test
+  public void testMergeReportsDifferencesInNameOrder() {
+    // Create the variables in reverse order of their names,
+    // such that their internal ids are ordered differently.
+    SSAMap s1 = SSAMap.emptySSAMap().builder()
+        .setIndex("SSAMapTest::z", CNumericTypes.INT, 1)
+        .setIndex("SSAMapTest::x", CNumericTypes.INT, 2)
+        .build();
+    SSAMap s2 = SSAMap.emptySSAMap().builder()
+        .setIndex("SSAMapTest::y", CNumericTypes.INT, 1)
+        .setIndex("SSAMapTest::x", CNumericTypes.INT, 3)
+        .build();
+
+    List<MapsDifference.Entry<String, Integer>> differences = new ArrayList<>();
+    SSAMap merged = SSAMap.merge(s1, s2, collectMapsDifferenceTo(differences));
+
+    List<String> names = new ArrayList<>();
+    for (MapsDifference.Entry<String, Integer> difference : differences) {
+      names.add(difference.getKey());
+    }
+    assertThat(names).containsExactly("SSAMapTest::x", "SSAMapTest::y", "SSAMapTest::z").inOrder();
+
+    assertThat(merged.getIndex("SSAMapTest::x")).isEqualTo(3);
+    assertThat(merged.getIndex("SSAMapTest::y")).isEqualTo(1);
+    assertThat(merged.getIndex("SSAMapTest::z")).isEqualTo(1);
+  }
+}
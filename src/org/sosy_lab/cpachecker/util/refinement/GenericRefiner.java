@@ -24,9 +24,11 @@
 package org.sosy_lab.cpachecker.util.refinement;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.configuration.Configuration;
@@ -40,6 +42,7 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.CounterexampleInfo;
 import org.sosy_lab.cpachecker.core.counterexample.RichModel;
 import org.sosy_lab.cpachecker.core.defaults.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Refiner;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
@@ -221,7 +224,11 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     InterpolationTree<S, I> interpolationTree = createInterpolationTree(pTargetPaths);
 
     while (interpolationTree.hasNextPathForInterpolation()) {
-      performPathInterpolation(interpolationTree);
+      performPathInterpolations(interpolationTree);
+
+      if (interpolationTreeExportFile != null && exportInterpolationTree.equals("ALWAYS")) {
+        interpolationTree.exportToDot(interpolationTreeExportFile, refinementCounter.getValue());
+      }
     }
 
     if (interpolationTreeExportFile != null && exportInterpolationTree.equals("FINAL")
@@ -239,8 +246,14 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     return new InterpolationTree<>(interpolantManager, logger, targets, true);
   }
 
-  private void performPathInterpolation(InterpolationTree<S, I> interpolationTree) throws CPAException,
-      InterruptedException {
+  /**
+   * This method interpolates the next path(s) of the given interpolation tree
+   * and adds the interpolants to the tree.
+   * Subclasses may override this to interpolate several independent paths at once,
+   * cf. {@link InterpolationTree#getNextPathsForInterpolation()}.
+   */
+  protected void performPathInterpolations(InterpolationTree<S, I> interpolationTree)
+      throws CPAException, InterruptedException {
     ARGPath errorPath = interpolationTree.getNextPathForInterpolation();
 
     if (errorPath == InterpolationTree.EMPTY_PATH) {
@@ -251,7 +264,27 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
 
     I initialItp = interpolationTree.getInitialInterpolantForPath(errorPath);
 
-    if (isInitialInterpolantTooWeak(interpolationTree.getRoot(), initialItp, errorPath)) {
+    interpolationTree.addInterpolants(
+        interpolatePath(errorPath, initialItp, interpolationTree.getRoot(), checker, interpolator));
+  }
+
+  /**
+   * This method interpolates a single path of an interpolation tree.
+   * It does not access the tree or any other state of this refiner,
+   * so it can be called concurrently with different feasibility checkers and interpolators.
+   *
+   * @param errorPath the path to interpolate, not {@link InterpolationTree#EMPTY_PATH}
+   * @param initialItp the initial interpolant for the path
+   * @param root the root of the interpolation tree
+   * @param pChecker the feasibility checker to use
+   * @param pInterpolator the path interpolator to use
+   * @return the interpolants for the states of the path
+   */
+  protected final Map<ARGState, I> interpolatePath(ARGPath errorPath, I initialItp, ARGState root,
+      FeasibilityChecker<S> pChecker, PathInterpolator<I> pInterpolator)
+      throws CPAException, InterruptedException {
+
+    if (isInitialInterpolantTooWeak(root, initialItp, errorPath, pChecker)) {
       errorPath = ARGUtils.getOnePathTo(errorPath.getLastState());
       initialItp = interpolantManager.createInitialInterpolant();
     }
@@ -259,14 +292,11 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     logger.log(Level.FINEST, "performing interpolation, starting at ", errorPath.getFirstState().getStateId(),
         ", using interpolant ", initialItp);
 
-    interpolationTree.addInterpolants(interpolator.performInterpolation(errorPath, initialItp));
-
-    if (interpolationTreeExportFile != null && exportInterpolationTree.equals("ALWAYS")) {
-      interpolationTree.exportToDot(interpolationTreeExportFile, refinementCounter.getValue());
-    }
+    return pInterpolator.performInterpolation(errorPath, initialItp);
   }
 
-  private boolean isInitialInterpolantTooWeak(ARGState root, Interpolant<S> initialItp, ARGPath errorPath)
+  private static <S extends AbstractState> boolean isInitialInterpolantTooWeak(ARGState root,
+      Interpolant<S> initialItp, ARGPath errorPath, FeasibilityChecker<S> pChecker)
       throws CPAException, InterruptedException {
 
     // if the first state of the error path is the root, the interpolant cannot be to weak
@@ -275,18 +305,21 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     }
 
     // for all other cases, check if the path is feasible when using the interpolant as initial state
-    return checker.isFeasible(errorPath, initialItp.reconstructState());
+    return pChecker.isFeasible(errorPath, initialItp.reconstructState());
   }
 
   private CounterexampleInfo isAnyPathFeasible(
       final ARGReachedSet pReached,
-      final Collection<ARGPath> pErrorPaths
+      final List<ARGPath> pErrorPaths
   ) throws CPAException, InterruptedException {
 
+    List<Boolean> feasibility = checkFeasibility(pErrorPaths);
+
     ARGPath feasiblePath = null;
-    for (ARGPath currentPath : pErrorPaths) {
+    for (int i = 0; i < pErrorPaths.size(); i++) {
+      ARGPath currentPath = pErrorPaths.get(i);
 
-      if (isErrorPathFeasible(currentPath)) {
+      if (feasibility.get(i)) {
         if(feasiblePath == null) {
           previousErrorPathId = obtainErrorPathId(currentPath);
           feasiblePath = currentPath;
@@ -313,6 +346,21 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     return CounterexampleInfo.spurious();
   }
 
+  /**
+   * This method checks the feasibility of each of the given error paths.
+   * Subclasses may override this to check several paths concurrently.
+   *
+   * @return whether the error path at the same index is feasible
+   */
+  protected List<Boolean> checkFeasibility(final List<ARGPath> pErrorPaths)
+      throws CPAException, InterruptedException {
+    List<Boolean> result = new ArrayList<>(pErrorPaths.size());
+    for (ARGPath errorPath : pErrorPaths) {
+      result.add(isErrorPathFeasible(errorPath));
+    }
+    return result;
+  }
+
   public boolean isErrorPathFeasible(final ARGPath errorPath)
       throws CPAException, InterruptedException {
     return checker.isFeasible(errorPath);
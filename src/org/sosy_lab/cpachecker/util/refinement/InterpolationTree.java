@@ -271,6 +271,20 @@ public class InterpolationTree<S extends AbstractState, I extends Interpolant<S>
     return strategy.getNextPathForInterpolation();
   }
 
+  /**
+   * This method returns the next error paths for interpolation that are independent of each other,
+   * i.e., the initial interpolant of each path is already known,
+   * and the interpolants of one path are not needed for any other of the paths.
+   * Thus these paths can be interpolated in any order (or concurrently),
+   * before their interpolants are added to the tree.
+   * The list may contain {@link #EMPTY_PATH}.
+   *
+   * @return the next error paths for subsequent interpolations, not empty
+   */
+  public List<ARGPath> getNextPathsForInterpolation() {
+    return strategy.getNextPathsForInterpolation();
+  }
+
   /**
    * This method returns the interpolant to be used for interpolation of the given path.
    *
@@ -498,6 +512,8 @@ public class InterpolationTree<S extends AbstractState, I extends Interpolant<S>
 
     ARGPath getNextPathForInterpolation();
 
+    List<ARGPath> getNextPathsForInterpolation();
+
     boolean hasNextPathForInterpolation();
 
     I getInitialInterpolantForRoot(ARGState root);
@@ -512,9 +528,29 @@ public class InterpolationTree<S extends AbstractState, I extends Interpolant<S>
 
     @Override
     public ARGPath getNextPathForInterpolation() {
-      ARGPathBuilder errorPathBuilder = ARGPath.builder();
+      return getPathFrom(sources.pop());
+    }
 
-      ARGState current = sources.pop();
+    /**
+     * All current sources start below a state whose interpolant is already known,
+     * and their subtrees are disjoint, so their paths are independent.
+     * The sources that are pushed while building these paths
+     * depend on the interpolants of these paths and are left for the next call.
+     */
+    @Override
+    public List<ARGPath> getNextPathsForInterpolation() {
+      List<ARGState> currentSources = new ArrayList<>(sources);
+      sources.clear();
+
+      List<ARGPath> paths = new ArrayList<>(currentSources.size());
+      for (ARGState current : currentSources) {
+        paths.add(getPathFrom(current));
+      }
+      return paths;
+    }
+
+    private ARGPath getPathFrom(ARGState current) {
+      ARGPathBuilder errorPathBuilder = ARGPath.builder();
 
       if (!isValidInterpolationRoot(predecessorRelation.get(current))) {
         logger.log(Level.FINEST, "interpolant of predecessor of ", current.getStateId(), " is already false, so return empty path");
@@ -614,6 +650,15 @@ public class InterpolationTree<S extends AbstractState, I extends Interpolant<S>
       return errorPathBuilder.build(current);
     }
 
+    /**
+     * Later paths can be skipped if an earlier path yields a false interpolant on their way,
+     * so only one path is returned at a time.
+     */
+    @Override
+    public List<ARGPath> getNextPathsForInterpolation() {
+      return Collections.singletonList(getNextPathForInterpolation());
+    }
+
     @Override
     public I getInitialInterpolantForRoot(ARGState root) {
       return interpolantManager.createInitialInterpolant();
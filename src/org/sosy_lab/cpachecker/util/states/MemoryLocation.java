@@ -34,6 +34,8 @@ import org.sosy_lab.common.collect.PersistentMap;
 
 import com.google.common.base.Function;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.primitives.Longs;
 
 /**
@@ -42,10 +44,16 @@ import com.google.common.primitives.Longs;
 public class MemoryLocation implements Comparable<MemoryLocation>, Serializable {
 
   private static final long serialVersionUID = -8910967707373729034L;
+
+  private static final Interner<MemoryLocation> INTERNER = Interners.newWeakInterner();
+
   private final String functionName;
   private final String identifier;
   private final long offset;
 
+  /** cached hash code, 0 if not yet computed */
+  private transient int hashCache = 0;
+
   /**
    * This function can be used to {@link com.google.common.collect.Iterables#transform transform}
    * a collection of {@link String}s to a collection of {@link MemoryLocation}s, representing the
@@ -117,6 +125,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int hashCode() {
+    if (hashCache != 0) {
+      return hashCache;
+    }
 
     int hc = 17;
     int hashMultiplier = 59;
@@ -125,9 +136,20 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     hc = hc * hashMultiplier + identifier.hashCode();
     hc = hc * hashMultiplier + Longs.hashCode(offset);
 
+    hashCache = hc;
     return hc;
   }
 
+  /**
+   * Returns the canonical representation of this memory location,
+   * such that equal memory locations can share the same object.
+   * The canonical objects are kept in a weak table, i.e., they are garbage collected
+   * when they are no longer used.
+   */
+  public MemoryLocation intern() {
+    return INTERNER.intern(this);
+  }
+
   public static MemoryLocation valueOf(String pIdentifier, long pOffest) {
     return new MemoryLocation(pIdentifier, pOffest);
   }
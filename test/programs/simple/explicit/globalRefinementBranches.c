@@ -0,0 +1,40 @@
+/*
+ * This is a test for the concurrent global refinement of the value analysis,
+ * which has several infeasible error paths that share prefixes.
+ * tested by cpa.value.refiner.ValueAnalysisGlobalRefinerTest
+ */
+extern int __VERIFIER_nondet_int();
+
+void error()
+{
+	ERROR: goto ERROR;
+}
+
+int main()
+{
+	int a = 0;
+	int b = 0;
+	int c = 0;
+	int x = __VERIFIER_nondet_int();
+	int y = __VERIFIER_nondet_int();
+
+	if (x) {
+		a = 1;
+	} else {
+		b = 1;
+	}
+	if (y) {
+		c = 1;
+	}
+
+	if (a && b) {
+		error();
+	}
+	if (a + b != 1) {
+		error();
+	}
+	if (c > 1) {
+		error();
+	}
+	return 0;
+}